@@ -35,5 +35,20 @@ public interface BalanceLoader {
      * @return initial balance for the key, or 0 if not found
      */
     long load(String key);
+
+    /**
+     * Load initial balance for a numeric key of a {@link LongOrbitLedger}.
+     * <p>
+     * Defaults to {@link #load(String)} with the decimal form of the key.
+     * Override it to look numeric keys up without creating a String.
+     * </p>
+     *
+     * @param key the numeric account/entity key
+     * @return initial balance for the key, or 0 if not found
+     * @since 1.4.0
+     */
+    default long load(long key) {
+        return load(Long.toString(key));
+    }
 }
 
@@ -0,0 +1,17 @@
+package io.orbit.ledger.api;
+
+import io.orbit.ledger.model.ImportProgress;
+
+/**
+ * Listener for bulk import progress.
+ * <p>
+ * Called on the importing thread after every window of the file has been
+ * published, so it should return quickly.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+@FunctionalInterface
+public interface ImportProgressListener {
+    void onProgress(ImportProgress progress);
+}
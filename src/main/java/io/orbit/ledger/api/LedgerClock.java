@@ -0,0 +1,59 @@
+package io.orbit.ledger.api;
+
+import io.orbit.ledger.core.CoarseLedgerClock;
+import io.orbit.ledger.core.ManualLedgerClock;
+
+import java.time.Duration;
+
+/**
+ * Source of the publish timestamp stored in every {@code LedgerEvent}.
+ * <p>
+ * Read once per published event on the producer thread, so it must be
+ * thread-safe and cheap.
+ * </p>
+ *
+ * <h2>Example Usage</h2>
+ *
+ * <pre>{@code
+ * OrbitLedger ledger = OrbitLedger.builder()
+ *         .clock(LedgerClock.coarse(Duration.ofMillis(1)))
+ *         .build();
+ * }</pre>
+ *
+ * @since 1.4.0
+ */
+@FunctionalInterface
+public interface LedgerClock {
+
+    /**
+     * The system clock: {@code System.currentTimeMillis()} per event (default).
+     */
+    LedgerClock SYSTEM = System::currentTimeMillis;
+
+    /**
+     * Returns the current time in epoch milliseconds.
+     */
+    long millis();
+
+    /**
+     * Returns a clock cached by a daemon ticker thread.
+     * <p>
+     * Timestamps lag the system clock by at most {@code resolution}.
+     * Call {@link CoarseLedgerClock#close()} to stop the ticker.
+     * </p>
+     *
+     * @param resolution tick interval, at least 1 ms
+     */
+    static CoarseLedgerClock coarse(Duration resolution) {
+        return new CoarseLedgerClock(resolution);
+    }
+
+    /**
+     * Returns a clock that only moves when told to, for replay and tests.
+     *
+     * @param startMillis initial time in epoch milliseconds
+     */
+    static ManualLedgerClock manual(long startMillis) {
+        return new ManualLedgerClock(startMillis);
+    }
+}
@@ -0,0 +1,122 @@
+package io.orbit.ledger.api;
+
+import io.orbit.ledger.enums.LedgerType;
+import io.orbit.ledger.model.OrbitRelease;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Ledger API keyed by primitive {@code long} account ids.
+ * <p>
+ * Same engine and semantics as {@link OrbitLedger}, without a String key:
+ * no {@code Long.toString} per publish, no String hashing and no boxed map
+ * lookups on the workers. Releases carry the id in
+ * {@link OrbitRelease#numericKey()}; {@link OrbitRelease#key()} holds its
+ * decimal form, built once per release.
+ * </p>
+ *
+ * <pre>{@code
+ * LongOrbitLedger ledger = OrbitLedger.builder()
+ *         .onRelease(release -> db.update(release.numericKey(), release.runningBalance()))
+ *         .buildLong();
+ * ledger.start();
+ * ledger.credit(42L, 1_000);
+ * }</pre>
+ *
+ * @since 1.4.0
+ */
+public interface LongOrbitLedger {
+
+    /**
+     * Starts the engine and prepares it for processing.
+     */
+    void start();
+
+    /**
+     * Shuts down the engine and releases resources.
+     */
+    void shutdown();
+
+    /**
+     * Submits a CREDIT event to the ledger.
+     *
+     * @param key    the numeric account/entity key
+     * @param amount the amount to credit (must be positive)
+     */
+    void credit(long key, long amount);
+
+    /**
+     * Submits a DEBIT event to the ledger.
+     *
+     * @param key    the numeric account/entity key
+     * @param amount the amount to debit (must be positive)
+     */
+    void debit(long key, long amount);
+
+    /**
+     * Submits a batch of CREDIT/DEBIT events in column form.
+     * <p>
+     * Events {@code offset .. offset + length - 1} are published in array order
+     * with one ring claim per ring (per ring-sized chunk).
+     * </p>
+     *
+     * @param keys    the numeric account/entity keys
+     * @param amounts the amounts (must be positive)
+     * @param types   {@code CREDIT} or {@code DEBIT} for each event
+     * @param offset  index of the first event to publish
+     * @param length  number of events to publish
+     * @throws IndexOutOfBoundsException if the range does not fit any of the arrays
+     * @throws IllegalArgumentException  if a type is not CREDIT or DEBIT
+     * @since 1.4.0
+     */
+    void publishBatch(long[] keys, long[] amounts, LedgerType[] types, int offset, int length);
+
+    /**
+     * Manually triggers a release for a specific key.
+     *
+     * @param key the numeric key to release
+     * @return the {@link OrbitRelease} containing the released data, or null if no
+     *         pending events
+     */
+    OrbitRelease release(long key);
+
+    /**
+     * Triggers a release for a specific key without blocking the caller.
+     *
+     * @param key the numeric key to release
+     * @return a future of the {@link OrbitRelease}, completed on the worker thread
+     * @since 1.4.0
+     */
+    CompletableFuture<OrbitRelease> releaseAsync(long key);
+
+    /**
+     * Manually triggers a release for ALL keys found in the system.
+     */
+    void releaseAll();
+
+    /**
+     * Changes the number of workers keys are spread over, without a restart.
+     * <p>
+     * Asynchronous like {@link #releaseAll()}: a RESIZE slot is published and,
+     * when the workers reach it, every key whose owner changes moves with its
+     * balance, pending events and sequence to the new owner. Events published
+     * after this call are processed with the new placement; none is dropped
+     * or reordered. Requires {@code maxThreadCount} on the builder and
+     * {@code DispatchMode.MULTICAST}.
+     * </p>
+     *
+     * @param workers new worker count, between 1 and {@code maxThreadCount}
+     * @throws IllegalArgumentException if {@code workers} is out of range
+     * @throws IllegalStateException    if the engine was not built elastic
+     * @since 1.4.0
+     */
+    void resize(int workers);
+
+    /**
+     * Returns the worker count set by the last {@link #resize(int)}, or the
+     * configured thread count.
+     *
+     * @since 1.4.0
+     */
+    int workerCount();
+}
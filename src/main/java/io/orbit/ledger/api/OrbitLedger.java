@@ -1,12 +1,24 @@
 package io.orbit.ledger.api;
 
 import io.orbit.ledger.builder.OrbitLedgerBuilder;
+import io.orbit.ledger.enums.BackpressurePolicy;
+import io.orbit.ledger.enums.DispatchMode;
 import io.orbit.ledger.enums.EvictionPolicy;
+import io.orbit.ledger.enums.LedgerType;
 import io.orbit.ledger.enums.PerformanceMode;
+import io.orbit.ledger.enums.ProducerMode;
+import io.orbit.ledger.enums.PublishStatus;
+import io.orbit.ledger.enums.ReleaseDetail;
 import io.orbit.ledger.enums.ReleaseType;
+import io.orbit.ledger.model.BackpressureStats;
+import io.orbit.ledger.model.JournalEntry;
 import io.orbit.ledger.model.OrbitRelease;
+import io.orbit.ledger.model.WorkerWaitStats;
 
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Public API for the Orbit Ledger Engine.
@@ -38,6 +50,34 @@ public interface OrbitLedger {
      */
     void shutdown();
 
+    /**
+     * Gives the calling thread its own producer lane.
+     * <p>
+     * Only has an effect with {@code ProducerMode.LANES}: afterwards the
+     * thread's credits, debits, releases and batches bypass the shared
+     * multi-producer claim. Call {@link #unregisterProducer()} before the
+     * thread ends so the lane can be reused. A thread holding a lane cannot
+     * {@link #post(JournalEntry) post} journal entries.
+     * </p>
+     *
+     * @throws IllegalStateException if every lane is taken
+     * @since 1.4.0
+     */
+    void registerProducer();
+
+    /**
+     * Gives up the calling thread's producer lane so another thread can
+     * register for it.
+     * <p>
+     * Events the thread already published stay on the lane and are still
+     * applied. No-op if the thread holds no lane or the engine does not run
+     * in {@code ProducerMode.LANES}.
+     * </p>
+     *
+     * @since 1.4.0
+     */
+    void unregisterProducer();
+
     /**
      * Submits a CREDIT event to the ledger.
      *
@@ -54,6 +94,145 @@ public interface OrbitLedger {
      */
     void debit(String key, long amount);
 
+    /**
+     * Returns the interned handle for a key, creating it on first use.
+     * <p>
+     * Publishing through the handle skips re-hashing the String and the
+     * worker's map lookup. Repeated calls for the same key return the same
+     * handle. Handles are kept for the lifetime of the engine.
+     * </p>
+     *
+     * @param key the account/entity key
+     * @return the handle for {@code key}
+     * @since 1.4.0
+     */
+    LedgerKey key(String key);
+
+    /**
+     * Submits a CREDIT event for a pre-resolved key.
+     *
+     * @param key    a handle issued by {@link #key(String)} of this engine
+     * @param amount the amount to credit (must be positive)
+     * @throws IllegalArgumentException if the handle was issued by another engine
+     * @since 1.4.0
+     */
+    void credit(LedgerKey key, long amount);
+
+    /**
+     * Submits a DEBIT event for a pre-resolved key.
+     *
+     * @param key    a handle issued by {@link #key(String)} of this engine
+     * @param amount the amount to debit (must be positive)
+     * @throws IllegalArgumentException if the handle was issued by another engine
+     * @since 1.4.0
+     */
+    void debit(LedgerKey key, long amount);
+
+    /**
+     * Submits a CREDIT event without blocking on a full ring.
+     * <p>
+     * When the ring is full the configured {@link BackpressurePolicy} decides
+     * whether the call waits, fails fast, waits with a timeout or spills.
+     * </p>
+     *
+     * @param key    the account/entity key
+     * @param amount the amount to credit (must be positive)
+     * @return whether the event was accepted, spilled or rejected
+     * @since 1.4.0
+     */
+    PublishStatus tryCredit(String key, long amount);
+
+    /**
+     * Submits a DEBIT event without blocking on a full ring.
+     *
+     * @param key    the account/entity key
+     * @param amount the amount to debit (must be positive)
+     * @return whether the event was accepted, spilled or rejected
+     * @since 1.4.0
+     * @see #tryCredit(String, long)
+     */
+    PublishStatus tryDebit(String key, long amount);
+
+    /**
+     * Returns how often the backpressure policy fired so far.
+     *
+     * @return cumulative backpressure counters
+     * @since 1.4.0
+     */
+    BackpressureStats backpressureStats();
+
+    /**
+     * Returns how each worker currently waits for events.
+     * <p>
+     * Only {@code PerformanceMode.ADAPTIVE} changes this at runtime; the list
+     * is empty in every other mode. A worker appears once it first waited.
+     * </p>
+     *
+     * @return one snapshot per worker
+     * @since 1.4.0
+     */
+    List<WorkerWaitStats> waitStats();
+
+    /**
+     * Returns how many events can be published without blocking.
+     * <p>
+     * The smallest free slot count of the rings the calling thread publishes
+     * to. A snapshot: other producers and the workers move it concurrently.
+     * </p>
+     *
+     * @return free ring slots
+     * @since 1.4.0
+     */
+    long remainingCapacity();
+
+    /**
+     * Submits a batch of CREDIT/DEBIT events in column form.
+     * <p>
+     * Events {@code offset .. offset + length - 1} are published in array order.
+     * The whole range is claimed from the ring at once, so the batch pays a single
+     * claim per ring instead of one per event. Batches larger than the ring are
+     * published in ring-sized chunks.
+     * </p>
+     *
+     * @param keys    the account/entity keys
+     * @param amounts the amounts (must be positive)
+     * @param types   {@code CREDIT} or {@code DEBIT} for each event
+     * @param offset  index of the first event to publish
+     * @param length  number of events to publish
+     * @throws IndexOutOfBoundsException if the range does not fit any of the arrays
+     * @throws IllegalArgumentException  if a type is not CREDIT or DEBIT
+     * @since 1.4.0
+     */
+    void publishBatch(String[] keys, long[] amounts, LedgerType[] types, int offset, int length);
+
+    /**
+     * Submits a batch of CREDIT/DEBIT events for interned keys in column form.
+     * <p>
+     * Same contract as {@link #publishBatch(String[], long[], LedgerType[], int, int)};
+     * events are routed by the partition stored in each handle.
+     * </p>
+     *
+     * @throws IllegalArgumentException if a handle was not issued by this engine
+     * @since 1.4.0
+     */
+    void publishBatch(LedgerKey[] keys, long[] amounts, LedgerType[] types, int offset, int length);
+
+    /**
+     * Posts a balanced multi-leg entry, e.g. a transfer.
+     * <p>
+     * Each leg is applied by the worker that owns its key. Legs on different
+     * workers meet at a barrier inside the ring; once every leg is applied,
+     * each worker releases its leg keys, whatever the release type, so all
+     * legs of the entry come out in the same release cycle.
+     * </p>
+     *
+     * @param entry the entry to post
+     * @throws IllegalStateException if the calling thread holds a producer lane
+     *                               (see {@link #registerProducer()})
+     * @since 1.4.0
+     */
+    void post(JournalEntry entry);
+
     /**
      * Manually triggers a release for a specific key.
      *
@@ -63,11 +242,52 @@ public interface OrbitLedger {
      */
     OrbitRelease release(String key);
 
+    /**
+     * Triggers a release for a specific key without blocking the caller.
+     * <p>
+     * The future completes on the worker thread that owns the key, after the
+     * release listener has run. Chain heavy work with the {@code *Async}
+     * stage variants so the worker is not held up.
+     * </p>
+     *
+     * @param key the key to release
+     * @return a future of the {@link OrbitRelease}, completed with null if no
+     *         pending events
+     * @since 1.4.0
+     */
+    CompletableFuture<OrbitRelease> releaseAsync(String key);
+
     /**
      * Manually triggers a release for ALL keys found in the system.
      */
     void releaseAll();
 
+    /**
+     * Changes the number of workers keys are spread over, without a restart.
+     * <p>
+     * Asynchronous like {@link #releaseAll()}: a RESIZE slot is published and,
+     * when the workers reach it, every key whose owner changes moves with its
+     * balance, pending events and sequence to the new owner. Events published
+     * after this call are processed with the new placement; none is dropped
+     * or reordered. Requires {@code maxThreadCount} on the builder and
+     * {@code DispatchMode.MULTICAST}.
+     * </p>
+     *
+     * @param workers new worker count, between 1 and {@code maxThreadCount}
+     * @throws IllegalArgumentException if {@code workers} is out of range
+     * @throws IllegalStateException    if the engine was not built elastic
+     * @since 1.4.0
+     */
+    void resize(int workers);
+
+    /**
+     * Returns the worker count set by the last {@link #resize(int)}, or the
+     * configured thread count.
+     *
+     * @since 1.4.0
+     */
+    int workerCount();
+
     /**
      * Builder interface for {@link OrbitLedger}.
      */
@@ -100,6 +320,8 @@ public interface OrbitLedger {
          * <p>
          * Called once per key on first event for that key.
          * If using {@code AFTER_RELEASE} eviction, called again after each release.
+         * With a {@link #coldKeyState cold tier}, an evicted key is read back
+         * from there instead.
          * </p>
          *
          * @param loader function to load initial balance from external source
@@ -123,6 +345,8 @@ public interface OrbitLedger {
         /**
          * Set eviction policy for memory lifecycle.
          * <p>
+         * {@code IDLE_TIMEOUT} and {@code MAX_KEYS} take their bounds from
+         * {@link #idleTimeout(Duration)} and {@link #maxKeysPerWorker(int)}.
          * Default: {@code NONE} (never evict, current behavior)
          * </p>
          *
@@ -146,6 +370,333 @@ public interface OrbitLedger {
          */
         Builder performanceMode(PerformanceMode mode);
 
+        /**
+         * Set dispatch mode for routing events to workers.
+         * <p>
+         * {@code SHARDED} gives every worker its own ring so throughput keeps
+         * scaling past a handful of threads.
+         * Default: {@code MULTICAST}
+         * </p>
+         *
+         * @param mode dispatch mode to use
+         * @return this builder
+         * @since 1.4.0
+         * @see DispatchMode
+         */
+        Builder dispatchMode(DispatchMode mode);
+
+        /**
+         * Set how producer threads claim ring slots.
+         * <p>
+         * {@code SINGLE} drops the claim CAS for a single ingest thread;
+         * {@code LANES} gives each registered producer thread its own lane.
+         * Default: {@code MULTI}
+         * </p>
+         *
+         * @param mode producer mode to use
+         * @return this builder
+         * @since 1.4.0
+         * @see ProducerMode
+         */
+        Builder producerMode(ProducerMode mode);
+
+        /**
+         * Set the number of producer lanes for {@code ProducerMode.LANES}.
+         * <p>
+         * Default: 4
+         * </p>
+         *
+         * @param lanes maximum number of registered producer threads
+         * @return this builder
+         * @since 1.4.0
+         */
+        Builder producerLanes(int lanes);
+
+        /**
+         * Set the policy applied by {@code tryCredit}/{@code tryDebit} on a full ring.
+         * <p>
+         * Default: {@code BLOCK}
+         * </p>
+         *
+         * @param policy backpressure policy to use
+         * @return this builder
+         * @since 1.4.0
+         * @see BackpressurePolicy
+         */
+        Builder backpressurePolicy(BackpressurePolicy policy);
+
+        /**
+         * Set the maximum wait for {@code BackpressurePolicy.TIMED_WAIT}.
+         * <p>
+         * Default: 10ms
+         * </p>
+         *
+         * @param timeout maximum time to wait for ring capacity
+         * @return this builder
+         * @since 1.4.0
+         */
+        Builder backpressureTimeout(Duration timeout);
+
+        /**
+         * Set the overflow queue bound for {@code BackpressurePolicy.SPILL}.
+         * <p>
+         * Default: 4096 events
+         * </p>
+         *
+         * @param capacity maximum number of spilled events
+         * @return this builder
+         * @since 1.4.0
+         */
+        Builder overflowCapacity(int capacity);
+
+        /**
+         * Set the clock that stamps published events.
+         * <p>
+         * Use {@link LedgerClock#coarse(Duration)} to avoid a system clock read
+         * per event, or {@link LedgerClock#manual(long)} for deterministic replay.
+         * Default: {@link LedgerClock#SYSTEM}
+         * </p>
+         *
+         * @param clock timestamp source
+         * @return this builder
+         * @since 1.4.0
+         */
+        Builder clock(LedgerClock clock);
+
+        /**
+         * Set how keys are placed on workers.
+         * <p>
+         * Use {@link Partitioner#grouped(char)} to keep all sub-accounts of a
+         * customer on one worker. Default: {@link Partitioner#MIXED}
+         * </p>
+         *
+         * @param partitioner key placement strategy
+         * @return this builder
+         * @since 1.4.0
+         */
+        Builder partitioner(Partitioner partitioner);
+
+        /**
+         * Spread a hot key over several workers.
+         * <p>
+         * Events of the key are dealt round robin to {@code stripes} workers;
+         * a release merges all stripes into one {@link OrbitRelease} whose
+         * events are in publish order with a single running balance. Under
+         * COUNT/HYBRID a release happens every {@code releaseThreshold} events
+         * of the key. A hot key cannot be a journal leg, and hot keys are not
+         * supported with {@code ProducerMode.LANES}.
+         * </p>
+         *
+         * @param key     the hot key
+         * @param stripes number of workers, between 2 and the thread count
+         * @return this builder
+         * @since 1.4.0
+         */
+        Builder hotKey(String key, int stripes);
+
+        /**
+         * Allow {@link OrbitLedger#resize(int)} up to the given worker count.
+         * <p>
+         * The engine starts {@code maxThreadCount} workers and spreads keys
+         * over {@code threadCount} of them; the others own no keys until a
+         * resize hands them some. Requires {@code DispatchMode.MULTICAST} and
+         * is not supported with {@code ProducerMode.LANES}.
+         * Default: equal to {@code threadCount} (fixed worker count)
+         * </p>
+         *
+         * @param maxThreadCount largest worker count a resize may ask for
+         * @return this builder
+         * @since 1.4.0
+         */
+        Builder maxThreadCount(int maxThreadCount);
+
+        /**
+         * Call the release listener on sink threads instead of the workers.
+         * <p>
+         * A slow listener (e.g. a database write) then no longer delays the
+         * other keys of its worker. Releases of one key always reach the
+         * listener in order, on the same sink thread. At most
+         * {@code maxInFlight} releases are queued or running; only beyond
+         * that does a worker wait. A listener exception is passed to the sink
+         * thread's uncaught exception handler and no longer fails
+         * {@code releaseAsync}, whose future completes when the release is
+         * handed to the sinks. Default: listener runs on the workers
+         * </p>
+         *
+         * @param sinkThreads number of sink threads
+         * @param maxInFlight bound on releases queued or running
+         * @return this builder
+         * @since 1.4.0
+         */
+        Builder releaseDispatch(int sinkThreads, int maxInFlight);
+
+        /**
+         * Add a consumer of the release ring.
+         * <p>
+         * With at least one batch handler, workers publish every release into
+         * a dedicated output ring. Each handler sees all releases in order on
+         * its own thread and can commit many of them at once on
+         * {@code endOfBatch}. Works alongside {@link #onRelease}; a full ring
+         * makes the workers wait.
+         * </p>
+         *
+         * @param handler release ring consumer
+         * @return this builder
+         * @since 1.4.0
+         */
+        Builder onReleaseBatch(OrbitReleaseBatchHandler handler);
+
+        /**
+         * Size and wait strategy of the release ring, independent of the input ring.
+         * <p>
+         * Only used with {@link #onReleaseBatch}.
+         * Default: 1024 slots, {@code PerformanceMode.STANDARD}
+         * </p>
+         *
+         * @param bufferSize      release ring size, a power of 2
+         * @param performanceMode wait strategy of the batch handlers
+         * @return this builder
+         * @since 1.4.0
+         */
+        Builder releaseRing(int bufferSize, PerformanceMode performanceMode);
+
+        /**
+         * Back-off phases of {@code PerformanceMode.PHASED}.
+         * <p>
+         * An idle worker spins for {@code spinTimeout}, then yields until
+         * {@code yieldTimeout} has passed as well, then parks until signalled.
+         * Ignored by the other modes.
+         * Default: 100 microseconds spinning, 1 millisecond yielding
+         * </p>
+         *
+         * @param spinTimeout  how long to busy-spin, zero or more
+         * @param yieldTimeout how long to yield after spinning, zero or more
+         * @return this builder
+         * @since 1.4.0
+         */
+        Builder phasedBackoff(Duration spinTimeout, Duration yieldTimeout);
+
+        /**
+         * Keep key state in direct memory instead of on the heap.
+         * <p>
+         * Each key takes one fixed-size slot (72 bytes plus 2 per key char)
+         * in a per-worker off-heap table, and pending events live in a
+         * recycled off-heap arena, so tens of millions of keys add nothing
+         * to GC work. String keys longer than {@code maxKeyLength} chars and
+         * hot key stripes stay on the heap. Numeric keys are always stored
+         * off-heap in this mode.
+         * Default: off (key state on the heap)
+         * </p>
+         *
+         * @param maxKeyLength longest String key stored off-heap, in chars
+         * @return this builder
+         * @since 1.4.0
+         */
+        Builder offHeapKeyState(int maxKeyLength);
+
+        /**
+         * Presize the per-worker key tables.
+         * <p>
+         * Each starting worker sizes its key table for its share of
+         * {@code expectedKeys}, so loading that many accounts never rehashes
+         * a table on the hot path. Workers added later by {@code resize}
+         * start small. More keys are still accepted; the tables then grow.
+         * Default: 0 (tables start small and grow as keys arrive)
+         * </p>
+         *
+         * @param expectedKeys accounts the engine expects to hold, zero or more
+         * @return this builder
+         * @since 1.4.0
+         */
+        Builder expectedKeys(int expectedKeys);
+
+        /**
+         * Choose what a release carries.
+         * <p>
+         * With {@link ReleaseDetail#SUMMARY} workers keep only an event
+         * counter and the pending delta per key, and every
+         * {@link OrbitRelease} has an empty event list; count, delta and
+         * running balance are unchanged. Saves the per-event storage and the
+         * {@code LedgerEvent} built for each event at release time.
+         * Default: {@link ReleaseDetail#EVENTS}
+         * </p>
+         *
+         * @param detail events, or summary only
+         * @return this builder
+         * @since 1.4.0
+         */
+        Builder releaseDetail(ReleaseDetail detail);
+
+        /**
+         * Set how long a key may go without events under
+         * {@link EvictionPolicy#IDLE_TIMEOUT}.
+         * <p>
+         * Measured between event timestamps from the engine clock, so a
+         * {@link LedgerClock#manual manual} clock drives it too. A worker
+         * checks a few keys per event it handles and all of them on each
+         * release-all, so an idle key is evicted some time after the
+         * timeout, not at it. Ignored by the other policies.
+         * Default: 5 minutes
+         * </p>
+         *
+         * @param timeout inactivity before eviction, positive
+         * @return this builder
+         * @since 1.4.0
+         */
+        Builder idleTimeout(Duration timeout);
+
+        /**
+         * Set how many keys each worker may hold under
+         * {@link EvictionPolicy#MAX_KEYS}.
+         * <p>
+         * A worker above the bound evicts a few keys per event it handles,
+         * least recently used first (CLOCK approximation), so it may hold a
+         * few keys more for a short while. Hot key stripes do not count.
+         * Ignored by the other policies.
+         * Default: 1,000,000
+         * </p>
+         *
+         * @param maxKeys keys per worker, positive
+         * @return this builder
+         * @since 1.4.0
+         */
+        Builder maxKeysPerWorker(int maxKeys);
+
+        /**
+         * Keep evicted keys in memory-mapped files instead of dropping them.
+         * <p>
+         * When a key is evicted, its worker writes the committed balance
+         * and last committed sequence to its own file in {@code directory};
+         * when the key returns, it is read back from there, without a
+         * {@link BalanceLoader} call, and its sequences carry on. The OS
+         * pages the files in and out, so cold keys cost neither heap nor a
+         * database round-trip. String keys longer than {@code maxKeyLength}
+         * chars are still dropped and reloaded. The files are scratch space
+         * and are deleted on {@code shutdown}. Has no effect with
+         * {@link EvictionPolicy#NONE}.
+         * Default: off (evicted keys are reloaded by the balance loader)
+         * </p>
+         *
+         * @param directory    existing directory for the per-worker files
+         * @param maxKeyLength longest String key kept in the files, in chars
+         * @return this builder
+         * @since 1.4.0
+         */
+        Builder coldKeyState(Path directory, int maxKeyLength);
+
         OrbitLedger build();
+
+        /**
+         * Builds an engine keyed by primitive {@code long} ids.
+         * <p>
+         * Takes the same configuration as {@link #build()}; a
+         * {@link BalanceLoader} receives the id through
+         * {@link BalanceLoader#load(long)}.
+         * </p>
+         *
+         * @return a new engine for numeric keys
+         * @since 1.4.0
+         */
+        LongOrbitLedger buildLong();
     }
 }
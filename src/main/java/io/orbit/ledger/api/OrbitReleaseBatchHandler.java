@@ -0,0 +1,34 @@
+package io.orbit.ledger.api;
+
+import io.orbit.ledger.model.OrbitRelease;
+
+/**
+ * Consumer of the release ring.
+ * <p>
+ * Sees every release in ring order, on its own thread. {@code endOfBatch}
+ * marks the last release currently available, so a persistence handler can
+ * buffer releases and write them in one transaction when it is set.
+ * </p>
+ *
+ * <pre>{@code
+ * (release, endOfBatch) -> {
+ *     statement.addBatch(release);
+ *     if (endOfBatch) {
+ *         statement.executeBatch();
+ *         connection.commit();
+ *     }
+ * }
+ * }</pre>
+ *
+ * @since 1.4.0
+ */
+@FunctionalInterface
+public interface OrbitReleaseBatchHandler {
+
+    /**
+     * @param release    the next release
+     * @param endOfBatch true if no further release is waiting right now
+     * @throws Exception handled like any Disruptor handler failure
+     */
+    void onRelease(OrbitRelease release, boolean endOfBatch) throws Exception;
+}
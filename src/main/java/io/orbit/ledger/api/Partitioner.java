@@ -0,0 +1,108 @@
+package io.orbit.ledger.api;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Maps a key to the worker (partition) that owns it.
+ * <p>
+ * Called once per published event on the producer thread; the result travels
+ * with the event, so workers never hash keys themselves. Implementations must
+ * be deterministic, thread-safe and return a value in {@code [0, partitions)}.
+ * </p>
+ *
+ * <h2>Example Usage</h2>
+ *
+ * <pre>{@code
+ * // "CUST42:savings" and "CUST42:checking" share a worker
+ * OrbitLedger ledger = OrbitLedger.builder()
+ *         .partitioner(Partitioner.grouped(':'))
+ *         .build();
+ * }</pre>
+ *
+ * @since 1.4.0
+ */
+@FunctionalInterface
+public interface Partitioner {
+
+    /**
+     * Murmur3-finalized String hash, spread over the partitions (default).
+     * <p>
+     * Sequential codes such as {@code ACC000123} differ only in their low
+     * hash bits; mixing spreads them evenly where plain modulo does not.
+     * </p>
+     */
+    Partitioner MIXED = (key, partitions) -> indexFor(key.hashCode(), partitions);
+
+    /**
+     * {@code |hash % partitions|}, the placement used before 1.4.0.
+     */
+    Partitioner MODULO = new Partitioner() {
+        @Override
+        public int partition(String key, int partitions) {
+            return Math.abs(key.hashCode() % partitions);
+        }
+
+        @Override
+        public int partition(long key, int partitions) {
+            return Math.abs(Long.hashCode(key) % partitions);
+        }
+    };
+
+    /**
+     * Returns the partition of a String key.
+     */
+    int partition(String key, int partitions);
+
+    /**
+     * Returns the partition of a numeric key. Defaults to a mixed {@code Long.hashCode}.
+     */
+    default int partition(long key, int partitions) {
+        return indexFor(Long.hashCode(key), partitions);
+    }
+
+    /**
+     * Co-locates keys that share the prefix before the first {@code separator}.
+     * <p>
+     * The prefix is hashed in place, without a substring. Keys without the
+     * separator are hashed whole.
+     * </p>
+     */
+    static Partitioner grouped(char separator) {
+        return (key, partitions) -> {
+            int end = key.indexOf(separator);
+            if (end < 0) {
+                end = key.length();
+            }
+            int hash = 0;
+            for (int i = 0; i < end; i++) {
+                hash = 31 * hash + key.charAt(i);
+            }
+            return indexFor(hash, partitions);
+        };
+    }
+
+    /**
+     * Co-locates keys that map to the same group, e.g. a customer id.
+     */
+    static Partitioner grouped(Function<String, ?> groupOf) {
+        Objects.requireNonNull(groupOf, "groupOf must not be null");
+        return (key, partitions) -> indexFor(Objects.hashCode(groupOf.apply(key)), partitions);
+    }
+
+    /**
+     * Spreads an arbitrary hash over {@code [0, partitions)}.
+     * <p>
+     * Applies the murmur3 32-bit finalizer, then scales with a multiply-shift
+     * instead of a modulo.
+     * </p>
+     */
+    static int indexFor(int hash, int partitions) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return (int) (((hash & 0xFFFFFFFFL) * partitions) >>> 32);
+    }
+}
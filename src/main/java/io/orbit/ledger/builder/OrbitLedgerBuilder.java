@@ -1,14 +1,29 @@
 package io.orbit.ledger.builder;
 
 import io.orbit.ledger.api.BalanceLoader;
+import io.orbit.ledger.api.LedgerClock;
+import io.orbit.ledger.api.LongOrbitLedger;
 import io.orbit.ledger.api.OrbitLedger;
+import io.orbit.ledger.api.OrbitReleaseBatchHandler;
 import io.orbit.ledger.api.OrbitReleaseListener;
+import io.orbit.ledger.api.Partitioner;
+import io.orbit.ledger.engine.EngineOptions;
 import io.orbit.ledger.engine.OrbitDisruptor;
+import io.orbit.ledger.enums.BackpressurePolicy;
+import io.orbit.ledger.enums.DispatchMode;
 import io.orbit.ledger.enums.EvictionPolicy;
 import io.orbit.ledger.enums.PerformanceMode;
+import io.orbit.ledger.enums.ProducerMode;
+import io.orbit.ledger.enums.ReleaseDetail;
 import io.orbit.ledger.enums.ReleaseType;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -35,6 +50,60 @@ public final class OrbitLedgerBuilder implements OrbitLedger.Builder {
     // Performance mode config (since 1.3.0)
     private PerformanceMode performanceMode = PerformanceMode.STANDARD;
 
+    // Dispatch mode config (since 1.4.0)
+    private DispatchMode dispatchMode = DispatchMode.MULTICAST;
+
+    // Producer config (since 1.4.0)
+    private ProducerMode producerMode = ProducerMode.MULTI;
+    private int producerLanes = 4;
+
+    // Backpressure config (since 1.4.0)
+    private BackpressurePolicy backpressurePolicy = BackpressurePolicy.BLOCK;
+    private Duration backpressureTimeout = Duration.ofMillis(10);
+    private int overflowCapacity = 4096;
+
+    // Clock config (since 1.4.0)
+    private LedgerClock clock = LedgerClock.SYSTEM;
+
+    // Partitioner config (since 1.4.0)
+    private Partitioner partitioner = Partitioner.MIXED;
+
+    // Hot key striping config (since 1.4.0)
+    private final Map<String, Integer> hotKeys = new LinkedHashMap<>();
+
+    // Elastic worker config (since 1.4.0), 0 = fixed at threadCount
+    private int maxThreadCount = 0;
+
+    // Release dispatch config (since 1.4.0), 0 sinks = listener on the workers
+    private int releaseSinkThreads = 0;
+    private int maxInFlightReleases = 1024;
+
+    // Release ring config (since 1.4.0)
+    private final List<OrbitReleaseBatchHandler> releaseBatchHandlers = new ArrayList<>();
+    private int releaseRingSize = 1024;
+    private PerformanceMode releaseRingPerformanceMode = PerformanceMode.STANDARD;
+
+    // Off-heap key state config (since 1.4.0), 0 = on heap
+    private int offHeapMaxKeyLength = 0;
+
+    // Key table presizing config (since 1.4.0), 0 = grow from empty
+    private int expectedKeys = 0;
+
+    // Release content config (since 1.4.0)
+    private ReleaseDetail releaseDetail = ReleaseDetail.EVENTS;
+
+    // Incremental eviction config (since 1.4.0)
+    private Duration idleTimeout = Duration.ofMinutes(5);
+    private int maxKeysPerWorker = 1_000_000;
+
+    // Cold tier config (since 1.4.0), null = evicted keys are dropped
+    private Path coldKeyStateDirectory = null;
+    private int coldMaxKeyLength = 0;
+
+    // Phased back-off config (since 1.4.0)
+    private Duration phasedSpinTimeout = Duration.ofNanos(100_000);
+    private Duration phasedYieldTimeout = Duration.ofMillis(1);
+
     @Override
     public OrbitLedger.Builder bufferSize(int size) {
         if (size <= 0) {
@@ -107,8 +176,195 @@ public final class OrbitLedgerBuilder implements OrbitLedger.Builder {
         return this;
     }
 
+    @Override
+    public OrbitLedger.Builder dispatchMode(DispatchMode mode) {
+        this.dispatchMode = Objects.requireNonNull(mode, "dispatchMode must not be null");
+        return this;
+    }
+
+    @Override
+    public OrbitLedger.Builder producerMode(ProducerMode mode) {
+        this.producerMode = Objects.requireNonNull(mode, "producerMode must not be null");
+        return this;
+    }
+
+    @Override
+    public OrbitLedger.Builder producerLanes(int lanes) {
+        if (lanes <= 0) {
+            throw new IllegalArgumentException("producerLanes must be positive: " + lanes);
+        }
+        this.producerLanes = lanes;
+        return this;
+    }
+
+    @Override
+    public OrbitLedger.Builder backpressurePolicy(BackpressurePolicy policy) {
+        this.backpressurePolicy = Objects.requireNonNull(policy, "backpressurePolicy must not be null");
+        return this;
+    }
+
+    @Override
+    public OrbitLedger.Builder backpressureTimeout(Duration timeout) {
+        Objects.requireNonNull(timeout, "backpressureTimeout must not be null");
+        if (timeout.isNegative()) {
+            throw new IllegalArgumentException("backpressureTimeout must be non-negative: " + timeout);
+        }
+        this.backpressureTimeout = timeout;
+        return this;
+    }
+
+    @Override
+    public OrbitLedger.Builder overflowCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("overflowCapacity must be positive: " + capacity);
+        }
+        this.overflowCapacity = capacity;
+        return this;
+    }
+
+    @Override
+    public OrbitLedger.Builder clock(LedgerClock clock) {
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+        return this;
+    }
+
+    @Override
+    public OrbitLedger.Builder partitioner(Partitioner partitioner) {
+        this.partitioner = Objects.requireNonNull(partitioner, "partitioner must not be null");
+        return this;
+    }
+
+    @Override
+    public OrbitLedger.Builder hotKey(String key, int stripes) {
+        Objects.requireNonNull(key, "key must not be null");
+        if (stripes < 2) {
+            throw new IllegalArgumentException("stripes must be at least 2: " + stripes);
+        }
+        hotKeys.put(key, stripes);
+        return this;
+    }
+
+    @Override
+    public OrbitLedger.Builder maxThreadCount(int maxThreadCount) {
+        if (maxThreadCount <= 0) {
+            throw new IllegalArgumentException("maxThreadCount must be positive: " + maxThreadCount);
+        }
+        this.maxThreadCount = maxThreadCount;
+        return this;
+    }
+
+    @Override
+    public OrbitLedger.Builder releaseDispatch(int sinkThreads, int maxInFlight) {
+        if (sinkThreads <= 0) {
+            throw new IllegalArgumentException("sinkThreads must be positive: " + sinkThreads);
+        }
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.releaseSinkThreads = sinkThreads;
+        this.maxInFlightReleases = maxInFlight;
+        return this;
+    }
+
+    @Override
+    public OrbitLedger.Builder onReleaseBatch(OrbitReleaseBatchHandler handler) {
+        releaseBatchHandlers.add(Objects.requireNonNull(handler, "handler must not be null"));
+        return this;
+    }
+
+    @Override
+    public OrbitLedger.Builder releaseRing(int bufferSize, PerformanceMode performanceMode) {
+        if (bufferSize <= 0 || (bufferSize & (bufferSize - 1)) != 0) {
+            throw new IllegalArgumentException("release ring size must be a positive power of 2: " + bufferSize);
+        }
+        this.releaseRingSize = bufferSize;
+        this.releaseRingPerformanceMode = Objects.requireNonNull(performanceMode, "performanceMode must not be null");
+        return this;
+    }
+
+    @Override
+    public OrbitLedger.Builder phasedBackoff(Duration spinTimeout, Duration yieldTimeout) {
+        Objects.requireNonNull(spinTimeout, "spinTimeout must not be null");
+        Objects.requireNonNull(yieldTimeout, "yieldTimeout must not be null");
+        if (spinTimeout.isNegative()) {
+            throw new IllegalArgumentException("spinTimeout must not be negative: " + spinTimeout);
+        }
+        if (yieldTimeout.isNegative()) {
+            throw new IllegalArgumentException("yieldTimeout must not be negative: " + yieldTimeout);
+        }
+        this.phasedSpinTimeout = spinTimeout;
+        this.phasedYieldTimeout = yieldTimeout;
+        return this;
+    }
+
+    @Override
+    public OrbitLedger.Builder offHeapKeyState(int maxKeyLength) {
+        if (maxKeyLength <= 0) {
+            throw new IllegalArgumentException("maxKeyLength must be positive: " + maxKeyLength);
+        }
+        this.offHeapMaxKeyLength = maxKeyLength;
+        return this;
+    }
+
+    @Override
+    public OrbitLedger.Builder expectedKeys(int expectedKeys) {
+        if (expectedKeys < 0) {
+            throw new IllegalArgumentException("expectedKeys must not be negative: " + expectedKeys);
+        }
+        this.expectedKeys = expectedKeys;
+        return this;
+    }
+
+    @Override
+    public OrbitLedger.Builder releaseDetail(ReleaseDetail detail) {
+        this.releaseDetail = Objects.requireNonNull(detail, "releaseDetail must not be null");
+        return this;
+    }
+
+    @Override
+    public OrbitLedger.Builder idleTimeout(Duration timeout) {
+        Objects.requireNonNull(timeout, "idleTimeout must not be null");
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("idleTimeout must be positive: " + timeout);
+        }
+        this.idleTimeout = timeout;
+        return this;
+    }
+
+    @Override
+    public OrbitLedger.Builder maxKeysPerWorker(int maxKeys) {
+        if (maxKeys <= 0) {
+            throw new IllegalArgumentException("maxKeysPerWorker must be positive: " + maxKeys);
+        }
+        this.maxKeysPerWorker = maxKeys;
+        return this;
+    }
+
+    @Override
+    public OrbitLedger.Builder coldKeyState(Path directory, int maxKeyLength) {
+        Objects.requireNonNull(directory, "directory must not be null");
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("Not a directory: " + directory);
+        }
+        if (maxKeyLength <= 0) {
+            throw new IllegalArgumentException("maxKeyLength must be positive: " + maxKeyLength);
+        }
+        this.coldKeyStateDirectory = directory;
+        this.coldMaxKeyLength = maxKeyLength;
+        return this;
+    }
+
     @Override
     public OrbitLedger build() {
+        return newEngine();
+    }
+
+    @Override
+    public LongOrbitLedger buildLong() {
+        return newEngine();
+    }
+
+    private OrbitDisruptor newEngine() {
         return new OrbitDisruptor(
                 bufferSize,
                 threadCount,
@@ -119,6 +375,27 @@ public final class OrbitLedgerBuilder implements OrbitLedger.Builder {
                 defaultBalance,
                 evictionPolicy,
                 releaseInterval,
-                performanceMode);
+                performanceMode,
+                new EngineOptions()
+                        .dispatchMode(dispatchMode)
+                        .producerMode(producerMode)
+                        .producerLanes(producerLanes)
+                        .backpressurePolicy(backpressurePolicy)
+                        .backpressureTimeout(backpressureTimeout)
+                        .overflowCapacity(overflowCapacity)
+                        .clock(clock)
+                        .partitioner(partitioner)
+                        .hotKeys(hotKeys)
+                        .maxThreadCount(maxThreadCount)
+                        .releaseDispatch(releaseSinkThreads, maxInFlightReleases)
+                        .releaseBatchHandlers(releaseBatchHandlers)
+                        .releaseRing(releaseRingSize, releaseRingPerformanceMode)
+                        .phasedBackoff(phasedSpinTimeout, phasedYieldTimeout)
+                        .offHeapKeyState(offHeapMaxKeyLength)
+                        .expectedKeys(expectedKeys)
+                        .releaseDetail(releaseDetail)
+                        .idleTimeout(idleTimeout)
+                        .maxKeysPerWorker(maxKeysPerWorker)
+                        .coldKeyState(coldKeyStateDirectory, coldMaxKeyLength));
     }
 }
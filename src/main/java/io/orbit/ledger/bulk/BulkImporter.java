@@ -0,0 +1,448 @@
+package io.orbit.ledger.bulk;
+
+import io.orbit.ledger.api.ImportProgressListener;
+import io.orbit.ledger.api.LedgerKey;
+import io.orbit.ledger.api.LongOrbitLedger;
+import io.orbit.ledger.api.OrbitLedger;
+import io.orbit.ledger.api.Partitioner;
+import io.orbit.ledger.enums.LedgerType;
+import io.orbit.ledger.model.ImportProgress;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays large posting files into a running ledger.
+ * <p>
+ * The file is memory-mapped one window at a time. Within a window, reader
+ * threads parse disjoint record-aligned ranges straight from the mapping into
+ * columnar buckets, one per publisher, chosen by key hash. Publisher threads
+ * then hand their buckets to the engine with {@code publishBatch}, in file
+ * order, so every key keeps the order it has in the file while parsing and
+ * publishing both run in parallel.
+ * </p>
+ * <p>
+ * Supported formats:
+ * </p>
+ * <ul>
+ * <li><b>CSV</b> ({@link #importCsv}): {@code key,type,amount} per line, type
+ * {@code CREDIT}/{@code DEBIT} (or just {@code C}/{@code D}), amount a plain
+ * non-negative integer. A header line is skipped. Keys are resolved to
+ * interned {@link LedgerKey} handles, so no String is created per record.</li>
+ * <li><b>Binary</b> ({@link #importBinary}): fixed-width
+ * {@value #BINARY_RECORD_SIZE}-byte big-endian records of {@code long key},
+ * {@code byte type} ({@code 'C'} or {@code 'D'}) and {@code long amount}.</li>
+ * </ul>
+ *
+ * <h2>Example Usage</h2>
+ *
+ * <pre>{@code
+ * BulkImporter importer = BulkImporter.builder()
+ *         .readers(4)
+ *         .publishers(ledgerThreadCount)
+ *         .onProgress(p -> log.info("{}% at {} rec/s", p.fraction() * 100, p.recordsPerSecond()))
+ *         .build();
+ * ImportProgress result = importer.importCsv(ledger, Path.of("eod-postings.csv"));
+ * ledger.releaseAll();
+ * }</pre>
+ *
+ * @since 1.4.0
+ */
+public final class BulkImporter {
+
+    /**
+     * Size of one binary record: key (8) + type (1) + amount (8).
+     */
+    public static final int BINARY_RECORD_SIZE = 17;
+
+    private static final int INITIAL_BUCKET_CAPACITY = 1024;
+
+    private final int readers;
+    private final int publishers;
+    private final int chunkBytes;
+    private final ImportProgressListener progressListener;
+
+    private BulkImporter(Builder builder) {
+        this.readers = builder.readers;
+        this.publishers = builder.publishers > 0 ? builder.publishers : builder.readers;
+        this.chunkBytes = builder.chunkBytes;
+        this.progressListener = builder.progressListener;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Imports a CSV file of {@code key,type,amount} lines.
+     *
+     * @return the final progress, with the number of records published
+     * @throws IOException              if the file cannot be mapped
+     * @throws IllegalArgumentException if a line is malformed or longer than the chunk size
+     */
+    public ImportProgress importCsv(OrbitLedger ledger, Path path) throws IOException {
+        ByteKeyTable[] tables = new ByteKeyTable[readers];
+        for (int r = 0; r < readers; r++) {
+            tables[r] = new ByteKeyTable(ledger, INITIAL_BUCKET_CAPACITY);
+        }
+        return run(path, false, new Format() {
+            @Override
+            public int alignEnd(ByteBuffer window, int length, boolean last) {
+                if (last) {
+                    return length;
+                }
+                for (int i = length - 1; i >= 0; i--) {
+                    if (window.get(i) == '\n') {
+                        return i + 1;
+                    }
+                }
+                throw new IllegalArgumentException("CSV line longer than chunk of " + chunkBytes + " bytes");
+            }
+
+            @Override
+            public int alignStart(ByteBuffer window, int nominal, int end) {
+                int i = nominal;
+                while (i > 0 && i < end && window.get(i - 1) != '\n') {
+                    i++;
+                }
+                return i;
+            }
+
+            @Override
+            public void parse(ByteBuffer window, long base, int from, int to, int reader, ImportBucket[] buckets) {
+                parseCsv(window, base, from, to, tables[reader], buckets);
+            }
+
+            @Override
+            public void publish(ImportBucket bucket) {
+                ledger.publishBatch(bucket.keys, bucket.amounts, bucket.types, 0, bucket.size);
+            }
+        });
+    }
+
+    /**
+     * Imports a file of fixed-width binary records into a numeric-key ledger.
+     *
+     * @return the final progress, with the number of records published
+     * @throws IOException              if the file cannot be mapped
+     * @throws IllegalArgumentException if the file size is not a multiple of the record
+     *                                  size or a record has an unknown type
+     */
+    public ImportProgress importBinary(LongOrbitLedger ledger, Path path) throws IOException {
+        return run(path, true, new Format() {
+            @Override
+            public int alignEnd(ByteBuffer window, int length, boolean last) {
+                int remainder = length % BINARY_RECORD_SIZE;
+                if (last && remainder != 0) {
+                    throw new IllegalArgumentException("Binary file ends with a partial record of "
+                            + remainder + " bytes");
+                }
+                return length - remainder;
+            }
+
+            @Override
+            public int alignStart(ByteBuffer window, int nominal, int end) {
+                int remainder = nominal % BINARY_RECORD_SIZE;
+                return remainder == 0 ? nominal : Math.min(end, nominal + BINARY_RECORD_SIZE - remainder);
+            }
+
+            @Override
+            public void parse(ByteBuffer window, long base, int from, int to, int reader, ImportBucket[] buckets) {
+                for (int i = from; i < to; i += BINARY_RECORD_SIZE) {
+                    long key = window.getLong(i);
+                    LedgerType type = typeOf(window.get(i + 8), base + i + 8);
+                    long amount = window.getLong(i + 9);
+                    buckets[Partitioner.MIXED.partition(key, publishers)].add(key, type, amount);
+                }
+            }
+
+            @Override
+            public void publish(ImportBucket bucket) {
+                ledger.publishBatch(bucket.numericKeys, bucket.amounts, bucket.types, 0, bucket.size);
+            }
+        });
+    }
+
+    /**
+     * Format-specific parts of the import loop.
+     */
+    private interface Format {
+
+        /**
+         * Returns the end of the last complete record in {@code window[0, length)}.
+         */
+        int alignEnd(ByteBuffer window, int length, boolean last);
+
+        /**
+         * Returns the first record start at or after {@code nominal}, at most {@code end}.
+         */
+        int alignStart(ByteBuffer window, int nominal, int end);
+
+        void parse(ByteBuffer window, long base, int from, int to, int reader, ImportBucket[] buckets);
+
+        void publish(ImportBucket bucket);
+    }
+
+    private ImportProgress run(Path path, boolean numeric, Format format) throws IOException {
+        ImportBucket[][] buckets = new ImportBucket[readers][publishers];
+        for (int r = 0; r < readers; r++) {
+            for (int p = 0; p < publishers; p++) {
+                buckets[r][p] = new ImportBucket(numeric, INITIAL_BUCKET_CAPACITY);
+            }
+        }
+
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(readers, publishers), r -> {
+            Thread t = new Thread(r, "Orbit-import-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        long startNs = System.nanoTime();
+        long records = 0;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long windowBytes = Math.min(Integer.MAX_VALUE, (long) readers * chunkBytes);
+            long position = 0;
+            while (position < size) {
+                int length = (int) Math.min(size - position, windowBytes);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                int end = format.alignEnd(window, length, position + length == size);
+
+                // Phase 1: readers parse record-aligned slices of the window
+                int[] bounds = new int[readers + 1];
+                bounds[readers] = end;
+                for (int r = 1; r < readers; r++) {
+                    int nominal = (int) ((long) end * r / readers);
+                    bounds[r] = format.alignStart(window, Math.max(nominal, bounds[r - 1]), end);
+                }
+                long base = position;
+                List<Callable<Void>> parseTasks = new ArrayList<>(readers);
+                for (int r = 0; r < readers; r++) {
+                    int reader = r;
+                    parseTasks.add(() -> {
+                        format.parse(window, base, bounds[reader], bounds[reader + 1], reader, buckets[reader]);
+                        return null;
+                    });
+                }
+                invokeAll(pool, parseTasks);
+
+                // Phase 2: each publisher drains its column of buckets in reader (= file) order
+                List<Callable<Void>> publishTasks = new ArrayList<>(publishers);
+                for (int p = 0; p < publishers; p++) {
+                    int publisher = p;
+                    publishTasks.add(() -> {
+                        for (int r = 0; r < readers; r++) {
+                            ImportBucket bucket = buckets[r][publisher];
+                            if (bucket.size > 0) {
+                                format.publish(bucket);
+                            }
+                        }
+                        return null;
+                    });
+                }
+                invokeAll(pool, publishTasks);
+
+                for (ImportBucket[] row : buckets) {
+                    for (ImportBucket bucket : row) {
+                        records += bucket.size;
+                        bucket.clear();
+                    }
+                }
+                position += end;
+                if (progressListener != null) {
+                    progressListener.onProgress(new ImportProgress(records, position, size,
+                            System.nanoTime() - startNs));
+                }
+            }
+            return new ImportProgress(records, position, size, System.nanoTime() - startNs);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void invokeAll(ExecutorService pool, List<Callable<Void>> tasks) {
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted during bulk import", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new RuntimeException("Bulk import failed", e.getCause());
+        }
+    }
+
+    /**
+     * Parses the CSV lines in {@code window[from, to)} without creating Strings.
+     */
+    private void parseCsv(ByteBuffer window, long base, int from, int to, ByteKeyTable table,
+            ImportBucket[] buckets) {
+        int i = from;
+        while (i < to) {
+            int lineEnd = i;
+            while (lineEnd < to && window.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            int end = lineEnd > i && window.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+            parseCsvLine(window, base, i, end, table, buckets);
+            i = lineEnd + 1;
+        }
+    }
+
+    private void parseCsvLine(ByteBuffer window, long base, int from, int to, ByteKeyTable table,
+            ImportBucket[] buckets) {
+        int keyStart = skipSpaces(window, from, to);
+        if (keyStart == to) {
+            return; // blank line
+        }
+        int firstComma = indexOf(window, ',', keyStart, to);
+        int secondComma = firstComma < 0 ? -1 : indexOf(window, ',', firstComma + 1, to);
+        if (secondComma < 0) {
+            throw invalidRecord(base, from);
+        }
+
+        int amountStart = skipSpaces(window, secondComma + 1, to);
+        if (amountStart == to || !isDigit(window.get(amountStart))) {
+            if (base + from == 0) {
+                return; // header line
+            }
+            throw invalidRecord(base, from);
+        }
+        long amount = 0;
+        int i = amountStart;
+        while (i < to && isDigit(window.get(i))) {
+            amount = Math.addExact(Math.multiplyExact(amount, 10), window.get(i++) - '0');
+        }
+        if (skipSpaces(window, i, to) != to) {
+            throw invalidRecord(base, from);
+        }
+
+        LedgerType type = typeOf(window.get(skipSpaces(window, firstComma + 1, secondComma)), base + from);
+        int keyEnd = firstComma;
+        while (keyEnd > keyStart && window.get(keyEnd - 1) == ' ') {
+            keyEnd--;
+        }
+        LedgerKey key = table.resolve(window, keyStart, keyEnd);
+        buckets[key.partition() % publishers].add(key, type, amount);
+    }
+
+    private static LedgerType typeOf(byte code, long offset) {
+        return switch (code) {
+            case 'C', 'c' -> LedgerType.CREDIT;
+            case 'D', 'd' -> LedgerType.DEBIT;
+            default -> throw new IllegalArgumentException("Unknown record type '" + (char) code
+                    + "' at byte " + offset);
+        };
+    }
+
+    private static IllegalArgumentException invalidRecord(long base, int from) {
+        return new IllegalArgumentException("Invalid CSV record at byte " + (base + from));
+    }
+
+    private static int skipSpaces(ByteBuffer window, int from, int to) {
+        while (from < to && window.get(from) == ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int indexOf(ByteBuffer window, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (window.get(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+
+    /**
+     * Builder for {@link BulkImporter}.
+     */
+    public static final class Builder {
+
+        private int readers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        private int publishers; // 0 = same as readers
+        private int chunkBytes = 16 * 1024 * 1024;
+        private ImportProgressListener progressListener;
+
+        private Builder() {
+        }
+
+        /**
+         * Set the number of parsing threads.
+         * <p>
+         * Default: half the available processors
+         * </p>
+         */
+        public Builder readers(int readers) {
+            if (readers <= 0) {
+                throw new IllegalArgumentException("readers must be positive: " + readers);
+            }
+            this.readers = readers;
+            return this;
+        }
+
+        /**
+         * Set the number of publishing threads.
+         * <p>
+         * Use the ledger's {@code threadCount} so every batch lands on a single
+         * partition. Default: same as {@link #readers(int)}
+         * </p>
+         */
+        public Builder publishers(int publishers) {
+            if (publishers <= 0) {
+                throw new IllegalArgumentException("publishers must be positive: " + publishers);
+            }
+            this.publishers = publishers;
+            return this;
+        }
+
+        /**
+         * Set the bytes each reader parses per window.
+         * <p>
+         * Must exceed the longest CSV line. Default: 16 MB
+         * </p>
+         */
+        public Builder chunkBytes(int chunkBytes) {
+            if (chunkBytes < BINARY_RECORD_SIZE) {
+                throw new IllegalArgumentException("chunkBytes must be at least " + BINARY_RECORD_SIZE
+                        + ": " + chunkBytes);
+            }
+            this.chunkBytes = chunkBytes;
+            return this;
+        }
+
+        /**
+         * Set the listener called after every window.
+         */
+        public Builder onProgress(ImportProgressListener listener) {
+            this.progressListener = listener;
+            return this;
+        }
+
+        public BulkImporter build() {
+            return new BulkImporter(this);
+        }
+    }
+}
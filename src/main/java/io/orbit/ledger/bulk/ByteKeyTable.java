@@ -0,0 +1,109 @@
+package io.orbit.ledger.bulk;
+
+import io.orbit.ledger.api.LedgerKey;
+import io.orbit.ledger.api.OrbitLedger;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Per-reader dictionary from raw key bytes to interned {@link LedgerKey} handles.
+ * <p>
+ * OPTIMIZATION: Keys are hashed and compared in the mapped file, so a String
+ * is only created the first time a reader meets a key (v1.4.0). Open
+ * addressing with linear probing; single-threaded by design.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+final class ByteKeyTable {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final OrbitLedger ledger;
+    private byte[][] keyBytes;
+    private int[] hashes;
+    private LedgerKey[] handles;
+    private int size;
+
+    ByteKeyTable(OrbitLedger ledger, int initialCapacity) {
+        this.ledger = ledger;
+        int capacity = Integer.highestOneBit(Math.max(16, initialCapacity) - 1) << 1;
+        this.keyBytes = new byte[capacity][];
+        this.hashes = new int[capacity];
+        this.handles = new LedgerKey[capacity];
+    }
+
+    /**
+     * Returns the handle for the key stored in {@code buffer[from, to)}.
+     */
+    LedgerKey resolve(ByteBuffer buffer, int from, int to) {
+        int hash = 0;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + buffer.get(i);
+        }
+
+        int mask = handles.length - 1;
+        int slot = mix(hash) & mask;
+        while (handles[slot] != null) {
+            if (hashes[slot] == hash && matches(keyBytes[slot], buffer, from, to)) {
+                return handles[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        // First sighting in this reader: the only allocation for the key
+        byte[] bytes = new byte[to - from];
+        buffer.get(from, bytes);
+        LedgerKey handle = ledger.key(new String(bytes, StandardCharsets.UTF_8));
+        keyBytes[slot] = bytes;
+        hashes[slot] = hash;
+        handles[slot] = handle;
+        if (++size > handles.length * LOAD_FACTOR) {
+            rehash();
+        }
+        return handle;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static boolean matches(byte[] bytes, ByteBuffer buffer, int from, int to) {
+        if (bytes.length != to - from) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] != buffer.get(from + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private void rehash() {
+        byte[][] oldBytes = keyBytes;
+        int[] oldHashes = hashes;
+        LedgerKey[] oldHandles = handles;
+        int capacity = oldHandles.length * 2;
+        keyBytes = new byte[capacity][];
+        hashes = new int[capacity];
+        handles = new LedgerKey[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldHandles.length; i++) {
+            if (oldHandles[i] != null) {
+                int slot = mix(oldHashes[i]) & mask;
+                while (handles[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keyBytes[slot] = oldBytes[i];
+                hashes[slot] = oldHashes[i];
+                handles[slot] = oldHandles[i];
+            }
+        }
+    }
+}
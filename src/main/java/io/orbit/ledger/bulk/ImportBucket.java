@@ -0,0 +1,67 @@
+package io.orbit.ledger.bulk;
+
+import io.orbit.ledger.api.LedgerKey;
+import io.orbit.ledger.enums.LedgerType;
+
+import java.util.Arrays;
+
+/**
+ * Columnar buffer of parsed records for one (reader, publisher) pair.
+ * <p>
+ * Reused for every window of the file: {@link #clear()} only resets the
+ * size, so steady-state parsing allocates nothing.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+final class ImportBucket {
+
+    LedgerKey[] keys;     // CSV
+    long[] numericKeys;   // binary
+    long[] amounts;
+    LedgerType[] types;
+    int size;
+
+    ImportBucket(boolean numeric, int initialCapacity) {
+        if (numeric) {
+            numericKeys = new long[initialCapacity];
+        } else {
+            keys = new LedgerKey[initialCapacity];
+        }
+        amounts = new long[initialCapacity];
+        types = new LedgerType[initialCapacity];
+    }
+
+    void add(LedgerKey key, LedgerType type, long amount) {
+        if (size == amounts.length) {
+            grow();
+        }
+        keys[size] = key;
+        types[size] = type;
+        amounts[size++] = amount;
+    }
+
+    void add(long key, LedgerType type, long amount) {
+        if (size == amounts.length) {
+            grow();
+        }
+        numericKeys[size] = key;
+        types[size] = type;
+        amounts[size++] = amount;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    private void grow() {
+        int capacity = amounts.length * 2;
+        if (keys != null) {
+            keys = Arrays.copyOf(keys, capacity);
+        } else {
+            numericKeys = Arrays.copyOf(numericKeys, capacity);
+        }
+        amounts = Arrays.copyOf(amounts, capacity);
+        types = Arrays.copyOf(types, capacity);
+    }
+}
@@ -0,0 +1,119 @@
+package io.orbit.ledger.core;
+
+import io.orbit.ledger.enums.WaitState;
+import io.orbit.ledger.model.WorkerWaitStats;
+
+/**
+ * Picks how one worker waits from its recent idle time and arrival rate.
+ *
+ * <p>
+ * The worker reports every wait and every batch it receives through
+ * {@link #record}. Once per window (1ms) the totals decide the next state:
+ * </p>
+ * <ul>
+ * <li>waiting less than half the window: spin, from any state</li>
+ * <li>parked, but {@value #YIELD_ARRIVAL_RATE}+ events/sec arriving: yield</li>
+ * <li>spinning, and {@value #SPIN_QUIET_WINDOWS} quiet windows in a row: yield</li>
+ * <li>yielding, and {@value #YIELD_QUIET_WINDOWS} quiet windows in a row with
+ * fewer than {@value #PARK_ARRIVAL_RATE} events/sec: park</li>
+ * </ul>
+ * <p>
+ * A window is quiet if it was idle over 90% or received no events at all.
+ * </p>
+ * <p>
+ * Load moves a worker up at once, quiet only moves it down one step after a
+ * run of quiet windows, and the arrival rates to leave and re-enter parking
+ * differ tenfold. So a burst is served spinning right away, while brief
+ * lulls or a steady trickle do not make the state flap.
+ * </p>
+ * <p>
+ * Only the owning worker calls {@link #record}; the state and last window's
+ * figures are volatile so {@link #stats()} can read them from any thread.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+public final class AdaptiveBackoff {
+
+    static final long WINDOW_NS = 1_000_000;
+    static final double BUSY_IDLE_RATIO = 0.5;
+    static final double QUIET_IDLE_RATIO = 0.9;
+    static final long YIELD_ARRIVAL_RATE = 10_000;
+    static final long PARK_ARRIVAL_RATE = 1_000;
+    static final int SPIN_QUIET_WINDOWS = 10;
+    static final int YIELD_QUIET_WINDOWS = 100;
+
+    // Owner thread only
+    private long windowStart;
+    private long idleNanos;
+    private long arrivals;
+    private int quietWindows;
+
+    private volatile WaitState state = WaitState.PARK;
+    private volatile double idleRatio = 1.0;
+    private volatile long arrivalRate;
+    private volatile long transitions;
+
+    /**
+     * @param now start of the first window, from {@code System.nanoTime()}
+     */
+    public AdaptiveBackoff(long now) {
+        this.windowStart = now;
+    }
+
+    public WaitState state() {
+        return state;
+    }
+
+    /**
+     * Adds a wait and the events it yielded, and moves to the next window
+     * once the current one is over.
+     *
+     * @param waitedNanos time spent waiting since the last call
+     * @param events      events received since the last call
+     * @param now         {@code System.nanoTime()}
+     */
+    public void record(long waitedNanos, long events, long now) {
+        idleNanos += waitedNanos;
+        arrivals += events;
+        long window = now - windowStart;
+        if (window < WINDOW_NS) {
+            return;
+        }
+        double ratio = Math.min(1.0, (double) idleNanos / window);
+        long rate = arrivals * 1_000_000_000L / window;
+        windowStart = now;
+        idleNanos = 0;
+        arrivals = 0;
+        idleRatio = ratio;
+        arrivalRate = rate;
+
+        WaitState current = state;
+        WaitState next = current;
+        boolean quiet = ratio > QUIET_IDLE_RATIO || rate == 0;
+        if (ratio < BUSY_IDLE_RATIO) {
+            next = WaitState.SPIN;
+            quietWindows = 0;
+        } else if (current == WaitState.PARK && rate >= YIELD_ARRIVAL_RATE) {
+            next = WaitState.YIELD;
+        } else if (quiet && (current != WaitState.YIELD || rate < PARK_ARRIVAL_RATE)) {
+            quietWindows++;
+            if (current == WaitState.SPIN && quietWindows >= SPIN_QUIET_WINDOWS) {
+                next = WaitState.YIELD;
+            } else if (current == WaitState.YIELD && quietWindows >= YIELD_QUIET_WINDOWS) {
+                next = WaitState.PARK;
+            }
+        } else {
+            quietWindows = 0;
+        }
+        if (next != current) {
+            state = next;
+            transitions++;
+            quietWindows = 0;
+        }
+    }
+
+    public WorkerWaitStats stats() {
+        return new WorkerWaitStats(state, idleRatio, arrivalRate, transitions);
+    }
+}
@@ -0,0 +1,107 @@
+package io.orbit.ledger.core;
+
+import com.lmax.disruptor.AlertException;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SequenceBarrier;
+import com.lmax.disruptor.WaitStrategy;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Wait strategy for {@code PerformanceMode.ADAPTIVE}: each consumer spins,
+ * yields or parks as its own {@link AdaptiveBackoff} decides.
+ *
+ * <p>
+ * Consumers of one ring share the strategy, so each thread keeps its
+ * backoff in a thread local. Parking works like Disruptor's
+ * {@code LiteBlockingWaitStrategy}: publishers only take the lock when a
+ * consumer actually parked.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+public final class AdaptiveWaitStrategy implements WaitStrategy {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    private final AtomicBoolean signalNeeded = new AtomicBoolean();
+    private final ThreadLocal<AdaptiveBackoff> backoffs = new ThreadLocal<>();
+    private final List<AdaptiveBackoff> registry;
+
+    /**
+     * @param registry receives the backoff of every consumer waiting on the
+     *                 ring cursor itself (not behind other consumers), for metrics
+     */
+    public AdaptiveWaitStrategy(List<AdaptiveBackoff> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public long waitFor(long sequence, Sequence cursor, Sequence dependentSequence, SequenceBarrier barrier)
+            throws AlertException, InterruptedException {
+        AdaptiveBackoff backoff = backoffs.get();
+        long now = System.nanoTime();
+        if (backoff == null) {
+            backoff = new AdaptiveBackoff(now);
+            backoffs.set(backoff);
+            if (dependentSequence == cursor) {
+                registry.add(backoff);
+            }
+        }
+
+        long available = dependentSequence.get();
+        long waitStart = now;
+        while (available < sequence) {
+            barrier.checkAlert();
+            switch (backoff.state()) {
+                case SPIN -> Thread.onSpinWait();
+                case YIELD -> Thread.yield();
+                case PARK -> park(sequence, cursor, barrier);
+            }
+            // Account as we go, so a long wait can step the state down while it lasts
+            now = System.nanoTime();
+            backoff.record(now - waitStart, 0, now);
+            waitStart = now;
+            available = dependentSequence.get();
+        }
+        backoff.record(now - waitStart, available - sequence + 1, now);
+        return available;
+    }
+
+    private void park(long sequence, Sequence cursor, SequenceBarrier barrier)
+            throws AlertException, InterruptedException {
+        if (cursor.get() >= sequence) {
+            // Published, only waiting for the consumers ahead of us: nothing will signal
+            Thread.onSpinWait();
+            return;
+        }
+        lock.lock();
+        try {
+            do {
+                signalNeeded.getAndSet(true);
+                if (cursor.get() >= sequence) {
+                    break;
+                }
+                barrier.checkAlert();
+                published.await();
+            } while (cursor.get() < sequence);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+        if (signalNeeded.getAndSet(false)) {
+            lock.lock();
+            try {
+                published.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package io.orbit.ledger.core;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Cold tier of one worker's key states: the committed balance and sequence
+ * of evicted keys, in a memory-mapped file.
+ * <p>
+ * TRACKED BY SINGLE THREAD (Worker). NO LOCKS. NO ATOMICS.
+ * </p>
+ * <p>
+ * OPTIMIZATION: An evicted key is written to one fixed-size slot of a
+ * mapped open-addressing table instead of being dropped, and a returning key
+ * is read back from it instead of calling the {@code BalanceLoader} (v1.4.0).
+ * A fault-in is a hash probe into a page the OS keeps cached while it is
+ * warm, not a database round-trip; the cold keys cost neither heap nor GC
+ * work, and the OS decides which pages stay in memory.
+ * </p>
+ * <p>
+ * Only settled state is stored: a key is spilled after its release, with no
+ * pending events. The file is scratch space for the running engine and is
+ * deleted on {@link #close()}; it is not a recovery log.
+ * </p>
+ * <p>
+ * A file holds either String keys of at most {@code maxKeyLength} chars or
+ * numeric keys ({@code maxKeyLength} 0), in an {@link OffHeapSlotTable}. A
+ * slot index is only valid until the next insert or removal.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+public final class ColdKeyStateFile implements AutoCloseable {
+
+    // Slot payload, after the table's header; 4 unused bytes keep the longs aligned
+    private static final int BALANCE = 4;              // long: committed balance
+    private static final int COMMITTED_SEQUENCE = 12;  // long: last committed (= last assigned) sequence
+    private static final int PAYLOAD_BYTES = 20;
+
+    private static final int MIN_CAPACITY = 1024;
+
+    /**
+     * Callback for {@link #forEach(SlotConsumer)}.
+     */
+    @FunctionalInterface
+    public interface SlotConsumer {
+        void accept(int slot);
+    }
+
+    private final Path path;
+    private final OffHeapSlotTable slots;
+
+    /**
+     * Creates the file, replacing any file left at {@code path}.
+     *
+     * @param path         file to map
+     * @param maxKeyLength longest String key in chars, or 0 for a numeric-key file
+     * @param expectedKeys number of keys the file should hold without growing
+     */
+    public ColdKeyStateFile(Path path, int maxKeyLength, int expectedKeys) {
+        this.path = path;
+        this.slots = new OffHeapSlotTable(maxKeyLength, PAYLOAD_BYTES, expectedKeys, MIN_CAPACITY, new FileStorage());
+    }
+
+    /**
+     * Returns whether the String key is short enough to be stored here.
+     */
+    public boolean fits(String key) {
+        return slots.fits(key);
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Returns the size of the mapped file.
+     */
+    public long fileBytes() {
+        return slots.bytes();
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // LOOKUP
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Returns the slot of the key, or -1.
+     */
+    public int find(String key) {
+        return slots.find(key);
+    }
+
+    public int find(long key) {
+        return slots.find(key);
+    }
+
+    public long getCommittedBalance(int slot) {
+        return getLong(slot, BALANCE);
+    }
+
+    public long getLastCommittedSequence(int slot) {
+        return getLong(slot, COMMITTED_SEQUENCE);
+    }
+
+    /**
+     * Returns the String key of a slot. Allocates; not for the event path.
+     */
+    public String keyAt(int slot) {
+        return slots.keyAt(slot);
+    }
+
+    public long numericKeyAt(int slot) {
+        return slots.numericKeyAt(slot);
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // SPILL, REMOVAL, ITERATION
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Stores a settled key state. The key must {@link #fits fit}.
+     *
+     * @param balance  committed balance
+     * @param sequence last committed sequence
+     */
+    public void put(String key, long balance, long sequence) {
+        write(slots.findOrCreate(key), balance, sequence);
+    }
+
+    public void put(long key, long balance, long sequence) {
+        write(slots.findOrCreate(key), balance, sequence);
+    }
+
+    /**
+     * Drops a key, e.g. once it is back in the hot tier. Other slots may move.
+     */
+    public void remove(int slot) {
+        slots.remove(slot);
+    }
+
+    /**
+     * Visits every key.
+     * <p>
+     * The action may {@link #remove(int) remove} the slot it is visiting; it
+     * must not insert keys. A key moved by that removal can be visited twice,
+     * never skipped.
+     * </p>
+     */
+    public void forEach(SlotConsumer action) {
+        slots.forEach(action::accept);
+    }
+
+    /**
+     * Deletes the file. The mapping stays readable until it is collected,
+     * but the store must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete key state file " + path, e);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // INTERNALS
+    // ═══════════════════════════════════════════════════════════════
+
+    private void write(int slot, long balance, long sequence) {
+        slots.putLong(slot, BALANCE, balance);
+        slots.putLong(slot, COMMITTED_SEQUENCE, sequence);
+    }
+
+    private long getLong(int slot, int field) {
+        return slots.getLong(slot, field);
+    }
+
+    /**
+     * Maps every table generation into a sibling file, then puts it in place
+     * of {@code path}. The old mapping stays valid until collected.
+     */
+    private final class FileStorage implements OffHeapSlotTable.Storage {
+
+        private final Path next = path.resolveSibling(path.getFileName() + ".rehash");
+
+        @Override
+        public OffHeapRegion allocate(int slotBytes, int capacity) {
+            // A mapping does not depend on its channel: close it once the table is mapped
+            try (FileChannel channel = FileChannel.open(next, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                OffHeapRegion region = new OffHeapRegion(slotBytes, capacity, channel);
+                region.ensureRecords(capacity);
+                return region;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create key state file " + next, e);
+            }
+        }
+
+        @Override
+        public void installed() {
+            try {
+                Files.move(next, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot replace key state file " + path, e);
+            }
+        }
+    }
+}
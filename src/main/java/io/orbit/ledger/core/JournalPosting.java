@@ -0,0 +1,122 @@
+package io.orbit.ledger.core;
+
+import io.orbit.ledger.api.Partitioner;
+import io.orbit.ledger.model.JournalEntry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link JournalEntry} in flight, shared by every ring slot that carries it.
+ *
+ * <p>
+ * Holds the owning partition of each leg and a barrier: every involved worker
+ * applies its legs, then waits in {@link #arriveAndAwait()} until all other
+ * involved workers have applied theirs. Then every involved worker releases
+ * the keys of its legs, so the legs of one entry come out together. Workers waiting here are
+ * never waited on for a later slot, so the barrier cannot deadlock as long as
+ * every ring sees multi-partition entries in the same order.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+public final class JournalPosting {
+
+    // Spin briefly (workers are usually close together), then back off
+    private static final int SPIN_LIMIT = 1_000;
+    private static final long PARK_NS = 10_000;
+
+    private final JournalEntry entry;
+    private final int[] legPartitions;
+    private final int[] partitions; // distinct, ascending
+    private final AtomicInteger pending;
+    private final int totalWorkers;
+    private final AtomicReference<JournalPosting> rebased = new AtomicReference<>();
+
+    /**
+     * @param entry         the entry to post
+     * @param legPartitions owning partition of each leg, in leg order
+     * @param totalWorkers  number of partitions
+     */
+    public JournalPosting(JournalEntry entry, int[] legPartitions, int totalWorkers) {
+        this.entry = entry;
+        this.legPartitions = legPartitions;
+        boolean[] involved = new boolean[totalWorkers];
+        int count = 0;
+        for (int partition : legPartitions) {
+            if (!involved[partition]) {
+                involved[partition] = true;
+                count++;
+            }
+        }
+        this.partitions = new int[count];
+        for (int p = 0, n = 0; p < totalWorkers; p++) {
+            if (involved[p]) {
+                partitions[n++] = p;
+            }
+        }
+        this.pending = new AtomicInteger(count);
+        this.totalWorkers = totalWorkers;
+    }
+
+    /**
+     * Returns this posting with legs placed over {@code totalWorkers} partitions.
+     * <p>
+     * Used when the worker count changed between publish and processing. All
+     * workers reach the slot with the same count, so they all get the same
+     * replacement and share its barrier.
+     * </p>
+     */
+    public JournalPosting forWorkers(int totalWorkers, Partitioner partitioner) {
+        if (totalWorkers == this.totalWorkers) {
+            return this;
+        }
+        JournalPosting current = rebased.get();
+        if (current != null) {
+            return current;
+        }
+        int[] placed = new int[legPartitions.length];
+        for (int i = 0; i < placed.length; i++) {
+            placed[i] = partitioner.partition(entry.legs().get(i).key(), totalWorkers);
+        }
+        rebased.compareAndSet(null, new JournalPosting(entry, placed, totalWorkers));
+        return rebased.get();
+    }
+
+    public JournalEntry getEntry() {
+        return entry;
+    }
+
+    /**
+     * Returns the partition owning leg {@code index}.
+     */
+    public int partitionOf(int index) {
+        return legPartitions[index];
+    }
+
+    /**
+     * Returns the distinct partitions involved, in ascending order.
+     */
+    public int[] getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * Signals that the calling worker applied its legs and waits for the others.
+     */
+    public void arriveAndAwait() {
+        if (pending.decrementAndGet() == 0) {
+            return;
+        }
+        int spins = 0;
+        while (pending.get() > 0) {
+            if (spins < SPIN_LIMIT) {
+                spins++;
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(PARK_NS);
+            }
+        }
+    }
+}
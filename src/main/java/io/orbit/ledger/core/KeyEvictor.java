@@ -0,0 +1,158 @@
+package io.orbit.ledger.core;
+
+import io.orbit.ledger.enums.EvictionPolicy;
+
+/**
+ * Incremental {@link EvictionPolicy#IDLE_TIMEOUT} and
+ * {@link EvictionPolicy#MAX_KEYS} eviction over the key tables of one worker.
+ * <p>
+ * TRACKED BY SINGLE THREAD (Worker). NO LOCKS. NO ATOMICS.
+ * </p>
+ * <p>
+ * OPTIMIZATION: One cursor moves over the worker's tables a few slots per
+ * event, so eviction work follows the traffic in small steps instead of a
+ * scan of every key at once (v1.4.0). {@code IDLE_TIMEOUT} evicts the keys
+ * it passes whose last event is older than the timeout. {@code MAX_KEYS}
+ * only moves while the worker holds too many keys; the cursor is then a
+ * CLOCK hand: a key used since the hand last passed loses its mark and
+ * stays, an unmarked key is evicted.
+ * </p>
+ * <p>
+ * After an eviction the cursor stays on the slot, since the table may have
+ * moved a later key into it.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+public final class KeyEvictor {
+
+    // Slots examined per event: bounds the work added to one event
+    static final int SLOTS_PER_STEP = 8;
+
+    /**
+     * A key table as seen by the cursor.
+     */
+    public interface Table {
+        int size();
+
+        int capacity();
+
+        boolean isUsed(int slot);
+
+        long lastAccessMs(int slot);
+
+        boolean testAndClearReferenced(int slot);
+
+        /**
+         * Releases the key's pending events, if any, and removes it.
+         */
+        void evict(int slot);
+    }
+
+    private final EvictionPolicy policy;
+    private final long idleTimeoutMs;
+    private final int maxKeys;
+    private final Table[] tables;
+    private int tableCursor;
+    private int slotCursor;
+    private long evictions;
+
+    /**
+     * @param policy        {@code IDLE_TIMEOUT} or {@code MAX_KEYS}
+     * @param idleTimeoutMs inactivity after which {@code IDLE_TIMEOUT} evicts a key
+     * @param maxKeys       keys {@code MAX_KEYS} lets the tables hold together
+     * @param tables        the worker's key tables
+     */
+    public KeyEvictor(EvictionPolicy policy, long idleTimeoutMs, int maxKeys, Table... tables) {
+        if (policy != EvictionPolicy.IDLE_TIMEOUT && policy != EvictionPolicy.MAX_KEYS) {
+            throw new IllegalArgumentException("Not an incremental eviction policy: " + policy);
+        }
+        if (tables.length == 0) {
+            throw new IllegalArgumentException("tables must not be empty");
+        }
+        this.policy = policy;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxKeys = maxKeys;
+        this.tables = tables.clone();
+    }
+
+    /**
+     * Advances the cursor by a few slots; called once per event.
+     *
+     * @param nowMs timestamp of the event
+     */
+    public void step(long nowMs) {
+        advance(nowMs, SLOTS_PER_STEP);
+    }
+
+    /**
+     * Advances the cursor over every key; called on release-all, which
+     * visits every key anyway.
+     *
+     * @param nowMs current time
+     */
+    public void sweep(long nowMs) {
+        int slots = 0;
+        for (Table table : tables) {
+            slots += table.capacity();
+        }
+        // Every slot once plus one step per possible eviction; CLOCK may need a second turn
+        int budget = slots + size();
+        if (policy == EvictionPolicy.MAX_KEYS) {
+            budget += slots;
+        }
+        advance(nowMs, budget);
+    }
+
+    /**
+     * Returns the number of keys evicted so far.
+     */
+    public long getEvictions() {
+        return evictions;
+    }
+
+    private void advance(long nowMs, int budget) {
+        int keys = size();
+        if (keys == 0) {
+            return;
+        }
+        int excess = keys - maxKeys;
+        if (policy == EvictionPolicy.MAX_KEYS && excess <= 0) {
+            return; // under the bound: the hand stays where it is
+        }
+        while (budget > 0) {
+            Table table = tables[tableCursor];
+            if (slotCursor >= table.capacity() || table.size() == 0) {
+                // Next table; free, so empty tables cost nothing
+                tableCursor = tableCursor + 1 == tables.length ? 0 : tableCursor + 1;
+                slotCursor = 0;
+                continue;
+            }
+            budget--;
+            if (table.isUsed(slotCursor) && shouldEvict(table, slotCursor, nowMs)) {
+                table.evict(slotCursor);
+                evictions++;
+                if (--keys == 0 || (policy == EvictionPolicy.MAX_KEYS && --excess == 0)) {
+                    return;
+                }
+                continue; // a later key may have moved into this slot
+            }
+            slotCursor++;
+        }
+    }
+
+    private boolean shouldEvict(Table table, int slot, long nowMs) {
+        if (policy == EvictionPolicy.IDLE_TIMEOUT) {
+            return nowMs - table.lastAccessMs(slot) >= idleTimeoutMs;
+        }
+        return !table.testAndClearReferenced(slot);
+    }
+
+    private int size() {
+        int size = 0;
+        for (Table table : tables) {
+            size += table.size();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,262 @@
+package io.orbit.ledger.core;
+
+/**
+ * Open-addressing map from String keys to {@link LedgerKeyState}.
+ * <p>
+ * TRACKED BY SINGLE THREAD (Worker). NO LOCKS. NO ATOMICS.
+ * </p>
+ * <p>
+ * OPTIMIZATION: Replaces the worker's {@code ConcurrentHashMap}, which only
+ * its worker ever wrote: linear probing over parallel
+ * {@code int[]}/{@code String[]}/{@code LedgerKeyState[]} arrays means no
+ * volatile reads, no node per entry and no lambda per lookup (v1.4.0). The
+ * stored hash is compared before {@code equals} and reused on rehash.
+ * Removal uses backward-shift deletion, so there are no tombstones.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+public final class KeyStateMap {
+
+    private static final float LOAD_FACTOR = 0.6f;
+    private static final int MIN_CAPACITY = 16;
+
+    private int[] hashes;
+    private String[] keys;
+    private LedgerKeyState[] values; // null = free slot
+    private int mask;
+    private int size;
+    private int resizeAt;
+    private final PendingEventArena pendingEvents; // shared by the states created here
+
+    /**
+     * Callback for {@link #forEach(KeyStateConsumer)}.
+     */
+    @FunctionalInterface
+    public interface KeyStateConsumer {
+        void accept(String key, LedgerKeyState state);
+    }
+
+    public KeyStateMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedKeys number of keys the map should hold without growing
+     */
+    public KeyStateMap(int expectedKeys) {
+        this(expectedKeys, new PendingEventArena());
+    }
+
+    /**
+     * @param expectedKeys  number of keys the map should hold without growing
+     * @param pendingEvents arena for the pending events of the states it creates
+     */
+    public KeyStateMap(int expectedKeys, PendingEventArena pendingEvents) {
+        this.pendingEvents = pendingEvents;
+        int capacity = tableSizeFor(Math.max(MIN_CAPACITY, (int) Math.ceil(expectedKeys / LOAD_FACTOR)));
+        allocate(capacity);
+    }
+
+    public LedgerKeyState get(String key) {
+        int hash = hash(key);
+        int idx = hash & mask;
+        LedgerKeyState state;
+        while ((state = values[idx]) != null) {
+            if (hashes[idx] == hash && key.equals(keys[idx])) {
+                return state;
+            }
+            idx = (idx + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the state for the key, creating an empty one on first access.
+     */
+    public LedgerKeyState getOrCreate(String key) {
+        int hash = hash(key);
+        int idx = hash & mask;
+        LedgerKeyState state;
+        while ((state = values[idx]) != null) {
+            if (hashes[idx] == hash && key.equals(keys[idx])) {
+                return state;
+            }
+            idx = (idx + 1) & mask;
+        }
+        state = new LedgerKeyState(pendingEvents);
+        insert(idx, hash, key, state);
+        return state;
+    }
+
+    /**
+     * Maps the key to an existing state, e.g. one handed over by another worker.
+     */
+    public void put(String key, LedgerKeyState state) {
+        int hash = hash(key);
+        int idx = hash & mask;
+        while (values[idx] != null) {
+            if (hashes[idx] == hash && key.equals(keys[idx])) {
+                values[idx] = state;
+                return;
+            }
+            idx = (idx + 1) & mask;
+        }
+        insert(idx, hash, key, state);
+    }
+
+    public LedgerKeyState remove(String key) {
+        int hash = hash(key);
+        int idx = hash & mask;
+        LedgerKeyState state;
+        while ((state = values[idx]) != null) {
+            if (hashes[idx] == hash && key.equals(keys[idx])) {
+                shiftBack(idx);
+                size--;
+                return state;
+            }
+            idx = (idx + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(String key) {
+        return get(key) != null;
+    }
+
+    public PendingEventArena pendingEvents() {
+        return pendingEvents;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Visits every entry.
+     * <p>
+     * The action may {@link #remove(String) remove} the key it is visiting
+     * (eviction after release, hand-over on resize); it must not insert new
+     * keys. An entry moved by that removal can be visited twice, never skipped.
+     * </p>
+     */
+    public void forEach(KeyStateConsumer action) {
+        for (int i = 0; i < values.length; i++) {
+            LedgerKeyState state;
+            while ((state = values[i]) != null) {
+                action.accept(keys[i], state);
+                if (values[i] == state) {
+                    break; // not removed: move on
+                }
+                // Removed: slot i now holds a shifted entry (or nothing)
+            }
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // SLOT ACCESS (incremental sweeps)
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Returns the number of slots. A slot index is only valid until the next
+     * insert or removal.
+     */
+    public int capacity() {
+        return values.length;
+    }
+
+    /**
+     * Returns the state in a slot, or null for a free slot.
+     */
+    public LedgerKeyState stateAt(int slot) {
+        return values[slot];
+    }
+
+    public String keyAt(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * Removes the entry in a used slot; a later entry may move into it.
+     */
+    public void removeAt(int slot) {
+        shiftBack(slot);
+        size--;
+    }
+
+    private void insert(int idx, int hash, String key, LedgerKeyState state) {
+        hashes[idx] = hash;
+        keys[idx] = key;
+        values[idx] = state;
+        if (++size >= resizeAt) {
+            rehash(values.length << 1);
+        }
+    }
+
+    private static int hash(String key) {
+        // String caches its hashCode; spread it so similar keys leave the low bits distinct
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Backward-shift deletion: pulls later entries of the probe chain into the hole.
+     */
+    private void shiftBack(int hole) {
+        int idx = hole;
+        while (true) {
+            idx = (idx + 1) & mask;
+            LedgerKeyState state = values[idx];
+            if (state == null) {
+                break;
+            }
+            int home = hashes[idx] & mask;
+            // Move if the hole lies cyclically between the entry's home slot and its position
+            if (((idx - home) & mask) >= ((idx - hole) & mask)) {
+                hashes[hole] = hashes[idx];
+                keys[hole] = keys[idx];
+                values[hole] = state;
+                hole = idx;
+            }
+        }
+        values[hole] = null;
+        keys[hole] = null;
+        hashes[hole] = 0;
+    }
+
+    private void rehash(int newCapacity) {
+        int[] oldHashes = hashes;
+        String[] oldKeys = keys;
+        LedgerKeyState[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            LedgerKeyState state = oldValues[i];
+            if (state != null) {
+                int idx = oldHashes[i] & mask;
+                while (values[idx] != null) {
+                    idx = (idx + 1) & mask;
+                }
+                hashes[idx] = oldHashes[i];
+                keys[idx] = oldKeys[i];
+                values[idx] = state;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        hashes = new int[capacity];
+        keys = new String[capacity];
+        values = new LedgerKeyState[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int n) {
+        int capacity = Integer.highestOneBit(n);
+        return capacity == n ? capacity : capacity << 1;
+    }
+}
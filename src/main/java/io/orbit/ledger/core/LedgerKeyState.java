@@ -3,7 +3,6 @@ package io.orbit.ledger.core;
 import io.orbit.ledger.enums.LedgerType;
 import io.orbit.ledger.model.LedgerEvent;
 
-import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -17,14 +16,19 @@ import java.util.List;
  * zero-allocation
  * event storage during high-throughput processing.
  * </p>
+ * <p>
+ * OPTIMIZATION v1.4.0: The primitive arrays are columns of a
+ * {@link PendingEventArena} shared by the worker's keys; the state only
+ * keeps the head, tail and length of its chain there. A state created
+ * without an arena gets a small one of its own on its first event.
+ * </p>
  *
  * @since 1.0.0
  */
 public final class LedgerKeyState {
 
-    // Initial capacity and growth factor for primitive arrays
-    private static final int INITIAL_CAPACITY = 32;
-    private static final float GROWTH_FACTOR = 1.5f;
+    // Capacity of the private arena of a state created without one
+    private static final int OWN_ARENA_CAPACITY = 8;
 
     private long currentSequence = 0;
     private long pendingDelta = 0;
@@ -34,20 +38,51 @@ public final class LedgerKeyState {
     private boolean initialized = false;
     private long committedBalance = 0;
 
+    // Set once the state is dropped from the key map, so cached references re-resolve (since 1.4.0)
+    private boolean evicted = false;
+
+    // Last activity, for IDLE_TIMEOUT and MAX_KEYS eviction (since 1.4.0)
+    private long lastAccessMs = 0;
+    private boolean referenced = false;
+
     // ═══════════════════════════════════════════════════════════════
-    // PRIMITIVE ARRAYS for zero-allocation event storage (v1.2.0)
+    // PENDING EVENT CHAIN in the worker's arena (v1.4.0)
     // ═══════════════════════════════════════════════════════════════
+    private PendingEventArena arena;
+    private int pendingHead = -1;
+    private int pendingTail = -1;
     private int pendingCount = 0;
-    private long[] sequences = new long[INITIAL_CAPACITY];
-    private int[] types = new int[INITIAL_CAPACITY]; // LedgerType.ordinal()
-    private long[] amounts = new long[INITIAL_CAPACITY];
-    private long[] timestamps = new long[INITIAL_CAPACITY];
-    private long[] balancesAfter = new long[INITIAL_CAPACITY];
+
+    public LedgerKeyState() {
+    }
+
+    /**
+     * Creates a state whose pending events live in a shared arena (since 1.4.0).
+     */
+    public LedgerKeyState(PendingEventArena arena) {
+        this.arena = arena;
+    }
 
     public long nextSequence() {
         return ++currentSequence;
     }
 
+    /**
+     * Returns the last assigned sequence number (since 1.4.0).
+     */
+    public long getCurrentSequence() {
+        return currentSequence;
+    }
+
+    /**
+     * Sets the counters of a state rebuilt from another store, e.g. off-heap (since 1.4.0).
+     */
+    public void restore(long currentSequence, long lastCommittedSequence, long pendingDelta) {
+        this.currentSequence = currentSequence;
+        this.lastCommittedSequence = lastCommittedSequence;
+        this.pendingDelta = pendingDelta;
+    }
+
     public void credit(long amount) {
         pendingDelta += amount;
     }
@@ -61,26 +96,51 @@ public final class LedgerKeyState {
      * OPTIMIZATION: Zero object allocation (v1.2.0).
      */
     public void addPendingEvent(long sequence, LedgerType type, long amount, long timestampMs, long balanceAfter) {
-        ensureCapacity();
-        int idx = pendingCount++;
-        sequences[idx] = sequence;
-        types[idx] = type.ordinal();
-        amounts[idx] = amount;
-        timestamps[idx] = timestampMs;
-        balancesAfter[idx] = balanceAfter;
-    }
-
-    private void ensureCapacity() {
-        if (pendingCount >= sequences.length) {
-            int newCapacity = (int) (sequences.length * GROWTH_FACTOR);
-            sequences = java.util.Arrays.copyOf(sequences, newCapacity);
-            types = java.util.Arrays.copyOf(types, newCapacity);
-            amounts = java.util.Arrays.copyOf(amounts, newCapacity);
-            timestamps = java.util.Arrays.copyOf(timestamps, newCapacity);
-            balancesAfter = java.util.Arrays.copyOf(balancesAfter, newCapacity);
+        if (arena == null) {
+            arena = new PendingEventArena(OWN_ARENA_CAPACITY);
+        }
+        pendingTail = arena.append(pendingTail, sequence, type, amount, timestampMs, balanceAfter);
+        if (pendingCount++ == 0) {
+            pendingHead = pendingTail;
         }
     }
 
+    /**
+     * Counts events without retaining them, for summary releases (since 1.4.0).
+     * <p>
+     * A state either retains its events or only counts them; the two are not
+     * mixed between releases.
+     * </p>
+     */
+    public void countPendingEvents(int events) {
+        pendingCount += events;
+    }
+
+    /**
+     * Moves the pending events to another arena (since 1.4.0).
+     * <p>
+     * Used when the state changes worker: the old worker detaches it
+     * ({@code null} target, a private arena sized to the events), the new
+     * one attaches it to its own arena.
+     * </p>
+     */
+    public void moveTo(PendingEventArena target) {
+        if (target == null) {
+            target = new PendingEventArena(Math.max(OWN_ARENA_CAPACITY, pendingCount));
+        }
+        if (target == arena) {
+            return;
+        }
+        if (pendingHead >= 0) {
+            int[] head = new int[1];
+            int tail = arena.copyTo(target, pendingHead, pendingCount, head);
+            arena.free(pendingHead, pendingTail, pendingCount);
+            pendingHead = head[0];
+            pendingTail = tail;
+        }
+        arena = target;
+    }
+
     public long getPendingDelta() {
         return pendingDelta;
     }
@@ -106,20 +166,29 @@ public final class LedgerKeyState {
      * @return list of LedgerEvent for user callback
      */
     public List<LedgerEvent> getAndClearPendingEvents(String key) {
-        List<LedgerEvent> result = new ArrayList<>(pendingCount);
-        LedgerType[] typeValues = LedgerType.values();
-
-        for (int i = 0; i < pendingCount; i++) {
-            result.add(new LedgerEvent(
-                    key,
-                    sequences[i],
-                    typeValues[types[i]],
-                    amounts[i],
-                    Instant.ofEpochMilli(timestamps[i]),
-                    balancesAfter[i]));
+        return getAndClearPendingEvents(key, 0);
+    }
+
+    /**
+     * Same as {@link #getAndClearPendingEvents(String)} for a numeric key.
+     *
+     * @param key        decimal form of the key (shared by all events)
+     * @param numericKey the primitive key
+     * @since 1.4.0
+     */
+    public List<LedgerEvent> getAndClearPendingEvents(String key, long numericKey) {
+        if (pendingHead < 0) {
+            // Nothing retained: counted only, or nothing pending
+            pendingCount = 0;
+            return List.of();
         }
+        List<LedgerEvent> result = new ArrayList<>(pendingCount);
+        arena.collect(pendingHead, pendingCount, key, numericKey, result);
+        // The chain goes back to the arena for any key to reuse
+        arena.free(pendingHead, pendingTail, pendingCount);
 
-        // Reset counters (arrays stay allocated for reuse)
+        pendingHead = -1;
+        pendingTail = -1;
         pendingCount = 0;
         return result;
     }
@@ -154,4 +223,34 @@ public final class LedgerKeyState {
     public long getCurrentBalance() {
         return committedBalance + pendingDelta;
     }
+
+    /**
+     * Records activity at the given event time (since 1.4.0).
+     */
+    public void touch(long timestampMs) {
+        this.lastAccessMs = timestampMs;
+        this.referenced = true;
+    }
+
+    public long getLastAccessMs() {
+        return lastAccessMs;
+    }
+
+    /**
+     * Returns whether the state was touched since the last call, and clears
+     * the mark: the second chance of CLOCK eviction (since 1.4.0).
+     */
+    public boolean testAndClearReferenced() {
+        boolean was = referenced;
+        referenced = false;
+        return was;
+    }
+
+    public void markEvicted() {
+        this.evicted = true;
+    }
+
+    public boolean isEvicted() {
+        return evicted;
+    }
 }
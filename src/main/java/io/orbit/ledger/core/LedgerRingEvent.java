@@ -1,5 +1,6 @@
 package io.orbit.ledger.core;
 
+import io.orbit.ledger.api.LedgerClock;
 import io.orbit.ledger.enums.LedgerType;
 import io.orbit.ledger.model.OrbitRelease;
 import java.util.concurrent.CompletableFuture;
@@ -15,38 +16,178 @@ import java.util.concurrent.CompletableFuture;
  */
 public final class LedgerRingEvent {
 
+    private final LedgerClock clock; // Shared by all slots of the engine (v1.4.0)
     private String key;
+    private long numericKey; // Primitive key for LongOrbitLedger (v1.4.0)
+    private boolean numeric;
+    private int keyId = -1; // Dense id of an interned LedgerKey, -1 if none (v1.4.0)
     private int keyHashCode; // OPTIMIZATION: Cached to avoid recompute in shouldHandle() (v1.2.0)
+    private int partition = -1; // Owning worker, computed once by the publisher, -1 if unknown (v1.4.0)
     private long sequence;
     private LedgerType type;
     private long amount;
     private long timestampMs;
 
     private CompletableFuture<OrbitRelease> resultFuture;
+    private JournalPosting journal; // Only for JOURNAL (v1.4.0)
+    private long stripeSequence = -1; // Publish order of a striped hot key event, -1 if unstriped (v1.4.0)
+    private StripeRelease stripeRelease; // Only for the RELEASE of a striped key (v1.4.0)
+    private WorkerResize resize; // Only for RESIZE (v1.4.0)
+
+    public LedgerRingEvent() {
+        this(LedgerClock.SYSTEM);
+    }
+
+    public LedgerRingEvent(LedgerClock clock) {
+        this.clock = clock;
+    }
 
     public void set(String key, LedgerType type, long amount) {
         this.key = key;
+        this.numeric = false;
+        this.keyId = -1;
+        this.partition = -1;
         this.keyHashCode = key != null ? key.hashCode() : 0; // Cache hashCode
         this.type = type;
         this.amount = amount;
-        this.timestampMs = System.currentTimeMillis(); // Audit-critical: capture at publish time
+        this.timestampMs = clock.millis(); // Audit-critical: capture at publish time
         this.resultFuture = null;
+        this.journal = null;
+        this.stripeSequence = -1;
+        this.stripeRelease = null;
+        this.resize = null;
     }
 
     public void setCommit(String key, CompletableFuture<OrbitRelease> future) {
         this.key = key;
+        this.numeric = false;
+        this.keyId = -1;
+        this.partition = -1;
+        this.keyHashCode = key != null ? key.hashCode() : 0; // Must match routing of set()
+        this.type = LedgerType.RELEASE;
+        this.amount = 0;
+        this.timestampMs = clock.millis();
+        this.resultFuture = future;
+        this.journal = null;
+        this.stripeSequence = -1;
+        this.stripeRelease = null;
+        this.resize = null;
+    }
+
+    /**
+     * Sets a CREDIT/DEBIT event for an interned key.
+     * OPTIMIZATION: The worker resolves the state by {@code keyId} instead of a map lookup;
+     * {@code key.hashCode()} is already cached by the String (v1.4.0).
+     */
+    public void setInterned(String key, int keyId, LedgerType type, long amount) {
+        set(key, type, amount);
+        this.keyId = keyId;
+    }
+
+    /**
+     * Sets a CREDIT/DEBIT event keyed by a primitive long.
+     * OPTIMIZATION: No String key, no boxing (v1.4.0).
+     */
+    public void setNumeric(long numericKey, LedgerType type, long amount) {
+        this.key = null;
+        this.numericKey = numericKey;
+        this.numeric = true;
+        this.keyId = -1;
+        this.partition = -1;
+        this.keyHashCode = Long.hashCode(numericKey);
+        this.type = type;
+        this.amount = amount;
+        this.timestampMs = clock.millis(); // Audit-critical: capture at publish time
+        this.resultFuture = null;
+        this.journal = null;
+        this.stripeSequence = -1;
+        this.stripeRelease = null;
+        this.resize = null;
+    }
+
+    public void setNumericCommit(long numericKey, CompletableFuture<OrbitRelease> future) {
+        this.key = null;
+        this.numericKey = numericKey;
+        this.numeric = true;
+        this.keyId = -1;
+        this.partition = -1;
+        this.keyHashCode = Long.hashCode(numericKey);
         this.type = LedgerType.RELEASE;
         this.amount = 0;
-        this.timestampMs = System.currentTimeMillis();
+        this.timestampMs = clock.millis();
         this.resultFuture = future;
+        this.journal = null;
+        this.stripeSequence = -1;
+        this.stripeRelease = null;
+        this.resize = null;
+    }
+
+    /**
+     * Sets a JOURNAL event; every involved worker applies its own legs.
+     */
+    public void setJournal(JournalPosting journal) {
+        this.key = null;
+        this.numeric = false;
+        this.keyId = -1;
+        this.partition = -1;
+        this.keyHashCode = 0;
+        this.type = LedgerType.JOURNAL;
+        this.amount = 0;
+        this.timestampMs = clock.millis(); // Audit-critical: capture at publish time
+        this.resultFuture = null;
+        this.journal = journal;
+        this.stripeSequence = -1;
+        this.stripeRelease = null;
+        this.resize = null;
+    }
+
+    /**
+     * Sets a CREDIT/DEBIT event for one stripe of a hot key.
+     */
+    public void setStriped(String key, long stripeSequence, LedgerType type, long amount) {
+        set(key, type, amount);
+        this.stripeSequence = stripeSequence;
+    }
+
+    /**
+     * Sets the RELEASE of a striped key; every stripe worker hands over its part.
+     */
+    public void setStripeRelease(StripeRelease release) {
+        setCommit(release.getStripedKey().getKey(), null);
+        this.stripeRelease = release;
+    }
+
+    /**
+     * Sets a RESIZE event; every worker takes part in the hand-over.
+     */
+    public void setResize(WorkerResize resize) {
+        setCommitFlush();
+        this.type = LedgerType.RESIZE;
+        this.resize = resize;
     }
 
     public void setCommitFlush() {
         this.key = null;
+        this.numeric = false;
+        this.keyId = -1;
+        this.partition = -1;
+        this.keyHashCode = 0;
         this.type = LedgerType.RELEASE_ALL;
         this.amount = 0;
-        this.timestampMs = 0;
+        this.timestampMs = clock.millis(); // Idle eviction ages keys by it (since 1.4.0)
         this.resultFuture = null;
+        this.journal = null;
+        this.stripeSequence = -1;
+        this.stripeRelease = null;
+        this.resize = null;
+    }
+
+    /**
+     * Stamps the partition the publisher routed this event to.
+     * Must follow the {@code set*} call, which resets it.
+     */
+    public void setPartition(int partition) {
+        this.partition = partition;
     }
 
     public void setSequence(long sequence) {
@@ -57,6 +198,24 @@ public final class LedgerRingEvent {
         return key;
     }
 
+    /**
+     * Returns true if the event is keyed by {@link #getNumericKey()} instead of {@link #getKey()}.
+     */
+    public boolean isNumeric() {
+        return numeric;
+    }
+
+    public long getNumericKey() {
+        return numericKey;
+    }
+
+    /**
+     * Returns the partition-local id of an interned key, or -1 for a plain String key.
+     */
+    public int getKeyId() {
+        return keyId;
+    }
+
     /**
      * Returns cached hashCode of the key.
      * OPTIMIZATION: Avoids recomputing in shouldHandle() (v1.2.0).
@@ -65,6 +224,13 @@ public final class LedgerRingEvent {
         return keyHashCode;
     }
 
+    /**
+     * Returns the partition computed by the publisher, or -1 if none was stamped.
+     */
+    public int getPartition() {
+        return partition;
+    }
+
     public long getSequence() {
         return sequence;
     }
@@ -85,16 +251,48 @@ public final class LedgerRingEvent {
         return resultFuture;
     }
 
+    public JournalPosting getJournal() {
+        return journal;
+    }
+
+    /**
+     * Returns true if the event belongs to one stripe of a hot key.
+     */
+    public boolean isStriped() {
+        return stripeSequence >= 0;
+    }
+
+    public long getStripeSequence() {
+        return stripeSequence;
+    }
+
+    public StripeRelease getStripeRelease() {
+        return stripeRelease;
+    }
+
+    public WorkerResize getResize() {
+        return resize;
+    }
+
     public long signedAmount() {
         return type == LedgerType.CREDIT ? amount : -amount;
     }
 
     public void clear() {
         this.key = null;
+        this.numericKey = 0;
+        this.numeric = false;
+        this.keyId = -1;
+        this.partition = -1;
+        this.keyHashCode = 0;
         this.sequence = 0;
         this.type = null;
         this.amount = 0;
         this.timestampMs = 0;
         this.resultFuture = null;
+        this.journal = null;
+        this.stripeSequence = -1;
+        this.stripeRelease = null;
+        this.resize = null;
     }
 }
@@ -1,11 +1,25 @@
 package io.orbit.ledger.core;
 
 import com.lmax.disruptor.EventFactory;
+import io.orbit.ledger.api.LedgerClock;
 
 public class LedgerRingEventFactory implements EventFactory<LedgerRingEvent> {
+
+    private final LedgerClock clock;
+
+    public LedgerRingEventFactory() {
+        this(LedgerClock.SYSTEM);
+    }
+
+    /**
+     * @param clock clock every slot stamps its events with (since 1.4.0)
+     */
+    public LedgerRingEventFactory(LedgerClock clock) {
+        this.clock = clock;
+    }
+
     @Override
     public LedgerRingEvent newInstance() {
-        return new LedgerRingEvent();
+        return new LedgerRingEvent(clock);
     }
 }
-
@@ -0,0 +1,248 @@
+package io.orbit.ledger.core;
+
+/**
+ * Open-addressing map from primitive {@code long} keys to {@link LedgerKeyState}.
+ * <p>
+ * TRACKED BY SINGLE THREAD (Worker). NO LOCKS. NO ATOMICS.
+ * </p>
+ * <p>
+ * Linear probing over parallel {@code long[]}/{@code LedgerKeyState[]} arrays:
+ * lookups never box the key and inserts allocate nothing until the table grows.
+ * Removal uses backward-shift deletion, so there are no tombstones.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+public final class LongKeyStateMap {
+
+    private static final float LOAD_FACTOR = 0.6f;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private LedgerKeyState[] values; // null = free slot
+    private int mask;
+    private int size;
+    private int resizeAt;
+    private final PendingEventArena pendingEvents; // shared by the states created here
+
+    /**
+     * Callback for {@link #forEach(KeyStateConsumer)}.
+     */
+    @FunctionalInterface
+    public interface KeyStateConsumer {
+        void accept(long key, LedgerKeyState state);
+    }
+
+    public LongKeyStateMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedKeys number of keys the map should hold without growing
+     */
+    public LongKeyStateMap(int expectedKeys) {
+        this(expectedKeys, new PendingEventArena());
+    }
+
+    /**
+     * @param expectedKeys  number of keys the map should hold without growing
+     * @param pendingEvents arena for the pending events of the states it creates
+     */
+    public LongKeyStateMap(int expectedKeys, PendingEventArena pendingEvents) {
+        this.pendingEvents = pendingEvents;
+        int capacity = tableSizeFor(Math.max(MIN_CAPACITY, (int) Math.ceil(expectedKeys / LOAD_FACTOR)));
+        allocate(capacity);
+    }
+
+    public LedgerKeyState get(long key) {
+        int idx = slot(key);
+        LedgerKeyState state;
+        while ((state = values[idx]) != null) {
+            if (keys[idx] == key) {
+                return state;
+            }
+            idx = (idx + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Returns the state for the key, creating an empty one on first access.
+     */
+    public LedgerKeyState getOrCreate(long key) {
+        int idx = slot(key);
+        LedgerKeyState state;
+        while ((state = values[idx]) != null) {
+            if (keys[idx] == key) {
+                return state;
+            }
+            idx = (idx + 1) & mask;
+        }
+        state = new LedgerKeyState(pendingEvents);
+        keys[idx] = key;
+        values[idx] = state;
+        if (++size >= resizeAt) {
+            rehash(values.length << 1);
+        }
+        return state;
+    }
+
+    /**
+     * Maps the key to an existing state, e.g. one handed over by another worker.
+     */
+    public void put(long key, LedgerKeyState state) {
+        int idx = slot(key);
+        while (values[idx] != null) {
+            if (keys[idx] == key) {
+                values[idx] = state;
+                return;
+            }
+            idx = (idx + 1) & mask;
+        }
+        keys[idx] = key;
+        values[idx] = state;
+        if (++size >= resizeAt) {
+            rehash(values.length << 1);
+        }
+    }
+
+    public LedgerKeyState remove(long key) {
+        int idx = slot(key);
+        LedgerKeyState state;
+        while ((state = values[idx]) != null) {
+            if (keys[idx] == key) {
+                shiftBack(idx);
+                size--;
+                return state;
+            }
+            idx = (idx + 1) & mask;
+        }
+        return null;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    public PendingEventArena pendingEvents() {
+        return pendingEvents;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Visits every entry.
+     * <p>
+     * The action may {@link #remove(long) remove} the key it is visiting
+     * (eviction after release); it must not insert new keys. An entry moved by
+     * that removal can be visited twice, never skipped.
+     * </p>
+     */
+    public void forEach(KeyStateConsumer action) {
+        for (int i = 0; i < values.length; i++) {
+            LedgerKeyState state;
+            while ((state = values[i]) != null) {
+                action.accept(keys[i], state);
+                if (values[i] == state) {
+                    break; // not removed: move on
+                }
+                // Removed: slot i now holds a shifted entry (or nothing)
+            }
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // SLOT ACCESS (incremental sweeps)
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Returns the number of slots. A slot index is only valid until the next
+     * insert or removal.
+     */
+    public int capacity() {
+        return values.length;
+    }
+
+    /**
+     * Returns the state in a slot, or null for a free slot.
+     */
+    public LedgerKeyState stateAt(int slot) {
+        return values[slot];
+    }
+
+    public long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    /**
+     * Removes the entry in a used slot; a later entry may move into it.
+     */
+    public void removeAt(int slot) {
+        shiftBack(slot);
+        size--;
+    }
+
+    private int slot(long key) {
+        // Fibonacci mixing: sequential account ids spread over the table
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /**
+     * Backward-shift deletion: pulls later entries of the probe chain into the hole.
+     */
+    private void shiftBack(int hole) {
+        int idx = hole;
+        while (true) {
+            idx = (idx + 1) & mask;
+            LedgerKeyState state = values[idx];
+            if (state == null) {
+                break;
+            }
+            int home = slot(keys[idx]);
+            // Move if the hole lies cyclically between the entry's home slot and its position
+            if (((idx - home) & mask) >= ((idx - hole) & mask)) {
+                keys[hole] = keys[idx];
+                values[hole] = state;
+                hole = idx;
+            }
+        }
+        values[hole] = null;
+        keys[hole] = 0;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        LedgerKeyState[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            LedgerKeyState state = oldValues[i];
+            if (state != null) {
+                int idx = slot(oldKeys[i]);
+                while (values[idx] != null) {
+                    idx = (idx + 1) & mask;
+                }
+                keys[idx] = oldKeys[i];
+                values[idx] = state;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new LedgerKeyState[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int n) {
+        int capacity = Integer.highestOneBit(n);
+        return capacity == n ? capacity : capacity << 1;
+    }
+}
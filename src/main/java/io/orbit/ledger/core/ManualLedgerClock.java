@@ -0,0 +1,44 @@
+package io.orbit.ledger.core;
+
+import io.orbit.ledger.api.LedgerClock;
+
+/**
+ * Deterministic {@link LedgerClock} for replay and tests.
+ * <p>
+ * Time only changes through {@link #set(long)} and {@link #advance(long)},
+ * so replaying the same input yields the same event timestamps.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+public final class ManualLedgerClock implements LedgerClock {
+
+    private volatile long nowMs;
+
+    public ManualLedgerClock(long startMillis) {
+        this.nowMs = startMillis;
+    }
+
+    @Override
+    public long millis() {
+        return nowMs;
+    }
+
+    /**
+     * Sets the time, e.g. to the timestamp of the record being replayed.
+     */
+    public void set(long millis) {
+        this.nowMs = millis;
+    }
+
+    /**
+     * Moves the time forward and returns the new value.
+     */
+    public synchronized long advance(long deltaMillis) {
+        if (deltaMillis < 0) {
+            throw new IllegalArgumentException("deltaMillis must be non-negative: " + deltaMillis);
+        }
+        nowMs += deltaMillis;
+        return nowMs;
+    }
+}
@@ -0,0 +1,457 @@
+package io.orbit.ledger.core;
+
+import io.orbit.ledger.enums.LedgerType;
+import io.orbit.ledger.model.LedgerEvent;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Key states of one worker kept outside the Java heap.
+ * <p>
+ * TRACKED BY SINGLE THREAD (Worker). NO LOCKS. NO ATOMICS.
+ * </p>
+ * <p>
+ * OPTIMIZATION: Every key is one fixed-size slot of a direct-buffer
+ * open-addressing table holding its key, sequences, pending delta and
+ * committed balance; pending events are chained blocks of a shared arena that
+ * return to a free list on release (v1.4.0). Millions of keys then cost the
+ * garbage collector nothing, and once the table and arena have grown to their
+ * working size, applying an event allocates nothing.
+ * </p>
+ * <p>
+ * A store holds either String keys of at most {@code maxKeyLength} chars,
+ * compared char by char without decoding, or numeric keys
+ * ({@code maxKeyLength} 0). Keys are addressed by slot index of an
+ * {@link OffHeapSlotTable}; a slot index is only valid until the next insert
+ * or removal.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+public final class OffHeapKeyStateStore {
+
+    // Slot payload, after the table's header
+    private static final int PENDING_COUNT = 0;        // int
+    private static final int FIRST_BLOCK = 4;          // int, valid while PENDING_COUNT > 0
+    private static final int LAST_BLOCK = 8;           // int, valid while PENDING_COUNT > 0
+    private static final int SEQUENCE = 12;            // long: last assigned sequence
+    private static final int COMMITTED_SEQUENCE = 20;  // long
+    private static final int PENDING_DELTA = 28;       // long
+    private static final int BALANCE = 36;             // long: committed balance
+    private static final int LAST_ACCESS = 44;         // long: timestamp of the last event
+    private static final int PAYLOAD_BYTES = 52;
+
+    // Flags next to the table's USED
+    private static final int INITIALIZED = 2;
+    private static final int REFERENCED = 4;           // touched since the CLOCK hand last passed
+
+    // Pending event block layout: next block, then EVENTS_PER_BLOCK events
+    private static final int EVENTS_PER_BLOCK = 4;
+    private static final int BLOCK_NEXT = 0;
+    private static final int BLOCK_EVENTS = 8;
+    private static final int EVENT_SEQUENCE = 0;
+    private static final int EVENT_AMOUNT = 8;
+    private static final int EVENT_TIMESTAMP = 16;
+    private static final int EVENT_BALANCE_AFTER = 24;
+    private static final int EVENT_TYPE = 32;
+    private static final int EVENT_BYTES = 40;
+    private static final int BLOCK_BYTES = BLOCK_EVENTS + EVENTS_PER_BLOCK * EVENT_BYTES;
+    private static final int BLOCKS_PER_CHUNK = 4096;
+
+    private static final int MIN_CAPACITY = 16;
+    private static final LedgerType[] TYPES = LedgerType.values();
+
+    /**
+     * Callback for {@link #forEach(SlotConsumer)}.
+     */
+    @FunctionalInterface
+    public interface SlotConsumer {
+        void accept(int slot);
+    }
+
+    private final OffHeapSlotTable slots;
+    private final boolean retainEvents; // false: pending events are only counted
+
+    private final OffHeapRegion blocks = new OffHeapRegion(BLOCK_BYTES, BLOCKS_PER_CHUNK);
+    private int freeBlock = -1;
+    private int unusedBlock; // blocks below this were handed out at least once
+
+    /**
+     * @param maxKeyLength longest String key in chars, or 0 for a numeric-key store
+     * @param expectedKeys number of keys the store should hold without growing
+     */
+    public OffHeapKeyStateStore(int maxKeyLength, int expectedKeys) {
+        this(maxKeyLength, expectedKeys, true);
+    }
+
+    /**
+     * @param maxKeyLength longest String key in chars, or 0 for a numeric-key store
+     * @param expectedKeys number of keys the store should hold without growing
+     * @param retainEvents false to only count pending events, for summary
+     *                     releases; the event arena then stays empty
+     */
+    public OffHeapKeyStateStore(int maxKeyLength, int expectedKeys, boolean retainEvents) {
+        this.slots = new OffHeapSlotTable(maxKeyLength, PAYLOAD_BYTES, expectedKeys, MIN_CAPACITY,
+                (slotBytes, capacity) -> {
+                    OffHeapRegion region = new OffHeapRegion(slotBytes, capacity);
+                    region.ensureRecords(capacity);
+                    return region;
+                });
+        this.retainEvents = retainEvents;
+    }
+
+    /**
+     * Returns whether the String key is short enough to be stored here.
+     */
+    public boolean fits(String key) {
+        return slots.fits(key);
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Returns the number of slots, used or not.
+     */
+    public int capacity() {
+        return slots.capacity();
+    }
+
+    /**
+     * Returns whether a slot holds a key.
+     */
+    public boolean isUsed(int slot) {
+        return slots.isUsed(slot);
+    }
+
+    /**
+     * Returns the direct memory held by the table and the event arena.
+     */
+    public long offHeapBytes() {
+        return slots.bytes() + blocks.bytes();
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // LOOKUP
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Returns the slot of the key, or -1.
+     */
+    public int find(String key) {
+        return slots.find(key);
+    }
+
+    /**
+     * Returns the slot of the key, creating an empty one on first access.
+     * The key must {@link #fits fit}.
+     */
+    public int findOrCreate(String key) {
+        return slots.findOrCreate(key);
+    }
+
+    public int find(long key) {
+        return slots.find(key);
+    }
+
+    public int findOrCreate(long key) {
+        return slots.findOrCreate(key);
+    }
+
+    /**
+     * Returns the String key of a slot. Allocates; not for the event path.
+     */
+    public String keyAt(int slot) {
+        return slots.keyAt(slot);
+    }
+
+    public long numericKeyAt(int slot) {
+        return slots.numericKeyAt(slot);
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // KEY STATE
+    // ═══════════════════════════════════════════════════════════════
+
+    public boolean isInitialized(int slot) {
+        return (slots.flags(slot) & INITIALIZED) != 0;
+    }
+
+    public void initialize(int slot, long balance) {
+        putLong(slot, BALANCE, balance);
+        slots.setFlags(slot, slots.flags(slot) | INITIALIZED);
+    }
+
+    /**
+     * Sets both sequences of a settled key, e.g. one read back from a
+     * {@link ColdKeyStateFile}.
+     */
+    public void restoreSequence(int slot, long sequence) {
+        putLong(slot, SEQUENCE, sequence);
+        putLong(slot, COMMITTED_SEQUENCE, sequence);
+    }
+
+    public int getPendingCount(int slot) {
+        return getInt(slot, PENDING_COUNT);
+    }
+
+    public long getPendingDelta(int slot) {
+        return getLong(slot, PENDING_DELTA);
+    }
+
+    public long getCommittedBalance(int slot) {
+        return getLong(slot, BALANCE);
+    }
+
+    public long getCurrentBalance(int slot) {
+        return getLong(slot, BALANCE) + getLong(slot, PENDING_DELTA);
+    }
+
+    public long getLastCommittedSequence(int slot) {
+        return getLong(slot, COMMITTED_SEQUENCE);
+    }
+
+    public long getLastAccessMs(int slot) {
+        return getLong(slot, LAST_ACCESS);
+    }
+
+    /**
+     * Returns whether the key had an event since the last call, and clears
+     * the mark (CLOCK eviction).
+     */
+    public boolean testAndClearReferenced(int slot) {
+        int flags = slots.flags(slot);
+        if ((flags & REFERENCED) == 0) {
+            return false;
+        }
+        slots.setFlags(slot, flags & ~REFERENCED);
+        return true;
+    }
+
+    /**
+     * Applies a CREDIT or DEBIT and records it as the next pending event.
+     *
+     * @return pending event count afterwards
+     */
+    public int apply(int slot, LedgerType type, long amount, long timestampMs) {
+        ByteBuffer buffer = slots.buffer(slot);
+        int base = slots.payload(slot);
+        long delta = buffer.getLong(base + PENDING_DELTA) + (type == LedgerType.DEBIT ? -amount : amount);
+        long sequence = buffer.getLong(base + SEQUENCE) + 1;
+        buffer.putLong(base + PENDING_DELTA, delta);
+        buffer.putLong(base + SEQUENCE, sequence);
+        buffer.putLong(base + LAST_ACCESS, timestampMs);
+        slots.setFlags(slot, slots.flags(slot) | REFERENCED);
+        if (!retainEvents) {
+            int count = buffer.getInt(base + PENDING_COUNT) + 1;
+            buffer.putInt(base + PENDING_COUNT, count);
+            return count;
+        }
+        return append(buffer, base, sequence, type, amount, timestampMs, buffer.getLong(base + BALANCE) + delta);
+    }
+
+    private int append(ByteBuffer buffer, int base, long sequence, LedgerType type, long amount, long timestampMs,
+            long balanceAfter) {
+        int count = buffer.getInt(base + PENDING_COUNT);
+        int index = count % EVENTS_PER_BLOCK;
+        int block;
+        if (index == 0) {
+            block = allocateBlock();
+            if (count == 0) {
+                buffer.putInt(base + FIRST_BLOCK, block);
+            } else {
+                int last = buffer.getInt(base + LAST_BLOCK);
+                blocks.buffer(last).putInt(blocks.offset(last) + BLOCK_NEXT, block);
+            }
+            buffer.putInt(base + LAST_BLOCK, block);
+        } else {
+            block = buffer.getInt(base + LAST_BLOCK);
+        }
+        ByteBuffer events = blocks.buffer(block);
+        int event = blocks.offset(block) + BLOCK_EVENTS + index * EVENT_BYTES;
+        events.putLong(event + EVENT_SEQUENCE, sequence);
+        events.putLong(event + EVENT_AMOUNT, amount);
+        events.putLong(event + EVENT_TIMESTAMP, timestampMs);
+        events.putLong(event + EVENT_BALANCE_AFTER, balanceAfter);
+        events.putInt(event + EVENT_TYPE, type.ordinal());
+        buffer.putInt(base + PENDING_COUNT, count + 1);
+        return count + 1;
+    }
+
+    /**
+     * Commits the pending events: returns them as {@link LedgerEvent}s, adds
+     * the pending delta to the committed balance and recycles their blocks.
+     * OPTIMIZATION: Creates LedgerEvent objects only at release time (v1.2.0).
+     *
+     * @param key        key written into the events (decimal form for numeric keys)
+     * @param numericKey numeric key, or 0
+     */
+    public List<LedgerEvent> commitPending(int slot, String key, long numericKey) {
+        ByteBuffer buffer = slots.buffer(slot);
+        int base = slots.payload(slot);
+        int count = buffer.getInt(base + PENDING_COUNT);
+        List<LedgerEvent> events = retainEvents ? new ArrayList<>(count) : List.of();
+        if (count > 0 && retainEvents) {
+            int block = buffer.getInt(base + FIRST_BLOCK);
+            for (int i = 0; i < count; i++) {
+                int index = i % EVENTS_PER_BLOCK;
+                if (index == 0 && i > 0) {
+                    block = blocks.buffer(block).getInt(blocks.offset(block) + BLOCK_NEXT);
+                }
+                ByteBuffer eventBuffer = blocks.buffer(block);
+                int event = blocks.offset(block) + BLOCK_EVENTS + index * EVENT_BYTES;
+                events.add(new LedgerEvent(
+                        key,
+                        eventBuffer.getLong(event + EVENT_SEQUENCE),
+                        TYPES[eventBuffer.getInt(event + EVENT_TYPE)],
+                        eventBuffer.getLong(event + EVENT_AMOUNT),
+                        Instant.ofEpochMilli(eventBuffer.getLong(event + EVENT_TIMESTAMP)),
+                        eventBuffer.getLong(event + EVENT_BALANCE_AFTER),
+                        numericKey));
+            }
+            freeBlocks(buffer, base);
+        }
+        buffer.putLong(base + BALANCE, buffer.getLong(base + BALANCE) + buffer.getLong(base + PENDING_DELTA));
+        buffer.putLong(base + PENDING_DELTA, 0);
+        buffer.putLong(base + COMMITTED_SEQUENCE, buffer.getLong(base + COMMITTED_SEQUENCE) + count);
+        buffer.putInt(base + PENDING_COUNT, 0);
+        return events;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // REMOVAL, ITERATION, HAND-OVER
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Drops a key with its pending events. Other slots may move.
+     */
+    public void remove(int slot) {
+        ByteBuffer buffer = slots.buffer(slot);
+        int base = slots.payload(slot);
+        if (buffer.getInt(base + PENDING_COUNT) > 0 && retainEvents) {
+            freeBlocks(buffer, base);
+        }
+        slots.remove(slot);
+    }
+
+    /**
+     * Visits every key.
+     * <p>
+     * The action may {@link #remove(int) remove} the slot it is visiting; it
+     * must not insert keys. A key moved by that removal can be visited twice,
+     * never skipped.
+     * </p>
+     */
+    public void forEach(SlotConsumer action) {
+        slots.forEach(action::accept);
+    }
+
+    /**
+     * Copies a slot into an on-heap state, pending events included, to hand it to another worker.
+     */
+    public LedgerKeyState export(int slot) {
+        LedgerKeyState state = new LedgerKeyState();
+        if (isInitialized(slot)) {
+            state.initialize(getCommittedBalance(slot));
+        }
+        int count = getPendingCount(slot);
+        if (!retainEvents) {
+            state.countPendingEvents(count);
+        } else if (count > 0) {
+            int block = slots.getInt(slot, FIRST_BLOCK);
+            for (int i = 0; i < count; i++) {
+                int index = i % EVENTS_PER_BLOCK;
+                if (index == 0 && i > 0) {
+                    block = blocks.buffer(block).getInt(blocks.offset(block) + BLOCK_NEXT);
+                }
+                ByteBuffer events = blocks.buffer(block);
+                int event = blocks.offset(block) + BLOCK_EVENTS + index * EVENT_BYTES;
+                state.addPendingEvent(
+                        events.getLong(event + EVENT_SEQUENCE),
+                        TYPES[events.getInt(event + EVENT_TYPE)],
+                        events.getLong(event + EVENT_AMOUNT),
+                        events.getLong(event + EVENT_TIMESTAMP),
+                        events.getLong(event + EVENT_BALANCE_AFTER));
+            }
+        }
+        state.restore(getLong(slot, SEQUENCE), getLastCommittedSequence(slot), getPendingDelta(slot));
+        state.touch(getLastAccessMs(slot));
+        return state;
+    }
+
+    /**
+     * Takes over a state handed over by another worker. Clears its pending events.
+     */
+    public void adopt(String key, LedgerKeyState state) {
+        int count = state.getPendingCount();
+        adopt(findOrCreate(key), state, count, state.getAndClearPendingEvents(key));
+    }
+
+    public void adopt(long key, LedgerKeyState state) {
+        int count = state.getPendingCount();
+        adopt(findOrCreate(key), state, count, state.getAndClearPendingEvents(Long.toString(key), key));
+    }
+
+    private void adopt(int slot, LedgerKeyState state, int pendingCount, List<LedgerEvent> pending) {
+        ByteBuffer buffer = slots.buffer(slot);
+        int base = slots.payload(slot);
+        if (state.isInitialized()) {
+            initialize(slot, state.getCommittedBalance());
+        }
+        if (buffer.getInt(base + PENDING_COUNT) > 0 && retainEvents) {
+            freeBlocks(buffer, base);
+        }
+        // Retained events are counted again as they are appended
+        buffer.putInt(base + PENDING_COUNT, retainEvents ? 0 : pendingCount);
+        for (LedgerEvent event : pending) {
+            append(buffer, base, event.sequence(), event.type(), event.amount(), event.timestamp().toEpochMilli(),
+                    event.balanceAfter() != null ? event.balanceAfter() : 0);
+        }
+        buffer.putLong(base + SEQUENCE, state.getCurrentSequence());
+        buffer.putLong(base + COMMITTED_SEQUENCE, state.getLastCommittedSequence());
+        buffer.putLong(base + PENDING_DELTA, state.getPendingDelta());
+        buffer.putLong(base + LAST_ACCESS, state.getLastAccessMs());
+        slots.setFlags(slot, slots.flags(slot) | REFERENCED);
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // INTERNALS
+    // ═══════════════════════════════════════════════════════════════
+
+    private int allocateBlock() {
+        int block = freeBlock;
+        if (block >= 0) {
+            freeBlock = blocks.buffer(block).getInt(blocks.offset(block) + BLOCK_NEXT);
+        } else {
+            block = unusedBlock++;
+            blocks.ensureRecords(unusedBlock);
+        }
+        blocks.buffer(block).putInt(blocks.offset(block) + BLOCK_NEXT, -1);
+        return block;
+    }
+
+    /**
+     * Returns a slot's whole block chain to the free list in O(1).
+     */
+    private void freeBlocks(ByteBuffer buffer, int base) {
+        int last = buffer.getInt(base + LAST_BLOCK);
+        blocks.buffer(last).putInt(blocks.offset(last) + BLOCK_NEXT, freeBlock);
+        freeBlock = buffer.getInt(base + FIRST_BLOCK);
+    }
+
+    private int getInt(int slot, int field) {
+        return slots.getInt(slot, field);
+    }
+
+    private long getLong(int slot, int field) {
+        return slots.getLong(slot, field);
+    }
+
+    private void putLong(int slot, int field, long value) {
+        slots.putLong(slot, field, value);
+    }
+}
@@ -0,0 +1,126 @@
+package io.orbit.ledger.core;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Fixed-size records in direct buffers, addressed by an {@code int} index.
+ * <p>
+ * A single direct buffer is limited to 2 GB, so records are spread over
+ * chunks of a power-of-two record count; an index splits into chunk and
+ * offset with a shift and a mask. Growing appends chunks and never moves
+ * existing records.
+ * </p>
+ * <p>
+ * Chunks are direct buffers, or consecutive regions of a memory-mapped file,
+ * whose pages the OS writes back and drops under memory pressure.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+final class OffHeapRegion {
+
+    private static final int MAX_CHUNK_BYTES = 1 << 30;
+
+    private final int recordBytes;
+    private final int shift;
+    private final int mask;
+    private final FileChannel file; // null = direct buffers
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+
+    /**
+     * @param recordBytes     bytes per record
+     * @param recordsPerChunk records per chunk, rounded down to a power of 2 that fits 1 GB
+     */
+    OffHeapRegion(int recordBytes, int recordsPerChunk) {
+        this(recordBytes, recordsPerChunk, null);
+    }
+
+    /**
+     * @param recordBytes     bytes per record
+     * @param recordsPerChunk records per chunk, rounded down to a power of 2 that fits 1 GB
+     * @param file            file to map the chunks from, growing it as needed;
+     *                        null for direct buffers
+     */
+    OffHeapRegion(int recordBytes, int recordsPerChunk, FileChannel file) {
+        this.file = file;
+        int perChunk = Integer.highestOneBit(Math.max(1, Math.min(recordsPerChunk, MAX_CHUNK_BYTES / recordBytes)));
+        this.recordBytes = recordBytes;
+        this.shift = Integer.numberOfTrailingZeros(perChunk);
+        this.mask = perChunk - 1;
+    }
+
+    /**
+     * Makes records {@code [0, records)} addressable. New records are zeroed.
+     */
+    void ensureRecords(long records) {
+        int needed = (int) ((records + mask) >>> shift);
+        if (needed <= chunks.length) {
+            return;
+        }
+        int old = chunks.length;
+        chunks = Arrays.copyOf(chunks, needed);
+        int chunkBytes = (mask + 1) * recordBytes;
+        for (int i = old; i < needed; i++) {
+            chunks[i] = file == null
+                    ? ByteBuffer.allocateDirect(chunkBytes).order(ByteOrder.nativeOrder())
+                    : map((long) i * chunkBytes, chunkBytes);
+        }
+    }
+
+    private ByteBuffer map(long position, int bytes) {
+        try {
+            // Maps past the end grow the file; the new pages read as zero
+            return file.map(FileChannel.MapMode.READ_WRITE, position, bytes).order(ByteOrder.nativeOrder());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map key state file", e);
+        }
+    }
+
+    /**
+     * Returns the number of addressable records.
+     */
+    long capacity() {
+        return (long) chunks.length << shift;
+    }
+
+    long bytes() {
+        return capacity() * recordBytes;
+    }
+
+    ByteBuffer buffer(int record) {
+        return chunks[record >>> shift];
+    }
+
+    int offset(int record) {
+        return (record & mask) * recordBytes;
+    }
+
+    /**
+     * Copies one record over another, possibly in another region of the same layout.
+     */
+    void copy(int from, OffHeapRegion target, int to) {
+        ByteBuffer source = buffer(from);
+        ByteBuffer destination = target.buffer(to);
+        int sourceOffset = offset(from);
+        int destinationOffset = target.offset(to);
+        for (int i = 0; i < recordBytes; i += Long.BYTES) {
+            destination.putLong(destinationOffset + i, source.getLong(sourceOffset + i));
+        }
+    }
+
+    /**
+     * Zeroes one record.
+     */
+    void clear(int record) {
+        ByteBuffer buffer = buffer(record);
+        int offset = offset(record);
+        for (int i = 0; i < recordBytes; i += Long.BYTES) {
+            buffer.putLong(offset + i, 0);
+        }
+    }
+}
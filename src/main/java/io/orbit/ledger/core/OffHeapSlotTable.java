@@ -0,0 +1,360 @@
+package io.orbit.ledger.core;
+
+import java.nio.ByteBuffer;
+import java.util.function.IntConsumer;
+
+/**
+ * Open-addressing key table over an {@link OffHeapRegion}, shared by
+ * {@link OffHeapKeyStateStore} and {@link ColdKeyStateFile}.
+ * <p>
+ * TRACKED BY SINGLE THREAD (Worker). NO LOCKS. NO ATOMICS.
+ * </p>
+ * <p>
+ * Every slot starts with a header (flags, mixed hash, numeric key, key
+ * length), followed by the owner's payload and then the key's chars. The
+ * table probes linearly, deletes by backward shift and doubles at its load
+ * factor; the owner only reads and writes its payload fields, as offsets
+ * into the payload. A slot index is only valid until the next insert or
+ * removal.
+ * </p>
+ * <p>
+ * A table holds either String keys of at most {@code maxKeyLength} chars,
+ * compared char by char without decoding, or numeric keys
+ * ({@code maxKeyLength} 0).
+ * </p>
+ *
+ * @since 1.4.0
+ */
+final class OffHeapSlotTable {
+
+    // Slot header
+    private static final int FLAGS = 0;        // int: USED, higher bits belong to the owner
+    private static final int HASH = 4;         // int: mixed key hash
+    private static final int NUMERIC_KEY = 8;  // long
+    private static final int KEY_LENGTH = 16;  // int: chars
+    private static final int PAYLOAD = 20;     // owner fields: ints first keeps longs 8-byte aligned
+
+    static final int USED = 1;
+
+    private static final float LOAD_FACTOR = 0.6f;
+
+    /**
+     * Provides the region of each table generation: the first one and every rehash.
+     */
+    interface Storage {
+
+        /**
+         * Returns a zeroed region with records {@code [0, capacity)} addressable.
+         */
+        OffHeapRegion allocate(int slotBytes, int capacity);
+
+        /**
+         * Called once the last allocated region holds every key.
+         */
+        default void installed() {
+        }
+    }
+
+    private final int maxKeyLength;
+    private final int keyChars;
+    private final int slotBytes;
+    private final Storage storage;
+    private OffHeapRegion table;
+    private int mask;
+    private int size;
+    private int resizeAt;
+    private int removals; // lets forEach notice that the visited slot was removed
+
+    /**
+     * @param maxKeyLength longest String key in chars, or 0 for numeric keys
+     * @param payloadBytes bytes of owner fields per slot
+     * @param expectedKeys number of keys the table should hold without growing
+     * @param minCapacity  smallest number of slots, a power of 2
+     */
+    OffHeapSlotTable(int maxKeyLength, int payloadBytes, int expectedKeys, int minCapacity, Storage storage) {
+        if (maxKeyLength < 0) {
+            throw new IllegalArgumentException("maxKeyLength must not be negative: " + maxKeyLength);
+        }
+        this.maxKeyLength = maxKeyLength;
+        this.keyChars = PAYLOAD + payloadBytes;
+        this.slotBytes = (keyChars + 2 * maxKeyLength + 7) & ~7;
+        this.storage = storage;
+        allocate(tableSizeFor(Math.max(minCapacity, (int) Math.ceil(expectedKeys / LOAD_FACTOR))));
+        storage.installed();
+    }
+
+    boolean fits(String key) {
+        return key.length() <= maxKeyLength;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int capacity() {
+        return (int) table.capacity();
+    }
+
+    long bytes() {
+        return table.bytes();
+    }
+
+    boolean isUsed(int slot) {
+        return (flags(slot) & USED) != 0;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // LOOKUP, INSERT, REMOVAL
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Returns the slot of the key, or -1.
+     */
+    int find(String key) {
+        int hash = hash(key);
+        int idx = hash & mask;
+        while (isUsed(idx)) {
+            if (getHeaderInt(idx, HASH) == hash && keyEquals(idx, key)) {
+                return idx;
+            }
+            idx = (idx + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the slot of the key, inserting it with a zeroed payload if
+     * absent. The key must {@link #fits fit}.
+     */
+    int findOrCreate(String key) {
+        int hash = hash(key);
+        int idx = hash & mask;
+        while (isUsed(idx)) {
+            if (getHeaderInt(idx, HASH) == hash && keyEquals(idx, key)) {
+                return idx;
+            }
+            idx = (idx + 1) & mask;
+        }
+        ByteBuffer buffer = table.buffer(idx);
+        int base = table.offset(idx);
+        buffer.putInt(base + FLAGS, USED);
+        buffer.putInt(base + HASH, hash);
+        buffer.putInt(base + KEY_LENGTH, key.length());
+        for (int i = 0; i < key.length(); i++) {
+            buffer.putChar(base + keyChars + 2 * i, key.charAt(i));
+        }
+        if (++size < resizeAt) {
+            return idx;
+        }
+        rehash(table.capacity() << 1);
+        return find(key);
+    }
+
+    int find(long key) {
+        int hash = hash(key);
+        int idx = hash & mask;
+        while (isUsed(idx)) {
+            if (table.buffer(idx).getLong(table.offset(idx) + NUMERIC_KEY) == key) {
+                return idx;
+            }
+            idx = (idx + 1) & mask;
+        }
+        return -1;
+    }
+
+    int findOrCreate(long key) {
+        int hash = hash(key);
+        int idx = hash & mask;
+        while (isUsed(idx)) {
+            if (table.buffer(idx).getLong(table.offset(idx) + NUMERIC_KEY) == key) {
+                return idx;
+            }
+            idx = (idx + 1) & mask;
+        }
+        ByteBuffer buffer = table.buffer(idx);
+        int base = table.offset(idx);
+        buffer.putInt(base + FLAGS, USED);
+        buffer.putInt(base + HASH, hash);
+        buffer.putLong(base + NUMERIC_KEY, key);
+        if (++size < resizeAt) {
+            return idx;
+        }
+        rehash(table.capacity() << 1);
+        return find(key);
+    }
+
+    /**
+     * Drops a key. Other slots may move.
+     */
+    void remove(int slot) {
+        shiftBack(slot);
+        size--;
+        removals++;
+    }
+
+    /**
+     * Visits every key.
+     * <p>
+     * The action may {@link #remove(int) remove} the slot it is visiting; it
+     * must not insert keys. A key moved by that removal can be visited twice,
+     * never skipped.
+     * </p>
+     */
+    void forEach(IntConsumer action) {
+        int capacity = (int) table.capacity();
+        for (int i = 0; i < capacity; i++) {
+            while (isUsed(i)) {
+                int before = removals;
+                action.accept(i);
+                if (removals == before) {
+                    break; // not removed: move on
+                }
+                // Removed: slot i now holds a shifted key (or nothing)
+            }
+        }
+    }
+
+    /**
+     * Returns the String key of a slot. Allocates; not for the event path.
+     */
+    String keyAt(int slot) {
+        ByteBuffer buffer = table.buffer(slot);
+        int base = table.offset(slot);
+        char[] chars = new char[buffer.getInt(base + KEY_LENGTH)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = buffer.getChar(base + keyChars + 2 * i);
+        }
+        return new String(chars);
+    }
+
+    long numericKeyAt(int slot) {
+        return table.buffer(slot).getLong(table.offset(slot) + NUMERIC_KEY);
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // SLOT ACCESS
+    // ═══════════════════════════════════════════════════════════════
+
+    int flags(int slot) {
+        return getHeaderInt(slot, FLAGS);
+    }
+
+    /**
+     * Sets the owner's flag bits; {@link #USED} must be kept.
+     */
+    void setFlags(int slot, int flags) {
+        table.buffer(slot).putInt(table.offset(slot) + FLAGS, flags);
+    }
+
+    /**
+     * Returns the buffer holding a slot, for several field accesses in a row.
+     */
+    ByteBuffer buffer(int slot) {
+        return table.buffer(slot);
+    }
+
+    /**
+     * Returns where a slot's payload starts in its {@link #buffer}.
+     */
+    int payload(int slot) {
+        return table.offset(slot) + PAYLOAD;
+    }
+
+    int getInt(int slot, int field) {
+        return table.buffer(slot).getInt(payload(slot) + field);
+    }
+
+    void putInt(int slot, int field, int value) {
+        table.buffer(slot).putInt(payload(slot) + field, value);
+    }
+
+    long getLong(int slot, int field) {
+        return table.buffer(slot).getLong(payload(slot) + field);
+    }
+
+    void putLong(int slot, int field, long value) {
+        table.buffer(slot).putLong(payload(slot) + field, value);
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // INTERNALS
+    // ═══════════════════════════════════════════════════════════════
+
+    private boolean keyEquals(int slot, String key) {
+        ByteBuffer buffer = table.buffer(slot);
+        int base = table.offset(slot);
+        int length = key.length();
+        if (buffer.getInt(base + KEY_LENGTH) != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (buffer.getChar(base + keyChars + 2 * i) != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(String key) {
+        // Keys of one worker share the partition bits of the mixed hash (Partitioner.MIXED),
+        // so the table index needs a mix of its own
+        int h = key.hashCode() * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Backward-shift deletion: pulls later entries of the probe chain into the hole.
+     */
+    private void shiftBack(int hole) {
+        int idx = hole;
+        while (true) {
+            idx = (idx + 1) & mask;
+            if (!isUsed(idx)) {
+                break;
+            }
+            int home = getHeaderInt(idx, HASH) & mask;
+            // Move if the hole lies cyclically between the entry's home slot and its position
+            if (((idx - home) & mask) >= ((idx - hole) & mask)) {
+                table.copy(idx, table, hole);
+                hole = idx;
+            }
+        }
+        table.clear(hole);
+    }
+
+    private void rehash(long newCapacity) {
+        OffHeapRegion old = table;
+        int oldCapacity = (int) old.capacity();
+        allocate((int) newCapacity);
+        for (int i = 0; i < oldCapacity; i++) {
+            if ((old.buffer(i).getInt(old.offset(i) + FLAGS) & USED) != 0) {
+                int idx = old.buffer(i).getInt(old.offset(i) + HASH) & mask;
+                while (isUsed(idx)) {
+                    idx = (idx + 1) & mask;
+                }
+                old.copy(i, table, idx);
+            }
+        }
+        storage.installed();
+    }
+
+    private void allocate(int capacity) {
+        table = storage.allocate(slotBytes, capacity);
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int getHeaderInt(int slot, int field) {
+        return table.buffer(slot).getInt(table.offset(slot) + field);
+    }
+
+    private static int tableSizeFor(int n) {
+        int capacity = Integer.highestOneBit(n);
+        return capacity == n ? capacity : capacity << 1;
+    }
+}
@@ -0,0 +1,163 @@
+package io.orbit.ledger.core;
+
+import io.orbit.ledger.enums.LedgerType;
+import io.orbit.ledger.model.LedgerEvent;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Pending events of all keys of one worker, in shared columns.
+ * <p>
+ * TRACKED BY SINGLE THREAD (Worker). NO LOCKS. NO ATOMICS.
+ * </p>
+ * <p>
+ * OPTIMIZATION: An event is one index into parallel primitive columns; a
+ * key's pending events are a chain of indexes linked through the
+ * {@code next} column, and a release hands the whole chain back to the free
+ * list in O(1) (v1.4.0). Memory follows the worker's pending events at their
+ * peak, not every key's own historical peak, and a key with nothing pending
+ * holds no event storage at all.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+public final class PendingEventArena {
+
+    static final int WORKER_CAPACITY = 1024;
+    private static final LedgerType[] TYPES = LedgerType.values();
+
+    private long[] sequences;
+    private byte[] types; // LedgerType.ordinal()
+    private long[] amounts;
+    private long[] timestamps;
+    private long[] balancesAfter;
+    private int[] next; // next event of the same key, or free-list link; -1 = end
+
+    private int used; // indexes below this have been handed out at least once
+    private int freeHead = -1;
+    private int live;
+
+    public PendingEventArena() {
+        this(WORKER_CAPACITY);
+    }
+
+    /**
+     * @param initialCapacity events held before the columns grow
+     */
+    public PendingEventArena(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        sequences = new long[capacity];
+        types = new byte[capacity];
+        amounts = new long[capacity];
+        timestamps = new long[capacity];
+        balancesAfter = new long[capacity];
+        next = new int[capacity];
+    }
+
+    /**
+     * Stores an event and links it after {@code tail}.
+     *
+     * @param tail last event of the key's chain, or -1 to start a chain
+     * @return index of the new event, the key's new tail
+     */
+    public int append(int tail, long sequence, LedgerType type, long amount, long timestampMs, long balanceAfter) {
+        int idx = freeHead;
+        if (idx >= 0) {
+            freeHead = next[idx];
+        } else {
+            if (used == next.length) {
+                grow();
+            }
+            idx = used++;
+        }
+        sequences[idx] = sequence;
+        types[idx] = (byte) type.ordinal();
+        amounts[idx] = amount;
+        timestamps[idx] = timestampMs;
+        balancesAfter[idx] = balanceAfter;
+        next[idx] = -1;
+        if (tail >= 0) {
+            next[tail] = idx;
+        }
+        live++;
+        return idx;
+    }
+
+    /**
+     * Adds a chain's events to {@code target} in order.
+     *
+     * @param head  first event of the chain
+     * @param count events in the chain
+     */
+    public void collect(int head, int count, String key, long numericKey, List<LedgerEvent> target) {
+        int idx = head;
+        for (int i = 0; i < count; i++) {
+            target.add(new LedgerEvent(
+                    key,
+                    sequences[idx],
+                    TYPES[types[idx]],
+                    amounts[idx],
+                    Instant.ofEpochMilli(timestamps[idx]),
+                    balancesAfter[idx],
+                    numericKey));
+            idx = next[idx];
+        }
+    }
+
+    /**
+     * Copies a chain into another arena.
+     *
+     * @return tail of the copy in {@code target}; its head is {@code headOut[0]}
+     */
+    int copyTo(PendingEventArena target, int head, int count, int[] headOut) {
+        int idx = head;
+        int tail = -1;
+        for (int i = 0; i < count; i++) {
+            tail = target.append(tail, sequences[idx], TYPES[types[idx]], amounts[idx], timestamps[idx],
+                    balancesAfter[idx]);
+            if (i == 0) {
+                headOut[0] = tail;
+            }
+            idx = next[idx];
+        }
+        return tail;
+    }
+
+    /**
+     * Returns a whole chain to the free list.
+     */
+    public void free(int head, int tail, int count) {
+        if (count == 0) {
+            return;
+        }
+        next[tail] = freeHead;
+        freeHead = head;
+        live -= count;
+    }
+
+    /**
+     * Returns the number of events currently stored.
+     */
+    public int size() {
+        return live;
+    }
+
+    /**
+     * Returns the number of events the columns hold before growing.
+     */
+    public int capacity() {
+        return next.length;
+    }
+
+    private void grow() {
+        int capacity = next.length + Math.max(1, next.length >> 1);
+        sequences = Arrays.copyOf(sequences, capacity);
+        types = Arrays.copyOf(types, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        balancesAfter = Arrays.copyOf(balancesAfter, capacity);
+        next = Arrays.copyOf(next, capacity);
+    }
+}
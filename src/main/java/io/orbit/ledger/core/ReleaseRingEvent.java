@@ -0,0 +1,26 @@
+package io.orbit.ledger.core;
+
+import io.orbit.ledger.model.OrbitRelease;
+
+/**
+ * Slot of the release ring: carries one {@link OrbitRelease} from a worker
+ * to the release batch handlers.
+ *
+ * @since 1.4.0
+ */
+public final class ReleaseRingEvent {
+
+    private OrbitRelease release;
+
+    public void set(OrbitRelease release) {
+        this.release = release;
+    }
+
+    public OrbitRelease getRelease() {
+        return release;
+    }
+
+    public void clear() {
+        this.release = null;
+    }
+}
@@ -0,0 +1,82 @@
+package io.orbit.ledger.core;
+
+import io.orbit.ledger.model.LedgerEvent;
+import io.orbit.ledger.model.OrbitRelease;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A release of a {@link StripedKey} in flight, shared by every ring slot that carries it.
+ *
+ * <p>
+ * Each stripe worker hands over its pending events in {@link #arrive}. Unlike
+ * {@link JournalPosting} nobody waits: the worker that arrives last merges
+ * the stripes and publishes the release.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+public final class StripeRelease {
+
+    private final StripedKey stripedKey;
+    private final CompletableFuture<OrbitRelease> resultFuture;
+    private final List<LedgerEvent>[] stripes;
+    private final AtomicInteger pending;
+
+    /**
+     * @param stripedKey   the key to release
+     * @param resultFuture completed with the merged release, or null
+     */
+    public StripeRelease(StripedKey stripedKey, CompletableFuture<OrbitRelease> resultFuture) {
+        this.stripedKey = stripedKey;
+        this.resultFuture = resultFuture;
+        this.stripes = newStripeArray(stripedKey.getStripes());
+        this.pending = new AtomicInteger(stripes.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<LedgerEvent>[] newStripeArray(int length) {
+        return (List<LedgerEvent>[]) new List<?>[length];
+    }
+
+    public StripedKey getStripedKey() {
+        return stripedKey;
+    }
+
+    public CompletableFuture<OrbitRelease> getResultFuture() {
+        return resultFuture;
+    }
+
+    /**
+     * Hands over the pending events of one stripe.
+     *
+     * @param stripe stripe index
+     * @param events the stripe's events, sequenced by stripe sequence
+     * @return true if the caller arrived last and must merge
+     */
+    public boolean arrive(int stripe, List<LedgerEvent> events) {
+        stripes[stripe] = events;
+        return pending.decrementAndGet() == 0;
+    }
+
+    /**
+     * Returns the events of all stripes in publish order.
+     * Only valid once {@link #arrive} returned true.
+     */
+    public List<LedgerEvent> mergedEvents() {
+        int count = 0;
+        for (List<LedgerEvent> events : stripes) {
+            count += events.size();
+        }
+        List<LedgerEvent> merged = new ArrayList<>(count);
+        for (List<LedgerEvent> events : stripes) {
+            merged.addAll(events);
+        }
+        merged.sort(Comparator.comparingLong(LedgerEvent::sequence));
+        return merged;
+    }
+}
@@ -0,0 +1,108 @@
+package io.orbit.ledger.core;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A hot key whose events are spread over several workers.
+ *
+ * <p>
+ * Every publish takes the next stripe sequence, which picks the stripe round
+ * robin and records the publish order. Each stripe keeps its own pending
+ * events on its worker; a {@link StripeRelease} collects them and the worker
+ * completing it merges them into one release against {@link #getState()}.
+ * </p>
+ * <p>
+ * The merged state is only touched by the worker completing a release. Those
+ * workers differ, but releases of one key complete strictly one after another
+ * (every stripe sees them in the same order), and each hand-over goes through
+ * the release's countdown, so no lock is needed.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+public final class StripedKey {
+
+    private final String key;
+    private final int[] partitions; // stripe -> partition, distinct
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicBoolean releaseOwed = new AtomicBoolean(); // a skipped sequence was a count trigger
+    private final LedgerKeyState state = new LedgerKeyState();
+
+    /**
+     * @param key          the hot key
+     * @param homePartition partition the key would own unstriped
+     * @param stripes      number of stripes, at most {@code totalWorkers}
+     * @param totalWorkers number of partitions
+     */
+    public StripedKey(String key, int homePartition, int stripes, int totalWorkers) {
+        this.key = key;
+        this.partitions = new int[stripes];
+        for (int s = 0; s < stripes; s++) {
+            partitions[s] = (homePartition + s) % totalWorkers;
+        }
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getStripes() {
+        return partitions.length;
+    }
+
+    /**
+     * Returns the partition owning stripe {@code stripe}.
+     */
+    public int partitionOf(int stripe) {
+        return partitions[stripe];
+    }
+
+    /**
+     * Returns the partition for the event with the given stripe sequence.
+     */
+    public int partitionOf(long stripeSequence) {
+        return partitions[(int) (stripeSequence % partitions.length)];
+    }
+
+    /**
+     * Returns the stripe owned by {@code partition}, or -1 if it owns none.
+     */
+    public int stripeOf(int partition) {
+        for (int s = 0; s < partitions.length; s++) {
+            if (partitions[s] == partition) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Takes the next stripe sequence; it fixes both the stripe and the merge order.
+     */
+    public long nextStripeSequence() {
+        return published.getAndIncrement();
+    }
+
+    /**
+     * Records that a stripe sequence given up on a full ring would have
+     * triggered a count release; the next accepted event publishes it.
+     */
+    public void oweRelease() {
+        releaseOwed.set(true);
+    }
+
+    /**
+     * Returns true, once, if a count release is owed.
+     */
+    public boolean takeOwedRelease() {
+        return releaseOwed.get() && releaseOwed.compareAndSet(true, false);
+    }
+
+    /**
+     * Returns the merged state: committed balance and release sequence numbers.
+     */
+    public LedgerKeyState getState() {
+        return state;
+    }
+}
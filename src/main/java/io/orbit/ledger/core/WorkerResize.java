@@ -0,0 +1,112 @@
+package io.orbit.ledger.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A change of the active worker count, shared by every worker at one ring slot.
+ *
+ * <p>
+ * Each worker hands the states of the keys it no longer owns to their new
+ * owner with {@link #send}, waits in {@link #arriveAndAwait()} until every
+ * worker has done so, then adopts what was sent to it. No worker moves past
+ * the slot before all states are in place, so no event of a moved key can
+ * reach a worker that does not hold its state yet.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+public final class WorkerResize {
+
+    // Same back-off as JournalPosting: workers are usually close together
+    private static final int SPIN_LIMIT = 1_000;
+    private static final long PARK_NS = 10_000;
+
+    private final int workers;
+    private final List<Moved>[][] outbox; // [from][to], each list written by one worker
+    private final AtomicInteger pending;
+
+    /**
+     * @param workers      new number of partitions
+     * @param totalWorkers number of running workers (all take part)
+     */
+    public WorkerResize(int workers, int totalWorkers) {
+        this.workers = workers;
+        this.outbox = newOutbox(totalWorkers);
+        this.pending = new AtomicInteger(totalWorkers);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Moved>[][] newOutbox(int workers) {
+        return (List<Moved>[][]) new List<?>[workers][workers];
+    }
+
+    /**
+     * Returns the number of partitions keys are spread over after this slot.
+     */
+    public int getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Hands a String-keyed state from worker {@code from} to worker {@code to}.
+     */
+    public void send(int from, int to, String key, LedgerKeyState state) {
+        box(from, to).add(new Moved(key, 0, state));
+    }
+
+    /**
+     * Hands a numeric-keyed state from worker {@code from} to worker {@code to}.
+     */
+    public void send(int from, int to, long numericKey, LedgerKeyState state) {
+        box(from, to).add(new Moved(null, numericKey, state));
+    }
+
+    private List<Moved> box(int from, int to) {
+        List<Moved> box = outbox[from][to];
+        if (box == null) {
+            box = new ArrayList<>();
+            outbox[from][to] = box;
+        }
+        return box;
+    }
+
+    /**
+     * Returns the states sent to worker {@code to}. Only valid after {@link #arriveAndAwait()}.
+     */
+    public List<Moved> received(int to) {
+        List<Moved> received = new ArrayList<>();
+        for (List<Moved>[] from : outbox) {
+            if (from[to] != null) {
+                received.addAll(from[to]);
+            }
+        }
+        return received;
+    }
+
+    /**
+     * Signals that the calling worker sent its states and waits for the others.
+     */
+    public void arriveAndAwait() {
+        if (pending.decrementAndGet() == 0) {
+            return;
+        }
+        int spins = 0;
+        while (pending.get() > 0) {
+            if (spins < SPIN_LIMIT) {
+                spins++;
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(PARK_NS);
+            }
+        }
+    }
+
+    /**
+     * A key state in transit; {@code key} is null for a numeric key.
+     */
+    public record Moved(String key, long numericKey, LedgerKeyState state) {
+    }
+}
@@ -0,0 +1,297 @@
+package io.orbit.ledger.engine;
+
+import io.orbit.ledger.api.LedgerClock;
+import io.orbit.ledger.api.OrbitReleaseBatchHandler;
+import io.orbit.ledger.api.Partitioner;
+import io.orbit.ledger.enums.BackpressurePolicy;
+import io.orbit.ledger.enums.DispatchMode;
+import io.orbit.ledger.enums.PerformanceMode;
+import io.orbit.ledger.enums.ProducerMode;
+import io.orbit.ledger.enums.ReleaseDetail;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Advanced options for {@link OrbitDisruptor}.
+ * <p>
+ * Holds the engine settings added after the core constructor arguments
+ * (buffer, threads, release and balance config). Defaults reproduce the
+ * behaviour of an engine built without them. Normally populated by
+ * {@link io.orbit.ledger.builder.OrbitLedgerBuilder}.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+public final class EngineOptions {
+
+    private DispatchMode dispatchMode = DispatchMode.MULTICAST;
+
+    // Producer side: sequencer type and lanes for LANES
+    private ProducerMode producerMode = ProducerMode.MULTI;
+    private int producerLanes = 4;
+
+    // Backpressure for tryCredit/tryDebit
+    private BackpressurePolicy backpressurePolicy = BackpressurePolicy.BLOCK;
+    private Duration backpressureTimeout = Duration.ofMillis(10);
+    private int overflowCapacity = 4096;
+
+    // Publish timestamp source
+    private LedgerClock clock = LedgerClock.SYSTEM;
+
+    // Key placement across workers
+    private Partitioner partitioner = Partitioner.MIXED;
+
+    // Hot keys striped over several workers: key -> stripe count
+    private final Map<String, Integer> hotKeys = new LinkedHashMap<>();
+
+    // Workers started for resize(), 0 = threadCount
+    private int maxThreadCount = 0;
+
+    // Release listener on sink threads, 0 sinks = on the workers
+    private int releaseSinkThreads = 0;
+    private int maxInFlightReleases = 1024;
+
+    // Release ring consumed by batch handlers, only built if there is a handler
+    private final List<OrbitReleaseBatchHandler> releaseBatchHandlers = new ArrayList<>();
+    private int releaseRingSize = 1024;
+    private PerformanceMode releaseRingPerformanceMode = PerformanceMode.STANDARD;
+
+    // Key state in direct memory for String keys up to this length, 0 = on heap
+    private int offHeapMaxKeyLength = 0;
+
+    // Release content, SUMMARY = counters and delta only
+    private ReleaseDetail releaseDetail = ReleaseDetail.EVENTS;
+
+    // Key table presizing hint for the whole engine, 0 = grow from empty
+    private int expectedKeys = 0;
+
+    // Bounds of EvictionPolicy.IDLE_TIMEOUT and MAX_KEYS
+    private Duration idleTimeout = Duration.ofMinutes(5);
+    private int maxKeysPerWorker = 1_000_000;
+
+    // Memory-mapped tier for evicted keys, null directory = evicted keys are dropped
+    private Path coldKeyStateDirectory = null;
+    private int coldMaxKeyLength = 0;
+
+    // PerformanceMode.PHASED: spin, then yield, then park
+    private Duration phasedSpinTimeout = Duration.ofNanos(100_000);
+    private Duration phasedYieldTimeout = Duration.ofMillis(1);
+
+    public EngineOptions dispatchMode(DispatchMode mode) {
+        this.dispatchMode = Objects.requireNonNull(mode, "dispatchMode must not be null");
+        return this;
+    }
+
+    public EngineOptions producerMode(ProducerMode mode) {
+        this.producerMode = Objects.requireNonNull(mode, "producerMode must not be null");
+        return this;
+    }
+
+    public EngineOptions producerLanes(int lanes) {
+        this.producerLanes = lanes;
+        return this;
+    }
+
+    public EngineOptions backpressurePolicy(BackpressurePolicy policy) {
+        this.backpressurePolicy = Objects.requireNonNull(policy, "backpressurePolicy must not be null");
+        return this;
+    }
+
+    public EngineOptions backpressureTimeout(Duration timeout) {
+        this.backpressureTimeout = Objects.requireNonNull(timeout, "backpressureTimeout must not be null");
+        return this;
+    }
+
+    public EngineOptions overflowCapacity(int capacity) {
+        this.overflowCapacity = capacity;
+        return this;
+    }
+
+    public EngineOptions clock(LedgerClock clock) {
+        this.clock = Objects.requireNonNull(clock, "clock must not be null");
+        return this;
+    }
+
+    public EngineOptions partitioner(Partitioner partitioner) {
+        this.partitioner = Objects.requireNonNull(partitioner, "partitioner must not be null");
+        return this;
+    }
+
+    public EngineOptions hotKey(String key, int stripes) {
+        hotKeys.put(Objects.requireNonNull(key, "key must not be null"), stripes);
+        return this;
+    }
+
+    public EngineOptions hotKeys(Map<String, Integer> stripesByKey) {
+        stripesByKey.forEach(this::hotKey);
+        return this;
+    }
+
+    public EngineOptions maxThreadCount(int maxThreadCount) {
+        this.maxThreadCount = maxThreadCount;
+        return this;
+    }
+
+    public EngineOptions releaseDispatch(int sinkThreads, int maxInFlight) {
+        this.releaseSinkThreads = sinkThreads;
+        this.maxInFlightReleases = maxInFlight;
+        return this;
+    }
+
+    public EngineOptions releaseBatchHandler(OrbitReleaseBatchHandler handler) {
+        releaseBatchHandlers.add(Objects.requireNonNull(handler, "handler must not be null"));
+        return this;
+    }
+
+    public EngineOptions releaseBatchHandlers(List<OrbitReleaseBatchHandler> handlers) {
+        handlers.forEach(this::releaseBatchHandler);
+        return this;
+    }
+
+    public EngineOptions releaseRing(int bufferSize, PerformanceMode performanceMode) {
+        this.releaseRingSize = bufferSize;
+        this.releaseRingPerformanceMode = Objects.requireNonNull(performanceMode,
+                "performanceMode must not be null");
+        return this;
+    }
+
+    public EngineOptions phasedBackoff(Duration spinTimeout, Duration yieldTimeout) {
+        this.phasedSpinTimeout = Objects.requireNonNull(spinTimeout, "spinTimeout must not be null");
+        this.phasedYieldTimeout = Objects.requireNonNull(yieldTimeout, "yieldTimeout must not be null");
+        return this;
+    }
+
+    public EngineOptions offHeapKeyState(int maxKeyLength) {
+        this.offHeapMaxKeyLength = maxKeyLength;
+        return this;
+    }
+
+    public EngineOptions expectedKeys(int expectedKeys) {
+        this.expectedKeys = expectedKeys;
+        return this;
+    }
+
+    public EngineOptions releaseDetail(ReleaseDetail detail) {
+        this.releaseDetail = Objects.requireNonNull(detail, "releaseDetail must not be null");
+        return this;
+    }
+
+    public EngineOptions idleTimeout(Duration timeout) {
+        this.idleTimeout = Objects.requireNonNull(timeout, "idleTimeout must not be null");
+        return this;
+    }
+
+    public EngineOptions maxKeysPerWorker(int maxKeys) {
+        this.maxKeysPerWorker = maxKeys;
+        return this;
+    }
+
+    public EngineOptions coldKeyState(Path directory, int maxKeyLength) {
+        this.coldKeyStateDirectory = directory;
+        this.coldMaxKeyLength = maxKeyLength;
+        return this;
+    }
+
+    public DispatchMode getDispatchMode() {
+        return dispatchMode;
+    }
+
+    public ProducerMode getProducerMode() {
+        return producerMode;
+    }
+
+    public int getProducerLanes() {
+        return producerLanes;
+    }
+
+    public BackpressurePolicy getBackpressurePolicy() {
+        return backpressurePolicy;
+    }
+
+    public Duration getBackpressureTimeout() {
+        return backpressureTimeout;
+    }
+
+    public int getOverflowCapacity() {
+        return overflowCapacity;
+    }
+
+    public LedgerClock getClock() {
+        return clock;
+    }
+
+    public Partitioner getPartitioner() {
+        return partitioner;
+    }
+
+    public int getMaxThreadCount() {
+        return maxThreadCount;
+    }
+
+    public int getReleaseSinkThreads() {
+        return releaseSinkThreads;
+    }
+
+    public int getMaxInFlightReleases() {
+        return maxInFlightReleases;
+    }
+
+    public List<OrbitReleaseBatchHandler> getReleaseBatchHandlers() {
+        return Collections.unmodifiableList(releaseBatchHandlers);
+    }
+
+    public int getReleaseRingSize() {
+        return releaseRingSize;
+    }
+
+    public PerformanceMode getReleaseRingPerformanceMode() {
+        return releaseRingPerformanceMode;
+    }
+
+    public int getOffHeapMaxKeyLength() {
+        return offHeapMaxKeyLength;
+    }
+
+    public int getExpectedKeys() {
+        return expectedKeys;
+    }
+
+    public ReleaseDetail getReleaseDetail() {
+        return releaseDetail;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public int getMaxKeysPerWorker() {
+        return maxKeysPerWorker;
+    }
+
+    public Path getColdKeyStateDirectory() {
+        return coldKeyStateDirectory;
+    }
+
+    public int getColdMaxKeyLength() {
+        return coldMaxKeyLength;
+    }
+
+    public Duration getPhasedSpinTimeout() {
+        return phasedSpinTimeout;
+    }
+
+    public Duration getPhasedYieldTimeout() {
+        return phasedYieldTimeout;
+    }
+
+    public Map<String, Integer> getHotKeys() {
+        return Collections.unmodifiableMap(hotKeys);
+    }
+}
@@ -0,0 +1,53 @@
+package io.orbit.ledger.engine;
+
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.util.Util;
+import io.orbit.ledger.core.LedgerRingEvent;
+
+/**
+ * Clears the slots of a ring that several {@link LaneWorker}s poll.
+ * <p>
+ * Takes the place of {@code LedgerFlushHandler} for
+ * {@link io.orbit.ledger.enums.ProducerMode#LANES} on a MULTICAST ring: a
+ * slot is cleared once every worker's poller has passed it, so no slot keeps
+ * its key, future or journal posting until the ring wraps. The flush
+ * sequence gates the producers, so a slot is only reused after it was cleared.
+ * </p>
+ * <p>
+ * TRACKED BY SINGLE THREAD (one worker). NO LOCKS.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+final class LaneFlush {
+
+    private final RingBuffer<LedgerRingEvent> ring;
+    private final Sequence[] consumed;
+    private final Sequence flushed = new Sequence();
+
+    /**
+     * @param ring     the polled ring
+     * @param consumed the poller sequence of every worker polling the ring
+     */
+    LaneFlush(RingBuffer<LedgerRingEvent> ring, Sequence[] consumed) {
+        this.ring = ring;
+        this.consumed = consumed.clone();
+        ring.addGatingSequences(flushed);
+    }
+
+    /**
+     * Clears the slots every worker has passed since the last call.
+     */
+    void flush() {
+        long passed = Util.getMinimumSequence(consumed);
+        long sequence = flushed.get();
+        if (passed <= sequence) {
+            return;
+        }
+        while (sequence < passed) {
+            ring.get(++sequence).clear();
+        }
+        flushed.set(passed);
+    }
+}
@@ -0,0 +1,215 @@
+package io.orbit.ledger.engine;
+
+import com.lmax.disruptor.EventPoller;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+import io.orbit.ledger.api.LedgerClock;
+import io.orbit.ledger.core.AdaptiveBackoff;
+import io.orbit.ledger.core.LedgerRingEvent;
+import io.orbit.ledger.enums.PerformanceMode;
+import io.orbit.ledger.handler.LedgerWorkHandler;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Worker loop for {@link io.orbit.ledger.enums.ProducerMode#LANES}.
+ * <p>
+ * One thread per partition polls the partition's ring of every lane in turn
+ * and feeds the events to its {@link LedgerWorkHandler}, so key state keeps
+ * a single writer no matter how many lanes there are. A worker that finds
+ * every lane empty idles the way the {@link PerformanceMode}'s wait strategy
+ * would: it spins ({@code LOW_LATENCY}), yields ({@code MAXIMUM}), goes
+ * through spin, yield and park ({@code PHASED}), follows its
+ * {@link AdaptiveBackoff} ({@code ADAPTIVE}) or parks briefly.
+ * </p>
+ * <p>
+ * Lane rings have a single producer each, so no other thread may publish a
+ * RELEASE_ALL into them. Release-all is a request instead: the worker first
+ * polls every ring up to the cursor it had when the request was seen, then
+ * releases on its own thread, so nothing published before the request is
+ * left behind. The same happens once more when the worker exits.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+final class LaneWorker implements Runnable, EventPoller.Handler<LedgerRingEvent> {
+
+    private static final long IDLE_PARK_NS = 50_000;
+
+    private final LedgerWorkHandler handler;
+    private final RingBuffer<LedgerRingEvent>[] rings;
+    private final EventPoller<LedgerRingEvent>[] pollers;
+    private final boolean clearAfterHandling;
+    private LaneFlush[] flushes = new LaneFlush[0]; // rings shared with other workers, cleared by this one
+    private final PerformanceMode idleMode;
+    private final long spinNanos;  // PHASED only
+    private final long yieldNanos; // PHASED only, after spinning
+    private final AdaptiveBackoff backoff; // ADAPTIVE only
+    private long handled; // events since the last backoff record, ADAPTIVE only
+    private long lastRecord; // time of the last backoff record, ADAPTIVE only
+    private final LedgerRingEvent releaseAllEvent; // RELEASE_ALL handled on this thread, never published
+    private final AtomicLong releaseAllRequests = new AtomicLong();
+    private long releaseAllsHandled;
+    private volatile boolean running = true;
+
+    /**
+     * @param clearAfterHandling true if this worker is the only consumer of its
+     *                           rings and may clear slots like {@code LedgerFlushHandler};
+     *                           shared rings are cleared through {@link #flushing}
+     * @param spinTimeout        {@code PHASED} spin phase
+     * @param yieldTimeout       {@code PHASED} yield phase
+     * @param backoff            {@code ADAPTIVE} state of this worker, else null
+     * @param clock              stamps the RELEASE_ALL this worker runs
+     */
+    LaneWorker(LedgerWorkHandler handler, RingBuffer<LedgerRingEvent>[] rings,
+            boolean clearAfterHandling, PerformanceMode idleMode, Duration spinTimeout, Duration yieldTimeout,
+            AdaptiveBackoff backoff, LedgerClock clock) {
+        this.handler = handler;
+        this.rings = rings;
+        this.pollers = newPollerArray(rings.length);
+        for (int i = 0; i < rings.length; i++) {
+            pollers[i] = rings[i].newPoller();
+            rings[i].addGatingSequences(pollers[i].getSequence());
+        }
+        this.clearAfterHandling = clearAfterHandling;
+        this.idleMode = idleMode;
+        this.spinNanos = spinTimeout.toNanos();
+        this.yieldNanos = yieldTimeout.toNanos();
+        this.backoff = backoff;
+        this.releaseAllEvent = new LedgerRingEvent(clock);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EventPoller<LedgerRingEvent>[] newPollerArray(int length) {
+        return (EventPoller<LedgerRingEvent>[]) new EventPoller<?>[length];
+    }
+
+    @Override
+    public void run() {
+        try {
+            long idleSince = 0; // PHASED: start of the current idle stretch, 0 while busy
+            lastRecord = System.nanoTime(); // ADAPTIVE: the first window starts now, not at nanoTime 0
+            while (true) {
+                // Read the flag before polling: once it is seen false, one more idle round drains everything
+                boolean stopping = !running;
+                long requested = releaseAllRequests.get();
+                if (requested != releaseAllsHandled) {
+                    releaseAllsHandled = requested;
+                    drainAndReleaseAll();
+                }
+                boolean idle = true;
+                for (EventPoller<LedgerRingEvent> poller : pollers) {
+                    if (poller.poll(this) == EventPoller.PollState.PROCESSING) {
+                        idle = false;
+                    }
+                }
+                for (LaneFlush flush : flushes) {
+                    flush.flush();
+                }
+                if (!idle) {
+                    idleSince = 0;
+                    if (backoff != null) {
+                        lastRecord = System.nanoTime();
+                        backoff.record(0, handled, lastRecord);
+                        handled = 0;
+                    }
+                    continue;
+                }
+                if (stopping) {
+                    drainAndReleaseAll(); // nothing published before shutdown stays pending
+                    return;
+                }
+                switch (idleMode) {
+                    case LOW_LATENCY -> Thread.onSpinWait();
+                    case MAXIMUM -> Thread.yield();
+                    case PHASED -> {
+                        long now = System.nanoTime();
+                        if (idleSince == 0) {
+                            idleSince = now;
+                        }
+                        long idleFor = now - idleSince;
+                        if (idleFor < spinNanos) {
+                            Thread.onSpinWait();
+                        } else if (idleFor < spinNanos + yieldNanos) {
+                            Thread.yield();
+                        } else {
+                            LockSupport.parkNanos(IDLE_PARK_NS);
+                        }
+                    }
+                    case ADAPTIVE -> {
+                        switch (backoff.state()) {
+                            case SPIN -> Thread.onSpinWait();
+                            case YIELD -> Thread.yield();
+                            case PARK -> LockSupport.parkNanos(IDLE_PARK_NS);
+                        }
+                        // Everything since the last record was waiting, polling included
+                        long now = System.nanoTime();
+                        backoff.record(now - lastRecord, 0, now);
+                        lastRecord = now;
+                    }
+                    default -> LockSupport.parkNanos(IDLE_PARK_NS); // STANDARD, SLEEPING
+                }
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Lane worker failed", e);
+        }
+    }
+
+    @Override
+    public boolean onEvent(LedgerRingEvent event, long sequence, boolean endOfBatch) {
+        handler.onEvent(event, sequence, endOfBatch);
+        handled++;
+        if (clearAfterHandling) {
+            event.clear();
+        }
+        return true;
+    }
+
+    /**
+     * Applies every event published before this call, then releases all keys.
+     */
+    private void drainAndReleaseAll() throws Exception {
+        for (int i = 0; i < pollers.length; i++) {
+            // A claimed shared-ring slot may not be published yet: its producer is about to
+            long target = rings[i].getCursor();
+            while (pollers[i].getSequence().get() < target) {
+                if (pollers[i].poll(this) != EventPoller.PollState.PROCESSING) {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+        releaseAllEvent.setCommitFlush();
+        handler.onEvent(releaseAllEvent, -1, true);
+    }
+
+    /**
+     * Returns how far this worker has handled the {@code index}-th of its rings.
+     */
+    Sequence sequence(int index) {
+        return pollers[index].getSequence();
+    }
+
+    /**
+     * Makes this worker clear the slots of rings it shares with other
+     * workers. Call before the worker starts.
+     */
+    void flushing(LaneFlush[] flushes) {
+        this.flushes = flushes.clone();
+    }
+
+    /**
+     * Asks the worker to release all keys; returns at once (see the class comment).
+     */
+    void requestReleaseAll() {
+        releaseAllRequests.incrementAndGet();
+    }
+
+    /**
+     * Lets the worker exit once all lanes are drained.
+     */
+    void stop() {
+        running = false;
+    }
+}
@@ -2,43 +2,146 @@ package io.orbit.ledger.engine;
 
 import com.lmax.disruptor.BlockingWaitStrategy;
 import com.lmax.disruptor.BusySpinWaitStrategy;
+import com.lmax.disruptor.EventHandler;
+import com.lmax.disruptor.EventTranslator;
+import com.lmax.disruptor.InsufficientCapacityException;
+import com.lmax.disruptor.PhasedBackoffWaitStrategy;
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+import com.lmax.disruptor.SleepingWaitStrategy;
 import com.lmax.disruptor.WaitStrategy;
 import com.lmax.disruptor.YieldingWaitStrategy;
 import com.lmax.disruptor.dsl.Disruptor;
 import com.lmax.disruptor.dsl.ProducerType;
 import io.orbit.ledger.api.BalanceLoader;
+import io.orbit.ledger.api.LedgerClock;
+import io.orbit.ledger.api.LedgerKey;
+import io.orbit.ledger.api.LongOrbitLedger;
 import io.orbit.ledger.api.OrbitLedger;
+import io.orbit.ledger.api.OrbitReleaseBatchHandler;
 import io.orbit.ledger.api.OrbitReleaseListener;
+import io.orbit.ledger.api.Partitioner;
+import io.orbit.ledger.core.AdaptiveBackoff;
+import io.orbit.ledger.core.AdaptiveWaitStrategy;
+import io.orbit.ledger.core.JournalPosting;
+import io.orbit.ledger.core.KeyStateMap;
 import io.orbit.ledger.core.LedgerRingEvent;
 import io.orbit.ledger.core.LedgerRingEventFactory;
+import io.orbit.ledger.core.ReleaseRingEvent;
+import io.orbit.ledger.core.StripeRelease;
+import io.orbit.ledger.core.StripedKey;
+import io.orbit.ledger.core.WorkerResize;
+import io.orbit.ledger.enums.BackpressurePolicy;
+import io.orbit.ledger.enums.DispatchMode;
 import io.orbit.ledger.enums.EvictionPolicy;
 import io.orbit.ledger.enums.LedgerType;
 import io.orbit.ledger.enums.PerformanceMode;
+import io.orbit.ledger.enums.ProducerMode;
+import io.orbit.ledger.enums.PublishStatus;
 import io.orbit.ledger.enums.ReleaseType;
+import io.orbit.ledger.handler.HandlerOptions;
 import io.orbit.ledger.handler.LedgerFlushHandler;
 import io.orbit.ledger.handler.LedgerWorkHandler;
+import io.orbit.ledger.handler.ReleaseBatchEventHandler;
+import io.orbit.ledger.handler.ReleaseFlushHandler;
+import io.orbit.ledger.model.BackpressureStats;
+import io.orbit.ledger.model.JournalEntry;
 import io.orbit.ledger.model.OrbitRelease;
+import io.orbit.ledger.model.WorkerWaitStats;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntUnaryOperator;
 
 /**
  * LMAX Disruptor-based implementation of OrbitLedgerEngine.
  * <p>
- * Uses multicast (handleEventsWith) where all workers see all events,
- * effectively sharding by filtering in the handler based on key hash.
- * This guarantees strict ordering per-key without race conditions.
+ * In {@link DispatchMode#MULTICAST} mode a single ring is shared by all
+ * workers (handleEventsWith) and each worker filters by key hash.
+ * In {@link DispatchMode#SHARDED} mode every partition owns its own ring
+ * and the publisher routes each event to it, so workers never read events
+ * of other partitions.
+ * Both modes guarantee strict ordering per-key without race conditions.
+ * </p>
+ * <p>
+ * The same engine also serves {@link LongOrbitLedger}: numeric keys travel
+ * through the ring as primitives and live in a separate per-worker state map.
  * </p>
  */
-public class OrbitDisruptor implements OrbitLedger {
+public class OrbitDisruptor implements OrbitLedger, LongOrbitLedger {
+
+    // Stateless translators shared by all producers: no capturing lambda per publish
+    private static final EventTranslator<LedgerRingEvent> RELEASE_ALL_TRANSLATOR =
+            (event, sequence) -> event.setCommitFlush();
+
+    // Re-check interval while TIMED_WAIT waits for capacity
+    private static final long BACKPRESSURE_PARK_NS = 10_000;
+
+    // PerformanceMode.SLEEPING: spin, then yield, then nap 100µs between checks
+    private static final int SLEEPING_RETRIES = 200;
+    private static final long SLEEPING_NAP_NS = 100_000;
+
+    private final Disruptor<LedgerRingEvent>[] disruptors;
+    private final RingBuffer<LedgerRingEvent>[] ringBuffers; // shared lane in LANES mode
 
-    private final Disruptor<LedgerRingEvent> disruptor;
+    // Producer lanes (since 1.4.0), null unless LANES
+    private final RingBuffer<LedgerRingEvent>[][] producerLanes;
+    private final Thread[] laneOwners;
+    private final ThreadLocal<RingBuffer<LedgerRingEvent>[]> callerLane;
+    private final List<LaneWorker> laneWorkers = new ArrayList<>();
+    private final List<Thread> laneThreads = new ArrayList<>();
     private final List<LedgerWorkHandler> handlers = new ArrayList<>();
     private final ReleaseType releaseType;
+    private final int releaseThreshold;
     private final Duration releaseInterval;
+    private final DispatchMode dispatchMode;
+    private final int threadCount;
+    private final Partitioner partitioner;
+
+    // Elastic workers (since 1.4.0): all started, keys spread over activeWorkers of them
+    private final int maxThreadCount;
+    private volatile int activeWorkers;
+    private final ReentrantLock resizeLock = new ReentrantLock();
     private ScheduledExecutorService scheduler;
+    private final ReleaseDispatcher releaseDispatcher; // since 1.4.0, null if the workers call the listener
+    private final Disruptor<ReleaseRingEvent> releaseDisruptor; // since 1.4.0, null without batch handlers
+
+    // Interned LedgerKey handles, ids dense per partition (since 1.4.0)
+    private final ConcurrentHashMap<String, InternedKey> keyDictionary = new ConcurrentHashMap<>();
+    private final AtomicInteger[] nextKeyIds;
+
+    // Orders multi-ring journal and stripe release publishes so every ring sees them in the same order (since 1.4.0)
+    private final ReentrantLock journalLock = new ReentrantLock();
+
+    // Hot keys spread over several workers (since 1.4.0), empty unless configured
+    private final Map<String, StripedKey> stripedKeys;
+
+    // Backpressure for tryCredit/tryDebit (since 1.4.0)
+    private final BackpressurePolicy backpressurePolicy;
+    private final long backpressureTimeoutNs;
+    private final int overflowCapacity;
+    private final Queue<SpilledEvent> overflow; // only for SPILL
+    private final AtomicInteger overflowDepth = new AtomicInteger();
+    private final ReentrantLock drainLock = new ReentrantLock();
+    private final LongAdder blockedCount = new LongAdder();
+    private final LongAdder failedFastCount = new LongAdder();
+    private final LongAdder timedWaitCount = new LongAdder();
+    private final LongAdder timedOutCount = new LongAdder();
+    private final LongAdder spilledCount = new LongAdder();
+    private final LongAdder spillRejectedCount = new LongAdder();
+
+    // Per-worker wait state for PerformanceMode.ADAPTIVE (since 1.4.0), filled as workers first wait
+    private final List<AdaptiveBackoff> waitBackoffs = new CopyOnWriteArrayList<>();
 
     public OrbitDisruptor(
             int bufferSize,
@@ -51,45 +154,369 @@ public class OrbitDisruptor implements OrbitLedger {
             EvictionPolicy evictionPolicy,
             Duration releaseInterval,
             PerformanceMode performanceMode) {
+        this(bufferSize, threadCount, releaseThreshold, releaseType, releaseListener, balanceLoader,
+                defaultBalance, evictionPolicy, releaseInterval, performanceMode, DispatchMode.MULTICAST);
+    }
+
+    public OrbitDisruptor(
+            int bufferSize,
+            int threadCount,
+            int releaseThreshold,
+            ReleaseType releaseType,
+            OrbitReleaseListener releaseListener,
+            BalanceLoader balanceLoader,
+            long defaultBalance,
+            EvictionPolicy evictionPolicy,
+            Duration releaseInterval,
+            PerformanceMode performanceMode,
+            DispatchMode dispatchMode) {
+        this(bufferSize, threadCount, releaseThreshold, releaseType, releaseListener, balanceLoader,
+                defaultBalance, evictionPolicy, releaseInterval, performanceMode,
+                new EngineOptions().dispatchMode(dispatchMode));
+    }
+
+    /**
+     * Creates an engine with advanced options.
+     *
+     * @since 1.4.0
+     */
+    public OrbitDisruptor(
+            int bufferSize,
+            int threadCount,
+            int releaseThreshold,
+            ReleaseType releaseType,
+            OrbitReleaseListener releaseListener,
+            BalanceLoader balanceLoader,
+            long defaultBalance,
+            EvictionPolicy evictionPolicy,
+            Duration releaseInterval,
+            PerformanceMode performanceMode,
+            EngineOptions options) {
 
         this.releaseType = releaseType;
+        this.releaseThreshold = releaseThreshold;
         this.releaseInterval = releaseInterval;
+        this.dispatchMode = options.getDispatchMode();
+        this.threadCount = threadCount;
+        this.partitioner = options.getPartitioner();
+        this.maxThreadCount = options.getMaxThreadCount() > 0 ? options.getMaxThreadCount() : threadCount;
+        this.activeWorkers = threadCount;
+        if (maxThreadCount < threadCount) {
+            throw new IllegalArgumentException("maxThreadCount (" + maxThreadCount
+                    + ") must not be below threadCount (" + threadCount + ")");
+        }
+        if (maxThreadCount > threadCount && (options.getDispatchMode() != DispatchMode.MULTICAST
+                || options.getProducerMode() == ProducerMode.LANES)) {
+            // Rings are per partition or per lane there, so a moved key's events could be in flight on two rings
+            throw new IllegalArgumentException("maxThreadCount requires DispatchMode.MULTICAST without ProducerMode.LANES");
+        }
+        this.backpressurePolicy = options.getBackpressurePolicy();
+        this.backpressureTimeoutNs = options.getBackpressureTimeout().toNanos();
+        this.overflowCapacity = options.getOverflowCapacity();
+        this.overflow = backpressurePolicy == BackpressurePolicy.SPILL ? new ConcurrentLinkedQueue<>() : null;
+        this.nextKeyIds = new AtomicInteger[maxThreadCount];
+        for (int i = 0; i < maxThreadCount; i++) {
+            nextKeyIds[i] = new AtomicInteger();
+        }
+        this.stripedKeys = stripedKeys(options, threadCount);
 
         ThreadFactory threadFactory = Executors.defaultThreadFactory();
 
-        // Select wait strategy based on performance mode
-        WaitStrategy waitStrategy = switch (performanceMode) {
-            case MAXIMUM -> new YieldingWaitStrategy();
-            default -> new BlockingWaitStrategy(); // STANDARD
-        };
+        OrbitReleaseListener workerListener = releaseListener;
+        if (options.getReleaseSinkThreads() > 0 && releaseListener != null) {
+            this.releaseDispatcher = new ReleaseDispatcher(releaseListener, options.getReleaseSinkThreads(),
+                    options.getMaxInFlightReleases(), threadFactory);
+            workerListener = releaseDispatcher;
+        } else {
+            this.releaseDispatcher = null;
+        }
 
-        this.disruptor = new Disruptor<>(
-                new LedgerRingEventFactory(),
-                bufferSize,
-                threadFactory,
-                ProducerType.MULTI,
-                waitStrategy);
+        if (!options.getReleaseBatchHandlers().isEmpty()) {
+            this.releaseDisruptor = newReleaseDisruptor(options, threadFactory);
+            RingBuffer<ReleaseRingEvent> releaseRing = releaseDisruptor.getRingBuffer();
+            OrbitReleaseListener listener = workerListener;
+            workerListener = listener == null
+                    ? release -> publishRelease(releaseRing, release)
+                    : release -> {
+                        listener.onRelease(release);
+                        publishRelease(releaseRing, release);
+                    };
+        } else {
+            this.releaseDisruptor = null;
+        }
 
-        LedgerWorkHandler[] workHandlers = new LedgerWorkHandler[threadCount];
-        for (int i = 0; i < threadCount; i++) {
+        // Keys spread over the starting workers; added workers start small and grow
+        int expectedKeys = (int) Math.ceil((double) options.getExpectedKeys() / threadCount);
+        LedgerWorkHandler[] workHandlers = new LedgerWorkHandler[maxThreadCount];
+        for (int i = 0; i < maxThreadCount; i++) {
+            int workerKeys = i < threadCount ? expectedKeys : 0;
             workHandlers[i] = new LedgerWorkHandler(
-                    new ConcurrentHashMap<>(),
+                    new KeyStateMap(workerKeys),
                     releaseThreshold,
                     releaseType,
-                    releaseListener,
+                    workerListener,
                     i,
                     threadCount,
                     balanceLoader,
                     defaultBalance,
-                    evictionPolicy);
+                    evictionPolicy,
+                    new HandlerOptions()
+                            .partitioner(partitioner)
+                            .offHeapMaxKeyLength(options.getOffHeapMaxKeyLength())
+                            .expectedKeys(workerKeys)
+                            .releaseDetail(options.getReleaseDetail())
+                            .idleTimeout(options.getIdleTimeout())
+                            .maxKeysPerWorker(options.getMaxKeysPerWorker())
+                            .coldKeyState(options.getColdKeyStateDirectory(), options.getColdMaxKeyLength()));
             handlers.add(workHandlers[i]);
         }
-        disruptor.handleEventsWith(workHandlers).then(new LedgerFlushHandler());
+
+        int ringCount = dispatchMode == DispatchMode.SHARDED ? threadCount : 1;
+        ProducerMode producerMode = options.getProducerMode();
+        if (producerMode == ProducerMode.SINGLE
+                && (releaseType == ReleaseType.TIME || releaseType == ReleaseType.HYBRID)) {
+            throw new IllegalArgumentException("ProducerMode.SINGLE cannot be combined with " + releaseType
+                    + ": the release scheduler would be a second producer");
+        }
+
+        if (producerMode == ProducerMode.LANES) {
+            if (backpressurePolicy == BackpressurePolicy.SPILL) {
+                throw new IllegalArgumentException("BackpressurePolicy.SPILL is not supported with ProducerMode.LANES");
+            }
+            if (!stripedKeys.isEmpty()) {
+                // Lanes reach a worker in no fixed order, so stripe releases could not be merged in order
+                throw new IllegalArgumentException("Hot keys are not supported with ProducerMode.LANES");
+            }
+            int laneCount = options.getProducerLanes();
+            if (laneCount <= 0) {
+                throw new IllegalArgumentException("producerLanes must be positive: " + laneCount);
+            }
+            this.disruptors = newDisruptorArray(0);
+            this.ringBuffers = newRings(ProducerType.MULTI, ringCount, bufferSize, options.getClock());
+            this.producerLanes = newLaneArray(laneCount);
+            for (int l = 0; l < laneCount; l++) {
+                producerLanes[l] = newRings(ProducerType.SINGLE, ringCount, bufferSize, options.getClock());
+            }
+            this.laneOwners = new Thread[laneCount];
+            this.callerLane = new ThreadLocal<>();
+
+            // Worker i polls ring i (SHARDED) or the only ring (MULTICAST) of every lane
+            for (int i = 0; i < threadCount; i++) {
+                int r = ringCount == 1 ? 0 : i;
+                RingBuffer<LedgerRingEvent>[] polled = newRingArray(laneCount + 1);
+                polled[0] = ringBuffers[r];
+                for (int l = 0; l < laneCount; l++) {
+                    polled[l + 1] = producerLanes[l][r];
+                }
+                LaneWorker worker = new LaneWorker(workHandlers[i], polled, ringCount > 1,
+                        performanceMode, options.getPhasedSpinTimeout(), options.getPhasedYieldTimeout(),
+                        performanceMode == PerformanceMode.ADAPTIVE ? newWaitBackoff() : null,
+                        options.getClock());
+                laneWorkers.add(worker);
+                laneThreads.add(threadFactory.newThread(worker));
+            }
+            if (ringCount == 1) {
+                // MULTICAST: every worker polls the same rings, so worker 0 clears what all have passed
+                LaneFlush[] flushes = new LaneFlush[laneCount + 1];
+                for (int p = 0; p < flushes.length; p++) {
+                    Sequence[] consumed = new Sequence[threadCount];
+                    for (int i = 0; i < threadCount; i++) {
+                        consumed[i] = laneWorkers.get(i).sequence(p);
+                    }
+                    flushes[p] = new LaneFlush(p == 0 ? ringBuffers[0] : producerLanes[p - 1][0], consumed);
+                }
+                laneWorkers.get(0).flushing(flushes);
+            }
+            return;
+        }
+
+        this.producerLanes = null;
+        this.laneOwners = null;
+        this.callerLane = null;
+        ProducerType producerType = producerMode == ProducerMode.SINGLE ? ProducerType.SINGLE : ProducerType.MULTI;
+        this.disruptors = newDisruptorArray(ringCount);
+        this.ringBuffers = newRingArray(ringCount);
+
+        for (int r = 0; r < ringCount; r++) {
+            disruptors[r] = new Disruptor<>(
+                    new LedgerRingEventFactory(options.getClock()),
+                    bufferSize,
+                    threadFactory,
+                    producerType,
+                    waitStrategy(performanceMode, options, waitBackoffs));
+
+            if (dispatchMode == DispatchMode.SHARDED) {
+                // One worker per ring: the publisher already did the routing
+                disruptors[r].handleEventsWith(workHandlers[r]).then(new LedgerFlushHandler());
+            } else {
+                disruptors[r].handleEventsWith(workHandlers).then(new LedgerFlushHandler());
+            }
+            ringBuffers[r] = disruptors[r].getRingBuffer();
+        }
+    }
+
+    private Map<String, StripedKey> stripedKeys(EngineOptions options, int threadCount) {
+        Map<String, StripedKey> striped = new HashMap<>();
+        options.getHotKeys().forEach((key, stripes) -> {
+            if (stripes < 2 || stripes > threadCount) {
+                throw new IllegalArgumentException("stripes of hot key " + key
+                        + " must be between 2 and threadCount (" + threadCount + "): " + stripes);
+            }
+            striped.put(key, new StripedKey(key, partitionOf(key), stripes, threadCount));
+        });
+        return striped;
+    }
+
+    /**
+     * Returns the stripes of a configured hot key, or null for a normal key.
+     */
+    private StripedKey stripedKey(String key) {
+        return stripedKeys.isEmpty() ? null : stripedKeys.get(key);
+    }
+
+    /**
+     * Creates the release ring: every batch handler sees every release, then
+     * a flush handler drops it. Workers are its producers, so it is multi-producer.
+     */
+    private static Disruptor<ReleaseRingEvent> newReleaseDisruptor(EngineOptions options, ThreadFactory threadFactory) {
+        Disruptor<ReleaseRingEvent> disruptor = new Disruptor<>(
+                ReleaseRingEvent::new,
+                options.getReleaseRingSize(),
+                threadFactory,
+                ProducerType.MULTI,
+                waitStrategy(options.getReleaseRingPerformanceMode(), options,
+                        new CopyOnWriteArrayList<>())); // batch handlers are not workers: not reported
+        List<OrbitReleaseBatchHandler> batchHandlers = options.getReleaseBatchHandlers();
+        EventHandler<ReleaseRingEvent>[] eventHandlers = newReleaseHandlerArray(batchHandlers.size());
+        for (int i = 0; i < eventHandlers.length; i++) {
+            eventHandlers[i] = new ReleaseBatchEventHandler(batchHandlers.get(i));
+        }
+        disruptor.handleEventsWith(eventHandlers).then(new ReleaseFlushHandler());
+        return disruptor;
+    }
+
+    /**
+     * Publishes a release for the batch handlers; waits while the release ring is full.
+     */
+    private static void publishRelease(RingBuffer<ReleaseRingEvent> releaseRing, OrbitRelease release) {
+        long sequence = releaseRing.next();
+        try {
+            releaseRing.get(sequence).set(release);
+        } finally {
+            releaseRing.publish(sequence);
+        }
+    }
+
+    /**
+     * Creates bare rings for LANES mode. Workers poll them, so the wait strategy
+     * is only there to satisfy the API; a yielding one keeps publish signalling free.
+     */
+    private static RingBuffer<LedgerRingEvent>[] newRings(ProducerType producerType, int ringCount, int bufferSize,
+            LedgerClock clock) {
+        RingBuffer<LedgerRingEvent>[] rings = newRingArray(ringCount);
+        for (int r = 0; r < ringCount; r++) {
+            rings[r] = RingBuffer.create(producerType, new LedgerRingEventFactory(clock), bufferSize,
+                    new YieldingWaitStrategy());
+        }
+        return rings;
+    }
+
+    // Generic arrays cannot be created directly: one unchecked cast each, kept here
+
+    @SuppressWarnings("unchecked")
+    private static Disruptor<LedgerRingEvent>[] newDisruptorArray(int length) {
+        return (Disruptor<LedgerRingEvent>[]) new Disruptor<?>[length];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RingBuffer<LedgerRingEvent>[] newRingArray(int length) {
+        return (RingBuffer<LedgerRingEvent>[]) new RingBuffer<?>[length];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RingBuffer<LedgerRingEvent>[][] newLaneArray(int length) {
+        return (RingBuffer<LedgerRingEvent>[][]) new RingBuffer<?>[length][];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static EventHandler<ReleaseRingEvent>[] newReleaseHandlerArray(int length) {
+        return (EventHandler<ReleaseRingEvent>[]) new EventHandler<?>[length];
+    }
+
+    private AdaptiveBackoff newWaitBackoff() {
+        AdaptiveBackoff backoff = new AdaptiveBackoff(System.nanoTime());
+        waitBackoffs.add(backoff);
+        return backoff;
+    }
+
+    /**
+     * Select wait strategy based on performance mode.
+     * Each ring gets its own instance since strategies may hold per-ring locks.
+     */
+    private static WaitStrategy waitStrategy(PerformanceMode performanceMode, EngineOptions options,
+            List<AdaptiveBackoff> registry) {
+        return switch (performanceMode) {
+            case MAXIMUM -> new YieldingWaitStrategy();
+            case LOW_LATENCY -> new BusySpinWaitStrategy();
+            case SLEEPING -> new SleepingWaitStrategy(SLEEPING_RETRIES, SLEEPING_NAP_NS);
+            // Lite lock: publishers only signal when a worker actually parked
+            case PHASED -> PhasedBackoffWaitStrategy.withLiteLock(
+                    options.getPhasedSpinTimeout().toNanos(),
+                    options.getPhasedYieldTimeout().toNanos(),
+                    TimeUnit.NANOSECONDS);
+            case ADAPTIVE -> new AdaptiveWaitStrategy(registry);
+            default -> new BlockingWaitStrategy(); // STANDARD
+        };
+    }
+
+    /**
+     * Returns the partition that owns the given key.
+     */
+    private int partitionOf(String key) {
+        return partitioner.partition(key, activeWorkers);
+    }
+
+    /**
+     * Returns the partition that owns the given numeric key.
+     */
+    private int partitionOf(long key) {
+        return partitioner.partition(key, activeWorkers);
+    }
+
+    /**
+     * Returns the ring buffer that carries the given partition.
+     */
+    private RingBuffer<LedgerRingEvent> ringOf(int partition) {
+        RingBuffer<LedgerRingEvent>[] rings = rings();
+        return rings.length == 1 ? rings[0] : rings[partition];
+    }
+
+    /**
+     * Returns the rings the calling thread publishes to: its own lane if it
+     * registered one, the shared rings otherwise.
+     */
+    private RingBuffer<LedgerRingEvent>[] rings() {
+        if (callerLane == null) {
+            return ringBuffers;
+        }
+        RingBuffer<LedgerRingEvent>[] lane = callerLane.get();
+        return lane != null ? lane : ringBuffers;
     }
 
     @Override
     public void start() {
-        disruptor.start();
+        if (releaseDisruptor != null) {
+            releaseDisruptor.start();
+        }
+        if (releaseDispatcher != null) {
+            releaseDispatcher.start();
+        }
+        for (Disruptor<LedgerRingEvent> disruptor : disruptors) {
+            disruptor.start();
+        }
+        for (Thread thread : laneThreads) {
+            thread.start();
+        }
 
         // Start time-based scheduler for TIME and HYBRID modes
         if ((releaseType == ReleaseType.TIME || releaseType == ReleaseType.HYBRID)
@@ -121,32 +548,670 @@ public class OrbitDisruptor implements OrbitLedger {
             }
         }
 
-        // Flush all pending events before shutdown
-        releaseAll();
+        // Flush all pending events before shutdown; lane workers release as they exit
+        if (producerLanes == null) {
+            releaseAll();
+        }
+
+        // Then shutdown disruptors
+        for (Disruptor<LedgerRingEvent> disruptor : disruptors) {
+            awaitConsumed(disruptor.getRingBuffer());
+            disruptor.shutdown();
+        }
+        for (LaneWorker worker : laneWorkers) {
+            worker.stop();
+        }
+        for (Thread thread : laneThreads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        // Workers are done: drop their cold tier files
+        for (LedgerWorkHandler handler : handlers) {
+            handler.close();
+        }
 
-        // Then shutdown disruptor
-        disruptor.shutdown();
+        // Workers are done: let the sinks finish what they queued
+        if (releaseDispatcher != null) {
+            releaseDispatcher.close();
+        }
+        if (releaseDisruptor != null) {
+            awaitConsumed(releaseDisruptor.getRingBuffer());
+            releaseDisruptor.shutdown();
+        }
+    }
+
+    /**
+     * Waits until every consumer of the ring passed its last published slot.
+     * <p>
+     * {@code Disruptor.shutdown()} only waits for processors that are already
+     * running, so right after {@link #start()} it could halt a processor that
+     * has not read its first event yet.
+     * </p>
+     */
+    private static void awaitConsumed(RingBuffer<?> ringBuffer) {
+        long cursor = ringBuffer.getCursor();
+        while (ringBuffer.getMinimumGatingSequence() < cursor) {
+            LockSupport.parkNanos(BACKPRESSURE_PARK_NS);
+        }
     }
 
     @Override
     public void credit(String key, long amount) {
+        awaitOverflowDrained();
         publishEvent(key, amount, LedgerType.CREDIT);
     }
 
     @Override
     public void debit(String key, long amount) {
+        awaitOverflowDrained();
+        publishEvent(key, amount, LedgerType.DEBIT);
+    }
+
+    @Override
+    public void credit(long key, long amount) {
+        awaitOverflowDrained();
+        publishEvent(key, amount, LedgerType.CREDIT);
+    }
+
+    @Override
+    public void debit(long key, long amount) {
+        awaitOverflowDrained();
         publishEvent(key, amount, LedgerType.DEBIT);
     }
 
+    @Override
+    public LedgerKey key(String key) {
+        Objects.requireNonNull(key, "key must not be null");
+        InternedKey interned = keyDictionary.get(key);
+        if (interned != null) {
+            return interned;
+        }
+        return keyDictionary.computeIfAbsent(key, k -> {
+            int partition = partitionOf(k);
+            return new InternedKey(this, k, nextKeyIds[partition].getAndIncrement(), partition, stripedKey(k));
+        });
+    }
+
+    @Override
+    public void credit(LedgerKey key, long amount) {
+        InternedKey interned = own(key);
+        awaitOverflowDrained();
+        publishEvent(interned, amount, LedgerType.CREDIT);
+    }
+
+    @Override
+    public void debit(LedgerKey key, long amount) {
+        InternedKey interned = own(key);
+        awaitOverflowDrained();
+        publishEvent(interned, amount, LedgerType.DEBIT);
+    }
+
+    private InternedKey own(LedgerKey key) {
+        if (key instanceof InternedKey interned && interned.owner() == this) {
+            return interned;
+        }
+        throw new IllegalArgumentException("LedgerKey was not issued by this engine: " + key);
+    }
+
+    @Override
+    public PublishStatus tryCredit(String key, long amount) {
+        return tryPublish(key, amount, LedgerType.CREDIT);
+    }
+
+    @Override
+    public PublishStatus tryDebit(String key, long amount) {
+        return tryPublish(key, amount, LedgerType.DEBIT);
+    }
+
+    @Override
+    public BackpressureStats backpressureStats() {
+        return new BackpressureStats(
+                blockedCount.sum(),
+                failedFastCount.sum(),
+                timedWaitCount.sum(),
+                timedOutCount.sum(),
+                spilledCount.sum(),
+                spillRejectedCount.sum(),
+                overflowDepth.get());
+    }
+
+    @Override
+    public List<WorkerWaitStats> waitStats() {
+        List<WorkerWaitStats> stats = new ArrayList<>(waitBackoffs.size());
+        for (AdaptiveBackoff backoff : waitBackoffs) {
+            stats.add(backoff.stats());
+        }
+        return stats;
+    }
+
+    @Override
+    public long remainingCapacity() {
+        long remaining = Long.MAX_VALUE;
+        for (RingBuffer<LedgerRingEvent> ringBuffer : rings()) {
+            remaining = Math.min(remaining, ringBuffer.remainingCapacity());
+        }
+        return remaining;
+    }
+
+    /**
+     * Non-blocking publish: claims with {@code tryNext()} and applies the
+     * backpressure policy only when the ring is full.
+     */
+    private PublishStatus tryPublish(String key, long amount, LedgerType type) {
+        // Anything spilled earlier must reach the ring first to keep per-key order
+        if (overflow != null && overflowDepth.get() > 0 && !tryDrainOverflow()) {
+            return spill(key, amount, type);
+        }
+
+        if (tryPublishEvent(key, amount, type)) {
+            return PublishStatus.ACCEPTED;
+        }
+
+        switch (backpressurePolicy) {
+            case FAIL_FAST:
+                failedFastCount.increment();
+                return PublishStatus.REJECTED;
+            case TIMED_WAIT:
+                timedWaitCount.increment();
+                long deadline = System.nanoTime() + backpressureTimeoutNs;
+                do {
+                    LockSupport.parkNanos(BACKPRESSURE_PARK_NS);
+                    if (tryPublishEvent(key, amount, type)) {
+                        return PublishStatus.ACCEPTED;
+                    }
+                } while (System.nanoTime() - deadline < 0);
+                timedOutCount.increment();
+                return PublishStatus.REJECTED;
+            case SPILL:
+                return spill(key, amount, type);
+            default: // BLOCK
+                blockedCount.increment();
+                publishEvent(key, amount, type);
+                return PublishStatus.ACCEPTED;
+        }
+    }
+
+    private boolean tryPublishEvent(String key, long amount, LedgerType type) {
+        StripedKey striped = stripedKey(key);
+        if (striped != null) {
+            return publishStriped(striped, key, amount, type, false);
+        }
+        int partition = partitionOf(key);
+        RingBuffer<LedgerRingEvent> ringBuffer = ringOf(partition);
+        long sequence;
+        try {
+            sequence = ringBuffer.tryNext();
+        } catch (InsufficientCapacityException e) {
+            return false; // Disruptor reuses a singleton: no allocation on a full ring
+        }
+        try {
+            LedgerRingEvent event = ringBuffer.get(sequence);
+            event.set(key, type, amount);
+            event.setPartition(partition);
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+        return true;
+    }
+
+    private PublishStatus spill(String key, long amount, LedgerType type) {
+        if (overflowDepth.incrementAndGet() > overflowCapacity) {
+            overflowDepth.decrementAndGet();
+            spillRejectedCount.increment();
+            return PublishStatus.REJECTED;
+        }
+        overflow.add(new SpilledEvent(key, amount, type));
+        spilledCount.increment();
+        return PublishStatus.SPILLED;
+    }
+
+    /**
+     * Caller-runs drain of the overflow queue without blocking.
+     * <p>
+     * An event is removed only after it was published, so a concurrent caller
+     * never sees an empty queue while a spilled event is still in flight.
+     * </p>
+     *
+     * @return true if the queue is empty afterwards
+     */
+    private boolean tryDrainOverflow() {
+        if (!drainLock.tryLock()) {
+            return false;
+        }
+        try {
+            SpilledEvent spilled;
+            while ((spilled = overflow.peek()) != null) {
+                if (!tryPublishEvent(spilled.key(), spilled.amount(), spilled.type())) {
+                    return false;
+                }
+                overflow.poll();
+                overflowDepth.decrementAndGet();
+            }
+            return true;
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Blocking publish paths drain spilled events first so they never overtake them.
+     */
+    private void awaitOverflowDrained() {
+        if (overflow == null || overflowDepth.get() == 0) {
+            return;
+        }
+        drainLock.lock();
+        try {
+            SpilledEvent spilled;
+            while ((spilled = overflow.peek()) != null) {
+                publishEvent(spilled.key(), spilled.amount(), spilled.type());
+                overflow.poll();
+                overflowDepth.decrementAndGet();
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Publishes a CREDIT/DEBIT event.
+     * <p>
+     * OPTIMIZATION: Claims and fills the slot directly instead of going through
+     * an {@code EventTranslator}, so the producer allocates nothing - no capturing
+     * lambda and no boxed {@code Long} amount (v1.4.0).
+     * </p>
+     */
     private void publishEvent(String key, long amount, LedgerType type) {
-        disruptor.publishEvent((event, sequence) -> event.set(key, type, amount));
+        StripedKey striped = stripedKey(key);
+        if (striped != null) {
+            publishStriped(striped, key, amount, type, true);
+            return;
+        }
+        int partition = partitionOf(key);
+        RingBuffer<LedgerRingEvent> ringBuffer = ringOf(partition);
+        long sequence = ringBuffer.next();
+        try {
+            LedgerRingEvent event = ringBuffer.get(sequence);
+            event.set(key, type, amount);
+            event.setPartition(partition);
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+    }
+
+    /**
+     * Publishes a CREDIT/DEBIT event for an interned key, allocation-free.
+     * OPTIMIZATION: The ring comes from the precomputed partition (v1.4.0).
+     */
+    private void publishEvent(InternedKey key, long amount, LedgerType type) {
+        if (key.striped() != null) {
+            publishStriped(key.striped(), key.key(), amount, type, true);
+            return;
+        }
+        RingBuffer<LedgerRingEvent> ringBuffer = ringOf(key.partition());
+        long sequence = ringBuffer.next();
+        try {
+            LedgerRingEvent event = ringBuffer.get(sequence);
+            event.setInterned(key.key(), key.id(), type, amount);
+            event.setPartition(key.partition());
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+    }
+
+    /**
+     * Publishes a CREDIT/DEBIT event of a hot key to its next stripe.
+     * <p>
+     * Stripes are taken round robin by stripe sequence, so load spreads evenly
+     * whatever the producer count. Under COUNT/HYBRID every
+     * {@code releaseThreshold}-th event also publishes a release of all stripes;
+     * if that event is given up on a full ring, the next accepted one does.
+     * </p>
+     *
+     * @param block wait for capacity, or give up on a full ring
+     * @return false if {@code block} is false and the ring was full
+     */
+    private boolean publishStriped(StripedKey striped, String key, long amount, LedgerType type, boolean block) {
+        // The stripe picks the ring, so the sequence has to come before the slot
+        long stripeSequence = striped.nextStripeSequence();
+        boolean countRelease = (releaseType == ReleaseType.COUNT || releaseType == ReleaseType.HYBRID)
+                && (stripeSequence + 1) % releaseThreshold == 0;
+        int partition = striped.partitionOf(stripeSequence);
+        RingBuffer<LedgerRingEvent> ringBuffer = ringOf(partition);
+        long sequence;
+        if (block) {
+            sequence = ringBuffer.next();
+        } else {
+            try {
+                sequence = ringBuffer.tryNext();
+            } catch (InsufficientCapacityException e) {
+                // The stripe sequence is skipped (merge order only needs it increasing), its release is not
+                if (countRelease) {
+                    striped.oweRelease();
+                }
+                return false;
+            }
+        }
+        try {
+            LedgerRingEvent event = ringBuffer.get(sequence);
+            event.setStriped(key, stripeSequence, type, amount);
+            event.setPartition(partition);
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+
+        boolean owed = striped.takeOwedRelease();
+        if (countRelease || owed) {
+            publishStripeRelease(striped, null);
+        }
+        return true;
+    }
+
+    /**
+     * Publishes a release of every stripe of a hot key.
+     * <p>
+     * Like a journal entry it takes one slot in MULTICAST mode and one slot per
+     * stripe ring in SHARDED mode, published under the journal lock so that
+     * every stripe sees the releases of a key in the same order.
+     * </p>
+     */
+    private void publishStripeRelease(StripedKey striped, CompletableFuture<OrbitRelease> future) {
+        StripeRelease release = new StripeRelease(striped, future);
+        if (ringBuffers.length == 1) {
+            publishStripeRelease(ringBuffers[0], release);
+            return;
+        }
+        journalLock.lock();
+        try {
+            for (int s = 0; s < striped.getStripes(); s++) {
+                publishStripeRelease(ringBuffers[striped.partitionOf(s)], release);
+            }
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private static void publishStripeRelease(RingBuffer<LedgerRingEvent> ringBuffer, StripeRelease release) {
+        long sequence = ringBuffer.next();
+        try {
+            ringBuffer.get(sequence).setStripeRelease(release);
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+    }
+
+    /**
+     * Publishes a CREDIT/DEBIT event for a numeric key, allocation-free.
+     */
+    private void publishEvent(long key, long amount, LedgerType type) {
+        int partition = partitionOf(key);
+        RingBuffer<LedgerRingEvent> ringBuffer = ringOf(partition);
+        long sequence = ringBuffer.next();
+        try {
+            LedgerRingEvent event = ringBuffer.get(sequence);
+            event.setNumeric(key, type, amount);
+            event.setPartition(partition);
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+    }
+
+    @Override
+    public void publishBatch(String[] keys, long[] amounts, LedgerType[] types, int offset, int length) {
+        checkBatch(keys.length, amounts, types, offset, length);
+        if (!stripedKeys.isEmpty()) {
+            for (int i = offset; i < offset + length; i++) {
+                if (stripedKeys.containsKey(keys[i])) {
+                    // Hot keys take a stripe per event: publish one by one, keeping the order
+                    for (int j = offset; j < offset + length; j++) {
+                        publishEvent(keys[j], amounts[j], types[j]);
+                    }
+                    return;
+                }
+            }
+        }
+        publishColumns(offset, length,
+                i -> partitionOf(keys[i]),
+                (event, i) -> event.set(keys[i], types[i], amounts[i]));
+    }
+
+    @Override
+    public void publishBatch(LedgerKey[] keys, long[] amounts, LedgerType[] types, int offset, int length) {
+        checkBatch(keys.length, amounts, types, offset, length);
+        InternedKey[] interned = new InternedKey[length];
+        boolean striped = false;
+        for (int i = 0; i < length; i++) {
+            interned[i] = own(keys[offset + i]);
+            striped |= interned[i].striped() != null;
+        }
+        if (striped) {
+            for (int i = 0; i < length; i++) {
+                publishEvent(interned[i], amounts[offset + i], types[offset + i]);
+            }
+            return;
+        }
+        publishColumns(offset, length,
+                i -> interned[i - offset].partition(),
+                (event, i) -> {
+                    InternedKey key = interned[i - offset];
+                    event.setInterned(key.key(), key.id(), types[i], amounts[i]);
+                });
+    }
+
+    @Override
+    public void publishBatch(long[] keys, long[] amounts, LedgerType[] types, int offset, int length) {
+        checkBatch(keys.length, amounts, types, offset, length);
+        publishColumns(offset, length,
+                i -> partitionOf(keys[i]),
+                (event, i) -> event.setNumeric(keys[i], types[i], amounts[i]));
+    }
+
+    private void checkBatch(int keyCount, long[] amounts, LedgerType[] types, int offset, int length) {
+        awaitOverflowDrained();
+        Objects.checkFromIndexSize(offset, length, keyCount);
+        Objects.checkFromIndexSize(offset, length, amounts.length);
+        Objects.checkFromIndexSize(offset, length, types.length);
+        for (int i = offset; i < offset + length; i++) {
+            if (types[i] != LedgerType.CREDIT && types[i] != LedgerType.DEBIT) {
+                throw new IllegalArgumentException("batch type must be CREDIT or DEBIT: " + types[i]);
+            }
+        }
+    }
+
+    /**
+     * Fills the slot of a claimed sequence from batch index {@code i}.
+     */
+    @FunctionalInterface
+    private interface SlotWriter {
+        void write(LedgerRingEvent event, int i);
+    }
+
+    /**
+     * Publishes a validated batch whose columns are read through {@code writer}.
+     */
+    private void publishColumns(int offset, int length, IntUnaryOperator partitionOf, SlotWriter writer) {
+        if (length == 0) {
+            return;
+        }
+
+        // Route once; every slot carries its partition to the workers
+        RingBuffer<LedgerRingEvent>[] rings = rings();
+        int[] partitions = new int[length];
+        int[] counts = new int[rings.length];
+        for (int i = 0; i < length; i++) {
+            int partition = partitionOf.applyAsInt(offset + i);
+            partitions[i] = partition;
+            counts[rings.length == 1 ? 0 : partition]++;
+        }
+        if (rings.length == 1) {
+            publishRange(rings[0], writer, offset, partitions, -1, length);
+            return;
+        }
+
+        // Sharded: give every ring its events in one claim (per chunk)
+        for (int r = 0; r < rings.length; r++) {
+            if (counts[r] > 0) {
+                publishRange(rings[r], writer, offset, partitions, r, counts[r]);
+            }
+        }
+    }
+
+    /**
+     * Publishes {@code count} events of the range into one ring, claiming
+     * contiguous sequences with {@code next(n)} in chunks of at most the ring size.
+     * Only events routed to {@code partition} are taken, or all of them if it is -1.
+     */
+    private static void publishRange(RingBuffer<LedgerRingEvent> ringBuffer, SlotWriter writer, int offset,
+            int[] partitions, int partition, int count) {
+        int index = 0;
+        int remaining = count;
+        while (remaining > 0) {
+            int chunk = Math.min(remaining, ringBuffer.getBufferSize());
+            long hi = ringBuffer.next(chunk);
+            long lo = hi - chunk + 1;
+            try {
+                long sequence = lo;
+                while (sequence <= hi) {
+                    if (partition < 0 || partitions[index] == partition) {
+                        LedgerRingEvent event = ringBuffer.get(sequence++);
+                        writer.write(event, offset + index);
+                        event.setPartition(partitions[index]);
+                    }
+                    index++;
+                }
+            } finally {
+                ringBuffer.publish(lo, hi);
+            }
+            remaining -= chunk;
+        }
+    }
+
+    /**
+     * Posts a journal entry.
+     * <p>
+     * In MULTICAST mode the entry takes one slot that all workers see. In
+     * SHARDED mode it is published into every involved ring; entries spanning
+     * several rings are published under a lock, otherwise two entries could
+     * reach their rings in opposite orders and their barriers wait on each other.
+     * </p>
+     * <p>
+     * Entries always travel on the shared rings. A thread holding a producer
+     * lane is rejected: workers poll the shared ring before the lanes, so its
+     * entry could overtake its own earlier lane events, and entries on lanes
+     * could reach two workers in opposite orders.
+     * </p>
+     *
+     * @throws IllegalStateException if the calling thread holds a producer lane
+     */
+    @Override
+    public void post(JournalEntry entry) {
+        Objects.requireNonNull(entry, "entry must not be null");
+        if (callerLane != null && callerLane.get() != null) {
+            throw new IllegalStateException("Journal entries cannot be posted from a thread holding a producer lane");
+        }
+        awaitOverflowDrained();
+        List<JournalEntry.Leg> legs = entry.legs();
+        int workers = activeWorkers; // One count for all legs, even if a resize runs concurrently
+        int[] legPartitions = new int[legs.size()];
+        for (int i = 0; i < legPartitions.length; i++) {
+            String key = legs.get(i).key();
+            if (stripedKey(key) != null) {
+                throw new IllegalArgumentException("journal legs cannot post to hot key: " + key);
+            }
+            legPartitions[i] = partitioner.partition(key, workers);
+        }
+        JournalPosting posting = new JournalPosting(entry, legPartitions, workers);
+        int[] partitions = posting.getPartitions();
+
+        if (ringBuffers.length == 1) {
+            publishJournal(ringBuffers[0], posting);
+            return;
+        }
+        if (partitions.length == 1) {
+            publishJournal(ringBuffers[partitions[0]], posting);
+            return;
+        }
+        journalLock.lock();
+        try {
+            for (int partition : partitions) {
+                publishJournal(ringBuffers[partition], posting);
+            }
+        } finally {
+            journalLock.unlock();
+        }
+    }
+
+    private static void publishJournal(RingBuffer<LedgerRingEvent> ringBuffer, JournalPosting posting) {
+        long sequence = ringBuffer.next();
+        try {
+            ringBuffer.get(sequence).setJournal(posting);
+        } finally {
+            ringBuffer.publish(sequence);
+        }
     }
 
     @Override
     public OrbitRelease release(String key) {
+        return awaitRelease(releaseAsync(key));
+    }
+
+    @Override
+    public OrbitRelease release(long key) {
+        return awaitRelease(releaseAsync(key));
+    }
+
+    /**
+     * Publishes a RELEASE slot without waiting for it.
+     * <p>
+     * OPTIMIZATION: The slot is claimed and filled directly; the returned future
+     * is the only allocation. It is completed on the worker thread (v1.4.0).
+     * </p>
+     */
+    @Override
+    public CompletableFuture<OrbitRelease> releaseAsync(String key) {
+        awaitOverflowDrained();
         CompletableFuture<OrbitRelease> future = new CompletableFuture<>();
-        disruptor.publishEvent((event, sequence) -> event.setCommit(key, future));
+        StripedKey striped = stripedKey(key);
+        if (striped != null) {
+            publishStripeRelease(striped, future);
+            return future;
+        }
+        int partition = partitionOf(key);
+        RingBuffer<LedgerRingEvent> ringBuffer = ringOf(partition);
+        long sequence = ringBuffer.next();
+        try {
+            LedgerRingEvent event = ringBuffer.get(sequence);
+            event.setCommit(key, future);
+            event.setPartition(partition);
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+        return future;
+    }
 
+    @Override
+    public CompletableFuture<OrbitRelease> releaseAsync(long key) {
+        awaitOverflowDrained();
+        CompletableFuture<OrbitRelease> future = new CompletableFuture<>();
+        int partition = partitionOf(key);
+        RingBuffer<LedgerRingEvent> ringBuffer = ringOf(partition);
+        long sequence = ringBuffer.next();
+        try {
+            LedgerRingEvent event = ringBuffer.get(sequence);
+            event.setNumericCommit(key, future);
+            event.setPartition(partition);
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+        return future;
+    }
+
+    private static OrbitRelease awaitRelease(CompletableFuture<OrbitRelease> future) {
         try {
             return future.get();
         } catch (InterruptedException e) {
@@ -157,8 +1222,140 @@ public class OrbitDisruptor implements OrbitLedger {
         }
     }
 
+    /**
+     * Releases all keys on every ring.
+     * <p>
+     * Asynchronous: each worker releases its partition when it reaches the
+     * RELEASE_ALL slot on its own ring. In {@link ProducerMode#LANES} the lane
+     * rings have one producer each, so the workers are asked instead: each
+     * applies everything published to any lane so far, then releases.
+     * </p>
+     */
     @Override
     public void releaseAll() {
-        disruptor.publishEvent((event, sequence) -> event.setCommitFlush());
+        awaitOverflowDrained();
+        if (producerLanes != null) {
+            for (LaneWorker worker : laneWorkers) {
+                worker.requestReleaseAll();
+            }
+            return;
+        }
+        for (RingBuffer<LedgerRingEvent> ringBuffer : rings()) {
+            ringBuffer.publishEvent(RELEASE_ALL_TRANSLATOR);
+        }
+        for (StripedKey striped : stripedKeys.values()) {
+            publishStripeRelease(striped, null);
+        }
+    }
+
+    /**
+     * Publishes a RESIZE slot that every worker handles.
+     * <p>
+     * The lock keeps {@link #workerCount()} in the order the slots reach the
+     * ring. Producers may still place events with the old count while the
+     * slot is in flight; workers re-place every event after a resize, so the
+     * ring order alone decides the owner.
+     * </p>
+     */
+    @Override
+    public void resize(int workers) {
+        if (maxThreadCount == threadCount) {
+            throw new IllegalStateException("Engine was built without maxThreadCount, worker count is fixed");
+        }
+        if (workers <= 0 || workers > maxThreadCount) {
+            throw new IllegalArgumentException("workers must be between 1 and " + maxThreadCount + ": " + workers);
+        }
+        awaitOverflowDrained();
+        resizeLock.lock();
+        try {
+            WorkerResize resize = new WorkerResize(workers, maxThreadCount);
+            RingBuffer<LedgerRingEvent> ringBuffer = ringBuffers[0];
+            long sequence = ringBuffer.next();
+            try {
+                ringBuffer.get(sequence).setResize(resize);
+            } finally {
+                ringBuffer.publish(sequence);
+            }
+            activeWorkers = workers;
+        } finally {
+            resizeLock.unlock();
+        }
+    }
+
+    @Override
+    public int workerCount() {
+        return activeWorkers;
+    }
+
+    /**
+     * Binds the calling thread to a free producer lane.
+     * <p>
+     * No-op unless the engine runs in {@link ProducerMode#LANES}, or if the
+     * thread already holds a lane.
+     * </p>
+     *
+     * @throws IllegalStateException if every lane is taken
+     */
+    @Override
+    public void registerProducer() {
+        if (producerLanes == null || callerLane.get() != null) {
+            return;
+        }
+        synchronized (laneOwners) {
+            for (int l = 0; l < laneOwners.length; l++) {
+                if (laneOwners[l] == null) {
+                    laneOwners[l] = Thread.currentThread();
+                    callerLane.set(producerLanes[l]);
+                    return;
+                }
+            }
+        }
+        throw new IllegalStateException("All " + laneOwners.length + " producer lanes are taken");
+    }
+
+    @Override
+    public void unregisterProducer() {
+        if (producerLanes == null) {
+            return;
+        }
+        RingBuffer<LedgerRingEvent>[] lane = callerLane.get();
+        if (lane == null) {
+            return;
+        }
+        synchronized (laneOwners) {
+            for (int l = 0; l < laneOwners.length; l++) {
+                if (producerLanes[l] == lane) {
+                    laneOwners[l] = null;
+                }
+            }
+        }
+        callerLane.remove();
+    }
+
+    /**
+     * Returns the dispatch mode this engine was built with.
+     *
+     * @since 1.4.0
+     */
+    public DispatchMode getDispatchMode() {
+        return dispatchMode;
+    }
+
+    /**
+     * LedgerKey issued by {@link #key(String)}; {@code owner} rejects handles of other engines.
+     * {@code striped} is set for a hot key.
+     */
+    private record InternedKey(OrbitDisruptor owner, String key, int id, int partition, StripedKey striped)
+            implements LedgerKey {
+        @Override
+        public String toString() {
+            return "LedgerKey[" + key + ", partition=" + partition + ", id=" + id + "]";
+        }
+    }
+
+    /**
+     * Event parked by the SPILL policy until the ring has room.
+     */
+    private record SpilledEvent(String key, long amount, LedgerType type) {
     }
 }
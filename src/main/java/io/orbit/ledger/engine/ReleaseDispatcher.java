@@ -0,0 +1,119 @@
+package io.orbit.ledger.engine;
+
+import io.orbit.ledger.api.OrbitReleaseListener;
+import io.orbit.ledger.api.Partitioner;
+import io.orbit.ledger.model.OrbitRelease;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs the release listener on sink threads instead of the workers.
+ * <p>
+ * Releases of one key always go to the same sink and each sink runs its
+ * queue in order, so per-key release order is kept. A semaphore bounds the
+ * releases queued or running across all sinks; a worker only waits when that
+ * bound is reached, so a slow listener stalls the ring only once the sinks
+ * are saturated.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+final class ReleaseDispatcher implements OrbitReleaseListener {
+
+    // Queued once per sink by close(); compared by identity
+    private static final OrbitRelease STOP = new OrbitRelease("", 0, 0, 0, List.of());
+
+    private final OrbitReleaseListener sink;
+    private final BlockingQueue<OrbitRelease>[] queues;
+    private final Thread[] threads;
+    private final Semaphore inFlight;
+
+    ReleaseDispatcher(OrbitReleaseListener sink, int sinkThreads, int maxInFlight, ThreadFactory threadFactory) {
+        if (sinkThreads <= 0) {
+            throw new IllegalArgumentException("sinkThreads must be positive: " + sinkThreads);
+        }
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.sink = sink;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.queues = newQueueArray(sinkThreads);
+        this.threads = new Thread[sinkThreads];
+        for (int i = 0; i < sinkThreads; i++) {
+            BlockingQueue<OrbitRelease> queue = new LinkedBlockingQueue<>();
+            queues[i] = queue;
+            threads[i] = threadFactory.newThread(() -> drain(queue));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BlockingQueue<OrbitRelease>[] newQueueArray(int length) {
+        return (BlockingQueue<OrbitRelease>[]) new BlockingQueue<?>[length];
+    }
+
+    void start() {
+        for (Thread thread : threads) {
+            thread.start();
+        }
+    }
+
+    /**
+     * Queues the release on its key's sink, waiting only if {@code maxInFlight}
+     * releases are already pending.
+     */
+    @Override
+    public void onRelease(OrbitRelease release) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for release dispatch", e);
+        }
+        queues[Partitioner.MIXED.partition(release.key(), queues.length)].add(release);
+    }
+
+    private void drain(BlockingQueue<OrbitRelease> queue) {
+        while (true) {
+            OrbitRelease release;
+            try {
+                release = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (release == STOP) {
+                return;
+            }
+            try {
+                sink.onRelease(release);
+            } catch (RuntimeException e) {
+                // A failing release must not stop the sink; report it like an uncaught exception
+                Thread current = Thread.currentThread();
+                current.getUncaughtExceptionHandler().uncaughtException(current, e);
+            } finally {
+                inFlight.release();
+            }
+        }
+    }
+
+    /**
+     * Runs every queued release, then stops the sinks.
+     * Call after the workers stopped, so nothing is queued behind the stop marker.
+     */
+    void close() {
+        for (BlockingQueue<OrbitRelease> queue : queues) {
+            queue.add(STOP);
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package io.orbit.ledger.enums;
+
+/**
+ * Policy applied by {@code tryCredit}/{@code tryDebit} when the ring is full.
+ * <p>
+ * Blocking {@code credit}/{@code debit} always wait for capacity; this policy
+ * only controls the non-blocking entry points.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+public enum BackpressurePolicy {
+
+    /**
+     * Wait for capacity like {@code credit}/{@code debit} (default).
+     * <p>
+     * The call always returns {@code ACCEPTED}, but may block the caller
+     * for as long as the workers are behind.
+     * </p>
+     */
+    BLOCK,
+
+    /**
+     * Return {@code REJECTED} immediately when the ring is full.
+     * <p>
+     * Best for request threads that must never wait on the ledger.
+     * </p>
+     */
+    FAIL_FAST,
+
+    /**
+     * Wait for capacity up to {@code backpressureTimeout}, then return
+     * {@code REJECTED}.
+     */
+    TIMED_WAIT,
+
+    /**
+     * Spill the event into a bounded overflow queue and return {@code SPILLED}.
+     * <p>
+     * The queue is drained into the ring by the callers themselves (caller-runs)
+     * before they publish anything new, so per-key order is preserved.
+     * When the queue is full the event is {@code REJECTED}.
+     * </p>
+     */
+    SPILL
+}
@@ -0,0 +1,40 @@
+package io.orbit.ledger.enums;
+
+/**
+ * Dispatch mode for routing events from producers to workers.
+ * <p>
+ * Controls how the engine lays out its ring buffers and how each
+ * worker finds the events that belong to its partition.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+public enum DispatchMode {
+
+    /**
+     * MULTICAST - Single shared ring buffer (default).
+     * <p>
+     * Every worker reads every slot and skips the events whose key hash
+     * belongs to another partition.
+     * </p>
+     * <ul>
+     * <li>Best for: 1-4 worker threads</li>
+     * <li>Cost: each worker pays for every event</li>
+     * </ul>
+     */
+    MULTICAST,
+
+    /**
+     * SHARDED - One ring buffer per partition.
+     * <p>
+     * The publisher routes each event to the ring owned by its partition,
+     * so a worker only reads the events it will actually process.
+     * Each ring is sized with {@code bufferSize}.
+     * </p>
+     * <ul>
+     * <li>Best for: many worker threads on many-core hosts</li>
+     * <li>Cost: one ring buffer allocation per worker</li>
+     * </ul>
+     */
+    SHARDED
+}
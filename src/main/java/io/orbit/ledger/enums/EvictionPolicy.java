@@ -36,6 +36,37 @@ public enum EvictionPolicy {
      * Requires {@code balanceLoader} to reload balance on next access.
      * </p>
      */
-    AFTER_RELEASE
+    AFTER_RELEASE,
+
+    /**
+     * Remove keys with no event for the configured idle timeout (since 1.4.0).
+     * <p>
+     * Each worker checks a few of its keys per event it handles, and all of
+     * them on every release-all, so the check never stalls the worker. An
+     * idle key is released first if it still has pending events. Best for:
+     * <ul>
+     * <li>Many accounts, of which only some are active at a time</li>
+     * <li>Hot keys that should keep their state between releases</li>
+     * </ul>
+     * Requires {@code balanceLoader} to reload balance on next access.
+     * </p>
+     */
+    IDLE_TIMEOUT,
+
+    /**
+     * Bound the number of keys each worker holds (since 1.4.0).
+     * <p>
+     * Once a worker holds more keys than the configured maximum, a CLOCK
+     * hand (approximate LRU) moves over its keys a few at a time per event:
+     * keys used since its last pass get a second chance, the others are
+     * released if they have pending events, then removed. Best for:
+     * <ul>
+     * <li>A hard memory budget per worker</li>
+     * <li>Skewed traffic, where recently used keys should stay</li>
+     * </ul>
+     * Requires {@code balanceLoader} to reload balance on next access.
+     * </p>
+     */
+    MAX_KEYS
 }
 
@@ -16,6 +16,12 @@ public enum LedgerType {
     RELEASE,
 
     /** Flush all pending events (release all). */
-    RELEASE_ALL
+    RELEASE_ALL,
+
+    /** Multi-leg journal entry, split into CREDIT/DEBIT events by the workers (since 1.4.0). */
+    JOURNAL,
+
+    /** Change of the active worker count; workers hand over key states (since 1.4.0). */
+    RESIZE
 }
 
@@ -6,6 +6,11 @@ package io.orbit.ledger.enums;
  * Controls the trade-off between CPU usage and throughput/latency.
  * Higher performance modes consume more CPU but provide better throughput.
  * </p>
+ * <p>
+ * Latency and idle CPU of the modes added in 1.4.0 come from
+ * {@code OrbitLedgerStressTest.benchmark_PerformanceModeLatency} on a 1-core
+ * container (2 workers, 10K events/sec); idle CPU is a share of one core.
+ * </p>
  *
  * @since 1.3.0
  */
@@ -37,5 +42,68 @@ public enum PerformanceMode {
      * <li>Recommended for: High-volume batch processing</li>
      * </ul>
      */
-    MAXIMUM
+    MAXIMUM,
+
+    /**
+     * LOW_LATENCY - Busy-spinning workers (since 1.4.0).
+     * <p>
+     * Workers never give up their core while waiting, so an event is picked up
+     * without waking a thread. Every worker keeps one core at 100% even when
+     * idle; only use it with a dedicated core per worker.
+     * </p>
+     * <ul>
+     * <li>Latency: not measured; the benchmark needs a core per worker plus one for the producer</li>
+     * <li>CPU Usage: Full core per worker, always</li>
+     * <li>Recommended for: Latency-critical paths on isolated cores</li>
+     * </ul>
+     */
+    LOW_LATENCY,
+
+    /**
+     * SLEEPING - Spin briefly, then sleep in short naps (since 1.4.0).
+     * <p>
+     * Publishers never signal waiting workers, which keeps the publish path
+     * cheap; idle workers wake up about every 100 microseconds to look for work.
+     * </p>
+     * <ul>
+     * <li>Latency: p99 ~0.5ms</li>
+     * <li>CPU Usage: ~0.10 when idle</li>
+     * <li>Recommended for: Low-traffic ledgers on shared hosts</li>
+     * </ul>
+     */
+    SLEEPING,
+
+    /**
+     * PHASED - Spin, then yield, then park (since 1.4.0).
+     * <p>
+     * Behaves like {@link #LOW_LATENCY} for bursts, like {@link #MAXIMUM} for
+     * short gaps and like {@link #STANDARD} once traffic stops. The spin and
+     * yield phases are set with {@code Builder.phasedBackoff}.
+     * </p>
+     * <ul>
+     * <li>Latency: p99 ~1.2ms</li>
+     * <li>CPU Usage: High under load, ~0.07 when idle</li>
+     * <li>Recommended for: Bursty traffic</li>
+     * </ul>
+     */
+    PHASED,
+
+    /**
+     * ADAPTIVE - Each worker picks spin, yield or park from its load (since 1.4.0).
+     * <p>
+     * Workers measure how long they wait and how fast events arrive, spin
+     * as soon as they get busy and step back to yielding, then parking, only
+     * after a sustained quiet spell. Current states are reported by
+     * {@code OrbitLedger.waitStats()}.
+     * Stepping down after traffic stops takes about 110ms of spinning and
+     * yielding, and on a core shared with the producer the spinning shows in
+     * the tail.
+     * </p>
+     * <ul>
+     * <li>Latency: p99 ~12ms on the shared core</li>
+     * <li>CPU Usage: Follows load; ~0.20 over the first half second idle</li>
+     * <li>Recommended for: Services with busy peaks and quiet nights</li>
+     * </ul>
+     */
+    ADAPTIVE
 }
@@ -0,0 +1,47 @@
+package io.orbit.ledger.enums;
+
+/**
+ * How producer threads claim ring slots.
+ *
+ * @since 1.4.0
+ */
+public enum ProducerMode {
+
+    /**
+     * MULTI - Any thread may publish (default).
+     * <p>
+     * Producers claim slots with a CAS on a shared cursor, which contends
+     * when several threads publish at high rates.
+     * </p>
+     */
+    MULTI,
+
+    /**
+     * SINGLE - Exactly one thread publishes.
+     * <p>
+     * Claims are plain writes with no CAS. Every publishing call, including
+     * {@code release}, {@code releaseAll} and {@code shutdown}, must come from
+     * that one thread. Time-based releases publish from a scheduler thread and
+     * are therefore not available: {@code ReleaseType.TIME} and
+     * {@code ReleaseType.HYBRID} are rejected.
+     * </p>
+     */
+    SINGLE,
+
+    /**
+     * LANES - One single-producer lane per registered producer thread.
+     * <p>
+     * A thread calling {@code registerProducer()} gets a lane of its own
+     * (one ring, or one ring per partition when {@code SHARDED}) and publishes
+     * without contending with other producers. Workers poll every lane.
+     * Unregistered threads and journal entries use a shared multi-producer
+     * lane; a thread holding a lane cannot post journal entries. Per-key
+     * ordering holds per lane.
+     * </p>
+     * <ul>
+     * <li>Best for: a few fixed, busy ingest threads</li>
+     * <li>Cost: one ring buffer set per lane; idle workers poll instead of blocking</li>
+     * </ul>
+     */
+    LANES
+}
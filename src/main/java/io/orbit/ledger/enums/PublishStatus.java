@@ -0,0 +1,17 @@
+package io.orbit.ledger.enums;
+
+/**
+ * Outcome of a non-blocking {@code tryCredit}/{@code tryDebit} call.
+ *
+ * @since 1.4.0
+ */
+public enum PublishStatus {
+    /** Event was published to the ring. */
+    ACCEPTED,
+
+    /** Ring was full; event was parked in the overflow queue and will be published later. */
+    SPILLED,
+
+    /** Ring was full and the backpressure policy dropped the event. */
+    REJECTED
+}
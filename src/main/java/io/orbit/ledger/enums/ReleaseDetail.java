@@ -0,0 +1,28 @@
+package io.orbit.ledger.enums;
+
+/**
+ * How much of a key's activity a release carries.
+ *
+ * @since 1.4.0
+ */
+public enum ReleaseDetail {
+
+    /**
+     * Every event of the release, in order (default).
+     * <p>
+     * Workers keep each pending event until its release and build a
+     * {@link io.orbit.ledger.model.LedgerEvent} for each one.
+     * </p>
+     */
+    EVENTS,
+
+    /**
+     * Only the aggregate: key, event count, delta and running balance.
+     * <p>
+     * Workers keep a counter and the pending delta per key and no events, and
+     * {@link io.orbit.ledger.model.OrbitRelease#events()} is empty. Best for
+     * consumers that persist balances, not transaction history.
+     * </p>
+     */
+    SUMMARY
+}
@@ -0,0 +1,24 @@
+package io.orbit.ledger.enums;
+
+/**
+ * How an idle worker currently waits under {@link PerformanceMode#ADAPTIVE}.
+ *
+ * @since 1.4.0
+ */
+public enum WaitState {
+
+    /**
+     * Busy-spinning: lowest latency, one full core.
+     */
+    SPIN,
+
+    /**
+     * Yielding its core between checks.
+     */
+    YIELD,
+
+    /**
+     * Parked until a publisher signals it.
+     */
+    PARK
+}
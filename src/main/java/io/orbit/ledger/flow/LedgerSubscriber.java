@@ -0,0 +1,263 @@
+package io.orbit.ledger.flow;
+
+import io.orbit.ledger.api.OrbitLedger;
+import io.orbit.ledger.enums.LedgerType;
+import io.orbit.ledger.model.LedgerCommand;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link Flow.Subscriber} that feeds {@link LedgerCommand}s into a ledger.
+ * <p>
+ * Demand follows the ring: the subscriber only requests as many commands as
+ * the ring can take ({@link OrbitLedger#remainingCapacity()}), at most one
+ * batch at a time, and publishes them with {@code publishBatch}. When the
+ * ring is full it stops requesting and re-checks after {@code pollInterval},
+ * so upstream slows down instead of the subscriber blocking in
+ * {@code onNext}. A partial batch is published after {@code linger} if
+ * upstream falls quiet before the requested commands arrive.
+ * </p>
+ * <p>
+ * Capacity is only a snapshot: other producers may take the slots first, in
+ * which case publishing a batch waits for room like {@code credit} does.
+ * </p>
+ *
+ * <h2>Example Usage</h2>
+ *
+ * <pre>{@code
+ * LedgerSubscriber subscriber = new LedgerSubscriber(ledger);
+ * commands.subscribe(subscriber);
+ * subscriber.completion().join();
+ * }</pre>
+ *
+ * @since 1.4.0
+ */
+public final class LedgerSubscriber implements Flow.Subscriber<LedgerCommand> {
+
+    private final OrbitLedger ledger;
+    private final int batchSize;
+    private final Executor lingerExecutor;
+    private final Executor pollExecutor;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Pending batch in column form, guarded by lock
+    private final String[] keys;
+    private final long[] amounts;
+    private final LedgerType[] types;
+    private int size;
+
+    private Flow.Subscription subscription;
+    private long outstanding; // requested but not yet received
+    private long published;
+    private boolean lingerScheduled;
+    private boolean pollScheduled;
+    private boolean done;
+
+    /**
+     * Creates a subscriber with batches of 256, 1 ms linger and 1 ms capacity polling.
+     */
+    public LedgerSubscriber(OrbitLedger ledger) {
+        this(ledger, 256, Duration.ofMillis(1), Duration.ofMillis(1));
+    }
+
+    /**
+     * @param batchSize    maximum commands requested and published at once
+     * @param linger       how long a partial batch may wait for more commands
+     * @param pollInterval how often a full ring is re-checked for capacity
+     */
+    public LedgerSubscriber(OrbitLedger ledger, int batchSize, Duration linger, Duration pollInterval) {
+        this.ledger = Objects.requireNonNull(ledger, "ledger must not be null");
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        this.lingerExecutor = CompletableFuture.delayedExecutor(linger.toNanos(), TimeUnit.NANOSECONDS);
+        this.pollExecutor = CompletableFuture.delayedExecutor(pollInterval.toNanos(), TimeUnit.NANOSECONDS);
+        this.keys = new String[batchSize];
+        this.amounts = new long[batchSize];
+        this.types = new LedgerType[batchSize];
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription, "subscription must not be null");
+        lock.lock();
+        try {
+            if (this.subscription != null || done) {
+                subscription.cancel(); // Flow rule 2.5: only one active subscription
+                return;
+            }
+            this.subscription = subscription;
+            requestMore();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onNext(LedgerCommand command) {
+        lock.lock();
+        try {
+            if (done) {
+                return;
+            }
+            keys[size] = command.key();
+            types[size] = command.type();
+            amounts[size] = command.amount();
+            size++;
+            outstanding--;
+
+            if (size == batchSize || outstanding == 0) {
+                flush();
+                requestMore();
+            } else if (size == 1 && !lingerScheduled) {
+                lingerScheduled = true;
+                lingerExecutor.execute(this::lingerExpired);
+            }
+        } catch (RuntimeException e) {
+            fail(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        lock.lock();
+        try {
+            if (!done) {
+                flush();
+                done = true;
+                completion.completeExceptionally(throwable);
+            }
+        } catch (RuntimeException e) {
+            completion.completeExceptionally(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void onComplete() {
+        lock.lock();
+        try {
+            if (!done) {
+                flush();
+                done = true;
+                completion.complete(null);
+            }
+        } catch (RuntimeException e) {
+            completion.completeExceptionally(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels the subscription; commands already received are still published.
+     */
+    public void cancel() {
+        lock.lock();
+        try {
+            if (!done) {
+                flush();
+                done = true;
+                if (subscription != null) {
+                    subscription.cancel();
+                }
+                completion.complete(null);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a future completed once the stream ended and every command was published.
+     */
+    public CompletableFuture<Void> completion() {
+        return completion;
+    }
+
+    /**
+     * Returns the number of commands published so far.
+     */
+    public long publishedCount() {
+        lock.lock();
+        try {
+            return published;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Requests the next batch, sized by the free ring slots. Called with the lock held
+     * and only once the previous demand is used up.
+     */
+    private void requestMore() {
+        if (done || subscription == null || outstanding > 0) {
+            return;
+        }
+        long room = Math.min(batchSize - size, ledger.remainingCapacity() - size);
+        if (room > 0) {
+            outstanding = room;
+            subscription.request(room);
+        } else if (!pollScheduled) {
+            pollScheduled = true;
+            pollExecutor.execute(this::pollCapacity);
+        }
+    }
+
+    private void pollCapacity() {
+        lock.lock();
+        try {
+            pollScheduled = false;
+            requestMore();
+        } catch (RuntimeException e) {
+            fail(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void lingerExpired() {
+        lock.lock();
+        try {
+            lingerScheduled = false;
+            if (!done) {
+                flush();
+            }
+        } catch (RuntimeException e) {
+            fail(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flush() {
+        if (size == 0) {
+            return;
+        }
+        ledger.publishBatch(keys, amounts, types, 0, size);
+        published += size;
+        Arrays.fill(keys, 0, size, null);
+        size = 0;
+    }
+
+    private void fail(RuntimeException e) {
+        done = true;
+        if (subscription != null) {
+            subscription.cancel();
+        }
+        completion.completeExceptionally(e);
+    }
+}
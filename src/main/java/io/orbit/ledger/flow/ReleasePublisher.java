@@ -0,0 +1,66 @@
+package io.orbit.ledger.flow;
+
+import io.orbit.ledger.api.OrbitReleaseListener;
+import io.orbit.ledger.model.OrbitRelease;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SubmissionPublisher;
+
+/**
+ * Release listener that republishes every {@link OrbitRelease} as a
+ * {@link Flow.Publisher}.
+ * <p>
+ * Backed by a {@link SubmissionPublisher}: each subscriber gets its own
+ * bounded buffer, and once the slowest subscriber's buffer is full the
+ * worker delivering the release waits for demand. Slow consumers therefore
+ * throttle the workers, which in turn fill the ring and lower the demand of a
+ * {@link LedgerSubscriber} - the path is demand-driven end to end. Releases
+ * produced while nobody is subscribed are dropped.
+ * </p>
+ *
+ * <h2>Example Usage</h2>
+ *
+ * <pre>{@code
+ * ReleasePublisher releases = new ReleasePublisher();
+ * OrbitLedger ledger = OrbitLedger.builder().onRelease(releases).build();
+ * releases.subscribe(persistenceSubscriber);
+ * }</pre>
+ *
+ * @since 1.4.0
+ */
+public final class ReleasePublisher implements Flow.Publisher<OrbitRelease>, OrbitReleaseListener, AutoCloseable {
+
+    private final SubmissionPublisher<OrbitRelease> delegate;
+
+    public ReleasePublisher() {
+        this(ForkJoinPool.commonPool(), Flow.defaultBufferSize());
+    }
+
+    /**
+     * @param executor          runs the subscribers' {@code onNext}
+     * @param maxBufferCapacity releases buffered per subscriber before workers wait
+     */
+    public ReleasePublisher(Executor executor, int maxBufferCapacity) {
+        this.delegate = new SubmissionPublisher<>(executor, maxBufferCapacity);
+    }
+
+    @Override
+    public void onRelease(OrbitRelease release) {
+        delegate.submit(release);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super OrbitRelease> subscriber) {
+        delegate.subscribe(subscriber);
+    }
+
+    /**
+     * Completes every subscriber once its buffered releases are delivered.
+     */
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,110 @@
+package io.orbit.ledger.handler;
+
+import io.orbit.ledger.api.Partitioner;
+import io.orbit.ledger.enums.ReleaseDetail;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Advanced options for one {@link LedgerWorkHandler}.
+ * <p>
+ * Holds the handler settings added after the core constructor arguments
+ * (release and balance config). Defaults reproduce the behaviour of a
+ * handler built without them. Normally built by the engine from its
+ * {@code EngineOptions}, with per-worker values where those differ.
+ * </p>
+ *
+ * @since 1.4.0
+ */
+public final class HandlerOptions {
+
+    // Key placement across workers
+    private Partitioner partitioner = Partitioner.MIXED;
+
+    // Key state in direct memory for String keys up to this length, 0 = on heap
+    private int offHeapMaxKeyLength = 0;
+
+    // Keys this worker should hold without growing its numeric and off-heap tables
+    private int expectedKeys = 0;
+
+    // Release content, SUMMARY = counters and delta only
+    private ReleaseDetail releaseDetail = ReleaseDetail.EVENTS;
+
+    // Bounds of EvictionPolicy.IDLE_TIMEOUT (by event timestamps) and MAX_KEYS
+    private Duration idleTimeout = Duration.ofMinutes(5);
+    private int maxKeysPerWorker = 1_000_000;
+
+    // Memory-mapped tier for evicted keys, null directory = evicted keys are dropped
+    private Path coldKeyStateDirectory = null;
+    private int coldMaxKeyLength = 0;
+
+    public HandlerOptions partitioner(Partitioner partitioner) {
+        this.partitioner = Objects.requireNonNull(partitioner, "partitioner must not be null");
+        return this;
+    }
+
+    public HandlerOptions offHeapMaxKeyLength(int maxKeyLength) {
+        this.offHeapMaxKeyLength = maxKeyLength;
+        return this;
+    }
+
+    public HandlerOptions expectedKeys(int expectedKeys) {
+        this.expectedKeys = expectedKeys;
+        return this;
+    }
+
+    public HandlerOptions releaseDetail(ReleaseDetail detail) {
+        this.releaseDetail = Objects.requireNonNull(detail, "releaseDetail must not be null");
+        return this;
+    }
+
+    public HandlerOptions idleTimeout(Duration timeout) {
+        this.idleTimeout = Objects.requireNonNull(timeout, "idleTimeout must not be null");
+        return this;
+    }
+
+    public HandlerOptions maxKeysPerWorker(int maxKeys) {
+        this.maxKeysPerWorker = maxKeys;
+        return this;
+    }
+
+    public HandlerOptions coldKeyState(Path directory, int maxKeyLength) {
+        this.coldKeyStateDirectory = directory;
+        this.coldMaxKeyLength = maxKeyLength;
+        return this;
+    }
+
+    public Partitioner getPartitioner() {
+        return partitioner;
+    }
+
+    public int getOffHeapMaxKeyLength() {
+        return offHeapMaxKeyLength;
+    }
+
+    public int getExpectedKeys() {
+        return expectedKeys;
+    }
+
+    public ReleaseDetail getReleaseDetail() {
+        return releaseDetail;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public int getMaxKeysPerWorker() {
+        return maxKeysPerWorker;
+    }
+
+    public Path getColdKeyStateDirectory() {
+        return coldKeyStateDirectory;
+    }
+
+    public int getColdMaxKeyLength() {
+        return coldMaxKeyLength;
+    }
+}
@@ -3,41 +3,83 @@ package io.orbit.ledger.handler;
 import com.lmax.disruptor.EventHandler;
 import io.orbit.ledger.api.BalanceLoader;
 import io.orbit.ledger.api.OrbitReleaseListener;
+import io.orbit.ledger.api.Partitioner;
+import io.orbit.ledger.core.ColdKeyStateFile;
+import io.orbit.ledger.core.JournalPosting;
+import io.orbit.ledger.core.KeyEvictor;
+import io.orbit.ledger.core.KeyStateMap;
 import io.orbit.ledger.core.LedgerKeyState;
 import io.orbit.ledger.core.LedgerRingEvent;
+import io.orbit.ledger.core.LongKeyStateMap;
+import io.orbit.ledger.core.OffHeapKeyStateStore;
+import io.orbit.ledger.core.PendingEventArena;
+import io.orbit.ledger.core.StripeRelease;
+import io.orbit.ledger.core.StripedKey;
+import io.orbit.ledger.core.WorkerResize;
 import io.orbit.ledger.enums.ReleaseType;
 import io.orbit.ledger.enums.EvictionPolicy;
 import io.orbit.ledger.enums.LedgerType;
+import io.orbit.ledger.enums.ReleaseDetail;
+import io.orbit.ledger.model.JournalEntry;
 import io.orbit.ledger.model.OrbitRelease;
 import io.orbit.ledger.model.LedgerEvent;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Processes events from the RingBuffer.
  * <p>
  * Handles aggregation, state updates (balance), and commit logic.
- * Implements EventHandler (multicast) and filters by keyhash.
+ * Implements EventHandler and filters by partition, so the same handler works
+ * on a shared multicast ring and on a per-partition sharded ring.
  * </p>
  */
 public class LedgerWorkHandler implements EventHandler<LedgerRingEvent> {
 
-    private final ConcurrentHashMap<String, LedgerKeyState> listKeyState;
+    private final KeyStateMap listKeyState; // Single-writer open addressing (since 1.4.0)
+    private final LongKeyStateMap longKeyStates; // Numeric keys (since 1.4.0)
+    private LedgerKeyState[] statesByKeyId = new LedgerKeyState[64]; // Interned LedgerKey cache (since 1.4.0)
+    private String[] keysByKeyId = new String[64]; // Key each cached state belongs to (since 1.4.0)
+    private final Map<String, LedgerKeyState> stripeStates = new HashMap<>(); // This worker's hot key stripes (since 1.4.0)
+    private final PendingEventArena pendingEvents; // Pending events of all heap keys (since 1.4.0)
     private final int releaseThreshold;
     private final ReleaseType releaseType;
     private final OrbitReleaseListener releaseListener;
     private final int workerId;
-    private final int totalWorkers;
+    private int totalWorkers; // Changed by RESIZE slots (since 1.4.0)
+    private boolean resized; // Publisher stamps may be stale once set (since 1.4.0)
+    private final Partitioner partitioner; // since 1.4.0
+
+    // Off-heap key states (since 1.4.0), null = on heap; String keys too long for the store stay on heap
+    private final OffHeapKeyStateStore offHeapStates;
+    private final OffHeapKeyStateStore offHeapLongStates;
+
+    // ReleaseDetail.SUMMARY (since 1.4.0): pending events are only counted, releases carry no events
+    private final boolean retainEvents;
 
     // Balance management config (since 1.1.0)
     private final BalanceLoader balanceLoader;
     private final long defaultBalance;
     private final EvictionPolicy evictionPolicy;
 
+    // IDLE_TIMEOUT and MAX_KEYS (since 1.4.0), null for the other policies
+    private final KeyEvictor evictor;
+
+    // Cold tier (since 1.4.0), null = evicted keys are dropped and reloaded by the BalanceLoader
+    private final ColdKeyStateFile coldStates;
+    private final ColdKeyStateFile coldLongStates;
+
     public LedgerWorkHandler(
-            ConcurrentHashMap<String, LedgerKeyState> listKeyState,
+            KeyStateMap listKeyState,
             int releaseThreshold,
             ReleaseType releaseType,
             OrbitReleaseListener releaseListener,
@@ -46,7 +88,35 @@ public class LedgerWorkHandler implements EventHandler<LedgerRingEvent> {
             BalanceLoader balanceLoader,
             long defaultBalance,
             EvictionPolicy evictionPolicy) {
+        this(listKeyState, releaseThreshold, releaseType, releaseListener, workerId, totalWorkers,
+                balanceLoader, defaultBalance, evictionPolicy, new HandlerOptions());
+    }
+
+    /**
+     * Creates a handler with the settings added since 1.4.0: partitioner,
+     * off-heap and cold key state, table presizing, release detail and
+     * eviction bounds.
+     *
+     * @param options advanced settings of this worker
+     * @since 1.4.0
+     */
+    public LedgerWorkHandler(
+            KeyStateMap listKeyState,
+            int releaseThreshold,
+            ReleaseType releaseType,
+            OrbitReleaseListener releaseListener,
+            int workerId,
+            int totalWorkers,
+            BalanceLoader balanceLoader,
+            long defaultBalance,
+            EvictionPolicy evictionPolicy,
+            HandlerOptions options) {
+        int offHeapMaxKeyLength = options.getOffHeapMaxKeyLength();
+        int expectedKeys = options.getExpectedKeys();
         this.listKeyState = listKeyState;
+        this.retainEvents = options.getReleaseDetail() != ReleaseDetail.SUMMARY;
+        this.pendingEvents = listKeyState.pendingEvents();
+        this.longKeyStates = new LongKeyStateMap(offHeapMaxKeyLength > 0 ? 0 : expectedKeys, pendingEvents);
         this.releaseThreshold = releaseThreshold;
         this.releaseType = releaseType;
         this.releaseListener = releaseListener;
@@ -55,17 +125,56 @@ public class LedgerWorkHandler implements EventHandler<LedgerRingEvent> {
         this.balanceLoader = balanceLoader;
         this.defaultBalance = defaultBalance;
         this.evictionPolicy = evictionPolicy;
+        this.partitioner = options.getPartitioner();
+        this.offHeapStates = offHeapMaxKeyLength > 0 ? new OffHeapKeyStateStore(offHeapMaxKeyLength, expectedKeys, retainEvents) : null;
+        this.offHeapLongStates = offHeapMaxKeyLength > 0
+                ? new OffHeapKeyStateStore(0, expectedKeys, retainEvents)
+                : null;
+        if (evictionPolicy == EvictionPolicy.IDLE_TIMEOUT || evictionPolicy == EvictionPolicy.MAX_KEYS) {
+            long idleTimeoutMs = options.getIdleTimeout().toMillis();
+            int maxKeysPerWorker = options.getMaxKeysPerWorker();
+            this.evictor = offHeapStates != null
+                    ? new KeyEvictor(evictionPolicy, idleTimeoutMs, maxKeysPerWorker,
+                            new StringKeys(), new NumericKeys(),
+                            new OffHeapKeys(offHeapStates), new OffHeapKeys(offHeapLongStates))
+                    : new KeyEvictor(evictionPolicy, idleTimeoutMs, maxKeysPerWorker,
+                            new StringKeys(), new NumericKeys());
+        } else {
+            this.evictor = null;
+        }
+        Path coldDirectory = options.getColdKeyStateDirectory();
+        if (coldDirectory != null) {
+            this.coldStates = coldFile(coldDirectory, "keys", options.getColdMaxKeyLength());
+            this.coldLongStates = coldFile(coldDirectory, "ids", 0);
+        } else {
+            this.coldStates = null;
+            this.coldLongStates = null;
+        }
     }
 
-    private boolean shouldHandle(String key) {
-        return Math.abs(key.hashCode() % totalWorkers) == workerId;
+    private ColdKeyStateFile coldFile(Path directory, String kind, int maxKeyLength) {
+        try {
+            // Unique name: several engines may share the directory
+            Path file = Files.createTempFile(directory, "worker-" + workerId + "-" + kind + "-", ".cold");
+            return new ColdKeyStateFile(file, maxKeyLength, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create cold key state file in " + directory, e);
+        }
     }
 
     /**
-     * OPTIMIZATION: Uses pre-computed hashCode from event (v1.2.0).
+     * OPTIMIZATION: Uses the partition the publisher stamped on the event, so the
+     * worker never hashes the key; falls back to the partitioner if unstamped, or
+     * after a resize, when the publisher may have placed it with the old count (v1.4.0).
      */
-    private boolean shouldHandleByHash(int keyHashCode) {
-        return Math.abs(keyHashCode % totalWorkers) == workerId;
+    private boolean shouldHandle(LedgerRingEvent event) {
+        int partition = event.getPartition();
+        if (partition < 0 || (resized && !event.isStriped())) {
+            partition = event.isNumeric()
+                    ? partitioner.partition(event.getNumericKey(), totalWorkers)
+                    : partitioner.partition(event.getKey(), totalWorkers);
+        }
+        return partition == workerId;
     }
 
     /**
@@ -74,6 +183,12 @@ public class LedgerWorkHandler implements EventHandler<LedgerRingEvent> {
      */
     private void ensureInitialized(String key, LedgerKeyState state) {
         if (!state.isInitialized()) {
+            int cold = coldStates != null && coldStates.fits(key) ? coldStates.find(key) : -1;
+            if (cold >= 0) {
+                thaw(coldStates, cold, state);
+                coldStates.remove(cold);
+                return;
+            }
             long balance = balanceLoader != null
                     ? balanceLoader.load(key)
                     : defaultBalance;
@@ -81,30 +196,151 @@ public class LedgerWorkHandler implements EventHandler<LedgerRingEvent> {
         }
     }
 
+    private void ensureInitialized(long numericKey, LedgerKeyState state) {
+        if (!state.isInitialized()) {
+            int cold = coldLongStates != null ? coldLongStates.find(numericKey) : -1;
+            if (cold >= 0) {
+                thaw(coldLongStates, cold, state);
+                coldLongStates.remove(cold);
+                return;
+            }
+            long balance = balanceLoader != null
+                    ? balanceLoader.load(numericKey)
+                    : defaultBalance;
+            state.initialize(balance);
+        }
+    }
+
     @Override
     public void onEvent(LedgerRingEvent ledgerRingEvent, long sequence, boolean endOfBatch) {
         if (LedgerType.RELEASE_ALL == ledgerRingEvent.getType()) {
             this.releaseAll();
+            if (evictor != null) {
+                evictor.sweep(ledgerRingEvent.getTimestampMs());
+            }
+            return;
+        }
+
+        if (LedgerType.RESIZE == ledgerRingEvent.getType()) {
+            this.resize(ledgerRingEvent.getResize());
+            return;
+        }
+
+        if (LedgerType.JOURNAL == ledgerRingEvent.getType()) {
+            this.applyJournal(ledgerRingEvent.getJournal(), ledgerRingEvent.getTimestampMs());
+            this.evictStep(ledgerRingEvent);
+            return;
+        }
+
+        if (ledgerRingEvent.getStripeRelease() != null) {
+            this.releaseStripe(ledgerRingEvent.getStripeRelease());
+            return;
+        }
+
+        if (ledgerRingEvent.isNumeric()) {
+            if (!this.shouldHandle(ledgerRingEvent)) {
+                return;
+            }
+            // OPTIMIZATION: Primitive key, open-addressing lookup, no boxing (v1.4.0)
+            long numericKey = ledgerRingEvent.getNumericKey();
+            if (offHeapLongStates != null) {
+                processOffHeap(ledgerRingEvent, null, numericKey, offHeapLongStates);
+            } else {
+                LedgerKeyState state = longKeyStates.getOrCreate(numericKey);
+                ensureInitialized(numericKey, state);
+                processEvent(ledgerRingEvent, null, numericKey, state);
+            }
+            this.evictStep(ledgerRingEvent);
             return;
         }
 
         if (ledgerRingEvent.getKey() == null)
             return;
-        // OPTIMIZATION: Use cached hashCode from event (v1.2.0)
-        if (!this.shouldHandleByHash(ledgerRingEvent.getKeyHashCode())) {
+        if (!this.shouldHandle(ledgerRingEvent)) {
             return;
         }
 
         String key = ledgerRingEvent.getKey();
-        LedgerKeyState state = listKeyState.computeIfAbsent(key, k -> new LedgerKeyState());
+        if (ledgerRingEvent.isStriped()) {
+            this.applyStripe(key, ledgerRingEvent);
+            return;
+        }
+        if (offHeapStates != null && offHeapStates.fits(key)) {
+            processOffHeap(ledgerRingEvent, key, 0, offHeapStates);
+            this.evictStep(ledgerRingEvent);
+            return;
+        }
+
+        int keyId = ledgerRingEvent.getKeyId();
+        LedgerKeyState state = keyId >= 0
+                ? stateForKeyId(keyId, key)
+                : listKeyState.getOrCreate(key);
 
         // Ensure balance is initialized
         ensureInitialized(key, state);
 
+        processEvent(ledgerRingEvent, key, 0, state);
+        this.evictStep(ledgerRingEvent);
+    }
+
+    /**
+     * Moves incremental eviction on by one step, after the event is applied (since 1.4.0).
+     */
+    private void evictStep(LedgerRingEvent ledgerRingEvent) {
+        if (evictor != null) {
+            evictor.step(ledgerRingEvent.getTimestampMs());
+        }
+    }
+
+    /**
+     * Resolves the state of an interned key by array index.
+     * <p>
+     * OPTIMIZATION: The map is only consulted on first use or after eviction,
+     * so the cached entry is the same object String-keyed events update (v1.4.0).
+     * Key ids are dense per original partition, so once keys moved in a resize
+     * two keys of this worker may share an id: the entry keeps the first, the
+     * other one goes through the map.
+     * </p>
+     */
+    private LedgerKeyState stateForKeyId(int keyId, String key) {
+        if (keyId >= statesByKeyId.length) {
+            int length = Math.max(keyId + 1, statesByKeyId.length * 2);
+            statesByKeyId = Arrays.copyOf(statesByKeyId, length);
+            keysByKeyId = Arrays.copyOf(keysByKeyId, length);
+        }
+        LedgerKeyState state = statesByKeyId[keyId];
+        if (state != null && !key.equals(keysByKeyId[keyId])) {
+            return listKeyState.getOrCreate(key);
+        }
+        if (state == null || state.isEvicted()) {
+            state = listKeyState.getOrCreate(key);
+            statesByKeyId[keyId] = state;
+            keysByKeyId[keyId] = key;
+        }
+        return state;
+    }
+
+    /**
+     * Applies one event to an initialized key state.
+     *
+     * @param key        String key, or null for a numeric key
+     * @param numericKey numeric key when {@code key} is null
+     */
+    private void processEvent(LedgerRingEvent ledgerRingEvent, String key, long numericKey, LedgerKeyState state) {
         if (LedgerType.RELEASE == ledgerRingEvent.getType()) {
-            OrbitRelease result = this.doReleaseInstance(key, state);
-            if (ledgerRingEvent.getResultFuture() != null) {
-                ledgerRingEvent.getResultFuture().complete(result);
+            CompletableFuture<OrbitRelease> future = ledgerRingEvent.getResultFuture();
+            OrbitRelease result;
+            try {
+                result = this.doReleaseInstance(key, numericKey, state);
+            } catch (RuntimeException e) {
+                // Never leave a releaseAsync caller waiting on a failed release
+                if (future != null) {
+                    future.completeExceptionally(e);
+                }
+                throw e;
+            }
+            if (future != null) {
+                future.complete(result);
             }
             return;
         } else if (LedgerType.CREDIT == ledgerRingEvent.getType()) {
@@ -112,35 +348,367 @@ public class LedgerWorkHandler implements EventHandler<LedgerRingEvent> {
         } else if (LedgerType.DEBIT == ledgerRingEvent.getType()) {
             state.debit(ledgerRingEvent.getAmount());
         }
+        state.touch(ledgerRingEvent.getTimestampMs());
 
         // OPTIMIZATION: Store as primitives instead of creating LedgerEvent object
         // (v1.2.0)
-        long balanceAfter = state.getCurrentBalance();
+        if (retainEvents) {
+            long balanceAfter = state.getCurrentBalance();
+            state.addPendingEvent(
+                    state.nextSequence(),
+                    ledgerRingEvent.getType(),
+                    ledgerRingEvent.getAmount(),
+                    ledgerRingEvent.getTimestampMs(),
+                    balanceAfter);
+        } else {
+            // OPTIMIZATION: Summary releases need the count only (v1.4.0)
+            state.nextSequence();
+            state.countPendingEvents(1);
+        }
+
+        if ((ReleaseType.COUNT == releaseType || ReleaseType.HYBRID == releaseType)
+                && state.getPendingCount() >= releaseThreshold) {
+            this.doReleaseInstance(key, numericKey, state);
+        }
+    }
+
+    /**
+     * Applies one event to an off-heap key state.
+     *
+     * @param key        String key, or null for a numeric key
+     * @param numericKey numeric key when {@code key} is null
+     */
+    private void processOffHeap(LedgerRingEvent ledgerRingEvent, String key, long numericKey,
+            OffHeapKeyStateStore store) {
+        if (LedgerType.RELEASE == ledgerRingEvent.getType()) {
+            CompletableFuture<OrbitRelease> future = ledgerRingEvent.getResultFuture();
+            OrbitRelease result;
+            try {
+                // Nothing to release for a key never seen: do not create (and load) it
+                int slot = key != null ? store.find(key) : store.find(numericKey);
+                result = slot < 0 ? null : this.doReleaseOffHeap(key, numericKey, store, slot);
+            } catch (RuntimeException e) {
+                if (future != null) {
+                    future.completeExceptionally(e);
+                }
+                throw e;
+            }
+            if (future != null) {
+                future.complete(result);
+            }
+            return;
+        }
+
+        int slot = key != null ? store.findOrCreate(key) : store.findOrCreate(numericKey);
+        ensureInitialized(key, numericKey, store, slot);
+        int pending = store.apply(slot, ledgerRingEvent.getType(), ledgerRingEvent.getAmount(),
+                ledgerRingEvent.getTimestampMs());
+
+        if ((ReleaseType.COUNT == releaseType || ReleaseType.HYBRID == releaseType)
+                && pending >= releaseThreshold) {
+            this.doReleaseOffHeap(key, numericKey, store, slot);
+        }
+    }
+
+    private void ensureInitialized(String key, long numericKey, OffHeapKeyStateStore store, int slot) {
+        if (!store.isInitialized(slot)) {
+            ColdKeyStateFile coldFile = key != null ? coldStates : coldLongStates;
+            int cold = coldFile == null ? -1
+                    : key != null ? (coldFile.fits(key) ? coldFile.find(key) : -1) : coldFile.find(numericKey);
+            if (cold >= 0) {
+                store.initialize(slot, coldFile.getCommittedBalance(cold));
+                store.restoreSequence(slot, coldFile.getLastCommittedSequence(cold));
+                coldFile.remove(cold);
+                return;
+            }
+            long balance = balanceLoader == null ? defaultBalance
+                    : key != null ? balanceLoader.load(key) : balanceLoader.load(numericKey);
+            store.initialize(slot, balance);
+        }
+    }
+
+    /**
+     * Applies the legs this worker owns, waits at the entry's barrier, then
+     * releases the keys of those legs (since 1.4.0).
+     * <p>
+     * Every involved worker releases right after the barrier, whatever the
+     * release type, so the legs of one entry come out in the same release
+     * cycle instead of each waiting for its own key's threshold or timer.
+     * </p>
+     */
+    private void applyJournal(JournalPosting published, long timestampMs) {
+        JournalPosting posting = published.forWorkers(totalWorkers, partitioner);
+        List<JournalEntry.Leg> legs = posting.getEntry().legs();
+        boolean involved = false;
+        for (int i = 0; i < legs.size(); i++) {
+            if (posting.partitionOf(i) != workerId) {
+                continue;
+            }
+            involved = true;
+            JournalEntry.Leg leg = legs.get(i);
+            if (offHeapStates != null && offHeapStates.fits(leg.key())) {
+                int slot = offHeapStates.findOrCreate(leg.key());
+                ensureInitialized(leg.key(), 0, offHeapStates, slot);
+                offHeapStates.apply(slot, leg.type(), leg.amount(), timestampMs);
+                continue;
+            }
+            LedgerKeyState state = listKeyState.getOrCreate(leg.key());
+            ensureInitialized(leg.key(), state);
+            if (LedgerType.CREDIT == leg.type()) {
+                state.credit(leg.amount());
+            } else {
+                state.debit(leg.amount());
+            }
+            state.touch(timestampMs);
+            if (retainEvents) {
+                state.addPendingEvent(state.nextSequence(), leg.type(), leg.amount(), timestampMs,
+                        state.getCurrentBalance());
+            } else {
+                state.nextSequence();
+                state.countPendingEvents(1);
+            }
+        }
+        if (!involved) {
+            return;
+        }
+
+        posting.arriveAndAwait();
+
+        // A key with several legs is released by its first leg; later ones find nothing pending
+        for (int i = 0; i < legs.size(); i++) {
+            if (posting.partitionOf(i) != workerId) {
+                continue;
+            }
+            String key = legs.get(i).key();
+            if (offHeapStates != null && offHeapStates.fits(key)) {
+                int slot = offHeapStates.find(key);
+                if (slot >= 0) {
+                    this.doReleaseOffHeap(key, 0, offHeapStates, slot);
+                }
+                continue;
+            }
+            LedgerKeyState state = listKeyState.get(key);
+            if (state != null) {
+                this.doReleaseInstance(key, 0, state);
+            }
+        }
+    }
+
+    /**
+     * Moves the keys this worker no longer owns to their new owner and adopts
+     * the keys moved to it (since 1.4.0).
+     * <p>
+     * States move as they are - balance, pending events and sequences - so a
+     * key continues on its new worker exactly where it stopped.
+     * </p>
+     */
+    private void resize(WorkerResize resize) {
+        int workers = resize.getWorkers();
+        listKeyState.forEach((key, state) -> {
+            int owner = partitioner.partition(key, workers);
+            if (owner != workerId) {
+                state.moveTo(null); // the new owner must not read this worker's arena
+                resize.send(workerId, owner, key, state);
+                listKeyState.remove(key);
+            }
+        });
+        List<Long> movedKeys = new ArrayList<>();
+        longKeyStates.forEach((numericKey, state) -> {
+            int owner = partitioner.partition(numericKey, workers);
+            if (owner != workerId) {
+                state.moveTo(null);
+                resize.send(workerId, owner, numericKey, state);
+                movedKeys.add(numericKey);
+            }
+        });
+        for (long numericKey : movedKeys) {
+            longKeyStates.remove(numericKey);
+        }
+        if (offHeapStates != null) {
+            // Off-heap slots travel as on-heap copies; only happens on resize
+            offHeapStates.forEach(slot -> {
+                String key = offHeapStates.keyAt(slot);
+                int owner = partitioner.partition(key, workers);
+                if (owner != workerId) {
+                    resize.send(workerId, owner, key, offHeapStates.export(slot));
+                    offHeapStates.remove(slot);
+                }
+            });
+            offHeapLongStates.forEach(slot -> {
+                long numericKey = offHeapLongStates.numericKeyAt(slot);
+                int owner = partitioner.partition(numericKey, workers);
+                if (owner != workerId) {
+                    resize.send(workerId, owner, numericKey, offHeapLongStates.export(slot));
+                    offHeapLongStates.remove(slot);
+                }
+            });
+        }
+
+        if (coldStates != null) {
+            // Cold keys move too, or a key moved back later would find a stale balance here
+            coldStates.forEach(slot -> {
+                String key = coldStates.keyAt(slot);
+                int owner = partitioner.partition(key, workers);
+                if (owner != workerId) {
+                    resize.send(workerId, owner, key, thaw(coldStates, slot, new LedgerKeyState()));
+                    coldStates.remove(slot);
+                }
+            });
+            coldLongStates.forEach(slot -> {
+                long numericKey = coldLongStates.numericKeyAt(slot);
+                int owner = partitioner.partition(numericKey, workers);
+                if (owner != workerId) {
+                    resize.send(workerId, owner, numericKey, thaw(coldLongStates, slot, new LedgerKeyState()));
+                    coldLongStates.remove(slot);
+                }
+            });
+        }
+
+        resize.arriveAndAwait();
+
+        for (WorkerResize.Moved moved : resize.received(workerId)) {
+            if (moved.key() != null) {
+                if (offHeapStates != null && offHeapStates.fits(moved.key())) {
+                    offHeapStates.adopt(moved.key(), moved.state());
+                } else {
+                    moved.state().moveTo(pendingEvents);
+                    listKeyState.put(moved.key(), moved.state());
+                }
+            } else if (offHeapLongStates != null) {
+                offHeapLongStates.adopt(moved.numericKey(), moved.state());
+            } else {
+                moved.state().moveTo(pendingEvents);
+                longKeyStates.put(moved.numericKey(), moved.state());
+            }
+        }
+        // Drop the cache rather than clear it, so states of keys moved away are not held on to
+        statesByKeyId = new LedgerKeyState[64];
+        keysByKeyId = new String[64];
+        totalWorkers = workers;
+        resized = true;
+    }
+
+    /**
+     * Adds an event to this worker's stripe of a hot key.
+     * <p>
+     * The stripe only buffers: the event keeps its stripe sequence, and balance
+     * and release sequence are assigned when the stripes are merged (since 1.4.0).
+     * </p>
+     */
+    private void applyStripe(String key, LedgerRingEvent ledgerRingEvent) {
+        LedgerKeyState state = stripeStates.computeIfAbsent(key, k -> new LedgerKeyState(pendingEvents));
+        if (LedgerType.CREDIT == ledgerRingEvent.getType()) {
+            state.credit(ledgerRingEvent.getAmount());
+        } else {
+            state.debit(ledgerRingEvent.getAmount());
+        }
         state.addPendingEvent(
-                state.nextSequence(),
+                ledgerRingEvent.getStripeSequence(),
                 ledgerRingEvent.getType(),
                 ledgerRingEvent.getAmount(),
                 ledgerRingEvent.getTimestampMs(),
-                balanceAfter);
+                0);
+    }
 
-        if ((ReleaseType.COUNT == releaseType || ReleaseType.HYBRID == releaseType)
-                && state.getPendingCount() >= releaseThreshold) {
-            this.doReleaseInstance(key, state);
+    /**
+     * Hands this worker's stripe to the release; the last stripe to arrive merges (since 1.4.0).
+     */
+    private void releaseStripe(StripeRelease release) {
+        StripedKey stripedKey = release.getStripedKey();
+        int stripe = stripedKey.stripeOf(workerId);
+        if (stripe < 0) {
+            return;
+        }
+
+        String key = stripedKey.getKey();
+        LedgerKeyState state = stripeStates.get(key);
+        List<LedgerEvent> events = List.of();
+        if (state != null) {
+            events = state.getAndClearPendingEvents(key);
+            state.resetPendingDelta();
+            if (evictionPolicy == EvictionPolicy.AFTER_RELEASE) {
+                stripeStates.remove(key);
+            }
+        }
+        if (!release.arrive(stripe, events)) {
+            return;
+        }
+
+        CompletableFuture<OrbitRelease> future = release.getResultFuture();
+        OrbitRelease result;
+        try {
+            result = this.mergeStripes(release);
+        } catch (RuntimeException e) {
+            if (future != null) {
+                future.completeExceptionally(e);
+            }
+            throw e;
+        }
+        if (future != null) {
+            future.complete(result);
+        }
+    }
+
+    /**
+     * Merges the stripes of a hot key into one release, in publish order,
+     * against the key's shared committed balance.
+     */
+    private OrbitRelease mergeStripes(StripeRelease release) {
+        List<LedgerEvent> stripeEvents = release.mergedEvents();
+        if (stripeEvents.isEmpty()) {
+            return null;
+        }
+
+        long startNs = System.nanoTime();
+        String key = release.getStripedKey().getKey();
+        LedgerKeyState state = release.getStripedKey().getState();
+        ensureInitialized(key, state);
+
+        // Stripes always keep their events: the merge needs them in publish order
+        long balance = state.getCommittedBalance();
+        List<LedgerEvent> batchEvents = retainEvents ? new ArrayList<>(stripeEvents.size()) : List.of();
+        for (LedgerEvent event : stripeEvents) {
+            balance += event.signedAmount();
+            long sequence = state.nextSequence();
+            if (retainEvents) {
+                batchEvents.add(new LedgerEvent(key, sequence, event.type(), event.amount(),
+                        event.timestamp(), balance, 0));
+            }
         }
+        long delta = balance - state.getCommittedBalance();
+        state.setLastCommittedSequence(state.getLastCommittedSequence() + stripeEvents.size());
+        state.updateCommittedBalance(delta);
+
+        OrbitRelease result = new OrbitRelease(
+                key,
+                stripeEvents.size(),
+                delta,
+                System.nanoTime() - startNs,
+                batchEvents,
+                state.getCommittedBalance());
+
+        if (releaseListener != null) {
+            releaseListener.onRelease(result);
+        }
+        return result;
     }
 
     /**
      * Internal release logic.
      */
-    private OrbitRelease doReleaseInstance(String key, LedgerKeyState state) {
+    private OrbitRelease doReleaseInstance(String key, long numericKey, LedgerKeyState state) {
         if (state.getPendingCount() == 0) {
             return null;
         }
 
+        boolean numeric = key == null;
+        // Numeric keys get their String form once per release, never per event
+        String releaseKey = numeric ? Long.toString(numericKey) : key;
+
         long delta = state.getPendingDelta();
         long eventCount = state.getPendingCount();
         // OPTIMIZATION: Creates LedgerEvent objects only at release time (v1.2.0)
-        List<LedgerEvent> batchEvents = state.getAndClearPendingEvents(key);
+        List<LedgerEvent> batchEvents = state.getAndClearPendingEvents(releaseKey, numericKey);
 
         long startNs = System.nanoTime();
         state.resetPendingDelta();
@@ -151,12 +719,13 @@ public class LedgerWorkHandler implements EventHandler<LedgerRingEvent> {
         Long runningBalance = state.getCommittedBalance();
 
         OrbitRelease result = new OrbitRelease(
-                key,
+                releaseKey,
                 eventCount,
                 delta,
                 System.nanoTime() - startNs,
                 batchEvents,
-                runningBalance);
+                runningBalance,
+                numericKey);
 
         if (releaseListener != null) {
             releaseListener.onRelease(result);
@@ -164,18 +733,281 @@ public class LedgerWorkHandler implements EventHandler<LedgerRingEvent> {
 
         // Apply eviction policy AFTER release callback completes
         if (evictionPolicy == EvictionPolicy.AFTER_RELEASE) {
-            listKeyState.remove(key);
+            spill(key, numericKey, state);
+            if (numeric) {
+                longKeyStates.remove(numericKey);
+            } else {
+                listKeyState.remove(key);
+            }
+            state.markEvicted();
+        }
+
+        return result;
+    }
+
+    /**
+     * Release logic for an off-heap key state; same contract as {@link #doReleaseInstance}.
+     */
+    private OrbitRelease doReleaseOffHeap(String key, long numericKey, OffHeapKeyStateStore store, int slot) {
+        if (store.getPendingCount(slot) == 0) {
+            return null;
+        }
+
+        String releaseKey = key == null ? Long.toString(numericKey) : key;
+        long delta = store.getPendingDelta(slot);
+        long eventCount = store.getPendingCount(slot);
+        List<LedgerEvent> batchEvents = store.commitPending(slot, releaseKey, numericKey);
+
+        long startNs = System.nanoTime();
+        Long runningBalance = store.getCommittedBalance(slot);
+
+        OrbitRelease result = new OrbitRelease(
+                releaseKey,
+                eventCount,
+                delta,
+                System.nanoTime() - startNs,
+                batchEvents,
+                runningBalance,
+                numericKey);
+
+        if (releaseListener != null) {
+            releaseListener.onRelease(result);
+        }
+
+        if (evictionPolicy == EvictionPolicy.AFTER_RELEASE) {
+            spill(key, numericKey, store, slot);
+            store.remove(slot);
         }
 
         return result;
     }
 
+    /**
+     * Releases every key with pending events.
+     * <p>
+     * OPTIMIZATION: The maps only ever hold this worker's keys, so no key is
+     * partitioned again here (v1.4.0).
+     * </p>
+     */
     public void releaseAll() {
-        for (Map.Entry<String, LedgerKeyState> entry : listKeyState.entrySet()) {
-            String key = entry.getKey();
-            if (this.shouldHandle(key)) {
-                this.doReleaseInstance(key, entry.getValue());
+        listKeyState.forEach((key, state) -> this.doReleaseInstance(key, 0, state));
+        longKeyStates.forEach((numericKey, state) -> this.doReleaseInstance(null, numericKey, state));
+        if (offHeapStates != null) {
+            offHeapStates.forEach(slot -> {
+                if (offHeapStates.getPendingCount(slot) > 0) {
+                    this.doReleaseOffHeap(offHeapStates.keyAt(slot), 0, offHeapStates, slot);
+                }
+            });
+            offHeapLongStates.forEach(slot -> {
+                if (offHeapLongStates.getPendingCount(slot) > 0) {
+                    this.doReleaseOffHeap(null, offHeapLongStates.numericKeyAt(slot), offHeapLongStates, slot);
+                }
+            });
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // KEY TABLES AS SEEN BY THE EVICTOR (since 1.4.0)
+    // ═══════════════════════════════════════════════════════════════
+
+    private final class StringKeys implements KeyEvictor.Table {
+        @Override
+        public int size() {
+            return listKeyState.size();
+        }
+
+        @Override
+        public int capacity() {
+            return listKeyState.capacity();
+        }
+
+        @Override
+        public boolean isUsed(int slot) {
+            return listKeyState.stateAt(slot) != null;
+        }
+
+        @Override
+        public long lastAccessMs(int slot) {
+            return listKeyState.stateAt(slot).getLastAccessMs();
+        }
+
+        @Override
+        public boolean testAndClearReferenced(int slot) {
+            return listKeyState.stateAt(slot).testAndClearReferenced();
+        }
+
+        @Override
+        public void evict(int slot) {
+            LedgerKeyState state = listKeyState.stateAt(slot);
+            String key = listKeyState.keyAt(slot);
+            doReleaseInstance(key, 0, state);
+            spill(key, 0, state);
+            listKeyState.removeAt(slot);
+            state.markEvicted();
+        }
+    }
+
+    private final class NumericKeys implements KeyEvictor.Table {
+        @Override
+        public int size() {
+            return longKeyStates.size();
+        }
+
+        @Override
+        public int capacity() {
+            return longKeyStates.capacity();
+        }
+
+        @Override
+        public boolean isUsed(int slot) {
+            return longKeyStates.stateAt(slot) != null;
+        }
+
+        @Override
+        public long lastAccessMs(int slot) {
+            return longKeyStates.stateAt(slot).getLastAccessMs();
+        }
+
+        @Override
+        public boolean testAndClearReferenced(int slot) {
+            return longKeyStates.stateAt(slot).testAndClearReferenced();
+        }
+
+        @Override
+        public void evict(int slot) {
+            LedgerKeyState state = longKeyStates.stateAt(slot);
+            long numericKey = longKeyStates.keyAt(slot);
+            doReleaseInstance(null, numericKey, state);
+            spill(null, numericKey, state);
+            longKeyStates.removeAt(slot);
+            state.markEvicted();
+        }
+    }
+
+    private final class OffHeapKeys implements KeyEvictor.Table {
+        private final OffHeapKeyStateStore store;
+
+        OffHeapKeys(OffHeapKeyStateStore store) {
+            this.store = store;
+        }
+
+        @Override
+        public int size() {
+            return store.size();
+        }
+
+        @Override
+        public int capacity() {
+            return store.capacity();
+        }
+
+        @Override
+        public boolean isUsed(int slot) {
+            return store.isUsed(slot);
+        }
+
+        @Override
+        public long lastAccessMs(int slot) {
+            return store.getLastAccessMs(slot);
+        }
+
+        @Override
+        public boolean testAndClearReferenced(int slot) {
+            return store.testAndClearReferenced(slot);
+        }
+
+        @Override
+        public void evict(int slot) {
+            boolean numeric = store == offHeapLongStates;
+            long numericKey = numeric ? store.numericKeyAt(slot) : 0;
+            // A String key is only decoded for a release or for the cold tier
+            String key = numeric || (store.getPendingCount(slot) == 0 && coldStates == null)
+                    ? null
+                    : store.keyAt(slot);
+            if (store.getPendingCount(slot) > 0) {
+                doReleaseOffHeap(key, numericKey, store, slot);
+            }
+            if (numeric || key != null) {
+                spill(key, numericKey, store, slot);
             }
+            store.remove(slot);
         }
     }
+
+    // ═══════════════════════════════════════════════════════════════
+    // COLD TIER (since 1.4.0)
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Writes a released key to the cold tier before it is dropped.
+     *
+     * @param key        String key, or null for a numeric key
+     * @param numericKey numeric key when {@code key} is null
+     */
+    private void spill(String key, long numericKey, LedgerKeyState state) {
+        // Only settled state: evictions always release first
+        if (!state.isInitialized() || state.getPendingCount() > 0) {
+            return;
+        }
+        if (key == null) {
+            if (coldLongStates != null) {
+                coldLongStates.put(numericKey, state.getCommittedBalance(), state.getLastCommittedSequence());
+            }
+        } else if (coldStates != null && coldStates.fits(key)) {
+            coldStates.put(key, state.getCommittedBalance(), state.getLastCommittedSequence());
+        }
+    }
+
+    private void spill(String key, long numericKey, OffHeapKeyStateStore store, int slot) {
+        if (!store.isInitialized(slot) || store.getPendingCount(slot) > 0) {
+            return;
+        }
+        if (key == null) {
+            if (coldLongStates != null) {
+                coldLongStates.put(numericKey, store.getCommittedBalance(slot), store.getLastCommittedSequence(slot));
+            }
+        } else if (coldStates != null && coldStates.fits(key)) {
+            coldStates.put(key, store.getCommittedBalance(slot), store.getLastCommittedSequence(slot));
+        }
+    }
+
+    /**
+     * Loads a cold slot into an uninitialized state; the slot stays in the file.
+     */
+    private static LedgerKeyState thaw(ColdKeyStateFile file, int slot, LedgerKeyState state) {
+        long sequence = file.getLastCommittedSequence(slot);
+        state.initialize(file.getCommittedBalance(slot));
+        state.restore(sequence, sequence, 0);
+        return state;
+    }
+
+    /**
+     * Deletes the cold tier files (since 1.4.0). Call once the worker has stopped.
+     */
+    public void close() {
+        if (coldStates != null) {
+            coldStates.close();
+            coldLongStates.close();
+        }
+    }
+
+    ColdKeyStateFile getColdStates() {
+        return coldStates;
+    }
+
+    KeyEvictor getEvictor() {
+        return evictor;
+    }
+
+    LongKeyStateMap getLongKeyStates() {
+        return longKeyStates;
+    }
+
+    PendingEventArena getPendingEvents() {
+        return pendingEvents;
+    }
+
+    OffHeapKeyStateStore getOffHeapStates() {
+        return offHeapStates;
+    }
 }
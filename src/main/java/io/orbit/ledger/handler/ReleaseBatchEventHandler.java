@@ -0,0 +1,24 @@
+package io.orbit.ledger.handler;
+
+import com.lmax.disruptor.EventHandler;
+import io.orbit.ledger.api.OrbitReleaseBatchHandler;
+import io.orbit.ledger.core.ReleaseRingEvent;
+
+/**
+ * Feeds the release ring to an {@link OrbitReleaseBatchHandler}.
+ *
+ * @since 1.4.0
+ */
+public class ReleaseBatchEventHandler implements EventHandler<ReleaseRingEvent> {
+
+    private final OrbitReleaseBatchHandler handler;
+
+    public ReleaseBatchEventHandler(OrbitReleaseBatchHandler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public void onEvent(ReleaseRingEvent event, long sequence, boolean endOfBatch) throws Exception {
+        handler.onRelease(event.getRelease(), endOfBatch);
+    }
+}
@@ -0,0 +1,18 @@
+package io.orbit.ledger.handler;
+
+import com.lmax.disruptor.EventHandler;
+import io.orbit.ledger.core.ReleaseRingEvent;
+
+/**
+ * Cleanup handler of the release ring, like {@link LedgerFlushHandler}:
+ * drops the release once every batch handler has seen it.
+ *
+ * @since 1.4.0
+ */
+public class ReleaseFlushHandler implements EventHandler<ReleaseRingEvent> {
+
+    @Override
+    public void onEvent(ReleaseRingEvent event, long sequence, boolean endOfBatch) {
+        event.clear();
+    }
+}
@@ -0,0 +1,27 @@
+package io.orbit.ledger.model;
+
+/**
+ * Snapshot of how often the backpressure policy fired.
+ * <p>
+ * Counters are cumulative since the engine was built and only count
+ * {@code tryCredit}/{@code tryDebit} calls that found the ring full.
+ * </p>
+ *
+ * @param blocked        calls that waited for capacity ({@code BLOCK})
+ * @param failedFast     calls rejected immediately ({@code FAIL_FAST})
+ * @param timedWaits     calls that started a bounded wait ({@code TIMED_WAIT})
+ * @param timedOut       bounded waits that gave up and rejected the event
+ * @param spilled        events parked in the overflow queue ({@code SPILL})
+ * @param spillRejected  events rejected because the overflow queue was full
+ * @param overflowDepth  events currently waiting in the overflow queue
+ * @since 1.4.0
+ */
+public record BackpressureStats(
+        long blocked,
+        long failedFast,
+        long timedWaits,
+        long timedOut,
+        long spilled,
+        long spillRejected,
+        int overflowDepth) {
+}
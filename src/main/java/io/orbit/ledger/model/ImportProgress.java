@@ -0,0 +1,31 @@
+package io.orbit.ledger.model;
+
+/**
+ * Snapshot of a running or finished bulk import.
+ *
+ * @param records    records published so far
+ * @param bytes      bytes of the file consumed so far
+ * @param totalBytes size of the file
+ * @param elapsedNs  time since the import started
+ * @since 1.4.0
+ */
+public record ImportProgress(
+        long records,
+        long bytes,
+        long totalBytes,
+        long elapsedNs) {
+
+    /**
+     * Returns the share of the file consumed, from 0.0 to 1.0.
+     */
+    public double fraction() {
+        return totalBytes == 0 ? 1.0 : (double) bytes / totalBytes;
+    }
+
+    /**
+     * Returns the average throughput in records per second.
+     */
+    public double recordsPerSecond() {
+        return elapsedNs == 0 ? 0 : records * 1_000_000_000.0 / elapsedNs;
+    }
+}
@@ -0,0 +1,84 @@
+package io.orbit.ledger.model;
+
+import io.orbit.ledger.enums.LedgerType;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Balanced multi-leg posting, e.g. a transfer between two accounts.
+ *
+ * <p>
+ * Every leg credits or debits one key; credits and debits must net to zero.
+ * Posted through {@link io.orbit.ledger.api.OrbitLedger#post(JournalEntry)},
+ * each leg is applied by the worker that owns its key; once all legs have
+ * been applied, every leg key is released, so the legs come out together.
+ * </p>
+ *
+ * <pre>{@code
+ * ledger.post(JournalEntry.of(
+ *         JournalEntry.Leg.debit("alice", 100),
+ *         JournalEntry.Leg.credit("bob", 100)));
+ * }</pre>
+ *
+ * @param legs The legs of the entry, applied in order per key
+ * @since 1.4.0
+ */
+public record JournalEntry(List<Leg> legs) {
+
+    /**
+     * Canonical constructor with validation.
+     *
+     * @throws IllegalArgumentException if there are fewer than two legs or
+     *                                  the legs do not net to zero
+     */
+    public JournalEntry {
+        Objects.requireNonNull(legs, "legs must not be null");
+        legs = List.copyOf(legs);
+        if (legs.size() < 2) {
+            throw new IllegalArgumentException("journal entry needs at least two legs: " + legs.size());
+        }
+        long net = 0;
+        for (Leg leg : legs) {
+            net = Math.addExact(net, leg.type() == LedgerType.CREDIT ? leg.amount() : -leg.amount());
+        }
+        if (net != 0) {
+            throw new IllegalArgumentException("journal entry legs must net to zero: " + net);
+        }
+    }
+
+    public static JournalEntry of(Leg... legs) {
+        return new JournalEntry(List.of(legs));
+    }
+
+    /**
+     * One CREDIT or DEBIT of a journal entry.
+     *
+     * @param key    The account/entity key
+     * @param type   {@code CREDIT} or {@code DEBIT}
+     * @param amount The amount (must be positive)
+     */
+    public record Leg(String key, LedgerType type, long amount) {
+
+        /**
+         * Canonical constructor with validation.
+         */
+        public Leg {
+            Objects.requireNonNull(key, "key must not be null");
+            if (type != LedgerType.CREDIT && type != LedgerType.DEBIT) {
+                throw new IllegalArgumentException("leg type must be CREDIT or DEBIT: " + type);
+            }
+            if (amount <= 0) {
+                throw new IllegalArgumentException("leg amount must be positive: " + amount);
+            }
+        }
+
+        public static Leg credit(String key, long amount) {
+            return new Leg(key, LedgerType.CREDIT, amount);
+        }
+
+        public static Leg debit(String key, long amount) {
+            return new Leg(key, LedgerType.DEBIT, amount);
+        }
+    }
+}
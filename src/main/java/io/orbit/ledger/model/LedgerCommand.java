@@ -0,0 +1,31 @@
+package io.orbit.ledger.model;
+
+import io.orbit.ledger.enums.LedgerType;
+
+import java.util.Objects;
+
+/**
+ * A CREDIT or DEBIT to submit to the ledger, e.g. from a reactive stream.
+ *
+ * @param key    the account/entity key
+ * @param type   {@code CREDIT} or {@code DEBIT}
+ * @param amount the amount (must be positive)
+ * @since 1.4.0
+ */
+public record LedgerCommand(String key, LedgerType type, long amount) {
+
+    public LedgerCommand {
+        Objects.requireNonNull(key, "key must not be null");
+        if (type != LedgerType.CREDIT && type != LedgerType.DEBIT) {
+            throw new IllegalArgumentException("type must be CREDIT or DEBIT: " + type);
+        }
+    }
+
+    public static LedgerCommand credit(String key, long amount) {
+        return new LedgerCommand(key, LedgerType.CREDIT, amount);
+    }
+
+    public static LedgerCommand debit(String key, long amount) {
+        return new LedgerCommand(key, LedgerType.DEBIT, amount);
+    }
+}
@@ -16,6 +16,9 @@ import java.util.Objects;
  * @param timestamp    Time of occurrence
  * @param balanceAfter Balance after this event (null if balance tracking
  *                     disabled)
+ * @param numericKey   Primitive key for events from a
+ *                     {@link io.orbit.ledger.api.LongOrbitLedger} (0 for
+ *                     String keys, since 1.4.0)
  * @since 1.0.0
  */
 public record LedgerEvent(
@@ -24,7 +27,8 @@ public record LedgerEvent(
         LedgerType type,
         long amount,
         Instant timestamp,
-        Long balanceAfter) implements OrbitEvent {
+        Long balanceAfter,
+        long numericKey) implements OrbitEvent {
 
     /**
      * Canonical constructor with validation.
@@ -45,6 +49,14 @@ public record LedgerEvent(
         }
     }
 
+    /**
+     * Constructor for String-keyed events.
+     */
+    public LedgerEvent(String key, long sequence, LedgerType type, long amount, Instant timestamp,
+            Long balanceAfter) {
+        this(key, sequence, type, amount, timestamp, balanceAfter, 0);
+    }
+
     /**
      * Backward-compatible constructor without balance tracking.
      */
@@ -57,7 +69,7 @@ public record LedgerEvent(
     }
 
     public LedgerEvent withSequence(long newSequence) {
-        return new LedgerEvent(key, newSequence, type, amount, timestamp, balanceAfter);
+        return new LedgerEvent(key, newSequence, type, amount, timestamp, balanceAfter, numericKey);
     }
 
     public long signedAmount() {
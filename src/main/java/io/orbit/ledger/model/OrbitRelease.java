@@ -22,6 +22,9 @@ import java.util.Objects;
  * @param events         List of events included in this release
  * @param runningBalance Balance after this release (null if balance tracking
  *                       disabled)
+ * @param numericKey     Primitive key for releases from a
+ *                       {@link io.orbit.ledger.api.LongOrbitLedger} (0 for
+ *                       String keys, since 1.4.0)
  * @since 1.0.0
  */
 public record OrbitRelease(
@@ -30,7 +33,8 @@ public record OrbitRelease(
         long delta,
         long durationNs,
         List<LedgerEvent> events,
-        Long runningBalance) {
+        Long runningBalance,
+        long numericKey) {
 
     /**
      * Canonical constructor with validation.
@@ -41,6 +45,14 @@ public record OrbitRelease(
         events = Collections.unmodifiableList(events);
     }
 
+    /**
+     * Constructor for String-keyed releases.
+     */
+    public OrbitRelease(String key, long eventCount, long delta, long durationNs, List<LedgerEvent> events,
+            Long runningBalance) {
+        this(key, eventCount, delta, durationNs, events, runningBalance, 0);
+    }
+
     /**
      * Backward-compatible constructor without balance tracking.
      */
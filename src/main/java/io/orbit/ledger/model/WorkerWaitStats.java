@@ -0,0 +1,23 @@
+package io.orbit.ledger.model;
+
+import io.orbit.ledger.enums.WaitState;
+
+/**
+ * Snapshot of one worker's adaptive wait strategy.
+ * <p>
+ * Ratios and rates describe the worker's last completed measurement window
+ * (about a millisecond of activity).
+ * </p>
+ *
+ * @param state       how the worker currently waits
+ * @param idleRatio   share of the last window spent waiting, 0 to 1
+ * @param arrivalRate events per second the worker received in the last window
+ * @param transitions state changes since the engine started
+ * @since 1.4.0
+ */
+public record WorkerWaitStats(
+        WaitState state,
+        double idleRatio,
+        long arrivalRate,
+        long transitions) {
+}
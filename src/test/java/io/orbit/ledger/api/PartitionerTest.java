@@ -0,0 +1,63 @@
+package io.orbit.ledger.api;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Partitioner.
+ */
+class PartitionerTest {
+
+    @Test
+    @DisplayName("Mixed partitioner spreads sequential account codes evenly")
+    void mixedSpreadsSequentialKeys() {
+        int partitions = 6;
+        int keys = 120_000;
+        int[] load = new int[partitions];
+        for (int i = 0; i < keys; i++) {
+            load[Partitioner.MIXED.partition(String.format("ACC%06d", i), partitions)]++;
+        }
+        int expected = keys / partitions;
+        for (int count : load) {
+            assertEquals(expected, count, expected * 0.05, "uneven load: " + java.util.Arrays.toString(load));
+        }
+    }
+
+    @Test
+    @DisplayName("Partitions stay in range for any hash")
+    void indexForInRange() {
+        int[] hashes = { 0, 1, -1, Integer.MIN_VALUE, Integer.MAX_VALUE, 0x9E3779B9 };
+        for (int partitions = 1; partitions <= 17; partitions++) {
+            for (int hash : hashes) {
+                int index = Partitioner.indexFor(hash, partitions);
+                assertTrue(index >= 0 && index < partitions, "out of range: " + index);
+            }
+            assertTrue(Partitioner.MIXED.partition(Long.MIN_VALUE, partitions) < partitions);
+            assertTrue(Partitioner.MODULO.partition(Long.MIN_VALUE, partitions) >= 0);
+        }
+    }
+
+    @Test
+    @DisplayName("Grouped partitioners co-locate sub-accounts")
+    void groupedCoLocates() {
+        Partitioner bySeparator = Partitioner.grouped(':');
+        Partitioner byFunction = Partitioner.grouped(key -> key.substring(0, key.indexOf('-')));
+        for (int customer = 0; customer < 100; customer++) {
+            int partition = bySeparator.partition("CUST" + customer, 8);
+            assertEquals(partition, bySeparator.partition("CUST" + customer + ":savings", 8));
+            assertEquals(partition, bySeparator.partition("CUST" + customer + ":checking", 8));
+            assertEquals(byFunction.partition("C" + customer + "-a", 8), byFunction.partition("C" + customer + "-b", 8));
+        }
+    }
+
+    @Test
+    @DisplayName("Modulo partitioner keeps the pre-1.4 placement")
+    void moduloMatchesLegacy() {
+        for (int i = 0; i < 1_000; i++) {
+            String key = "k" + i;
+            assertEquals(Math.abs(key.hashCode() % 7), Partitioner.MODULO.partition(key, 7));
+        }
+    }
+}
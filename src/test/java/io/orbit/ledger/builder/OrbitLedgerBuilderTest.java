@@ -1,13 +1,24 @@
 package io.orbit.ledger.builder;
 
+import io.orbit.ledger.api.LedgerClock;
+import io.orbit.ledger.api.LongOrbitLedger;
 import io.orbit.ledger.api.OrbitLedger;
+import io.orbit.ledger.api.Partitioner;
+import io.orbit.ledger.enums.BackpressurePolicy;
+import io.orbit.ledger.enums.DispatchMode;
 import io.orbit.ledger.enums.EvictionPolicy;
 import io.orbit.ledger.enums.PerformanceMode;
+import io.orbit.ledger.enums.ProducerMode;
+import io.orbit.ledger.enums.ReleaseDetail;
 import io.orbit.ledger.enums.ReleaseType;
+import io.orbit.ledger.model.OrbitRelease;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
 
+import java.nio.file.Path;
 import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -196,4 +207,261 @@ class OrbitLedgerBuilderTest {
             assertNotNull(engine);
         }
     }
+
+    @Test
+    @DisplayName("Dispatch mode cannot be null")
+    void dispatchModeNotNull() {
+        OrbitLedger.Builder builder = OrbitLedger.builder();
+        assertThrows(NullPointerException.class, () -> builder.dispatchMode(null));
+    }
+
+    @Test
+    @DisplayName("All dispatch modes accepted")
+    void allDispatchModes() {
+        for (DispatchMode mode : DispatchMode.values()) {
+            OrbitLedger engine = OrbitLedger.builder()
+                    .threadCount(2)
+                    .dispatchMode(mode)
+                    .onRelease(ctx -> {
+                    })
+                    .build();
+            assertNotNull(engine);
+        }
+    }
+
+    @Test
+    @DisplayName("Producer settings are validated")
+    void producerValidation() {
+        OrbitLedger.Builder builder = OrbitLedger.builder();
+        assertThrows(NullPointerException.class, () -> builder.producerMode(null));
+        assertThrows(IllegalArgumentException.class, () -> builder.producerLanes(0));
+    }
+
+    @Test
+    @DisplayName("All producer modes accepted")
+    void allProducerModes() {
+        for (ProducerMode mode : ProducerMode.values()) {
+            OrbitLedger engine = OrbitLedger.builder()
+                    .threadCount(2)
+                    .producerMode(mode)
+                    .producerLanes(2)
+                    .onRelease(ctx -> {
+                    })
+                    .build();
+            engine.start();
+            engine.registerProducer();
+            engine.credit("k", 5);
+            assertEquals(5, engine.release("k").runningBalance());
+            engine.unregisterProducer();
+            engine.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Clock cannot be null")
+    void clockNotNull() {
+        OrbitLedger.Builder builder = OrbitLedger.builder();
+        assertThrows(NullPointerException.class, () -> builder.clock(null));
+        assertNotNull(builder.clock(LedgerClock.manual(0)).build());
+    }
+
+    @Test
+    @DisplayName("Partitioner cannot be null")
+    void partitionerNotNull() {
+        OrbitLedger.Builder builder = OrbitLedger.builder();
+        assertThrows(NullPointerException.class, () -> builder.partitioner(null));
+        assertNotNull(builder.partitioner(Partitioner.grouped(':')).build());
+    }
+
+    @Test
+    @DisplayName("Hot key stripes are validated")
+    void hotKeyValidation() {
+        OrbitLedger.Builder builder = OrbitLedger.builder().threadCount(4);
+        assertThrows(NullPointerException.class, () -> builder.hotKey(null, 2));
+        assertThrows(IllegalArgumentException.class, () -> builder.hotKey("merchant", 1));
+        assertNotNull(builder.hotKey("merchant", 4).build());
+        assertThrows(IllegalArgumentException.class, () -> builder.hotKey("merchant", 5).build());
+    }
+
+    @Test
+    @DisplayName("Max thread count is validated")
+    void maxThreadCountValidation() {
+        OrbitLedger.Builder builder = OrbitLedger.builder().threadCount(4);
+        assertThrows(IllegalArgumentException.class, () -> builder.maxThreadCount(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxThreadCount(2).build());
+        OrbitLedger ledger = builder.maxThreadCount(8).build();
+        assertEquals(4, ledger.workerCount());
+    }
+
+    @Test
+    @DisplayName("Release dispatch settings are validated")
+    void releaseDispatchValidation() {
+        OrbitLedger.Builder builder = OrbitLedger.builder().onRelease(release -> { });
+        assertThrows(IllegalArgumentException.class, () -> builder.releaseDispatch(0, 16));
+        assertThrows(IllegalArgumentException.class, () -> builder.releaseDispatch(2, 0));
+        assertNotNull(builder.releaseDispatch(2, 16).build());
+    }
+
+    @Test
+    @DisplayName("Release ring settings are validated")
+    void releaseRingValidation() {
+        OrbitLedger.Builder builder = OrbitLedger.builder();
+        assertThrows(NullPointerException.class, () -> builder.onReleaseBatch(null));
+        assertThrows(IllegalArgumentException.class, () -> builder.releaseRing(1000, PerformanceMode.STANDARD));
+        assertThrows(NullPointerException.class, () -> builder.releaseRing(1024, null));
+        OrbitLedger ledger = builder.onReleaseBatch((release, endOfBatch) -> { })
+                .releaseRing(256, PerformanceMode.MAXIMUM)
+                .build();
+        ledger.start();
+        ledger.shutdown();
+    }
+
+    @Test
+    @DisplayName("Phased back-off settings are validated")
+    void phasedBackoffValidation() {
+        OrbitLedger.Builder builder = OrbitLedger.builder();
+        assertThrows(NullPointerException.class, () -> builder.phasedBackoff(null, Duration.ZERO));
+        assertThrows(NullPointerException.class, () -> builder.phasedBackoff(Duration.ZERO, null));
+        assertThrows(IllegalArgumentException.class, () -> builder.phasedBackoff(Duration.ofNanos(-1), Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> builder.phasedBackoff(Duration.ZERO, Duration.ofNanos(-1)));
+        OrbitLedger ledger = builder.performanceMode(PerformanceMode.PHASED)
+                .phasedBackoff(Duration.ZERO, Duration.ofMillis(1))
+                .build();
+        ledger.start();
+        ledger.shutdown();
+    }
+
+    @Test
+    @DisplayName("Off-heap key length is validated")
+    void offHeapKeyStateValidation() {
+        OrbitLedger.Builder builder = OrbitLedger.builder();
+        assertThrows(IllegalArgumentException.class, () -> builder.offHeapKeyState(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.offHeapKeyState(-1));
+        OrbitLedger ledger = builder.offHeapKeyState(32).build();
+        ledger.start();
+        ledger.shutdown();
+    }
+
+    @Test
+    @DisplayName("Expected key count is validated")
+    void expectedKeysValidation() {
+        OrbitLedger.Builder builder = OrbitLedger.builder();
+        assertThrows(IllegalArgumentException.class, () -> builder.expectedKeys(-1));
+        OrbitLedger ledger = builder.expectedKeys(100_000).build();
+        ledger.start();
+        ledger.credit("presized", 5);
+        assertEquals(5, ledger.release("presized").runningBalance());
+        ledger.shutdown();
+    }
+
+    @Test
+    @DisplayName("Summary releases carry no events")
+    void summaryReleaseDetail() {
+        assertThrows(NullPointerException.class, () -> OrbitLedger.builder().releaseDetail(null));
+        OrbitLedger ledger = OrbitLedger.builder().releaseDetail(ReleaseDetail.SUMMARY).build();
+        ledger.start();
+        ledger.credit("summary", 5);
+        ledger.debit("summary", 2);
+        OrbitRelease release = ledger.release("summary");
+        assertEquals(2, release.eventCount());
+        assertEquals(3, release.runningBalance());
+        assertTrue(release.events().isEmpty());
+        ledger.shutdown();
+    }
+
+    @Test
+    @DisplayName("Incremental eviction bounds are validated")
+    void incrementalEvictionValidation() {
+        OrbitLedger.Builder builder = OrbitLedger.builder();
+        assertThrows(NullPointerException.class, () -> builder.idleTimeout(null));
+        assertThrows(IllegalArgumentException.class, () -> builder.idleTimeout(Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> builder.maxKeysPerWorker(0));
+        AtomicInteger loads = new AtomicInteger();
+        OrbitLedger ledger = builder
+                .threadCount(1)
+                .evictionPolicy(EvictionPolicy.MAX_KEYS)
+                .maxKeysPerWorker(2)
+                .balanceLoader(key -> {
+                    loads.incrementAndGet();
+                    return 10;
+                })
+                .build();
+        ledger.start();
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 10; i++) {
+                ledger.credit("bounded" + i, 1);
+            }
+            ledger.releaseAll();
+        }
+        assertNull(ledger.release("bounded0")); // nothing pending; waits for the worker
+        ledger.shutdown();
+        // At most 2 keys survive the first round; the others are loaded again
+        assertTrue(loads.get() >= 18, "loads: " + loads.get());
+    }
+
+    @Test
+    @DisplayName("Cold tier settings are validated")
+    void coldKeyStateValidation(@TempDir Path directory) {
+        OrbitLedger.Builder builder = OrbitLedger.builder();
+        assertThrows(NullPointerException.class, () -> builder.coldKeyState(null, 8));
+        assertThrows(IllegalArgumentException.class, () -> builder.coldKeyState(directory.resolve("missing"), 8));
+        assertThrows(IllegalArgumentException.class, () -> builder.coldKeyState(directory, 0));
+        AtomicInteger loads = new AtomicInteger();
+        OrbitLedger ledger = builder
+                .evictionPolicy(EvictionPolicy.AFTER_RELEASE)
+                .coldKeyState(directory, 16)
+                .balanceLoader(key -> {
+                    loads.incrementAndGet();
+                    return 10;
+                })
+                .build();
+        ledger.start();
+        ledger.credit("cold", 5);
+        assertEquals(15, ledger.release("cold").runningBalance());
+        ledger.credit("cold", 5);
+        assertEquals(20, ledger.release("cold").runningBalance());
+        ledger.shutdown();
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("Backpressure settings are validated")
+    void backpressureValidation() {
+        OrbitLedger.Builder builder = OrbitLedger.builder();
+        assertThrows(NullPointerException.class, () -> builder.backpressurePolicy(null));
+        assertThrows(NullPointerException.class, () -> builder.backpressureTimeout(null));
+        assertThrows(IllegalArgumentException.class, () -> builder.backpressureTimeout(Duration.ofMillis(-1)));
+        assertThrows(IllegalArgumentException.class, () -> builder.overflowCapacity(0));
+    }
+
+    @Test
+    @DisplayName("All backpressure policies accepted")
+    void allBackpressurePolicies() {
+        for (BackpressurePolicy policy : BackpressurePolicy.values()) {
+            OrbitLedger engine = OrbitLedger.builder()
+                    .backpressurePolicy(policy)
+                    .backpressureTimeout(Duration.ofMillis(5))
+                    .overflowCapacity(16)
+                    .build();
+            assertNotNull(engine);
+            assertEquals(0, engine.backpressureStats().overflowDepth());
+        }
+    }
+
+    @Test
+    @DisplayName("Build numeric-key engine")
+    void buildLong() {
+        LongOrbitLedger engine = OrbitLedger.builder()
+                .threadCount(2)
+                .dispatchMode(DispatchMode.SHARDED)
+                .defaultBalance(500)
+                .buildLong();
+        engine.start();
+        try {
+            engine.credit(1L, 100);
+            assertEquals(600, engine.release(1L).runningBalance());
+        } finally {
+            engine.shutdown();
+        }
+    }
 }
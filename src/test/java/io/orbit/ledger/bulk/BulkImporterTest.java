@@ -0,0 +1,163 @@
+package io.orbit.ledger.bulk;
+
+import io.orbit.ledger.api.LongOrbitLedger;
+import io.orbit.ledger.api.OrbitLedger;
+import io.orbit.ledger.enums.DispatchMode;
+import io.orbit.ledger.model.ImportProgress;
+import io.orbit.ledger.model.LedgerEvent;
+import io.orbit.ledger.model.OrbitRelease;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for BulkImporter.
+ */
+class BulkImporterTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("CSV import keeps balances and per-key file order across windows")
+    void importCsv() throws IOException {
+        Path csv = dir.resolve("postings.csv");
+        Map<String, Long> expected = new HashMap<>();
+        Map<String, List<Long>> expectedAmounts = new HashMap<>();
+        StringBuilder content = new StringBuilder("account_id,type,amount\r\n");
+        Random random = new Random(7);
+        int recordCount = 5_000;
+        for (int i = 0; i < recordCount; i++) {
+            String key = "ACC_" + random.nextInt(50);
+            boolean credit = random.nextBoolean();
+            long amount = 1 + i;
+            content.append(key).append(',').append(credit ? "CREDIT" : "D").append(", ").append(amount).append("\r\n");
+            expected.merge(key, credit ? amount : -amount, Long::sum);
+            expectedAmounts.computeIfAbsent(key, k -> new ArrayList<>()).add(amount);
+        }
+        content.append('\n');
+        Files.writeString(csv, content);
+
+        Map<String, Long> balances = new ConcurrentHashMap<>();
+        Map<String, List<Long>> amounts = new ConcurrentHashMap<>();
+        OrbitLedger ledger = OrbitLedger.builder()
+                .threadCount(3)
+                .dispatchMode(DispatchMode.SHARDED)
+                .releaseThreshold(0)
+                .onRelease(release -> record(release, balances, amounts))
+                .build();
+        ledger.start();
+
+        List<ImportProgress> progress = new CopyOnWriteArrayList<>();
+        ImportProgress result = BulkImporter.builder()
+                .readers(3)
+                .publishers(3)
+                .chunkBytes(4096)
+                .onProgress(progress::add)
+                .build()
+                .importCsv(ledger, csv);
+        ledger.releaseAll();
+        ledger.shutdown();
+
+        assertEquals(recordCount, result.records());
+        assertEquals(Files.size(csv), result.bytes());
+        assertEquals(1.0, result.fraction());
+        assertTrue(progress.size() > 1, "expected several windows");
+        assertEquals(expected, balances);
+        assertEquals(expectedAmounts, amounts);
+    }
+
+    @Test
+    @DisplayName("Binary import into numeric-key ledger")
+    void importBinary() throws IOException {
+        Path bin = dir.resolve("postings.bin");
+        Map<Long, Long> expected = new HashMap<>();
+        int recordCount = 3_001;
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(bin))) {
+            for (int i = 0; i < recordCount; i++) {
+                long key = i % 97;
+                boolean credit = i % 3 != 0;
+                out.writeLong(key);
+                out.writeByte(credit ? 'C' : 'D');
+                out.writeLong(i);
+                expected.merge(key, credit ? (long) i : -i, Long::sum);
+            }
+        }
+
+        Map<Long, Long> balances = new ConcurrentHashMap<>();
+        LongOrbitLedger ledger = OrbitLedger.builder()
+                .threadCount(2)
+                .releaseThreshold(0)
+                .onRelease(release -> balances.put(release.numericKey(), release.runningBalance()))
+                .buildLong();
+        ledger.start();
+
+        ImportProgress result = BulkImporter.builder()
+                .readers(4)
+                .publishers(2)
+                .chunkBytes(1000)
+                .build()
+                .importBinary(ledger, bin);
+        ledger.releaseAll();
+        ledger.shutdown();
+
+        assertEquals(recordCount, result.records());
+        assertEquals(expected, balances);
+    }
+
+    @Test
+    @DisplayName("Malformed input is rejected with its offset")
+    void rejectMalformedInput() throws IOException {
+        OrbitLedger ledger = OrbitLedger.builder().build();
+        ledger.start();
+        try {
+            Path csv = dir.resolve("bad.csv");
+            Files.writeString(csv, "A,CREDIT,10\nB,XFER,5\n");
+            BulkImporter importer = BulkImporter.builder().readers(1).build();
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                    () -> importer.importCsv(ledger, csv));
+            assertTrue(e.getMessage().contains("byte 12"), e.getMessage());
+
+            Path bin = dir.resolve("bad.bin");
+            try (OutputStream out = Files.newOutputStream(bin)) {
+                out.write(new byte[BulkImporter.BINARY_RECORD_SIZE + 3]);
+            }
+            assertThrows(IllegalArgumentException.class,
+                    () -> importer.importBinary((LongOrbitLedger) ledger, bin));
+        } finally {
+            ledger.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Builder settings are validated")
+    void builderValidation() {
+        BulkImporter.Builder builder = BulkImporter.builder();
+        assertThrows(IllegalArgumentException.class, () -> builder.readers(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.publishers(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.chunkBytes(8));
+    }
+
+    private static void record(OrbitRelease release, Map<String, Long> balances, Map<String, List<Long>> amounts) {
+        balances.put(release.key(), release.runningBalance());
+        List<Long> seen = amounts.computeIfAbsent(release.key(), k -> new CopyOnWriteArrayList<>());
+        for (LedgerEvent event : release.events()) {
+            seen.add(event.amount());
+        }
+    }
+}
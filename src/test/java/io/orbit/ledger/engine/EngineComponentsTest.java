@@ -1,13 +1,34 @@
 package io.orbit.ledger.engine;
 
+import com.lmax.disruptor.RingBuffer;
+import com.lmax.disruptor.Sequence;
+import io.orbit.ledger.api.LedgerClock;
+import io.orbit.ledger.enums.EvictionPolicy;
 import io.orbit.ledger.enums.LedgerType;
+import io.orbit.ledger.enums.WaitState;
+import io.orbit.ledger.core.AdaptiveBackoff;
+import io.orbit.ledger.core.CoarseLedgerClock;
+import io.orbit.ledger.core.ColdKeyStateFile;
+import io.orbit.ledger.core.KeyEvictor;
 import io.orbit.ledger.core.LedgerKeyState;
 import io.orbit.ledger.core.LedgerRingEvent;
 import io.orbit.ledger.core.LedgerRingEventFactory;
+import io.orbit.ledger.core.KeyStateMap;
+import io.orbit.ledger.core.LongKeyStateMap;
+import io.orbit.ledger.core.ManualLedgerClock;
+import io.orbit.ledger.core.OffHeapKeyStateStore;
+import io.orbit.ledger.core.PendingEventArena;
 import io.orbit.ledger.model.OrbitRelease;
 import io.orbit.ledger.model.LedgerEvent;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -140,15 +161,17 @@ class EngineComponentsTest {
     @Test
     @DisplayName("LedgerRingEvent setCommitFlush")
     void ledgerRingEventSetCommitFlush() {
-        LedgerRingEvent event = new LedgerRingEvent();
+        ManualLedgerClock clock = LedgerClock.manual(1_000);
+        LedgerRingEvent event = new LedgerRingEvent(clock);
         event.set("someKey", LedgerType.CREDIT, 100);
 
+        clock.advance(500);
         event.setCommitFlush();
 
         assertNull(event.getKey());
         assertEquals(LedgerType.RELEASE_ALL, event.getType());
         assertEquals(0, event.getAmount());
-        assertEquals(0, event.getTimestampMs());
+        assertEquals(1_500, event.getTimestampMs());
         assertNull(event.getResultFuture());
     }
 
@@ -166,6 +189,20 @@ class EngineComponentsTest {
         assertEquals(0, event.getKeyHashCode());
     }
 
+    @Test
+    @DisplayName("LedgerRingEvent setCommit caches key hashCode")
+    void ledgerRingEventSetCommitKeyHashCode() {
+        LedgerRingEvent event = new LedgerRingEvent();
+        event.set("otherKey", LedgerType.CREDIT, 100);
+
+        // Reused slot must not keep the hash of the previous event
+        event.setCommit("commitKey", new java.util.concurrent.CompletableFuture<>());
+        assertEquals("commitKey".hashCode(), event.getKeyHashCode());
+
+        event.setCommitFlush();
+        assertEquals(0, event.getKeyHashCode());
+    }
+
     @Test
     @DisplayName("KeyState balance initialization")
     void keyStateBalanceInitialization() {
@@ -213,4 +250,623 @@ class EngineComponentsTest {
         assertEquals(50, events.size());
         assertEquals(0, state.getPendingCount());
     }
+
+    @Test
+    @DisplayName("PendingEventArena keeps interleaved keys apart and recycles released chains")
+    void pendingEventArenaRecycles() {
+        PendingEventArena arena = new PendingEventArena(16);
+        LedgerKeyState a = new LedgerKeyState(arena);
+        LedgerKeyState b = new LedgerKeyState(arena);
+        for (int round = 0; round < 100; round++) {
+            for (int i = 1; i <= 6; i++) {
+                a.addPendingEvent(i, LedgerType.CREDIT, i, 0, i);
+                b.addPendingEvent(i, LedgerType.DEBIT, 10 * i, 0, -10 * i);
+            }
+            assertEquals(12, arena.size());
+            List<LedgerEvent> released = a.getAndClearPendingEvents("a");
+            assertEquals(6, released.size());
+            assertEquals(6, arena.size());
+            for (int i = 0; i < 6; i++) {
+                assertEquals(i + 1, released.get(i).sequence());
+                assertEquals(i + 1, released.get(i).amount());
+            }
+            List<LedgerEvent> other = b.getAndClearPendingEvents("b");
+            assertEquals(LedgerType.DEBIT, other.get(5).type());
+            assertEquals(-60, other.get(5).balanceAfter());
+        }
+        assertEquals(0, arena.size());
+        assertEquals(16, arena.capacity(), "released chains were not reused");
+    }
+
+    @Test
+    @DisplayName("LedgerKeyState moves its pending events between arenas")
+    void keyStateMovesBetweenArenas() {
+        PendingEventArena from = new PendingEventArena(4);
+        PendingEventArena to = new PendingEventArena(4);
+        LedgerKeyState state = new LedgerKeyState(from);
+        for (int i = 1; i <= 10; i++) {
+            state.addPendingEvent(i, LedgerType.CREDIT, i, 0, i);
+        }
+
+        state.moveTo(null);
+        assertEquals(0, from.size());
+        state.moveTo(to);
+        assertEquals(10, to.size());
+        state.addPendingEvent(11, LedgerType.CREDIT, 11, 0, 11);
+
+        List<LedgerEvent> events = state.getAndClearPendingEvents("k");
+        assertEquals(11, events.size());
+        for (int i = 0; i < 11; i++) {
+            assertEquals(i + 1, events.get(i).sequence());
+        }
+        assertEquals(0, to.size());
+    }
+
+    @Test
+    @DisplayName("LedgerRingEvent numeric key")
+    void ledgerRingEventNumericKey() {
+        LedgerRingEvent event = new LedgerRingEvent();
+        event.setNumeric(42L, LedgerType.CREDIT, 100);
+
+        assertTrue(event.isNumeric());
+        assertEquals(42L, event.getNumericKey());
+        assertNull(event.getKey());
+        assertEquals(Long.hashCode(42L), event.getKeyHashCode());
+
+        // Reusing the slot for a String key drops the numeric flag
+        event.set("user1", LedgerType.CREDIT, 100);
+        assertFalse(event.isNumeric());
+
+        event.setNumericCommit(7L, new java.util.concurrent.CompletableFuture<>());
+        assertTrue(event.isNumeric());
+        assertEquals(LedgerType.RELEASE, event.getType());
+
+        event.clear();
+        assertFalse(event.isNumeric());
+        assertEquals(0, event.getNumericKey());
+    }
+
+    @Test
+    @DisplayName("LongKeyStateMap get, create and grow")
+    void longKeyStateMapGrowth() {
+        LongKeyStateMap map = new LongKeyStateMap();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(0));
+
+        for (long key = -500; key < 500; key++) {
+            map.getOrCreate(key * 1024).initialize(key);
+        }
+
+        assertEquals(1000, map.size());
+        for (long key = -500; key < 500; key++) {
+            assertEquals(key, map.get(key * 1024).getCommittedBalance());
+        }
+        assertSame(map.get(0), map.getOrCreate(0));
+        assertFalse(map.containsKey(1));
+    }
+
+    @Test
+    @DisplayName("LongKeyStateMap remove keeps probe chains intact")
+    void longKeyStateMapRemove() {
+        LongKeyStateMap map = new LongKeyStateMap(4);
+        for (long key = 0; key < 100; key++) {
+            map.getOrCreate(key);
+        }
+
+        for (long key = 0; key < 100; key += 2) {
+            assertNotNull(map.remove(key));
+        }
+        assertNull(map.remove(0));
+
+        assertEquals(50, map.size());
+        for (long key = 0; key < 100; key++) {
+            assertEquals(key % 2 == 1, map.containsKey(key));
+        }
+    }
+
+    @Test
+    @DisplayName("LongKeyStateMap forEach tolerates removal of the current key")
+    void longKeyStateMapRemoveDuringForEach() {
+        LongKeyStateMap map = new LongKeyStateMap();
+        for (long key = 0; key < 200; key++) {
+            map.getOrCreate(key);
+        }
+
+        java.util.Set<Long> visited = new java.util.HashSet<>();
+        map.forEach((key, state) -> {
+            assertTrue(visited.add(key), "visited twice: " + key);
+            map.remove(key);
+        });
+
+        assertEquals(200, visited.size());
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    @DisplayName("LongKeyStateMap put adopts an existing state")
+    void longKeyStateMapPut() {
+        LongKeyStateMap map = new LongKeyStateMap();
+        LedgerKeyState moved = new LedgerKeyState();
+        for (long key = 0; key < 100; key++) {
+            map.put(key, key == 42 ? moved : new LedgerKeyState());
+        }
+
+        assertEquals(100, map.size());
+        assertSame(moved, map.get(42));
+        assertSame(moved, map.getOrCreate(42));
+        map.put(42, new LedgerKeyState());
+        assertEquals(100, map.size());
+        assertNotSame(moved, map.get(42));
+    }
+
+    @Test
+    @DisplayName("KeyStateMap get, create, remove and grow")
+    void keyStateMapGrowthAndRemove() {
+        KeyStateMap map = new KeyStateMap(4);
+        assertTrue(map.isEmpty());
+        assertNull(map.get("ACC_0"));
+
+        for (int i = 0; i < 1000; i++) {
+            map.getOrCreate("ACC_" + i).initialize(i);
+        }
+        // Equal hash codes must still be told apart
+        LedgerKeyState aa = map.getOrCreate("Aa");
+        LedgerKeyState bb = map.getOrCreate("BB");
+        assertNotSame(aa, bb);
+
+        assertEquals(1002, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, map.get("ACC_" + i).getCommittedBalance());
+        }
+        for (int i = 0; i < 1000; i += 2) {
+            assertNotNull(map.remove("ACC_" + i));
+        }
+        assertNull(map.remove("ACC_0"));
+        assertSame(aa, map.remove("Aa"));
+        assertSame(bb, map.get("BB"));
+
+        assertEquals(501, map.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 1, map.containsKey("ACC_" + i));
+        }
+    }
+
+    @Test
+    @DisplayName("KeyStateMap forEach tolerates removal and put adopts a state")
+    void keyStateMapForEachAndPut() {
+        KeyStateMap map = new KeyStateMap();
+        LedgerKeyState moved = new LedgerKeyState();
+        for (int i = 0; i < 200; i++) {
+            map.put("k" + i, i == 42 ? moved : new LedgerKeyState());
+        }
+        assertSame(moved, map.getOrCreate("k42"));
+
+        java.util.Set<String> visited = new java.util.HashSet<>();
+        map.forEach((key, state) -> {
+            visited.add(key);
+            if (!key.equals("k42")) {
+                map.remove(key);
+            }
+        });
+
+        assertEquals(200, visited.size());
+        assertEquals(1, map.size());
+        assertSame(moved, map.get("k42"));
+    }
+
+    @Test
+    @DisplayName("AdaptiveBackoff spins at once under load and backs off step by step")
+    void adaptiveBackoffHysteresis() {
+        long ms = 1_000_000;
+        AdaptiveBackoff backoff = new AdaptiveBackoff(0);
+        assertEquals(WaitState.PARK, backoff.state());
+
+        // Busy window: 20% idle
+        long now = ms;
+        backoff.record(ms / 5, 1_000, now);
+        assertEquals(WaitState.SPIN, backoff.state());
+        assertEquals(0.2, backoff.stats().idleRatio(), 1e-9);
+        assertEquals(1_000_000, backoff.stats().arrivalRate());
+
+        // 9 quiet windows are not enough, a half-busy one resets the count
+        for (int i = 0; i < 9; i++) {
+            now += ms;
+            backoff.record(ms, 0, now);
+        }
+        now += ms;
+        backoff.record(ms * 7 / 10, 10, now);
+        for (int i = 0; i < 9; i++) {
+            now += ms;
+            backoff.record(ms, 0, now);
+        }
+        assertEquals(WaitState.SPIN, backoff.state());
+        now += ms;
+        backoff.record(ms, 0, now);
+        assertEquals(WaitState.YIELD, backoff.state());
+
+        // A steady trickle above the park rate keeps it yielding
+        for (int i = 0; i < 200; i++) {
+            now += ms;
+            backoff.record(ms, 5, now);
+        }
+        assertEquals(WaitState.YIELD, backoff.state());
+        for (int i = 0; i < 100; i++) {
+            now += ms;
+            backoff.record(ms, 0, now);
+        }
+        assertEquals(WaitState.PARK, backoff.state());
+
+        // Mostly idle but 20K events/sec: wake into yielding
+        now += ms;
+        backoff.record(ms * 95 / 100, 20, now);
+        assertEquals(WaitState.YIELD, backoff.state());
+        assertEquals(4, backoff.stats().transitions());
+    }
+
+    @Test
+    @DisplayName("AdaptiveBackoff only decides once a window is over")
+    void adaptiveBackoffWindow() {
+        AdaptiveBackoff backoff = new AdaptiveBackoff(0);
+        for (long now = 1_000; now < 1_000_000; now += 1_000) {
+            backoff.record(0, 1, now);
+        }
+        assertEquals(WaitState.PARK, backoff.state());
+        backoff.record(0, 1, 1_000_000);
+        assertEquals(WaitState.SPIN, backoff.state());
+    }
+
+    @Test
+    @DisplayName("OffHeapKeyStateStore applies and commits events per key")
+    void offHeapStoreApplyAndCommit() {
+        OffHeapKeyStateStore store = new OffHeapKeyStateStore(8, 0);
+        // "Aa" and "BB" share a hashCode: told apart by their chars
+        int aa = store.findOrCreate("Aa");
+        store.initialize(aa, 100);
+        assertEquals(1, store.apply(aa, LedgerType.CREDIT, 50, 1_000));
+        assertEquals(2, store.apply(aa, LedgerType.DEBIT, 20, 2_000));
+        int bb = store.findOrCreate("BB");
+        assertNotEquals(aa, bb);
+        assertFalse(store.isInitialized(bb));
+        assertEquals(aa, store.find("Aa"));
+        assertEquals(-1, store.find("Ab"));
+        assertEquals(130, store.getCurrentBalance(aa));
+        assertEquals(30, store.getPendingDelta(aa));
+
+        List<LedgerEvent> events = store.commitPending(aa, "Aa", 0);
+        assertEquals(2, events.size());
+        assertEquals(new LedgerEvent("Aa", 1, LedgerType.CREDIT, 50, Instant.ofEpochMilli(1_000), 150L), events.get(0));
+        assertEquals(new LedgerEvent("Aa", 2, LedgerType.DEBIT, 20, Instant.ofEpochMilli(2_000), 130L), events.get(1));
+        assertEquals(130, store.getCommittedBalance(aa));
+        assertEquals(2, store.getLastCommittedSequence(aa));
+        assertEquals(0, store.getPendingCount(aa));
+        assertEquals("Aa", store.keyAt(aa));
+        assertTrue(store.fits("12345678"));
+        assertFalse(store.fits("123456789"));
+    }
+
+    @Test
+    @DisplayName("OffHeapKeyStateStore grows, recycles event blocks and removes during iteration")
+    void offHeapStoreGrowAndRecycle() {
+        OffHeapKeyStateStore store = new OffHeapKeyStateStore(0, 0);
+        for (long key = 0; key < 10_000; key++) {
+            int slot = store.findOrCreate(key);
+            store.initialize(slot, key);
+            store.apply(slot, LedgerType.CREDIT, 1, 0);
+        }
+        assertEquals(10_000, store.size());
+        for (long key = 0; key < 10_000; key++) {
+            int slot = store.find(key);
+            assertEquals(key + 1, store.getCurrentBalance(slot));
+            store.commitPending(slot, Long.toString(key), key);
+        }
+
+        // After the first round, pending events only reuse released blocks
+        long bytes = 0;
+        for (int round = 0; round < 10; round++) {
+            if (round == 1) {
+                bytes = store.offHeapBytes();
+            }
+            for (long key = 0; key < 10_000; key++) {
+                int slot = store.find(key);
+                for (int i = 0; i < 20; i++) {
+                    store.apply(slot, LedgerType.DEBIT, 1, 0);
+                }
+            }
+            store.forEach(slot -> store.commitPending(slot, "n", store.numericKeyAt(slot)));
+        }
+        assertEquals(bytes, store.offHeapBytes(), "arena grew although released blocks were free");
+
+        store.forEach(slot -> {
+            if (store.numericKeyAt(slot) % 2 == 0) {
+                store.remove(slot);
+            }
+        });
+        assertEquals(5_000, store.size());
+        for (long key = 0; key < 10_000; key++) {
+            int slot = store.find(key);
+            if (key % 2 == 0) {
+                assertEquals(-1, slot);
+            } else {
+                assertEquals(key + 1 - 200, store.getCommittedBalance(slot));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("OffHeapKeyStateStore hands states over with pending events")
+    void offHeapStoreExportAdopt() {
+        OffHeapKeyStateStore from = new OffHeapKeyStateStore(16, 0);
+        int slot = from.findOrCreate("acc");
+        from.initialize(slot, 10);
+        from.apply(slot, LedgerType.CREDIT, 5, 1);
+        from.commitPending(slot, "acc", 0);
+        for (int i = 0; i < 40; i++) {
+            from.apply(slot, LedgerType.CREDIT, 1, i);
+        }
+
+        LedgerKeyState moved = from.export(slot);
+        assertEquals(55, moved.getCurrentBalance());
+        assertEquals(40, moved.getPendingCount());
+        assertEquals(41, moved.getCurrentSequence());
+
+        OffHeapKeyStateStore to = new OffHeapKeyStateStore(16, 0);
+        to.adopt("acc", moved);
+        int adopted = to.find("acc");
+        assertEquals(41, to.apply(adopted, LedgerType.DEBIT, 5, 99));
+        List<LedgerEvent> events = to.commitPending(adopted, "acc", 0);
+        assertEquals(41, events.size());
+        assertEquals(2, events.get(0).sequence());
+        assertEquals(42, events.get(40).sequence());
+        assertEquals(50L, events.get(40).balanceAfter());
+        assertEquals(50, to.getCommittedBalance(adopted));
+        assertEquals(42, to.getLastCommittedSequence(adopted));
+    }
+
+    @Test
+    @DisplayName("LedgerRingEvent interned key id")
+    void ledgerRingEventInternedKey() {
+        LedgerRingEvent event = new LedgerRingEvent();
+        event.setInterned("user1", 5, LedgerType.DEBIT, 10);
+
+        assertEquals(5, event.getKeyId());
+        assertEquals("user1", event.getKey());
+        assertEquals("user1".hashCode(), event.getKeyHashCode());
+        assertEquals(-10, event.signedAmount());
+
+        // Reused slot must not keep the id of the previous event
+        event.set("user2", LedgerType.CREDIT, 10);
+        assertEquals(-1, event.getKeyId());
+        event.setInterned("user1", 5, LedgerType.CREDIT, 10);
+        event.setCommit("user1", new java.util.concurrent.CompletableFuture<>());
+        assertEquals(-1, event.getKeyId());
+    }
+
+    @Test
+    @DisplayName("LedgerRingEvent stamps events with its clock")
+    void ledgerRingEventClock() {
+        ManualLedgerClock clock = LedgerClock.manual(1_000);
+        LedgerRingEvent event = new LedgerRingEventFactory(clock).newInstance();
+
+        event.set("user1", LedgerType.CREDIT, 10);
+        assertEquals(1_000, event.getTimestampMs());
+
+        clock.advance(5);
+        event.setNumeric(7L, LedgerType.DEBIT, 1);
+        assertEquals(1_005, event.getTimestampMs());
+
+        clock.set(42);
+        event.setCommit("user1", null);
+        assertEquals(42, event.getTimestampMs());
+        assertThrows(IllegalArgumentException.class, () -> clock.advance(-1));
+    }
+
+    @Test
+    @DisplayName("Coarse clock stays within its resolution")
+    void coarseLedgerClock() throws InterruptedException {
+        assertThrows(IllegalArgumentException.class, () -> LedgerClock.coarse(java.time.Duration.ZERO));
+        try (CoarseLedgerClock clock = LedgerClock.coarse(java.time.Duration.ofMillis(2))) {
+            long before = System.currentTimeMillis();
+            Thread.sleep(20);
+            long cached = clock.millis();
+            assertTrue(cached >= before, "Ticker did not refresh the cached time");
+            assertTrue(cached <= System.currentTimeMillis());
+        }
+    }
+
+    @Test
+    @DisplayName("LedgerRingEvent partition is reset on reuse")
+    void ledgerRingEventPartition() {
+        LedgerRingEvent event = new LedgerRingEvent();
+        event.set("user1", LedgerType.CREDIT, 10);
+        assertEquals(-1, event.getPartition());
+
+        event.setPartition(3);
+        assertEquals(3, event.getPartition());
+
+        event.setNumeric(7L, LedgerType.DEBIT, 1);
+        assertEquals(-1, event.getPartition());
+        event.setPartition(1);
+        event.clear();
+        assertEquals(-1, event.getPartition());
+    }
+
+    @Test
+    @DisplayName("LaneFlush clears slots once every worker passed them and gates producers on it")
+    void laneFlushClearsPassedSlots() {
+        RingBuffer<LedgerRingEvent> ring = RingBuffer.createMultiProducer(LedgerRingEvent::new, 8);
+        Sequence fast = new Sequence();
+        Sequence slow = new Sequence();
+        LaneFlush flush = new LaneFlush(ring, new Sequence[] { fast, slow });
+        for (int i = 0; i < 4; i++) {
+            long sequence = ring.next();
+            ring.get(sequence).set("k" + i, LedgerType.CREDIT, 1);
+            ring.publish(sequence);
+        }
+
+        fast.set(3);
+        slow.set(1);
+        flush.flush();
+        assertNull(ring.get(0).getKey());
+        assertNull(ring.get(1).getKey());
+        assertEquals("k2", ring.get(2).getKey());
+        assertEquals(1, ring.getMinimumGatingSequence());
+
+        slow.set(3);
+        flush.flush();
+        assertNull(ring.get(3).getKey());
+        assertEquals(3, ring.getMinimumGatingSequence());
+    }
+
+    @Test
+    @DisplayName("KeyEvictor evicts idle keys a few slots per step")
+    void keyEvictorIdleTimeout() {
+        MapTable table = new MapTable();
+        for (int i = 0; i < 100; i++) {
+            table.map.getOrCreate("acc" + i).touch(i < 50 ? 1_000 : 5_000);
+        }
+        KeyEvictor evictor = new KeyEvictor(EvictionPolicy.IDLE_TIMEOUT, 3_000, 0, table);
+
+        // One step looks at a handful of slots only
+        evictor.step(6_000);
+        assertTrue(table.evicted.size() <= 8, "Step evicted " + table.evicted.size());
+
+        evictor.sweep(6_000);
+        assertEquals(50, table.map.size());
+        assertEquals(50, evictor.getEvictions());
+        for (String key : table.evicted) {
+            assertTrue(Integer.parseInt(key.substring(3)) < 50, "Evicted active key " + key);
+        }
+
+        evictor.sweep(8_000);
+        assertEquals(0, table.map.size());
+    }
+
+    @Test
+    @DisplayName("KeyEvictor gives recently used keys a second chance under MAX_KEYS")
+    void keyEvictorMaxKeysClock() {
+        MapTable table = new MapTable();
+        for (int i = 0; i < 10; i++) {
+            table.map.getOrCreate("acc" + i).touch(0);
+        }
+        KeyEvictor evictor = new KeyEvictor(EvictionPolicy.MAX_KEYS, 0, 10, table);
+        evictor.step(0);
+        assertEquals(0, evictor.getEvictions()); // at the bound: nothing to do
+
+        // One pass clears every mark; touch acc3 again before the hand comes back
+        for (int i = 10; i < 20; i++) {
+            table.map.getOrCreate("acc" + i);
+        }
+        evictor.step(0);
+        table.map.get("acc3").touch(0);
+        evictor.sweep(0);
+
+        assertEquals(10, table.map.size());
+        assertTrue(table.map.containsKey("acc3"));
+        assertFalse(table.evicted.contains("acc3"));
+        assertEquals(10, evictor.getEvictions());
+    }
+
+    @Test
+    @DisplayName("OffHeapKeyStateStore tracks last access and the CLOCK mark")
+    void offHeapStoreAccessTracking() {
+        OffHeapKeyStateStore store = new OffHeapKeyStateStore(16, 0);
+        int slot = store.findOrCreate("acc");
+        store.initialize(slot, 0);
+        assertFalse(store.testAndClearReferenced(slot));
+
+        store.apply(slot, LedgerType.CREDIT, 10, 1_234);
+        assertEquals(1_234, store.getLastAccessMs(slot));
+        assertTrue(store.isInitialized(slot));
+        assertTrue(store.testAndClearReferenced(slot));
+        assertFalse(store.testAndClearReferenced(slot));
+
+        LedgerKeyState exported = store.export(slot);
+        assertEquals(1_234, exported.getLastAccessMs());
+        OffHeapKeyStateStore to = new OffHeapKeyStateStore(16, 0);
+        to.adopt("acc", exported);
+        assertEquals(1_234, to.getLastAccessMs(to.find("acc")));
+    }
+
+    @Test
+    @DisplayName("ColdKeyStateFile stores, grows, removes and deletes its file")
+    void coldKeyStateFile(@TempDir Path directory) {
+        Path path = directory.resolve("keys.cold");
+        ColdKeyStateFile file = new ColdKeyStateFile(path, 8, 0);
+        assertTrue(file.fits("acc12345"));
+        assertFalse(file.fits("acc123456"));
+        for (int i = 0; i < 5_000; i++) {
+            file.put("acc" + i, i * 10L, i);
+        }
+        file.put("acc7", 71, 8); // overwrites in place
+        assertEquals(5_000, file.size());
+        int slot = file.find("acc7");
+        assertEquals(71, file.getCommittedBalance(slot));
+        assertEquals(8, file.getLastCommittedSequence(slot));
+        assertEquals("acc7", file.keyAt(slot));
+        assertEquals(-1, file.find("missing"));
+        assertTrue(file.fileBytes() >= 5_000L * 40, "grown to " + file.fileBytes());
+        assertEquals(file.fileBytes(), path.toFile().length());
+
+        // Remove every even key while iterating
+        file.forEach(s -> {
+            if (Integer.parseInt(file.keyAt(s).substring(3)) % 2 == 0) {
+                file.remove(s);
+            }
+        });
+        assertEquals(2_500, file.size());
+        for (int i = 0; i < 5_000; i++) {
+            assertEquals(i % 2 == 0, file.find("acc" + i) < 0, "acc" + i);
+        }
+        assertEquals(9_990, file.getCommittedBalance(file.find("acc999")));
+
+        ColdKeyStateFile ids = new ColdKeyStateFile(directory.resolve("ids.cold"), 0, 0);
+        ids.put(42L, -5, 3);
+        assertEquals(-5, ids.getCommittedBalance(ids.find(42L)));
+        assertEquals(42L, ids.numericKeyAt(ids.find(42L)));
+        ids.remove(ids.find(42L));
+        assertEquals(-1, ids.find(42L));
+
+        file.close();
+        ids.close();
+        assertFalse(Files.exists(path));
+    }
+
+    /**
+     * A KeyStateMap as an eviction table, recording what was evicted.
+     */
+    private static final class MapTable implements KeyEvictor.Table {
+        final KeyStateMap map = new KeyStateMap();
+        final List<String> evicted = new ArrayList<>();
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public int capacity() {
+            return map.capacity();
+        }
+
+        @Override
+        public boolean isUsed(int slot) {
+            return map.stateAt(slot) != null;
+        }
+
+        @Override
+        public long lastAccessMs(int slot) {
+            return map.stateAt(slot).getLastAccessMs();
+        }
+
+        @Override
+        public boolean testAndClearReferenced(int slot) {
+            return map.stateAt(slot).testAndClearReferenced();
+        }
+
+        @Override
+        public void evict(int slot) {
+            evicted.add(map.keyAt(slot));
+            map.removeAt(slot);
+        }
+    }
 }
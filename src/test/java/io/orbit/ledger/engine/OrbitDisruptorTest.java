@@ -1,14 +1,45 @@
 package io.orbit.ledger.engine;
 
+import io.orbit.ledger.api.LedgerClock;
+import io.orbit.ledger.api.LedgerKey;
+import io.orbit.ledger.api.Partitioner;
+import io.orbit.ledger.core.ManualLedgerClock;
+import io.orbit.ledger.enums.BackpressurePolicy;
+import io.orbit.ledger.enums.DispatchMode;
 import io.orbit.ledger.enums.EvictionPolicy;
+import io.orbit.ledger.enums.LedgerType;
 import io.orbit.ledger.enums.PerformanceMode;
+import io.orbit.ledger.enums.ProducerMode;
+import io.orbit.ledger.enums.PublishStatus;
+import io.orbit.ledger.model.BackpressureStats;
+import io.orbit.ledger.model.JournalEntry;
+import io.orbit.ledger.enums.ReleaseDetail;
 import io.orbit.ledger.enums.ReleaseType;
+import io.orbit.ledger.enums.WaitState;
 import io.orbit.ledger.model.OrbitRelease;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class OrbitDisruptorTest {
 
@@ -83,6 +114,59 @@ class OrbitDisruptorTest {
         assertEquals(5, res.delta());
     }
 
+    @Test
+    void shouldReleaseAsyncWithoutBlocking() throws Exception {
+        engine.credit("async-key", 40);
+        engine.debit("async-key", 15);
+
+        CompletableFuture<OrbitRelease> future = engine.releaseAsync("async-key");
+
+        OrbitRelease result = future.get(5, TimeUnit.SECONDS);
+        assertEquals("async-key", result.key());
+        assertEquals(25, result.delta());
+        assertEquals(2, result.eventCount());
+        assertNull(engine.releaseAsync("async-key").get(5, TimeUnit.SECONDS));
+
+        engine.credit(7L, 9);
+        assertEquals(9, engine.releaseAsync(7L).thenApply(OrbitRelease::delta).get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldFailReleaseAsyncWhenListenerThrows() {
+        OrbitDisruptor failing = new OrbitDisruptor(
+                128, 1, 1000, ReleaseType.COUNT,
+                release -> {
+                    throw new IllegalStateException("listener down");
+                },
+                null, 0, EvictionPolicy.NONE, null, PerformanceMode.MAXIMUM);
+        failing.start();
+        failing.credit("boom", 1);
+
+        CompletableFuture<OrbitRelease> future = failing.releaseAsync("boom");
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void shouldStampEventsWithConfiguredClock() {
+        ManualLedgerClock clock = LedgerClock.manual(1_700_000_000_000L);
+        OrbitDisruptor replay = new OrbitDisruptor(
+                128, 2, 1000, ReleaseType.COUNT, null, null, 0,
+                EvictionPolicy.NONE, null, PerformanceMode.MAXIMUM,
+                new EngineOptions().clock(clock));
+        replay.start();
+
+        replay.credit("replay", 10);
+        clock.advance(250);
+        replay.debit("replay", 4);
+
+        OrbitRelease result = replay.release("replay");
+        assertEquals(1_700_000_000_000L, result.events().get(0).timestamp().toEpochMilli());
+        assertEquals(1_700_000_000_250L, result.events().get(1).timestamp().toEpochMilli());
+        replay.shutdown();
+    }
+
     @Test
     void shouldThrowRuntimeExceptionOnInterruption() {
         Thread.currentThread().interrupt();
@@ -149,4 +233,1398 @@ class OrbitDisruptorTest {
 
         standardEngine.shutdown();
     }
+
+    @Test
+    void shouldProcessCreditAndCommitWithShardedRings() {
+        OrbitDisruptor shardedEngine = new OrbitDisruptor(
+                128, 4, 10, ReleaseType.COUNT, null, null, 0,
+                EvictionPolicy.NONE, null, PerformanceMode.MAXIMUM, DispatchMode.SHARDED);
+        shardedEngine.start();
+
+        for (int i = 0; i < 16; i++) {
+            shardedEngine.credit("k" + i, 100 + i);
+            shardedEngine.debit("k" + i, 1);
+        }
+
+        for (int i = 0; i < 16; i++) {
+            OrbitRelease result = shardedEngine.release("k" + i);
+            assertNotNull(result);
+            assertEquals("k" + i, result.key());
+            assertEquals(99 + i, result.delta());
+            assertEquals(2, result.eventCount());
+        }
+
+        assertEquals(DispatchMode.SHARDED, shardedEngine.getDispatchMode());
+        shardedEngine.shutdown();
+    }
+
+    @Test
+    void shouldReleaseAllPartitionsWithShardedRings() throws InterruptedException {
+        Map<String, Long> balances = new ConcurrentHashMap<>();
+        CountDownLatch released = new CountDownLatch(32);
+        OrbitDisruptor shardedEngine = new OrbitDisruptor(
+                128, 4, 1000, ReleaseType.COUNT,
+                release -> {
+                    balances.put(release.key(), release.runningBalance());
+                    released.countDown();
+                },
+                null, 0, EvictionPolicy.NONE, null, PerformanceMode.STANDARD, DispatchMode.SHARDED);
+        shardedEngine.start();
+
+        for (int i = 0; i < 32; i++) {
+            shardedEngine.credit("acc-" + i, i);
+        }
+        shardedEngine.releaseAll();
+
+        assertTrue(released.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 32; i++) {
+            assertEquals(i, balances.get("acc-" + i));
+        }
+        shardedEngine.shutdown();
+    }
+
+    @Test
+    void shouldProcessWithSingleProducer() {
+        OrbitDisruptor single = new OrbitDisruptor(
+                128, 2, 10_000, ReleaseType.COUNT, null, null, 0,
+                EvictionPolicy.NONE, null, PerformanceMode.MAXIMUM,
+                new EngineOptions().producerMode(ProducerMode.SINGLE));
+        single.start();
+
+        for (int i = 0; i < 500; i++) {
+            single.credit("single", 2);
+            single.debit("single", 1);
+        }
+
+        OrbitRelease result = single.release("single");
+        assertEquals(500, result.runningBalance());
+        single.shutdown();
+    }
+
+    @Test
+    void shouldRejectSingleProducerWithTimeRelease() {
+        assertThrows(IllegalArgumentException.class, () -> new OrbitDisruptor(
+                128, 2, 10, ReleaseType.TIME, null, null, 0,
+                EvictionPolicy.NONE, java.time.Duration.ofMillis(10), PerformanceMode.MAXIMUM,
+                new EngineOptions().producerMode(ProducerMode.SINGLE)));
+    }
+
+    @Test
+    void shouldKeepPerKeyOrderAcrossProducerLanes() throws InterruptedException {
+        assertLanesPublished(DispatchMode.MULTICAST);
+    }
+
+    @Test
+    void shouldKeepPerKeyOrderAcrossProducerLanesWithShardedRings() throws InterruptedException {
+        assertLanesPublished(DispatchMode.SHARDED);
+    }
+
+    @Test
+    void shouldRejectProducerBeyondLaneCount() throws InterruptedException {
+        OrbitDisruptor lanes = new OrbitDisruptor(
+                128, 2, 10, ReleaseType.COUNT, null, null, 0,
+                EvictionPolicy.NONE, null, PerformanceMode.STANDARD,
+                new EngineOptions().producerMode(ProducerMode.LANES).producerLanes(1));
+        lanes.start();
+        lanes.registerProducer();
+        try {
+            Thread other = new Thread(() -> assertThrows(IllegalStateException.class, lanes::registerProducer));
+            other.start();
+            other.join();
+
+            // Unregistered threads still publish through the shared lane
+            CompletableFuture<OrbitRelease> shared = CompletableFuture.supplyAsync(() -> {
+                lanes.credit("shared", 7);
+                return lanes.release("shared");
+            });
+            lanes.credit("own", 3);
+            assertEquals(3, lanes.release("own").runningBalance());
+            assertEquals(7, shared.join().runningBalance());
+        } finally {
+            lanes.unregisterProducer();
+            lanes.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRejectJournalFromProducerLane() {
+        Map<String, Long> balances = new ConcurrentHashMap<>();
+        OrbitDisruptor lanes = new OrbitDisruptor(
+                128, 2, 10, ReleaseType.COUNT,
+                release -> balances.put(release.key(), release.runningBalance()),
+                null, 0, EvictionPolicy.NONE, null, PerformanceMode.STANDARD,
+                new EngineOptions().producerMode(ProducerMode.LANES).producerLanes(1));
+        lanes.start();
+        JournalEntry transfer = JournalEntry.of(JournalEntry.Leg.debit("A", 10), JournalEntry.Leg.credit("B", 10));
+        lanes.registerProducer();
+        try {
+            lanes.credit("A", 100);
+            // Could overtake the credit still on the lane
+            assertThrows(IllegalStateException.class, () -> lanes.post(transfer));
+        } finally {
+            lanes.unregisterProducer();
+        }
+        lanes.post(transfer);
+        lanes.shutdown();
+
+        assertEquals(90, balances.get("A"));
+        assertEquals(10, balances.get("B"));
+    }
+
+    @Test
+    void shouldReleaseEveryLaneEventOnReleaseAllAndShutdown() throws Exception {
+        for (DispatchMode dispatchMode : new DispatchMode[] { DispatchMode.MULTICAST, DispatchMode.SHARDED }) {
+            String[] slow = { keyForPartition(0, 2, "slow-"), keyForPartition(0, 2, "slow-x") };
+            String[] quick = { keyForPartition(0, 2, "quick-"), keyForPartition(0, 2, "quick-x") };
+            Map<String, Long> released = new ConcurrentHashMap<>();
+            CountDownLatch firstRound = new CountDownLatch(2);
+            CountDownLatch[] loading = { new CountDownLatch(1), new CountDownLatch(1) };
+            OrbitDisruptor lanes = new OrbitDisruptor(
+                    128, 2, 10, ReleaseType.COUNT,
+                    release -> {
+                        released.merge(release.key(), release.eventCount(), Long::sum);
+                        firstRound.countDown();
+                    },
+                    key -> {
+                        for (int round = 0; round < slow.length; round++) {
+                            if (key.equals(slow[round])) {
+                                loading[round].countDown();
+                                try {
+                                    Thread.sleep(100); // the quick key lands on the lane meanwhile
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+                            }
+                        }
+                        return 0;
+                    },
+                    0, EvictionPolicy.NONE, null, PerformanceMode.STANDARD,
+                    new EngineOptions().dispatchMode(dispatchMode).producerMode(ProducerMode.LANES)
+                            .producerLanes(1));
+            lanes.start();
+
+            // One producer for both rounds: a lane has a single producer thread
+            CountDownLatch[] published = { new CountDownLatch(1), new CountDownLatch(1) };
+            CountDownLatch secondRound = new CountDownLatch(1);
+            Thread producer = new Thread(() -> {
+                lanes.registerProducer();
+                try {
+                    for (int round = 0; round < slow.length; round++) {
+                        if (round == 1) {
+                            secondRound.await();
+                        }
+                        lanes.credit(slow[round], 1);
+                        loading[round].await();
+                        lanes.credit(quick[round], 1);
+                        published[round].countDown();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    lanes.unregisterProducer();
+                }
+            });
+            producer.start();
+
+            // Called from a thread without a lane while the worker is still loading
+            assertTrue(published[0].await(5, TimeUnit.SECONDS));
+            lanes.releaseAll();
+            assertTrue(firstRound.await(5, TimeUnit.SECONDS), dispatchMode + ": released " + released);
+            secondRound.countDown();
+            assertTrue(published[1].await(5, TimeUnit.SECONDS));
+            lanes.shutdown();
+            producer.join();
+
+            for (int round = 0; round < slow.length; round++) {
+                assertEquals(1L, released.get(slow[round]), dispatchMode + ": " + released);
+                assertEquals(1L, released.get(quick[round]), dispatchMode + ": " + released);
+            }
+        }
+    }
+
+    /**
+     * Several registered producers each publish an alternating sequence to their own
+     * keys; every key must come out with its full balance in publish order.
+     */
+    private void assertLanesPublished(DispatchMode dispatchMode) throws InterruptedException {
+        int producers = 3;
+        int perProducer = 2_000;
+        Map<String, Long> balances = new ConcurrentHashMap<>();
+        Map<String, Long> lastSequence = new ConcurrentHashMap<>();
+        Map<String, Boolean> ordered = new ConcurrentHashMap<>();
+        OrbitDisruptor lanes = new OrbitDisruptor(
+                64, 2, 50, ReleaseType.COUNT,
+                release -> {
+                    balances.put(release.key(), release.runningBalance());
+                    release.events().forEach(e -> {
+                        Long previous = lastSequence.put(release.key(), e.sequence());
+                        if (previous != null && previous >= e.sequence()) {
+                            ordered.put(release.key(), false);
+                        }
+                    });
+                },
+                null, 0, EvictionPolicy.NONE, null, PerformanceMode.MAXIMUM,
+                new EngineOptions().dispatchMode(dispatchMode).producerMode(ProducerMode.LANES)
+                        .producerLanes(producers));
+        lanes.start();
+
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            String[] keys = { "lane" + p + "-a", "lane" + p + "-b" };
+            threads[p] = new Thread(() -> {
+                lanes.registerProducer();
+                try {
+                    for (int i = 0; i < perProducer; i++) {
+                        lanes.credit(keys[i & 1], 3);
+                        lanes.debit(keys[i & 1], 1);
+                    }
+                    for (String key : keys) {
+                        lanes.release(key);
+                    }
+                } finally {
+                    lanes.unregisterProducer();
+                }
+            });
+            threads[p].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        lanes.shutdown();
+
+        for (int p = 0; p < producers; p++) {
+            assertEquals(perProducer, balances.get("lane" + p + "-a"));
+            assertEquals(perProducer, balances.get("lane" + p + "-b"));
+        }
+        assertTrue(ordered.isEmpty(), "Out-of-order events: " + ordered.keySet());
+    }
+
+    @Test
+    void shouldCoLocateKeyGroupsWithShardedRings() {
+        Map<String, String> threads = new ConcurrentHashMap<>();
+        OrbitDisruptor grouped = new OrbitDisruptor(
+                128, 4, 1, ReleaseType.COUNT,
+                release -> threads.put(release.key(), Thread.currentThread().getName()),
+                null, 0, EvictionPolicy.NONE, null, PerformanceMode.MAXIMUM,
+                new EngineOptions().dispatchMode(DispatchMode.SHARDED).partitioner(Partitioner.grouped(':')));
+        grouped.start();
+
+        String[] accounts = { "CUST7:savings", "CUST7:checking", "CUST7:loan", "CUST7" };
+        for (String account : accounts) {
+            grouped.credit(account, 10);
+        }
+        grouped.shutdown();
+
+        assertEquals(accounts.length, threads.size());
+        assertEquals(1, threads.values().stream().distinct().count(), "group split across workers: " + threads);
+    }
+
+    @Test
+    void shouldMergeHotKeyStripes() throws InterruptedException {
+        assertHotKeyMerged(DispatchMode.MULTICAST);
+    }
+
+    @Test
+    void shouldMergeHotKeyStripesWithShardedRings() throws InterruptedException {
+        assertHotKeyMerged(DispatchMode.SHARDED);
+    }
+
+    private void assertHotKeyMerged(DispatchMode dispatchMode) throws InterruptedException {
+        OrbitDisruptor hot = new OrbitDisruptor(
+                128, 4, 10_000, ReleaseType.COUNT, null, null, 1_000, EvictionPolicy.NONE, null,
+                PerformanceMode.MAXIMUM, new EngineOptions().dispatchMode(dispatchMode).hotKey("merchant", 4));
+        hot.start();
+
+        // Producer p credits p*1000+1, p*1000+2, ... so its own order is visible in the amounts
+        int producers = 3;
+        int perProducer = 500;
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int base = p * 1000;
+            threads[p] = new Thread(() -> {
+                for (int i = 1; i <= perProducer; i++) {
+                    hot.credit("merchant", base + i);
+                }
+            });
+            threads[p].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        hot.debit("merchant", 7);
+
+        OrbitRelease release = hot.release("merchant");
+        hot.shutdown();
+
+        assertNotNull(release);
+        assertEquals(producers * perProducer + 1, release.eventCount());
+        long expectedDelta = -7;
+        for (int p = 0; p < producers; p++) {
+            expectedDelta += (long) p * 1000 * perProducer + (long) perProducer * (perProducer + 1) / 2;
+        }
+        assertEquals(expectedDelta, release.delta());
+        assertEquals(1_000 + expectedDelta, release.runningBalance());
+
+        long balance = 1_000;
+        long[] lastAmount = new long[producers];
+        for (int i = 0; i < release.events().size(); i++) {
+            var event = release.events().get(i);
+            balance += event.signedAmount();
+            assertEquals(i + 1, event.sequence());
+            assertEquals(balance, event.balanceAfter());
+            if (event.type() == LedgerType.CREDIT) {
+                int p = (int) (event.amount() / 1000);
+                assertTrue(event.amount() > lastAmount[p], "producer order lost at " + event);
+                lastAmount[p] = event.amount();
+            }
+        }
+        assertEquals(LedgerType.DEBIT, release.events().get(release.events().size() - 1).type());
+    }
+
+    @Test
+    void shouldReleaseHotKeyEveryThresholdEvents() throws InterruptedException {
+        Map<Long, OrbitRelease> releases = new ConcurrentHashMap<>();
+        CountDownLatch released = new CountDownLatch(3);
+        OrbitDisruptor hot = new OrbitDisruptor(
+                128, 2, 10, ReleaseType.COUNT,
+                release -> {
+                    releases.put(release.runningBalance(), release);
+                    released.countDown();
+                },
+                null, 0, EvictionPolicy.NONE, null, PerformanceMode.MAXIMUM,
+                new EngineOptions().hotKey("merchant", 2));
+        hot.start();
+
+        for (int i = 0; i < 30; i++) {
+            hot.credit("merchant", 1);
+        }
+        assertTrue(released.await(5, TimeUnit.SECONDS));
+        hot.shutdown();
+
+        // Each release holds 10 events and continues the previous one's sequence and balance
+        for (long balance = 10; balance <= 30; balance += 10) {
+            OrbitRelease release = releases.get(balance);
+            assertNotNull(release, "no release ending at " + balance);
+            assertEquals(10, release.eventCount());
+            assertEquals(balance - 9, release.events().get(0).sequence());
+        }
+    }
+
+    @Test
+    void shouldRejectJournalLegOnHotKey() {
+        OrbitDisruptor hot = new OrbitDisruptor(
+                128, 2, 10, ReleaseType.COUNT, null, null, 0, EvictionPolicy.NONE, null,
+                PerformanceMode.MAXIMUM, new EngineOptions().hotKey("merchant", 2));
+        hot.start();
+        try {
+            assertThrows(IllegalArgumentException.class, () -> hot.post(JournalEntry.of(
+                    JournalEntry.Leg.debit("alice", 10),
+                    JournalEntry.Leg.credit("merchant", 10))));
+        } finally {
+            hot.shutdown();
+        }
+    }
+
+    @Test
+    void shouldRejectMoreStripesThanThreads() {
+        assertThrows(IllegalArgumentException.class, () -> new OrbitDisruptor(
+                128, 2, 10, ReleaseType.COUNT, null, null, 0, EvictionPolicy.NONE, null,
+                PerformanceMode.MAXIMUM, new EngineOptions().hotKey("merchant", 3)));
+    }
+
+    @Test
+    void shouldMoveKeyStateOnResize() throws InterruptedException {
+        Map<String, String> workers = new ConcurrentHashMap<>();
+        CountDownLatch released = new CountDownLatch(128);
+        OrbitDisruptor elastic = new OrbitDisruptor(
+                128, 2, 10_000, ReleaseType.COUNT,
+                release -> {
+                    workers.put(release.key(), Thread.currentThread().getName());
+                    released.countDown();
+                },
+                null, 0, EvictionPolicy.NONE, null, PerformanceMode.MAXIMUM,
+                new EngineOptions().maxThreadCount(4));
+        elastic.start();
+
+        for (int i = 0; i < 64; i++) {
+            elastic.credit("k" + i, 100);
+            elastic.credit((long) i, 100);
+        }
+        elastic.resize(4);
+        assertEquals(4, elastic.workerCount());
+        for (int i = 0; i < 64; i++) {
+            elastic.debit("k" + i, 1);
+            elastic.debit((long) i, 1);
+        }
+        elastic.releaseAll();
+        assertTrue(released.await(5, TimeUnit.SECONDS));
+        assertEquals(4, workers.values().stream().distinct().count(), "keys not spread: " + workers);
+
+        // Pending events, sequences and balances moved with the keys
+        elastic.resize(1);
+        for (int i = 0; i < 64; i++) {
+            elastic.credit("k" + i, 5);
+            OrbitRelease release = elastic.release("k" + i);
+            assertEquals(1, release.eventCount());
+            assertEquals(3, release.events().get(0).sequence());
+            assertEquals(104, release.runningBalance());
+            elastic.debit((long) i, 9);
+            assertEquals(90, elastic.release((long) i).runningBalance());
+        }
+        elastic.shutdown();
+    }
+
+    @Test
+    void shouldKeepPerKeyOrderWhileResizing() throws InterruptedException {
+        Map<String, Long> balances = new ConcurrentHashMap<>();
+        Map<String, Long> lastSequence = new ConcurrentHashMap<>();
+        Map<String, String> gaps = new ConcurrentHashMap<>();
+        OrbitDisruptor elastic = new OrbitDisruptor(
+                1024, 2, 50, ReleaseType.COUNT,
+                release -> {
+                    balances.put(release.key(), release.runningBalance());
+                    for (var event : release.events()) {
+                        long previous = lastSequence.getOrDefault(release.key(), 0L);
+                        if (event.sequence() != previous + 1) {
+                            gaps.put(release.key(), previous + " -> " + event.sequence());
+                        }
+                        lastSequence.put(release.key(), event.sequence());
+                    }
+                },
+                null, 0, EvictionPolicy.NONE, null, PerformanceMode.MAXIMUM,
+                new EngineOptions().maxThreadCount(6));
+        elastic.start();
+
+        int rounds = 2_000;
+        CountDownLatch published = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            for (int round = 0; round < rounds; round++) {
+                for (int k = 0; k < 32; k++) {
+                    elastic.credit("acc" + k, 1);
+                }
+                elastic.post(JournalEntry.of(
+                        JournalEntry.Leg.debit("acc0", 1),
+                        JournalEntry.Leg.credit("acc1", 1)));
+            }
+            published.countDown();
+        });
+        producer.start();
+        int[] sizes = { 6, 1, 3, 5, 2, 4 };
+        for (int i = 0; producer.isAlive(); i++) {
+            elastic.resize(sizes[i % sizes.length]);
+            Thread.sleep(1);
+        }
+        producer.join();
+        elastic.shutdown();
+
+        assertEquals(0, published.getCount(), "producer failed");
+        assertTrue(gaps.isEmpty(), "sequence gaps: " + gaps);
+        assertEquals(0, balances.get("acc0"));
+        assertEquals(2L * rounds, balances.get("acc1"));
+        for (int k = 2; k < 32; k++) {
+            assertEquals(rounds, balances.get("acc" + k));
+        }
+    }
+
+    @Test
+    void shouldRejectResizeOfFixedEngine() {
+        assertThrows(IllegalStateException.class, () -> engine.resize(3));
+        assertThrows(IllegalArgumentException.class, () -> new OrbitDisruptor(
+                128, 2, 10, ReleaseType.COUNT, null, null, 0, EvictionPolicy.NONE, null,
+                PerformanceMode.MAXIMUM,
+                new EngineOptions().dispatchMode(DispatchMode.SHARDED).maxThreadCount(4)));
+    }
+
+    @Test
+    void shouldDispatchReleasesInKeyOrderWithoutBlockingOtherKeys() throws Exception {
+        String slow = "slow";
+        String fast = keyOnOtherSink(slow, 2);
+        CountDownLatch unblock = new CountDownLatch(1);
+        Map<String, List<Long>> balances = new ConcurrentHashMap<>();
+        OrbitDisruptor dispatched = new OrbitDisruptor(
+                128, 2, 5, ReleaseType.COUNT,
+                release -> {
+                    if (release.key().equals(slow)) {
+                        awaitQuietly(unblock);
+                    }
+                    balances.computeIfAbsent(release.key(), k -> new CopyOnWriteArrayList<>())
+                            .add(release.runningBalance());
+                },
+                null, 0, EvictionPolicy.NONE, null, PerformanceMode.MAXIMUM,
+                new EngineOptions().releaseDispatch(2, 64));
+        dispatched.start();
+
+        for (int i = 0; i < 20; i++) {
+            dispatched.credit(slow, 1);
+            dispatched.credit(fast, 1);
+        }
+        // The slow key's sink is stuck, yet the other sink keeps delivering
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (balances.getOrDefault(fast, List.of()).size() < 4 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(List.of(5L, 10L, 15L, 20L), balances.get(fast));
+        assertNull(balances.get(slow));
+
+        unblock.countDown();
+        dispatched.shutdown();
+        assertEquals(List.of(5L, 10L, 15L, 20L), balances.get(slow));
+    }
+
+    @Test
+    void shouldBlockWorkerOnlyBeyondMaxInFlightReleases() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        OrbitDisruptor dispatched = new OrbitDisruptor(
+                128, 1, 10_000, ReleaseType.COUNT,
+                release -> awaitQuietly(unblock),
+                null, 0, EvictionPolicy.NONE, null, PerformanceMode.MAXIMUM,
+                new EngineOptions().releaseDispatch(1, 2));
+        dispatched.start();
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[3];
+        for (int i = 0; i < futures.length; i++) {
+            dispatched.credit("k" + i, 1);
+            futures[i] = dispatched.releaseAsync("k" + i);
+        }
+        // Two releases fit the bound while the sink is stuck; the third holds the worker
+        futures[1].get(5, TimeUnit.SECONDS);
+        assertTrue(futures[0].isDone());
+        assertThrows(TimeoutException.class, () -> futures[2].get(100, TimeUnit.MILLISECONDS));
+
+        unblock.countDown();
+        futures[2].get(5, TimeUnit.SECONDS);
+        dispatched.shutdown();
+    }
+
+    @Test
+    void shouldFeedReleaseRingToBatchHandlers() {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        Map<String, List<Long>> balances = new ConcurrentHashMap<>();
+        List<OrbitRelease> audited = new CopyOnWriteArrayList<>();
+        List<OrbitRelease> batch = new ArrayList<>();
+        OrbitDisruptor batched = new OrbitDisruptor(
+                128, 2, 1, ReleaseType.COUNT, null, null, 0, EvictionPolicy.NONE, null,
+                PerformanceMode.MAXIMUM,
+                new EngineOptions()
+                        .releaseRing(8, PerformanceMode.STANDARD)
+                        .releaseBatchHandler((release, endOfBatch) -> {
+                            batch.add(release);
+                            if (endOfBatch) {
+                                // One "transaction" per batch
+                                for (OrbitRelease committed : batch) {
+                                    balances.computeIfAbsent(committed.key(), k -> new CopyOnWriteArrayList<>())
+                                            .add(committed.runningBalance());
+                                }
+                                batchSizes.add(batch.size());
+                                batch.clear();
+                                Thread.sleep(1);
+                            }
+                        })
+                        .releaseBatchHandler((release, endOfBatch) -> audited.add(release)));
+        batched.start();
+
+        for (int i = 0; i < 400; i++) {
+            batched.credit("k" + (i & 3), 1);
+        }
+        batched.shutdown();
+
+        assertEquals(400, audited.size());
+        assertEquals(400, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().anyMatch(size -> size > 1), "no batching: " + batchSizes);
+        for (int k = 0; k < 4; k++) {
+            List<Long> expected = new ArrayList<>();
+            for (long balance = 1; balance <= 100; balance++) {
+                expected.add(balance);
+            }
+            assertEquals(expected, balances.get("k" + k));
+        }
+    }
+
+    @Test
+    void shouldReleaseUnderEveryPerformanceMode() {
+        for (PerformanceMode mode : PerformanceMode.values()) {
+            for (ProducerMode producerMode : new ProducerMode[] { ProducerMode.MULTI, ProducerMode.LANES }) {
+                Map<String, Long> balances = new ConcurrentHashMap<>();
+                OrbitDisruptor engine = new OrbitDisruptor(
+                        128, 2, 4, ReleaseType.COUNT,
+                        release -> balances.put(release.key(), release.runningBalance()),
+                        null, 0, EvictionPolicy.NONE, null, mode,
+                        new EngineOptions()
+                                .producerMode(producerMode)
+                                .phasedBackoff(Duration.ofNanos(1_000), Duration.ofNanos(1_000)));
+                engine.start();
+                for (int i = 0; i < 400; i++) {
+                    engine.credit("k" + (i & 7), 1);
+                }
+                engine.shutdown();
+
+                assertEquals(8, balances.size(), mode + "/" + producerMode);
+                balances.forEach((key, balance) -> assertEquals(50L, balance, mode + "/" + producerMode + " " + key));
+            }
+        }
+    }
+
+    @Test
+    void shouldAdaptWaitStateToLoad() throws InterruptedException {
+        for (ProducerMode producerMode : new ProducerMode[] { ProducerMode.MULTI, ProducerMode.LANES }) {
+            OrbitDisruptor adaptive = new OrbitDisruptor(
+                    1024, 2, 1000, ReleaseType.COUNT, release -> { }, null, 0, EvictionPolicy.NONE, null,
+                    PerformanceMode.ADAPTIVE, new EngineOptions().producerMode(producerMode));
+            assertTrue(adaptive.waitStats().size() <= 2);
+            adaptive.start();
+            try {
+                for (int i = 0; i < 500_000; i++) {
+                    adaptive.credit("k" + (i & 63), 1);
+                }
+                assertEquals(2, adaptive.waitStats().size(), producerMode.toString());
+                assertTrue(adaptive.waitStats().stream().anyMatch(stats -> stats.transitions() > 0),
+                        producerMode + ": never left PARK: " + adaptive.waitStats());
+
+                // Quiet: every worker steps back down to parking
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (adaptive.waitStats().stream().anyMatch(stats -> stats.state() != WaitState.PARK)
+                        && System.nanoTime() < deadline) {
+                    Thread.sleep(10);
+                }
+                assertTrue(adaptive.waitStats().stream().allMatch(stats -> stats.state() == WaitState.PARK),
+                        producerMode + ": still busy when idle: " + adaptive.waitStats());
+            } finally {
+                adaptive.shutdown();
+            }
+        }
+    }
+
+    @Test
+    void shouldReportNoWaitStatsOutsideAdaptiveMode() {
+        engine.credit("a", 1);
+        assertTrue(engine.waitStats().isEmpty());
+    }
+
+    private static String keyOnOtherSink(String key, int sinks) {
+        int sink = Partitioner.MIXED.partition(key, sinks);
+        for (int i = 0; ; i++) {
+            if (Partitioner.MIXED.partition("fast" + i, sinks) != sink) {
+                return "fast" + i;
+            }
+        }
+    }
+
+    @Test
+    void shouldProcessNumericKeys() {
+        for (long key = 0; key < 16; key++) {
+            engine.credit(key, 100 + key);
+            engine.debit(key, 1);
+        }
+
+        for (long key = 0; key < 16; key++) {
+            OrbitRelease result = engine.release(key);
+            assertNotNull(result);
+            assertEquals(key, result.numericKey());
+            assertEquals(Long.toString(key), result.key());
+            assertEquals(99 + key, result.delta());
+        }
+        assertNull(engine.release(99L));
+    }
+
+    @Test
+    void shouldKeepNumericAndStringKeysApartWithShardedRings() throws InterruptedException {
+        Map<String, Long> balances = new ConcurrentHashMap<>();
+        CountDownLatch released = new CountDownLatch(64);
+        OrbitDisruptor shardedEngine = new OrbitDisruptor(
+                128, 4, 1000, ReleaseType.COUNT,
+                release -> {
+                    balances.put(release.key(), release.runningBalance());
+                    released.countDown();
+                },
+                null, 0, EvictionPolicy.NONE, null, PerformanceMode.STANDARD, DispatchMode.SHARDED);
+        shardedEngine.start();
+
+        for (int i = 0; i < 32; i++) {
+            shardedEngine.credit((long) i, i);
+            shardedEngine.credit("s" + i, 1000 + i);
+        }
+        shardedEngine.releaseAll();
+
+        assertTrue(released.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 32; i++) {
+            assertEquals(i, balances.get(Integer.toString(i)));
+            assertEquals(1000 + i, balances.get("s" + i));
+        }
+        shardedEngine.shutdown();
+    }
+
+    @Test
+    void shouldInternKeyHandles() {
+        LedgerKey handle = engine.key("user1");
+        assertSame(handle, engine.key("user1"));
+        assertEquals("user1", handle.key());
+        assertEquals(Partitioner.MIXED.partition("user1", 2), handle.partition());
+        assertNotEquals(handle, engine.key("user2"));
+
+        OrbitDisruptor other = new OrbitDisruptor(128, 2, 10, ReleaseType.COUNT, null, null, 0,
+                EvictionPolicy.NONE, null, PerformanceMode.MAXIMUM);
+        assertThrows(IllegalArgumentException.class, () -> other.credit(handle, 1));
+        assertThrows(NullPointerException.class, () -> engine.key(null));
+    }
+
+    @Test
+    void shouldShareStateBetweenHandleAndStringKeyWithShardedRings() {
+        OrbitDisruptor shardedEngine = new OrbitDisruptor(
+                128, 4, 1000, ReleaseType.COUNT, null, null, 0,
+                EvictionPolicy.NONE, null, PerformanceMode.MAXIMUM, DispatchMode.SHARDED);
+        shardedEngine.start();
+
+        LedgerKey[] handles = new LedgerKey[16];
+        for (int i = 0; i < handles.length; i++) {
+            handles[i] = shardedEngine.key("acc-" + i);
+        }
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < handles.length; i++) {
+                shardedEngine.credit(handles[i], 10);
+                shardedEngine.debit("acc-" + i, 1);
+                shardedEngine.debit(handles[i], i);
+            }
+        }
+
+        for (int i = 0; i < handles.length; i++) {
+            OrbitRelease result = shardedEngine.release("acc-" + i);
+            assertEquals(9, result.eventCount());
+            assertEquals(3 * (9 - i), result.delta());
+            for (int e = 0; e < result.events().size(); e++) {
+                assertEquals(e + 1, result.events().get(e).sequence());
+            }
+        }
+        shardedEngine.shutdown();
+    }
+
+    @Test
+    void shouldPostJournalEntry() throws Exception {
+        Map<String, Long> deltas = new ConcurrentHashMap<>();
+        OrbitDisruptor journal = new OrbitDisruptor(128, 2, 10, ReleaseType.COUNT,
+                release -> deltas.merge(release.key(), release.delta(), Long::sum),
+                null, 0, EvictionPolicy.NONE, null, PerformanceMode.MAXIMUM);
+        journal.start();
+
+        journal.post(JournalEntry.of(
+                JournalEntry.Leg.debit("alice", 100),
+                JournalEntry.Leg.credit("bob", 70),
+                JournalEntry.Leg.credit("fees", 30)));
+
+        // The entry released its legs itself: nothing is left pending
+        assertNull(journal.release("alice"));
+        assertNull(journal.release("bob"));
+        assertNull(journal.release("fees"));
+        journal.shutdown();
+        assertEquals(Map.of("alice", -100L, "bob", 70L, "fees", 30L), deltas);
+    }
+
+    @Test
+    void shouldReleaseAllJournalLegsTogether() throws Exception {
+        for (int offHeapKeyLength : new int[] { 0, 16 }) {
+            String from = keyForPartition(0, 2, "from");
+            String to = keyForPartition(1, 2, "to");
+            Map<String, OrbitRelease> released = new ConcurrentHashMap<>();
+            CountDownLatch legsReleased = new CountDownLatch(2);
+            OrbitDisruptor sharded = new OrbitDisruptor(
+                    128, 2, 10, ReleaseType.HYBRID,
+                    release -> {
+                        released.put(release.key(), release);
+                        legsReleased.countDown();
+                    },
+                    null, 0, EvictionPolicy.NONE, Duration.ofHours(1), PerformanceMode.STANDARD,
+                    new EngineOptions().dispatchMode(DispatchMode.SHARDED).offHeapKeyState(offHeapKeyLength));
+            sharded.start();
+
+            // Below the threshold on both sides: only the entry can release them
+            sharded.credit(from, 50);
+            sharded.credit(to, 5);
+            sharded.credit(to, 5);
+            sharded.post(JournalEntry.of(JournalEntry.Leg.debit(from, 25), JournalEntry.Leg.credit(to, 25)));
+
+            assertTrue(legsReleased.await(5, TimeUnit.SECONDS), "legs not released");
+            assertEquals(2, released.get(from).eventCount());
+            assertEquals(25, released.get(from).delta());
+            assertEquals(3, released.get(to).eventCount());
+            assertEquals(35, released.get(to).delta());
+            assertEquals(LedgerType.DEBIT, released.get(from).events().get(1).type());
+            assertEquals(LedgerType.CREDIT, released.get(to).events().get(2).type());
+            sharded.shutdown();
+        }
+    }
+
+    @Test
+    void shouldNotReleaseJournalLegBeforeOtherPartitionApplied() throws Exception {
+        String blocker = keyForPartition(1, 2, "blocker");
+        String from = keyForPartition(0, 2, "from");
+        String to = keyForPartition(1, 2, "to");
+        CountDownLatch unblock = new CountDownLatch(1);
+        Map<String, Long> released = new ConcurrentHashMap<>();
+        CountDownLatch legsReleased = new CountDownLatch(2);
+        OrbitDisruptor shardedEngine = new OrbitDisruptor(
+                128, 2, 1, ReleaseType.COUNT,
+                release -> {
+                    if (release.key().equals(blocker)) {
+                        try {
+                            unblock.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return;
+                    }
+                    released.put(release.key(), release.delta());
+                    legsReleased.countDown();
+                },
+                null, 0, EvictionPolicy.NONE, null, PerformanceMode.STANDARD, DispatchMode.SHARDED);
+        shardedEngine.start();
+
+        shardedEngine.credit(blocker, 1); // worker 1 now sits in the listener
+        shardedEngine.post(JournalEntry.of(JournalEntry.Leg.debit(from, 25), JournalEntry.Leg.credit(to, 25)));
+
+        assertFalse(legsReleased.await(200, TimeUnit.MILLISECONDS));
+        assertTrue(released.isEmpty(), "leg released before the other partition applied its leg");
+
+        unblock.countDown();
+        assertTrue(legsReleased.await(5, TimeUnit.SECONDS));
+        assertEquals(-25, released.get(from));
+        assertEquals(25, released.get(to));
+        shardedEngine.shutdown();
+    }
+
+    @Test
+    void shouldConserveBalanceForConcurrentTransfersWithShardedRings() throws Exception {
+        Map<String, Long> balances = new ConcurrentHashMap<>();
+        OrbitDisruptor shardedEngine = new OrbitDisruptor(
+                64, 4, 5, ReleaseType.COUNT,
+                release -> balances.put(release.key(), release.runningBalance()),
+                null, 1_000, EvictionPolicy.NONE, null, PerformanceMode.MAXIMUM, DispatchMode.SHARDED);
+        shardedEngine.start();
+
+        int accounts = 16;
+        int producers = 4;
+        int transfers = 2_000;
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[producers];
+        for (int p = 0; p < producers; p++) {
+            int seed = p;
+            tasks[p] = CompletableFuture.runAsync(() -> {
+                java.util.Random random = new java.util.Random(seed);
+                for (int t = 0; t < transfers; t++) {
+                    int from = random.nextInt(accounts);
+                    int to = (from + 1 + random.nextInt(accounts - 1)) % accounts;
+                    long amount = 1 + random.nextInt(50);
+                    shardedEngine.post(JournalEntry.of(
+                            JournalEntry.Leg.debit("acc-" + from, amount),
+                            JournalEntry.Leg.credit("acc-" + to, amount)));
+                }
+            });
+        }
+        CompletableFuture.allOf(tasks).get(30, TimeUnit.SECONDS);
+
+        long total = 0;
+        for (int i = 0; i < accounts; i++) {
+            shardedEngine.release("acc-" + i);
+            total += balances.get("acc-" + i);
+        }
+        assertEquals(accounts * 1_000L, total);
+        shardedEngine.shutdown();
+    }
+
+    private static String keyForPartition(int partition, int totalWorkers, String prefix) {
+        int i = 0;
+        while (Partitioner.MIXED.partition(prefix + i, totalWorkers) != partition) {
+            i++;
+        }
+        return prefix + i;
+    }
+
+    @Test
+    void shouldReleaseOnTimeWithShardedRings() throws InterruptedException {
+        CountDownLatch released = new CountDownLatch(1);
+        OrbitDisruptor shardedEngine = new OrbitDisruptor(
+                128, 2, 1000, ReleaseType.TIME, release -> released.countDown(), null, 0,
+                EvictionPolicy.NONE, java.time.Duration.ofMillis(50), PerformanceMode.STANDARD,
+                DispatchMode.SHARDED);
+        shardedEngine.start();
+
+        shardedEngine.credit("time-key", 100);
+
+        assertTrue(released.await(2, TimeUnit.SECONDS));
+        shardedEngine.shutdown();
+    }
+
+    @Test
+    void shouldPublishBatchLargerThanBuffer() {
+        assertBatchPublished(DispatchMode.MULTICAST);
+    }
+
+    @Test
+    void shouldPublishBatchLargerThanBufferWithShardedRings() {
+        assertBatchPublished(DispatchMode.SHARDED);
+    }
+
+    @Test
+    void shouldRejectReleaseTypeInBatch() {
+        String[] keys = { "k1", "k2" };
+        long[] amounts = { 1, 2 };
+        LedgerType[] types = { LedgerType.CREDIT, LedgerType.RELEASE };
+
+        assertThrows(IllegalArgumentException.class, () -> engine.publishBatch(keys, amounts, types, 0, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> engine.publishBatch(keys, amounts, types, 1, 2));
+    }
+
+    private void assertBatchPublished(DispatchMode dispatchMode) {
+        OrbitDisruptor batchEngine = new OrbitDisruptor(
+                128, 3, 1000, ReleaseType.COUNT, null, null, 0,
+                EvictionPolicy.NONE, null, PerformanceMode.MAXIMUM, dispatchMode);
+        batchEngine.start();
+
+        // 300 events (+ 5 skipped by offset) through a 128-slot ring forces chunking
+        int size = 305;
+        String[] keys = new String[size];
+        long[] amounts = new long[size];
+        LedgerType[] types = new LedgerType[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = "batch-" + (i % 3);
+            amounts[i] = i;
+            types[i] = i % 5 == 0 ? LedgerType.DEBIT : LedgerType.CREDIT;
+        }
+
+        batchEngine.publishBatch(keys, amounts, types, 5, 300);
+
+        for (int k = 0; k < 3; k++) {
+            OrbitRelease result = batchEngine.release("batch-" + k);
+            assertNotNull(result);
+            assertEquals(100, result.eventCount());
+
+            // Events keep array order per key
+            long expectedDelta = 0;
+            int eventIndex = 0;
+            for (int i = 5; i < size; i++) {
+                if (i % 3 != k) {
+                    continue;
+                }
+                expectedDelta += types[i] == LedgerType.CREDIT ? amounts[i] : -amounts[i];
+                assertEquals(amounts[i], result.events().get(eventIndex).amount());
+                assertEquals(types[i], result.events().get(eventIndex).type());
+                eventIndex++;
+            }
+            assertEquals(expectedDelta, result.delta());
+        }
+
+        batchEngine.shutdown();
+    }
+
+    @Test
+    void shouldNotAllocateOnPublishInSteadyState() {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        String[] keys = new String[64];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = "alloc-" + i;
+        }
+
+        // Warm up so the publish path is JIT-compiled and the ring has wrapped
+        for (int i = 0; i < 200_000; i++) {
+            publishAlternating(keys, i);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        int publishes = 100_000;
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < publishes; i++) {
+            publishAlternating(keys, i);
+        }
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        assertEquals(0, allocated / publishes,
+                "Expected zero bytes per publish but allocated " + allocated + " bytes in total");
+    }
+
+    @Test
+    void tryCreditShouldFailFastOnFullRing() throws InterruptedException {
+        CountDownLatch unblock = new CountDownLatch(1);
+        OrbitDisruptor stalled = stalledEngine(BackpressurePolicy.FAIL_FAST, unblock);
+
+        assertEquals(PublishStatus.REJECTED, fillRing(stalled));
+        BackpressureStats stats = stalled.backpressureStats();
+        assertEquals(1, stats.failedFast());
+        assertEquals(0, stats.spilled());
+
+        unblock.countDown();
+        stalled.shutdown();
+    }
+
+    @Test
+    void shouldNotSkipHotKeyReleaseOnFullRing() throws InterruptedException {
+        CountDownLatch unblock = new CountDownLatch(1);
+        CountDownLatch hotReleased = new CountDownLatch(1);
+        List<OrbitRelease> hotReleases = new CopyOnWriteArrayList<>();
+        OrbitDisruptor stalled = new OrbitDisruptor(
+                16, 2, 2, ReleaseType.COUNT,
+                release -> {
+                    if (release.key().equals("blocker")) {
+                        awaitQuietly(unblock);
+                    } else if (release.key().equals("hot")) {
+                        hotReleases.add(release);
+                        hotReleased.countDown();
+                    }
+                },
+                null, 0, EvictionPolicy.NONE, null, PerformanceMode.STANDARD,
+                new EngineOptions().hotKeys(Map.of("hot", 2)).backpressurePolicy(BackpressurePolicy.FAIL_FAST));
+        stalled.start();
+
+        assertEquals(PublishStatus.ACCEPTED, stalled.tryCredit("hot", 1)); // stripe sequence 0
+        stalled.credit("blocker", 1);
+        stalled.credit("blocker", 1); // its release stalls the ring
+        assertEquals(PublishStatus.REJECTED, fillRing(stalled));
+        // Stripe sequence 1 would have released both stripes
+        assertEquals(PublishStatus.REJECTED, stalled.tryCredit("hot", 10));
+
+        unblock.countDown();
+        stalled.release("spill");
+        assertEquals(PublishStatus.ACCEPTED, stalled.tryCredit("hot", 100)); // sequence 2, no trigger itself
+        assertTrue(hotReleased.await(5, TimeUnit.SECONDS), "owed release was skipped");
+        assertEquals(2, hotReleases.get(0).eventCount());
+        assertEquals(101, hotReleases.get(0).delta());
+        stalled.shutdown();
+    }
+
+    @Test
+    void tryCreditShouldGiveUpAfterTimeout() throws InterruptedException {
+        CountDownLatch unblock = new CountDownLatch(1);
+        OrbitDisruptor stalled = stalledEngine(BackpressurePolicy.TIMED_WAIT, unblock);
+
+        long start = System.nanoTime();
+        assertEquals(PublishStatus.REJECTED, fillRing(stalled));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(20));
+
+        BackpressureStats stats = stalled.backpressureStats();
+        assertEquals(1, stats.timedWaits());
+        assertEquals(1, stats.timedOut());
+
+        unblock.countDown();
+        stalled.shutdown();
+    }
+
+    @Test
+    void tryCreditShouldBlockUntilCapacity() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        OrbitDisruptor stalled = stalledEngine(BackpressurePolicy.BLOCK, unblock);
+
+        // One slot is held by the stalled worker, eight fill the ring, the last one must wait
+        CompletableFuture<PublishStatus> status = CompletableFuture.supplyAsync(() -> {
+            PublishStatus last = null;
+            for (int i = 0; i < 10; i++) {
+                last = stalled.tryCredit("block", 1);
+            }
+            return last;
+        });
+        Thread.sleep(100);
+        assertFalse(status.isDone());
+
+        unblock.countDown();
+        assertEquals(PublishStatus.ACCEPTED, status.get(5, TimeUnit.SECONDS));
+        assertTrue(stalled.backpressureStats().blocked() >= 1);
+        stalled.shutdown();
+    }
+
+    @Test
+    void tryCreditShouldSpillAndKeepOrder() throws InterruptedException {
+        CountDownLatch unblock = new CountDownLatch(1);
+        Map<String, Long> balances = new ConcurrentHashMap<>();
+        OrbitDisruptor stalled = new OrbitDisruptor(
+                8, 1, 1, ReleaseType.COUNT,
+                release -> {
+                    awaitQuietly(unblock);
+                    balances.put(release.key(), release.runningBalance());
+                },
+                null, 0, EvictionPolicy.NONE, null, PerformanceMode.STANDARD,
+                new EngineOptions()
+                        .backpressurePolicy(BackpressurePolicy.SPILL)
+                        .overflowCapacity(2));
+        stalled.start();
+
+        assertEquals(PublishStatus.SPILLED, fillRing(stalled));
+        assertEquals(PublishStatus.SPILLED, stalled.tryDebit("spill", 5));
+        assertEquals(PublishStatus.REJECTED, stalled.tryDebit("spill", 7));
+
+        BackpressureStats stats = stalled.backpressureStats();
+        assertEquals(2, stats.spilled());
+        assertEquals(1, stats.spillRejected());
+        assertEquals(2, stats.overflowDepth());
+
+        // Blocking publish drains the spilled events ahead of itself
+        unblock.countDown();
+        stalled.credit("spill", 100);
+        stalled.shutdown();
+
+        assertEquals(0, stalled.backpressureStats().overflowDepth());
+        // Ring fill credits "spill" 1 each; then +1 spilled, -5 spilled, +100
+        assertEquals(fillCount + 1 - 5 + 100, balances.get("spill"));
+    }
+
+    @Test
+    void shouldKeepKeyStateOffHeap() throws Exception {
+        Map<String, Long> balances = new ConcurrentHashMap<>();
+        Map<String, Long> events = new ConcurrentHashMap<>();
+        OrbitDisruptor offHeap = new OrbitDisruptor(
+                128, 2, 10, ReleaseType.COUNT,
+                release -> {
+                    balances.put(release.key(), release.runningBalance());
+                    events.merge(release.key(), release.eventCount(), Long::sum);
+                },
+                key -> 1_000, 0, EvictionPolicy.NONE, null, PerformanceMode.STANDARD,
+                new EngineOptions().offHeapKeyState(8).maxThreadCount(3));
+        offHeap.start();
+
+        String longKey = "longer-than-eight";
+        for (int i = 0; i < 25; i++) {
+            if (i == 12) {
+                offHeap.resize(3);
+            }
+            for (int k = 0; k < 20; k++) {
+                offHeap.credit("acc" + k, 2);
+                offHeap.debit((long) k, 1);
+            }
+            offHeap.credit(longKey, 3);
+        }
+        offHeap.releaseAll();
+        assertNull(offHeap.releaseAsync("unknown").get(5, TimeUnit.SECONDS));
+        offHeap.shutdown();
+
+        for (int k = 0; k < 20; k++) {
+            assertEquals(1_050, balances.get("acc" + k));
+            assertEquals(25, events.get("acc" + k));
+            assertEquals(975, balances.get(String.valueOf(k)));
+            assertEquals(25, events.get(String.valueOf(k)));
+        }
+        assertEquals(1_075, balances.get(longKey));
+        assertEquals(25, events.get(longKey));
+    }
+
+    @Test
+    void shouldEvictOffHeapKeysAfterRelease() {
+        Map<String, Integer> loads = new ConcurrentHashMap<>();
+        OrbitDisruptor offHeap = new OrbitDisruptor(
+                128, 1, 10, ReleaseType.COUNT, release -> {
+                },
+                key -> {
+                    loads.merge(key, 1, Integer::sum);
+                    return 500;
+                },
+                0, EvictionPolicy.AFTER_RELEASE, null, PerformanceMode.STANDARD,
+                new EngineOptions().offHeapKeyState(16));
+        offHeap.start();
+
+        offHeap.credit("evicted", 10);
+        assertEquals(510, offHeap.release("evicted").runningBalance());
+        offHeap.credit("evicted", 10);
+        assertEquals(510, offHeap.release("evicted").runningBalance());
+        offHeap.shutdown();
+        assertEquals(2, loads.get("evicted"));
+    }
+
+    @Test
+    void shouldReleaseSummariesWithoutEvents() throws Exception {
+        for (int offHeapKeyLength : new int[] { 0, 16 }) {
+            Map<String, Long> balances = new ConcurrentHashMap<>();
+            Map<String, Long> counts = new ConcurrentHashMap<>();
+            Map<String, OrbitRelease> latest = new ConcurrentHashMap<>();
+            List<String> withEvents = new CopyOnWriteArrayList<>();
+            OrbitDisruptor summary = new OrbitDisruptor(
+                    128, 2, 10, ReleaseType.COUNT,
+                    release -> {
+                        latest.put(release.key(), release);
+                        balances.put(release.key(), release.runningBalance());
+                        counts.merge(release.key(), release.eventCount(), Long::sum);
+                        if (!release.events().isEmpty()) {
+                            withEvents.add(release.key());
+                        }
+                    },
+                    key -> 100, 0, EvictionPolicy.NONE, null, PerformanceMode.STANDARD,
+                    new EngineOptions()
+                            .releaseDetail(ReleaseDetail.SUMMARY)
+                            .offHeapKeyState(offHeapKeyLength)
+                            .hotKeys(Map.of("hot", 2))
+                            .maxThreadCount(3));
+            summary.start();
+
+            for (int i = 0; i < 25; i++) {
+                if (i == 12) {
+                    summary.resize(3);
+                }
+                for (int k = 0; k < 8; k++) {
+                    summary.credit("acc" + k, 3);
+                    summary.debit((long) k, 1);
+                }
+                summary.credit("hot", 2);
+            }
+            summary.post(JournalEntry.of(
+                    JournalEntry.Leg.debit("acc0", 5),
+                    JournalEntry.Leg.credit("acc1", 5)));
+            // The entry released acc0 itself
+            assertNull(summary.release("acc0"));
+            OrbitRelease release = latest.get("acc0");
+            assertEquals(6, release.eventCount());
+            assertEquals(-5 + 15, release.delta());
+            assertTrue(release.events().isEmpty());
+            summary.releaseAll();
+            summary.shutdown();
+
+            assertTrue(withEvents.isEmpty(), "releases with events: " + withEvents);
+            for (int k = 0; k < 8; k++) {
+                assertEquals(k < 2 ? 26 : 25, counts.get("acc" + k));
+                assertEquals(25, counts.get(String.valueOf(k)));
+                assertEquals(75, balances.get(String.valueOf(k)));
+            }
+            assertEquals(170, balances.get("acc0"));
+            assertEquals(180, balances.get("acc1"));
+            assertEquals(175, balances.get("acc2"));
+            assertEquals(25, counts.get("hot"));
+            assertEquals(150, balances.get("hot"));
+        }
+    }
+
+    @Test
+    void shouldEvictIdleKeysByEventTime() {
+        for (int offHeapKeyLength : new int[] { 0, 16 }) {
+            Map<String, Long> stored = new ConcurrentHashMap<>();
+            Map<String, Integer> loads = new ConcurrentHashMap<>();
+            ManualLedgerClock clock = LedgerClock.manual(0);
+            OrbitDisruptor idle = new OrbitDisruptor(
+                    128, 1, 100, ReleaseType.COUNT,
+                    release -> stored.put(release.key(), release.runningBalance()),
+                    key -> {
+                        loads.merge(key, 1, Integer::sum);
+                        return stored.getOrDefault(key, 100L);
+                    },
+                    0, EvictionPolicy.IDLE_TIMEOUT, null, PerformanceMode.STANDARD,
+                    new EngineOptions()
+                            .clock(clock)
+                            .idleTimeout(Duration.ofSeconds(1))
+                            .offHeapKeyState(offHeapKeyLength));
+            idle.start();
+
+            idle.credit("idle", 5);
+            idle.credit(7L, 5);
+            idle.credit("active", 5);
+            clock.advance(10_000);
+            idle.credit("active", 5);
+            // Releases everything, then evicts the keys idle for the timeout
+            idle.releaseAll();
+
+            idle.credit("idle", 1);
+            idle.credit(7L, 1);
+            idle.credit("active", 1);
+            assertEquals(106, idle.release("idle").runningBalance());
+            assertEquals(106, idle.release(7L).runningBalance());
+            assertEquals(111, idle.release("active").runningBalance());
+            idle.shutdown();
+
+            assertEquals(2, loads.get("idle"));
+            assertEquals(2, loads.get("7"));
+            assertEquals(1, loads.get("active"));
+        }
+    }
+
+    @Test
+    void shouldFaultEvictedKeysBackFromColdTier(@TempDir Path directory) throws Exception {
+        for (int offHeapKeyLength : new int[] { 0, 16 }) {
+            Map<String, Integer> loads = new ConcurrentHashMap<>();
+            List<OrbitRelease> releases = new CopyOnWriteArrayList<>();
+            OrbitDisruptor cold = new OrbitDisruptor(
+                    128, 2, 100, ReleaseType.COUNT, releases::add,
+                    key -> {
+                        loads.merge(key, 1, Integer::sum);
+                        return 100;
+                    },
+                    0, EvictionPolicy.AFTER_RELEASE, null, PerformanceMode.STANDARD,
+                    new EngineOptions()
+                            .offHeapKeyState(offHeapKeyLength)
+                            .coldKeyState(directory, 8)
+                            .maxThreadCount(3));
+            cold.start();
+
+            String longKey = "longer-than-eight";
+            for (int round = 0; round < 4; round++) {
+                if (round == 2) {
+                    cold.resize(3); // cold keys move to their new owner
+                }
+                for (int k = 0; k < 20; k++) {
+                    cold.credit("acc" + k, 5);
+                    cold.debit((long) k, 1);
+                }
+                cold.credit(longKey, 1);
+                cold.releaseAll();
+            }
+            cold.shutdown();
+
+            Map<String, OrbitRelease> last = new HashMap<>();
+            for (OrbitRelease release : releases) {
+                last.put(release.key(), release);
+            }
+            for (int k = 0; k < 20; k++) {
+                assertEquals(1, loads.get("acc" + k), "acc" + k + " loaded again");
+                assertEquals(1, loads.get(String.valueOf(k)));
+                assertEquals(120, last.get("acc" + k).runningBalance());
+                assertEquals(96, last.get(String.valueOf(k)).runningBalance());
+                // Sequences carry on across evictions
+                assertEquals(4, last.get("acc" + k).events().get(0).sequence());
+                assertEquals(4, last.get(String.valueOf(k)).events().get(0).sequence());
+            }
+            // Too long for the cold tier: dropped and loaded again every time
+            assertEquals(4, loads.get(longKey));
+            assertEquals(101, last.get(longKey).runningBalance());
+            try (var files = Files.list(directory)) {
+                assertEquals(0, files.count(), "cold files left after shutdown");
+            }
+        }
+    }
+
+    private int fillCount;
+
+    /**
+     * Engine whose only worker blocks inside the release listener until released.
+     */
+    private OrbitDisruptor stalledEngine(BackpressurePolicy policy, CountDownLatch unblock) {
+        OrbitDisruptor stalled = new OrbitDisruptor(
+                8, 1, 1, ReleaseType.COUNT, release -> awaitQuietly(unblock),
+                null, 0, EvictionPolicy.NONE, null, PerformanceMode.STANDARD,
+                new EngineOptions()
+                        .backpressurePolicy(policy)
+                        .backpressureTimeout(java.time.Duration.ofMillis(20)));
+        stalled.start();
+        return stalled;
+    }
+
+    /**
+     * Publishes until the ring is full and returns the status of the first call that hit it.
+     */
+    private PublishStatus fillRing(OrbitDisruptor stalled) {
+        fillCount = 0;
+        PublishStatus status;
+        while ((status = stalled.tryCredit("spill", 1)) == PublishStatus.ACCEPTED && fillCount < 64) {
+            fillCount++;
+        }
+        return status;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void publishAlternating(String[] keys, int i) {
+        String key = keys[i & (keys.length - 1)];
+        if ((i & 1) == 0) {
+            engine.credit(key, 1_000_000L + i);
+        } else {
+            engine.debit(key, 1_000_000L + i);
+        }
+    }
 }
@@ -0,0 +1,129 @@
+package io.orbit.ledger.flow;
+
+import io.orbit.ledger.api.OrbitLedger;
+import io.orbit.ledger.model.LedgerCommand;
+import io.orbit.ledger.model.OrbitRelease;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the Flow ingestion and release adapters.
+ */
+class LedgerFlowTest {
+
+    @Test
+    @DisplayName("Commands flow in and releases flow out")
+    void endToEnd() throws Exception {
+        ReleasePublisher releases = new ReleasePublisher();
+        Map<String, Long> balances = new ConcurrentHashMap<>();
+        CountDownLatch releasesDone = new CountDownLatch(1);
+        releases.subscribe(new Flow.Subscriber<>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(1);
+            }
+
+            @Override
+            public void onNext(OrbitRelease release) {
+                balances.put(release.key(), release.runningBalance());
+                subscription.request(1);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                releasesDone.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                releasesDone.countDown();
+            }
+        });
+
+        OrbitLedger ledger = OrbitLedger.builder()
+                .bufferSize(64)
+                .threadCount(2)
+                .releaseThreshold(100)
+                .onRelease(releases)
+                .build();
+        ledger.start();
+
+        Map<String, Long> expected = new ConcurrentHashMap<>();
+        LedgerSubscriber subscriber = new LedgerSubscriber(ledger, 32, Duration.ofMillis(1), Duration.ofMillis(1));
+        try (SubmissionPublisher<LedgerCommand> source = new SubmissionPublisher<>()) {
+            source.subscribe(subscriber);
+            for (int i = 0; i < 10_000; i++) {
+                String key = "acc-" + (i % 10);
+                boolean debit = i % 3 == 0;
+                expected.merge(key, debit ? -i : (long) i, Long::sum);
+                source.submit(debit ? LedgerCommand.debit(key, i) : LedgerCommand.credit(key, i));
+            }
+        }
+        subscriber.completion().get(10, TimeUnit.SECONDS);
+        ledger.releaseAll();
+        ledger.shutdown();
+        releases.close();
+
+        assertTrue(releasesDone.await(5, TimeUnit.SECONDS));
+        assertEquals(10_000, subscriber.publishedCount());
+        assertEquals(expected, balances);
+    }
+
+    @Test
+    @DisplayName("Demand stops while the ring is full instead of blocking onNext")
+    void demandFollowsRingCapacity() throws Exception {
+        CountDownLatch unblock = new CountDownLatch(1);
+        OrbitLedger ledger = OrbitLedger.builder()
+                .bufferSize(8)
+                .threadCount(1)
+                .releaseThreshold(1)
+                .onRelease(release -> {
+                    try {
+                        unblock.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                })
+                .build();
+        ledger.start();
+
+        LedgerSubscriber subscriber = new LedgerSubscriber(ledger, 4, Duration.ofMillis(1), Duration.ofMillis(1));
+        SubmissionPublisher<LedgerCommand> source = new SubmissionPublisher<>();
+        source.subscribe(subscriber);
+        for (int i = 0; i < 100; i++) {
+            assertTrue(source.offer(LedgerCommand.credit("stalled", 1), null) >= 0, "source buffer overflow");
+        }
+
+        Thread.sleep(200);
+        assertTrue(subscriber.publishedCount() <= 8,
+                "published beyond ring capacity: " + subscriber.publishedCount());
+        assertTrue(source.estimateMaximumLag() > 0, "demand should have stopped");
+
+        unblock.countDown();
+        source.close();
+        subscriber.completion().get(10, TimeUnit.SECONDS);
+        assertEquals(100, subscriber.publishedCount());
+        ledger.shutdown();
+    }
+
+    @Test
+    @DisplayName("Commands reject non-posting types")
+    void commandValidation() {
+        assertThrows(NullPointerException.class, () -> LedgerCommand.credit(null, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new LedgerCommand("k", io.orbit.ledger.enums.LedgerType.RELEASE, 1));
+    }
+}
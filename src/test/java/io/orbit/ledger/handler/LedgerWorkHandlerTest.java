@@ -1,18 +1,30 @@
 package io.orbit.ledger.handler;
 
+import io.orbit.ledger.api.BalanceLoader;
+import io.orbit.ledger.api.LedgerClock;
 import io.orbit.ledger.api.OrbitReleaseListener;
+import io.orbit.ledger.api.Partitioner;
+import io.orbit.ledger.core.JournalPosting;
+import io.orbit.ledger.core.KeyStateMap;
 import io.orbit.ledger.core.LedgerKeyState;
 import io.orbit.ledger.core.LedgerRingEvent;
+import io.orbit.ledger.core.ManualLedgerClock;
+import io.orbit.ledger.core.WorkerResize;
 import io.orbit.ledger.enums.ReleaseType;
 import io.orbit.ledger.enums.EvictionPolicy;
 import io.orbit.ledger.enums.LedgerType;
+import io.orbit.ledger.model.JournalEntry;
 import io.orbit.ledger.model.OrbitRelease;
 import io.orbit.ledger.model.LedgerEvent;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -22,7 +34,7 @@ class LedgerWorkHandlerTest {
 
     @Test
     void shouldHandleCreditEvent() {
-        ConcurrentHashMap<String, LedgerKeyState> keyStates = new ConcurrentHashMap<>();
+        KeyStateMap keyStates = new KeyStateMap();
         LedgerWorkHandler handler = new LedgerWorkHandler(keyStates, 10, ReleaseType.COUNT, null, 0, 1,
                 null, 0, EvictionPolicy.NONE);
 
@@ -40,7 +52,7 @@ class LedgerWorkHandlerTest {
 
     @Test
     void shouldHandleDebitEvent() {
-        ConcurrentHashMap<String, LedgerKeyState> keyStates = new ConcurrentHashMap<>();
+        KeyStateMap keyStates = new KeyStateMap();
         LedgerWorkHandler handler = new LedgerWorkHandler(keyStates, 10, ReleaseType.COUNT, null, 0, 1,
                 null, 0, EvictionPolicy.NONE);
 
@@ -57,7 +69,7 @@ class LedgerWorkHandlerTest {
 
     @Test
     void shouldIgnoreEventForOtherWorker() {
-        ConcurrentHashMap<String, LedgerKeyState> keyStates = new ConcurrentHashMap<>();
+        KeyStateMap keyStates = new KeyStateMap();
         // Total workers 2. We are worker 0.
         LedgerWorkHandler handler = new LedgerWorkHandler(keyStates, 10, ReleaseType.COUNT, null, 0, 2,
                 null, 0, EvictionPolicy.NONE);
@@ -80,7 +92,7 @@ class LedgerWorkHandlerTest {
 
     @Test
     void shouldCommitWhenThresholdReached() {
-        ConcurrentHashMap<String, LedgerKeyState> keyStates = new ConcurrentHashMap<>();
+        KeyStateMap keyStates = new KeyStateMap();
         AtomicReference<OrbitRelease> commitRef = new AtomicReference<>();
         OrbitReleaseListener listener = commitRef::set;
 
@@ -117,7 +129,7 @@ class LedgerWorkHandlerTest {
 
     @Test
     void shouldHandleExplicitCommit() throws ExecutionException, InterruptedException {
-        ConcurrentHashMap<String, LedgerKeyState> keyStates = new ConcurrentHashMap<>();
+        KeyStateMap keyStates = new KeyStateMap();
         LedgerWorkHandler handler = new LedgerWorkHandler(keyStates, 10, ReleaseType.COUNT, null, 0, 1,
                 null, 0, EvictionPolicy.NONE);
 
@@ -148,7 +160,7 @@ class LedgerWorkHandlerTest {
 
     @Test
     void shouldIgnoreNullKey() {
-        ConcurrentHashMap<String, LedgerKeyState> keyStates = new ConcurrentHashMap<>();
+        KeyStateMap keyStates = new KeyStateMap();
         LedgerWorkHandler handler = new LedgerWorkHandler(keyStates, 10, ReleaseType.COUNT, null, 0, 1,
                 null, 0, EvictionPolicy.NONE);
 
@@ -162,7 +174,7 @@ class LedgerWorkHandlerTest {
 
     @Test
     void commitAllShouldCommitAllKeys() {
-        ConcurrentHashMap<String, LedgerKeyState> keyStates = new ConcurrentHashMap<>();
+        KeyStateMap keyStates = new KeyStateMap();
         AtomicReference<Integer> commitCount = new AtomicReference<>(0);
 
         LedgerWorkHandler handler = new LedgerWorkHandler(keyStates, 10, ReleaseType.COUNT,
@@ -188,7 +200,7 @@ class LedgerWorkHandlerTest {
 
     @Test
     void shouldHandleCommitFlushEvent() {
-        ConcurrentHashMap<String, LedgerKeyState> keyStates = new ConcurrentHashMap<>();
+        KeyStateMap keyStates = new KeyStateMap();
         AtomicReference<Integer> commitCount = new AtomicReference<>(0);
 
         LedgerWorkHandler handler = new LedgerWorkHandler(keyStates, 10, ReleaseType.COUNT,
@@ -196,7 +208,7 @@ class LedgerWorkHandlerTest {
                 null, 0, EvictionPolicy.NONE);
 
         // Setup state
-        LedgerKeyState state = keyStates.computeIfAbsent("user1", k -> new LedgerKeyState());
+        LedgerKeyState state = keyStates.getOrCreate("user1");
         state.initialize(0); // Initialize balance
         state.credit(50);
         state.addPendingEvent(1, LedgerType.CREDIT, 50, System.currentTimeMillis(), 50);
@@ -213,7 +225,7 @@ class LedgerWorkHandlerTest {
 
     @Test
     void shouldCommitWhenThresholdReachedWithMixedType() {
-        ConcurrentHashMap<String, LedgerKeyState> keyStates = new ConcurrentHashMap<>();
+        KeyStateMap keyStates = new KeyStateMap();
         AtomicReference<OrbitRelease> commitRef = new AtomicReference<>();
         OrbitReleaseListener listener = commitRef::set;
 
@@ -236,7 +248,7 @@ class LedgerWorkHandlerTest {
 
     @Test
     void shouldNotCommitWhenThresholdReachedWithTimeType() {
-        ConcurrentHashMap<String, LedgerKeyState> keyStates = new ConcurrentHashMap<>();
+        KeyStateMap keyStates = new KeyStateMap();
         AtomicReference<OrbitRelease> commitRef = new AtomicReference<>();
         OrbitReleaseListener listener = commitRef::set;
 
@@ -262,7 +274,7 @@ class LedgerWorkHandlerTest {
 
     @Test
     void shouldCompleteFutureWithNullWhenCommittingEmptyState() throws ExecutionException, InterruptedException {
-        ConcurrentHashMap<String, LedgerKeyState> keyStates = new ConcurrentHashMap<>();
+        KeyStateMap keyStates = new KeyStateMap();
         LedgerWorkHandler handler = new LedgerWorkHandler(keyStates, 10, ReleaseType.COUNT, null, 0, 1,
                 null, 0, EvictionPolicy.NONE);
 
@@ -282,7 +294,7 @@ class LedgerWorkHandlerTest {
 
     @Test
     void shouldLoadBalanceFromLoader() {
-        ConcurrentHashMap<String, LedgerKeyState> keyStates = new ConcurrentHashMap<>();
+        KeyStateMap keyStates = new KeyStateMap();
         AtomicReference<OrbitRelease> commitRef = new AtomicReference<>();
 
         // Use balance loader that returns 1000
@@ -303,7 +315,7 @@ class LedgerWorkHandlerTest {
 
     @Test
     void shouldEvictAfterCommit() {
-        ConcurrentHashMap<String, LedgerKeyState> keyStates = new ConcurrentHashMap<>();
+        KeyStateMap keyStates = new KeyStateMap();
 
         // Use AFTER_RELEASE eviction
         LedgerWorkHandler handler = new LedgerWorkHandler(keyStates, 10, ReleaseType.COUNT, null, 0, 1,
@@ -321,4 +333,240 @@ class LedgerWorkHandlerTest {
         // After commit, key should be evicted
         assertFalse(keyStates.containsKey("user1"));
     }
+
+    @Test
+    void shouldHandleNumericKeyEvents() {
+        KeyStateMap keyStates = new KeyStateMap();
+        AtomicReference<OrbitRelease> released = new AtomicReference<>();
+        BalanceLoader loader = new BalanceLoader() {
+            @Override
+            public long load(String key) {
+                throw new AssertionError("numeric key must use load(long)");
+            }
+
+            @Override
+            public long load(long key) {
+                return key * 10;
+            }
+        };
+        LedgerWorkHandler handler = new LedgerWorkHandler(keyStates, 2, ReleaseType.COUNT, released::set, 0, 1,
+                loader, 0, EvictionPolicy.AFTER_RELEASE);
+
+        LedgerRingEvent event = new LedgerRingEvent();
+        event.setNumeric(7L, LedgerType.CREDIT, 100);
+        handler.onEvent(event, 1, true);
+
+        assertTrue(keyStates.isEmpty(), "numeric keys must not touch the String map");
+        assertEquals(100, handler.getLongKeyStates().get(7L).getPendingDelta());
+
+        event.setNumeric(7L, LedgerType.DEBIT, 30);
+        handler.onEvent(event, 2, true);
+
+        OrbitRelease release = released.get();
+        assertNotNull(release);
+        assertEquals("7", release.key());
+        assertEquals(7L, release.numericKey());
+        assertEquals(70, release.delta());
+        assertEquals(140, release.runningBalance());
+        assertEquals(7L, release.events().get(1).numericKey());
+        assertFalse(handler.getLongKeyStates().containsKey(7L), "evicted after release");
+    }
+
+    @Test
+    void shouldShareStateBetweenInternedAndStringKey() {
+        KeyStateMap keyStates = new KeyStateMap();
+        AtomicReference<OrbitRelease> released = new AtomicReference<>();
+        LedgerWorkHandler handler = new LedgerWorkHandler(keyStates, 3, ReleaseType.COUNT, released::set, 0, 1,
+                null, 0, EvictionPolicy.AFTER_RELEASE);
+
+        LedgerRingEvent event = new LedgerRingEvent();
+        event.setInterned("user1", 100, LedgerType.CREDIT, 100);
+        handler.onEvent(event, 1, true);
+        event.set("user1", LedgerType.CREDIT, 50);
+        handler.onEvent(event, 2, true);
+
+        LedgerKeyState state = keyStates.get("user1");
+        assertEquals(150, state.getPendingDelta());
+
+        event.setInterned("user1", 100, LedgerType.DEBIT, 20);
+        handler.onEvent(event, 3, true);
+        assertEquals(130, released.get().delta());
+        assertFalse(keyStates.containsKey("user1"));
+        assertTrue(state.isEvicted());
+
+        // Cached state was evicted: the next event must land in a fresh map entry
+        event.setInterned("user1", 100, LedgerType.CREDIT, 7);
+        handler.onEvent(event, 4, true);
+        assertNotSame(state, keyStates.get("user1"));
+        assertEquals(7, keyStates.get("user1").getPendingDelta());
+    }
+
+    @Test
+    void shouldKeepInternedKeysApartAfterResize() {
+        KeyStateMap keyStates = new KeyStateMap();
+        LedgerWorkHandler handler = new LedgerWorkHandler(keyStates, 10, ReleaseType.COUNT, null, 0, 2,
+                null, 0, EvictionPolicy.NONE);
+        String own = keyForPartition(0, 2);
+        String moved = keyForPartition(1, 2);
+
+        LedgerRingEvent event = new LedgerRingEvent();
+        event.setInterned(own, 5, LedgerType.CREDIT, 100);
+        handler.onEvent(event, 1, true);
+        event.setResize(new WorkerResize(1, 1));
+        handler.onEvent(event, 2, true);
+
+        // Both keys were interned as id 5, one per original partition
+        event.setInterned(moved, 5, LedgerType.CREDIT, 7);
+        handler.onEvent(event, 3, true);
+        event.setInterned(own, 5, LedgerType.CREDIT, 1);
+        handler.onEvent(event, 4, true);
+        event.setInterned(moved, 5, LedgerType.DEBIT, 2);
+        handler.onEvent(event, 5, true);
+
+        assertEquals(101, keyStates.get(own).getPendingDelta());
+        assertEquals(5, keyStates.get(moved).getPendingDelta());
+    }
+
+    @Test
+    void shouldApplyOnlyOwnJournalLegs() throws Exception {
+        KeyStateMap keyStates = new KeyStateMap();
+        List<OrbitRelease> releases = new ArrayList<>();
+        LedgerWorkHandler handler = new LedgerWorkHandler(keyStates, 10, ReleaseType.COUNT, releases::add, 0, 2,
+                null, 0, EvictionPolicy.NONE);
+
+        String own = keyForPartition(0, 2);
+        String other = keyForPartition(1, 2);
+        JournalEntry entry = JournalEntry.of(JournalEntry.Leg.debit(own, 30), JournalEntry.Leg.credit(other, 30));
+        JournalPosting posting = new JournalPosting(entry, new int[] { 0, 1 }, 2);
+        // Stands in for worker 1 at the barrier
+        CompletableFuture<Void> otherWorker = CompletableFuture.runAsync(posting::arriveAndAwait);
+
+        LedgerRingEvent event = new LedgerRingEvent();
+        event.setJournal(posting);
+        handler.onEvent(event, 1, true);
+        otherWorker.get(5, java.util.concurrent.TimeUnit.SECONDS);
+
+        // Released after the barrier although below the threshold
+        assertEquals(1, releases.size());
+        assertEquals(own, releases.get(0).key());
+        assertEquals(-30, releases.get(0).delta());
+        assertEquals(0, keyStates.get(own).getPendingCount());
+        assertFalse(keyStates.containsKey(other));
+    }
+
+    @Test
+    void shouldIgnoreJournalOfOtherWorkers() {
+        KeyStateMap keyStates = new KeyStateMap();
+        LedgerWorkHandler handler = new LedgerWorkHandler(keyStates, 10, ReleaseType.COUNT, null, 0, 2,
+                null, 0, EvictionPolicy.NONE);
+
+        JournalEntry entry = JournalEntry.of(JournalEntry.Leg.debit("a", 1), JournalEntry.Leg.credit("b", 1));
+        LedgerRingEvent event = new LedgerRingEvent();
+        event.setJournal(new JournalPosting(entry, new int[] { 1, 1 }, 2));
+        handler.onEvent(event, 1, true);
+
+        assertTrue(keyStates.isEmpty());
+    }
+
+    @Test
+    void shouldEvictIdleKeysIncrementally() {
+        for (int offHeapKeyLength : new int[] { 0, 16 }) {
+            KeyStateMap keyStates = new KeyStateMap();
+            List<OrbitRelease> releases = new ArrayList<>();
+            Map<String, Integer> loads = new HashMap<>();
+            LedgerWorkHandler handler = new LedgerWorkHandler(keyStates, 100, ReleaseType.COUNT, releases::add, 0, 1,
+                    key -> {
+                        loads.merge(key, 1, Integer::sum);
+                        return 100;
+                    },
+                    0, EvictionPolicy.IDLE_TIMEOUT,
+                    new HandlerOptions().offHeapMaxKeyLength(offHeapKeyLength)
+                            .idleTimeout(Duration.ofSeconds(1)).maxKeysPerWorker(1_000_000));
+            ManualLedgerClock clock = LedgerClock.manual(0);
+            LedgerRingEvent event = new LedgerRingEvent(clock);
+
+            event.set("stale", LedgerType.CREDIT, 7);
+            handler.onEvent(event, 1, true);
+
+            // Traffic on other keys moves the cursor; "stale" is released, then evicted
+            clock.set(5_000);
+            for (int i = 0; i < 40; i++) {
+                event.set("k" + i, LedgerType.CREDIT, 1);
+                handler.onEvent(event, 2 + i, true);
+            }
+            assertFalse(holds(handler, keyStates, offHeapKeyLength, "stale"));
+            assertTrue(holds(handler, keyStates, offHeapKeyLength, "k39"));
+            assertEquals(1, releases.size());
+            assertEquals("stale", releases.get(0).key());
+            assertEquals(107L, releases.get(0).runningBalance());
+
+            event.set("stale", LedgerType.CREDIT, 1);
+            handler.onEvent(event, 50, true);
+            assertEquals(2, loads.get("stale"));
+
+            // Release-all sweeps every key
+            clock.set(5_999);
+            event.setCommitFlush();
+            handler.onEvent(event, 51, true);
+            assertTrue(holds(handler, keyStates, offHeapKeyLength, "k0"), "not idle for the timeout yet");
+            clock.set(6_000);
+            event.setCommitFlush();
+            handler.onEvent(event, 52, true);
+            assertEquals(0, offHeapKeyLength == 0 ? keyStates.size() : handler.getOffHeapStates().size());
+            assertEquals(42, releases.size());
+        }
+    }
+
+    @Test
+    void shouldBoundKeysWithClockEviction() {
+        for (int offHeapKeyLength : new int[] { 0, 16 }) {
+            KeyStateMap keyStates = new KeyStateMap();
+            Map<String, Long> released = new HashMap<>();
+            Map<String, Integer> loads = new HashMap<>();
+            LedgerWorkHandler handler = new LedgerWorkHandler(keyStates, 100, ReleaseType.COUNT,
+                    release -> released.merge(release.key(), release.delta(), Long::sum), 0, 1,
+                    key -> {
+                        loads.merge(key, 1, Integer::sum);
+                        return 0;
+                    },
+                    0, EvictionPolicy.MAX_KEYS,
+                    new HandlerOptions().offHeapMaxKeyLength(offHeapKeyLength)
+                            .idleTimeout(Duration.ofSeconds(1)).maxKeysPerWorker(20));
+            LedgerRingEvent event = new LedgerRingEvent();
+
+            int maxSize = 0;
+            for (int i = 0; i < 200; i++) {
+                event.set("k" + i, LedgerType.CREDIT, 1);
+                handler.onEvent(event, 2 * i, true);
+                event.set("hot", LedgerType.CREDIT, 1);
+                handler.onEvent(event, 2 * i + 1, true);
+                maxSize = Math.max(maxSize, offHeapKeyLength == 0 ? keyStates.size() : handler.getOffHeapStates().size());
+            }
+            // New keys arrive marked, so the hand may trail the bound by a few keys
+            assertTrue(maxSize <= 28, "worker held " + maxSize + " keys");
+            // The hot key is touched between two passes of the hand, so it is never evicted
+            assertEquals(1, loads.get("hot"));
+
+            event.setCommitFlush();
+            handler.onEvent(event, 400, true);
+            assertTrue((offHeapKeyLength == 0 ? keyStates.size() : handler.getOffHeapStates().size()) <= 20);
+            for (int i = 0; i < 200; i++) {
+                assertEquals(1L, released.get("k" + i), "k" + i + " released once before or after eviction");
+            }
+            assertEquals(200L, released.get("hot"));
+        }
+    }
+
+    private static boolean holds(LedgerWorkHandler handler, KeyStateMap keyStates, int offHeapKeyLength,
+            String key) {
+        return offHeapKeyLength == 0 ? keyStates.containsKey(key) : handler.getOffHeapStates().find(key) >= 0;
+    }
+
+    private static String keyForPartition(int partition, int totalWorkers) {
+        int i = 0;
+        while (Partitioner.MIXED.partition("k" + i, totalWorkers) != partition) {
+            i++;
+        }
+        return "k" + i;
+    }
 }
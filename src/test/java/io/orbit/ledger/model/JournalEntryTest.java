@@ -0,0 +1,61 @@
+package io.orbit.ledger.model;
+
+import io.orbit.ledger.enums.LedgerType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for JournalEntry.
+ */
+class JournalEntryTest {
+
+    @Test
+    void createBalancedEntry() {
+        JournalEntry entry = JournalEntry.of(
+                JournalEntry.Leg.debit("alice", 100),
+                JournalEntry.Leg.credit("bob", 60),
+                JournalEntry.Leg.credit("fees", 40));
+
+        assertEquals(3, entry.legs().size());
+        assertEquals(LedgerType.DEBIT, entry.legs().get(0).type());
+        assertEquals("fees", entry.legs().get(2).key());
+    }
+
+    @Test
+    void rejectUnbalancedEntry() {
+        assertThrows(IllegalArgumentException.class, () -> JournalEntry.of(
+                JournalEntry.Leg.debit("alice", 100),
+                JournalEntry.Leg.credit("bob", 99)));
+    }
+
+    @Test
+    void rejectSingleLeg() {
+        JournalEntry.Leg leg = JournalEntry.Leg.credit("alice", 1);
+        assertThrows(IllegalArgumentException.class, () -> JournalEntry.of(leg));
+    }
+
+    @Test
+    void rejectInvalidLegs() {
+        assertThrows(NullPointerException.class, () -> JournalEntry.Leg.credit(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> JournalEntry.Leg.debit("alice", -1));
+        assertThrows(IllegalArgumentException.class, () -> JournalEntry.Leg.credit("alice", 0));
+        assertThrows(IllegalArgumentException.class, () -> new JournalEntry.Leg("alice", LedgerType.RELEASE, 1));
+    }
+
+    @Test
+    void legsListShouldBeImmutableCopy() {
+        List<JournalEntry.Leg> legs = new ArrayList<>();
+        legs.add(JournalEntry.Leg.debit("alice", 5));
+        legs.add(JournalEntry.Leg.credit("bob", 5));
+
+        JournalEntry entry = new JournalEntry(legs);
+        legs.clear();
+
+        assertEquals(2, entry.legs().size());
+        assertThrows(UnsupportedOperationException.class, () -> entry.legs().add(JournalEntry.Leg.credit("x", 1)));
+    }
+}
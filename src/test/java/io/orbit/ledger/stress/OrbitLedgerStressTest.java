@@ -1,7 +1,12 @@
 package io.orbit.ledger.stress;
 
 import io.orbit.ledger.api.OrbitLedger;
+import io.orbit.ledger.core.KeyStateMap;
+import io.orbit.ledger.core.LedgerKeyState;
+import io.orbit.ledger.enums.DispatchMode;
+import io.orbit.ledger.enums.EvictionPolicy;
 import io.orbit.ledger.enums.PerformanceMode;
+import io.orbit.ledger.enums.ProducerMode;
 import io.orbit.ledger.enums.ReleaseType;
 import io.orbit.ledger.model.LedgerEvent;
 import io.orbit.ledger.model.OrbitRelease;
@@ -11,9 +16,11 @@ import org.junit.jupiter.params.provider.ValueSource;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
 import java.lang.management.ManagementFactory;
 import java.lang.management.MemoryMXBean;
 import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -21,8 +28,10 @@ import java.text.NumberFormat;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -113,6 +122,573 @@ public class OrbitLedgerStressTest {
         runStressTestWithReleaseType(orderCount, ReleaseType.HYBRID, Duration.ofMillis(50), PerformanceMode.MAXIMUM);
     }
 
+    @ParameterizedTest(name = "Stress test: {0} orders with COUNT on sharded rings")
+    @ValueSource(ints = { 1_000_000, 2_000_000, 3_000_000 })
+    void stressTest_COUNT_MAXIMUM_SHARDED(int orderCount) throws InterruptedException {
+        System.out.println("\n🔵 RELEASE TYPE: COUNT (threshold-based, sharded rings)");
+        runStressTestWithReleaseType(orderCount, ReleaseType.COUNT, null, PerformanceMode.MAXIMUM,
+                DispatchMode.SHARDED);
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // PRODUCER MODE BENCHMARK (MULTI sequencer vs producer lanes)
+    // ═══════════════════════════════════════════════════════════════
+
+    @Test
+    void benchmark_ProducerLanesVsMulti() throws InterruptedException {
+        int orderCount = 2_000_000;
+        int producers = 4;
+        System.out.println("\n🟣 PRODUCER MODE: " + producers + " producer threads, MULTI vs LANES");
+
+        double multi = runProducerBenchmark(orderCount, producers, ProducerMode.MULTI);
+        double lanes = runProducerBenchmark(orderCount, producers, ProducerMode.LANES);
+
+        System.out.printf("   MULTI: %,.0f ops/sec | LANES: %,.0f ops/sec | gain: %.2fx%n",
+                multi, lanes, lanes / multi);
+    }
+
+    /**
+     * Publishes the orders from several threads at once and validates balances.
+     * Each thread owns a disjoint set of accounts, so per-key order is that
+     * thread's order in both modes.
+     *
+     * @return throughput in ops/sec
+     */
+    private double runProducerBenchmark(int orderCount, int producers, ProducerMode producerMode)
+            throws InterruptedException {
+        resetState();
+        List<Order> orders = generateOrders(orderCount);
+        calculateExpectedBalances(orders);
+
+        List<List<Order>> perProducer = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            perProducer.add(new ArrayList<>(orderCount / producers + 1));
+        }
+        for (Order order : orders) {
+            perProducer.get(Math.floorMod(order.accountId.hashCode(), producers)).add(order);
+        }
+
+        expectedOrderCount = orderCount;
+        completionLatch = new CountDownLatch(1);
+        OrbitLedger ledger = OrbitLedger.builder()
+                .bufferSize(BUFFER_SIZE)
+                .threadCount(THREAD_COUNT)
+                .releaseThreshold(RELEASE_THRESHOLD)
+                .releaseType(ReleaseType.COUNT)
+                .performanceMode(PerformanceMode.MAXIMUM)
+                .producerMode(producerMode)
+                .producerLanes(producers)
+                .defaultBalance(0)
+                .onRelease(this::handleRelease)
+                .build();
+        ledger.start();
+
+        CountDownLatch startGate = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (List<Order> share : perProducer) {
+            Thread producer = new Thread(() -> {
+                ledger.registerProducer();
+                try {
+                    startGate.await();
+                    for (Order order : share) {
+                        if (order.isCredit) {
+                            ledger.credit(order.accountId, order.amount);
+                        } else {
+                            ledger.debit(order.accountId, order.amount);
+                        }
+                    }
+                    ledger.releaseAll();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    ledger.unregisterProducer();
+                    done.countDown();
+                }
+            });
+            producer.start();
+        }
+
+        long startTime = System.nanoTime();
+        startGate.countDown();
+        done.await(60, TimeUnit.SECONDS);
+        completionLatch.await(60, TimeUnit.SECONDS);
+        long durationMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        ledger.shutdown();
+
+        StressTestResult result = validateAndReport(orderCount, durationMs, ReleaseType.COUNT,
+                PerformanceMode.MAXIMUM);
+        assertEquals(0, result.balanceMismatches, "Balance mismatches detected with " + producerMode);
+        assertEquals(0, result.sequenceErrors, "Sequence errors detected with " + producerMode);
+        return result.throughputOpsPerSec;
+    }
+
+
+    // ═══════════════════════════════════════════════════════════════
+    // HOT KEY BENCHMARK (one account takes 40% of the traffic)
+    // ═══════════════════════════════════════════════════════════════
+
+    @Test
+    void benchmark_HotKeyStriping() throws InterruptedException {
+        int orderCount = 2_000_000;
+        int producers = 4;
+        System.out.println("\n🔴 HOT KEY: 40% of " + producers + " producers' orders on one account, plain vs striped");
+
+        double plain = runHotKeyBenchmark(orderCount, producers, 0);
+        double striped = runHotKeyBenchmark(orderCount, producers, THREAD_COUNT);
+
+        System.out.printf("   PLAIN: %,.0f ops/sec | STRIPED x%d: %,.0f ops/sec | gain: %.2fx%n",
+                plain, THREAD_COUNT, striped, striped / plain);
+    }
+
+    /**
+     * Sends 40% of the orders to one hot account, dealt to the producers
+     * round robin, and validates balances and sequences.
+     *
+     * @param stripes hot key stripes, or 0 to leave the key on one worker
+     * @return throughput in ops/sec
+     */
+    private double runHotKeyBenchmark(int orderCount, int producers, int stripes) throws InterruptedException {
+        resetState();
+        String hotAccount = "ACC_HOT";
+        List<Order> orders = new ArrayList<>(orderCount);
+        for (Order order : generateOrders(orderCount)) {
+            orders.add(order.ordinal() % 5 < 2
+                    ? new Order(order.ordinal(), hotAccount, order.isCredit(), order.amount())
+                    : order);
+        }
+        calculateExpectedBalances(orders);
+
+        expectedOrderCount = orderCount;
+        completionLatch = new CountDownLatch(1);
+        OrbitLedger.Builder builder = OrbitLedger.builder()
+                .bufferSize(BUFFER_SIZE)
+                .threadCount(THREAD_COUNT)
+                .releaseThreshold(RELEASE_THRESHOLD)
+                .releaseType(ReleaseType.COUNT)
+                .performanceMode(PerformanceMode.MAXIMUM)
+                .defaultBalance(0)
+                .onRelease(this::handleRelease);
+        if (stripes > 0) {
+            builder.hotKey(hotAccount, stripes);
+        }
+        OrbitLedger ledger = builder.build();
+        ledger.start();
+
+        CountDownLatch startGate = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            int first = p;
+            Thread producer = new Thread(() -> {
+                try {
+                    startGate.await();
+                    for (int i = first; i < orders.size(); i += producers) {
+                        Order order = orders.get(i);
+                        if (order.isCredit) {
+                            ledger.credit(order.accountId, order.amount);
+                        } else {
+                            ledger.debit(order.accountId, order.amount);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            producer.start();
+        }
+
+        long startTime = System.nanoTime();
+        startGate.countDown();
+        done.await(60, TimeUnit.SECONDS);
+        ledger.releaseAll();
+        completionLatch.await(60, TimeUnit.SECONDS);
+        long durationMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        ledger.shutdown();
+
+        StressTestResult result = validateAndReport(orderCount, durationMs, ReleaseType.COUNT,
+                PerformanceMode.MAXIMUM);
+        assertEquals(0, result.balanceMismatches, "Balance mismatches detected with " + stripes + " stripes");
+        assertEquals(0, result.sequenceErrors, "Sequence errors detected with " + stripes + " stripes");
+        return result.throughputOpsPerSec;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // WAIT STRATEGY BENCHMARK (publish-to-release latency and CPU per mode)
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Measures publish-to-release latency and engine CPU for every
+     * {@link PerformanceMode} at a steady, moderate rate.
+     * <p>
+     * Measured on a 1-core container (JDK 17, 2 workers, one producer at
+     * 10K events/sec, a release per event). CPU is engine CPU time over wall
+     * time, 1.00 = one core:
+     * </p>
+     * <pre>
+     * mode         p50      p99      p99.9    CPU load   CPU idle
+     * STANDARD     ~100us   ~8ms     ~12ms    ~0.95      ~0.05
+     * MAXIMUM      ~10us    ~0.3ms   ~1ms     ~0.90      ~1.00
+     * LOW_LATENCY  not measured: needs a core per worker plus one for the producer
+     * SLEEPING     ~8us     ~0.5ms   ~1ms     ~0.90      ~0.10
+     * PHASED       ~110us   ~1.2ms   ~4ms     ~0.90      ~0.07
+     * ADAPTIVE     ~10us    ~12ms    ~20ms    ~0.87      ~0.20
+     * </pre>
+     * <p>
+     * With a single core every waiting mode soaks up whatever the producer
+     * leaves, so load CPU says little there; idle CPU is the telling column.
+     * ADAPTIVE spends the first ~110ms of the idle half second stepping down
+     * from spinning to parking, and its spinning workers cost the producer
+     * its only core, hence the tail.
+     * </p>
+     */
+    @Test
+    void benchmark_PerformanceModeLatency() throws InterruptedException {
+        int workers = 2;
+        System.out.println("\n⏱️ WAIT STRATEGY: publish-to-release latency, " + workers + " workers");
+        runLatencyBenchmark(PerformanceMode.STANDARD, workers, false); // JIT warm-up
+        System.out.println("   mode         p50         p99         p99.9       CPU load   CPU idle");
+        for (PerformanceMode mode : PerformanceMode.values()) {
+            if (mode == PerformanceMode.LOW_LATENCY
+                    && Runtime.getRuntime().availableProcessors() <= workers) {
+                System.out.printf("   %-12s not measured: needs %d cores, have %d%n",
+                        mode, workers + 1, Runtime.getRuntime().availableProcessors());
+                continue;
+            }
+            runLatencyBenchmark(mode, workers, true);
+        }
+    }
+
+    /**
+     * Publishes up to one event every 100µs with a release per event, records the
+     * time from publish to release, then measures CPU for half a second idle.
+     * CPU is the engine's: process CPU minus the producer thread.
+     */
+    private void runLatencyBenchmark(PerformanceMode mode, int workers, boolean report) throws InterruptedException {
+        int warmup = 2_000;
+        int events = 20_000;
+        long intervalNs = 100_000;
+        long[] sentAt = new long[warmup + events];
+        long[] latencies = new long[warmup + events];
+        CountDownLatch released = new CountDownLatch(warmup + events);
+
+        OrbitLedger ledger = OrbitLedger.builder()
+                .bufferSize(1024)
+                .threadCount(workers)
+                .releaseThreshold(1)
+                .releaseType(ReleaseType.COUNT)
+                .performanceMode(mode)
+                .defaultBalance(0)
+                .onRelease(release -> {
+                    long now = System.nanoTime();
+                    for (LedgerEvent event : release.events()) {
+                        int i = (int) event.amount();
+                        latencies[i] = now - sentAt[i];
+                        released.countDown();
+                    }
+                })
+                .build();
+        ledger.start();
+
+        com.sun.management.OperatingSystemMXBean os =
+                (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long cpuStart = 0;
+        long wallStart = 0;
+        long next = System.nanoTime();
+        for (int i = 0; i < warmup + events; i++) {
+            if (i == warmup) {
+                cpuStart = os.getProcessCpuTime() - threads.getCurrentThreadCpuTime();
+                wallStart = System.nanoTime();
+            }
+            // Park rather than spin, so the producer does not take the workers' cores
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            sentAt[i] = System.nanoTime();
+            ledger.credit("LAT_" + (i & 1023), i);
+            next += intervalNs;
+        }
+        assertTrue(released.await(60, TimeUnit.SECONDS), mode + ": releases missing");
+        long engineCpu = os.getProcessCpuTime() - threads.getCurrentThreadCpuTime() - cpuStart;
+        double loadCpu = (double) engineCpu / (System.nanoTime() - wallStart);
+
+        long idleCpuStart = os.getProcessCpuTime();
+        long idleWallStart = System.nanoTime();
+        Thread.sleep(500);
+        double idleCpu = (double) (os.getProcessCpuTime() - idleCpuStart) / (System.nanoTime() - idleWallStart);
+        ledger.shutdown();
+        if (!report) {
+            return;
+        }
+
+        long[] measured = Arrays.copyOfRange(latencies, warmup, warmup + events);
+        Arrays.sort(measured);
+        System.out.printf("   %-12s %-11s %-11s %-11s %-10.2f %.2f%n", mode,
+                formatNanos(percentile(measured, 0.50)),
+                formatNanos(percentile(measured, 0.99)),
+                formatNanos(percentile(measured, 0.999)),
+                loadCpu, idleCpu);
+    }
+
+    private static long percentile(long[] sorted, double fraction) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * fraction))];
+    }
+
+    private static String formatNanos(long nanos) {
+        return nanos < 1_000_000 ? nanos / 1_000 + "us" : String.format("%.1fms", nanos / 1e6);
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // KEY MAP BENCHMARK (worker key lookups, ConcurrentHashMap vs KeyStateMap)
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Times the worker's per-event key lookup on one thread, as the worker
+     * does it: create on first sight, then look up and touch the state.
+     * <p>
+     * Measured on a 1-core container (JDK 17, 20M lookups; absolute figures
+     * varied 2x between runs, the ratios held):
+     * </p>
+     * <pre>
+     * keys     ConcurrentHashMap   KeyStateMap   KeyStateMap presized
+     * 16K      ~80 ns/op           ~35 ns/op     ~21 ns/op
+     * 1M       ~400 ns/op          ~345 ns/op    ~330 ns/op
+     * </pre>
+     * <p>
+     * With a million keys nearly every lookup misses the CPU cache, which
+     * costs either map the same; the gap there is CHM's node per entry.
+     * </p>
+     */
+    @Test
+    void benchmark_KeyStateMap() {
+        int lookups = 20_000_000;
+        System.out.println("\n🟤 KEY MAP: " + numberFormat.format(lookups) + " lookups per run");
+        for (int keyCount : new int[] { 1 << 14, 1 << 20 }) {
+            String[] keys = new String[keyCount];
+            for (int i = 0; i < keyCount; i++) {
+                keys[i] = "ACC_" + i;
+                keys[i].hashCode(); // cached, as on an event's key
+            }
+            // Warm up both, then measure
+            runKeyMapBenchmark(keys, lookups, 0);
+            double chm = runKeyMapBenchmark(keys, lookups, 0);
+            double open = runKeyMapBenchmark(keys, lookups, 1);
+            double presized = runKeyMapBenchmark(keys, lookups, 2);
+            System.out.printf("   %,9d keys | CHM: %.1f ns/op | KeyStateMap: %.1f ns/op | presized: %.1f ns/op%n",
+                    keyCount, chm, open, presized);
+        }
+    }
+
+    /**
+     * @param variant 0 = ConcurrentHashMap, 1 = KeyStateMap, 2 = KeyStateMap sized for all keys
+     * @return nanoseconds per lookup
+     */
+    private static double runKeyMapBenchmark(String[] keys, int lookups, int variant) {
+        ConcurrentHashMap<String, LedgerKeyState> chm = new ConcurrentHashMap<>();
+        KeyStateMap map = new KeyStateMap(variant == 2 ? keys.length : 0);
+        // Scattered but repeatable access, like accounts on a shared ring
+        int mask = keys.length - 1; // power of 2
+        long checksum = 0;
+        long startTime = System.nanoTime();
+        for (int i = 0; i < lookups; i++) {
+            String key = keys[(int) ((i * 0x9E3779B9L) & mask)];
+            LedgerKeyState state = variant == 0
+                    ? chm.computeIfAbsent(key, k -> new LedgerKeyState())
+                    : map.getOrCreate(key);
+            state.credit(1);
+            checksum += state.getPendingDelta();
+        }
+        long durationNs = System.nanoTime() - startTime;
+        assertTrue(checksum > 0);
+        return (double) durationNs / lookups;
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // KEY STATE BENCHMARK (heap held by 500K idle accounts, on vs off heap)
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Compares the heap left behind by idle accounts with on-heap and
+     * off-heap key state.
+     * <p>
+     * Measured on a 1-core container (JDK 17, 6 workers, 11-char keys, two
+     * events per account before one release):
+     * </p>
+     * <pre>
+     * state      heap retained      direct    time
+     * ON-HEAP    ~115 MB (~240 B)   0         ~8.1s
+     * OFF-HEAP   ~0                 ~230 MB   ~5.1s
+     * </pre>
+     * <p>
+     * Before pending events moved to the worker's shared arena, every
+     * on-heap key kept five arrays of 32 and retained ~670 MB (~1400 B) here.
+     * </p>
+     * <p>
+     * Direct memory is the slot tables plus the event arena at its high-water
+     * mark, which here holds every account's pending events at once.
+     * </p>
+     */
+    @Test
+    void benchmark_OffHeapKeyState() throws InterruptedException {
+        int accounts = 500_000;
+        System.out.println("\n🟣 KEY STATE: " + numberFormat.format(accounts) + " accounts kept after release");
+
+        runKeyStateBenchmark(accounts, 0);
+        runKeyStateBenchmark(accounts, 16);
+    }
+
+    /**
+     * Credits every account twice, releases everything and reports the heap
+     * still in use afterwards, which is mostly the retained key state.
+     *
+     * @param offHeapKeyLength longest off-heap key, or 0 for on-heap state
+     */
+    private void runKeyStateBenchmark(int accounts, int offHeapKeyLength) throws InterruptedException {
+        AtomicLong released = new AtomicLong();
+        AtomicLong balanceSum = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(1);
+        OrbitLedger.Builder builder = OrbitLedger.builder()
+                .bufferSize(BUFFER_SIZE)
+                .threadCount(THREAD_COUNT)
+                .releaseThreshold(RELEASE_THRESHOLD)
+                .releaseType(ReleaseType.COUNT)
+                .performanceMode(PerformanceMode.MAXIMUM)
+                .defaultBalance(0)
+                .onRelease(release -> {
+                    balanceSum.addAndGet(release.runningBalance());
+                    if (released.addAndGet(release.eventCount()) == 2L * accounts) {
+                        done.countDown();
+                    }
+                });
+        if (offHeapKeyLength > 0) {
+            builder.offHeapKeyState(offHeapKeyLength);
+        }
+        OrbitLedger ledger = builder.build();
+        System.gc();
+        Thread.sleep(100);
+        long before = getHeapUsed();
+        long directBefore = getDirectUsed();
+        ledger.start();
+
+        long startTime = System.nanoTime();
+        for (int i = 0; i < accounts; i++) {
+            ledger.credit(String.format("ACC_%07d", i), 3);
+        }
+        for (int i = 0; i < accounts; i++) {
+            ledger.debit(String.format("ACC_%07d", i), 1);
+        }
+        ledger.releaseAll();
+        assertTrue(done.await(120, TimeUnit.SECONDS), "releases missing");
+        long durationMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+
+        System.gc();
+        Thread.sleep(100);
+        long retained = Math.max(0, getHeapUsed() - before);
+        long direct = getDirectUsed() - directBefore;
+        ledger.shutdown();
+        assertEquals(2L * accounts, balanceSum.get());
+
+        System.out.printf("   %-9s heap retained: %,d MB (%d bytes/account) | direct: %,d MB | %,d ms%n",
+                offHeapKeyLength > 0 ? "OFF-HEAP" : "ON-HEAP",
+                retained >> 20, retained / accounts, direct >> 20, durationMs);
+    }
+
+    private static long getDirectUsed() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> pool.getName().equals("direct"))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+
+    // ═══════════════════════════════════════════════════════════════
+    // COLD TIER BENCHMARK (returning evicted accounts: loader vs mapped file)
+    // ═══════════════════════════════════════════════════════════════
+
+    /**
+     * Brings evicted accounts back, once through the balance loader and once
+     * through the memory-mapped cold tier.
+     * <p>
+     * Measured on a 1-core container (JDK 17, 6 workers, AFTER_RELEASE,
+     * loader simulating a 20 µs database round-trip, 100K accounts, one
+     * credit and one release-all per round, 4 rounds):
+     * </p>
+     * <pre>
+     * tier       loader calls   returning rounds
+     * LOADER     400,000        ~7.6s
+     * COLD FILE  100,000        ~1.2s
+     * </pre>
+     * <p>
+     * The first round loads every account either way; afterwards the cold
+     * tier reads the balance back from a mapped page instead.
+     * </p>
+     */
+    @Test
+    void benchmark_ColdKeyState() throws Exception {
+        int accounts = 100_000;
+        System.out.println("\n🧊 COLD TIER: " + numberFormat.format(accounts) + " accounts evicted after every release");
+
+        runColdTierBenchmark(accounts, false);
+        runColdTierBenchmark(accounts, true);
+    }
+
+    private void runColdTierBenchmark(int accounts, boolean coldTier) throws Exception {
+        int rounds = 4;
+        AtomicLong loads = new AtomicLong();
+        AtomicLong released = new AtomicLong();
+        AtomicLong balanceSum = new AtomicLong();
+        Map<String, Long> database = new ConcurrentHashMap<>();
+        Path directory = Files.createTempDirectory("orbit-cold");
+        OrbitLedger.Builder builder = OrbitLedger.builder()
+                .bufferSize(BUFFER_SIZE)
+                .threadCount(THREAD_COUNT)
+                .releaseThreshold(RELEASE_THRESHOLD)
+                .releaseType(ReleaseType.COUNT)
+                .performanceMode(PerformanceMode.MAXIMUM)
+                .evictionPolicy(EvictionPolicy.AFTER_RELEASE)
+                .balanceLoader(key -> {
+                    loads.incrementAndGet();
+                    long until = System.nanoTime() + 20_000; // database round-trip
+                    while (System.nanoTime() < until) {
+                        Thread.onSpinWait();
+                    }
+                    return database.getOrDefault(key, 0L);
+                })
+                .onRelease(release -> {
+                    database.put(release.key(), release.runningBalance());
+                    released.addAndGet(release.eventCount());
+                    balanceSum.addAndGet(release.runningBalance());
+                });
+        if (coldTier) {
+            builder.coldKeyState(directory, 16);
+        }
+        OrbitLedger ledger = builder.build();
+        ledger.start();
+
+        long returningNs = 0;
+        for (int round = 0; round < rounds; round++) {
+            long roundStart = System.nanoTime();
+            for (int i = 0; i < accounts; i++) {
+                ledger.credit(String.format("ACC_%07d", i), 1);
+            }
+            ledger.releaseAll();
+            long expected = (long) (round + 1) * accounts;
+            while (released.get() < expected) {
+                LockSupport.parkNanos(100_000);
+            }
+            if (round > 0) {
+                returningNs += System.nanoTime() - roundStart;
+            }
+        }
+        ledger.shutdown();
+        Files.delete(directory);
+
+        // Running balances 1..rounds per account
+        assertEquals((long) accounts * rounds * (rounds + 1) / 2, balanceSum.get());
+        System.out.printf("   %-9s loader calls: %,d | returning rounds: %,d ms%n",
+                coldTier ? "COLD FILE" : "LOADER", loads.get(), TimeUnit.NANOSECONDS.toMillis(returningNs));
+    }
 
     // ═══════════════════════════════════════════════════════════════
     // CSV GENERATION UTILITIES
@@ -369,6 +945,17 @@ public class OrbitLedgerStressTest {
      */
     public void runStressTestWithReleaseType(int orderCount, ReleaseType releaseType,
             java.time.Duration interval, PerformanceMode performanceMode) throws InterruptedException {
+        runStressTestWithReleaseType(orderCount, releaseType, interval, performanceMode, DispatchMode.MULTICAST);
+    }
+
+    /**
+     * Runs the complete stress test with an explicit dispatch mode.
+     *
+     * @param dispatchMode MULTICAST or SHARDED ring layout
+     */
+    public void runStressTestWithReleaseType(int orderCount, ReleaseType releaseType,
+            java.time.Duration interval, PerformanceMode performanceMode,
+            DispatchMode dispatchMode) throws InterruptedException {
         // Reset state
         resetState();
 
@@ -376,6 +963,7 @@ public class OrbitLedgerStressTest {
         System.out.println("  ORBIT LEDGER STRESS TEST");
         System.out.println("  Orders: " + numberFormat.format(orderCount) +
                 " | ReleaseType: " + releaseType +
+                " | Dispatch: " + dispatchMode +
                 (interval != null ? " | Interval: " + interval.toMillis() + "ms" : ""));
         System.out.println("═".repeat(70));
 
@@ -404,6 +992,7 @@ public class OrbitLedgerStressTest {
                 .releaseThreshold(RELEASE_THRESHOLD)
                 .releaseType(releaseType)
                 .performanceMode(performanceMode)
+                .dispatchMode(dispatchMode)
                 .defaultBalance(0)
                 .onRelease(this::handleRelease);
 